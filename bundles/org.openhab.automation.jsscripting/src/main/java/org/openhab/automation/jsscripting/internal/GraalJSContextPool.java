@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of {@link PreparedContext}s, so that script engines (for script files, UI rules and transformations) don't
+ * need to wait for a new context to be created.
+ *
+ * Contexts are borrowed and never returned, as they are bound to the script using them afterwards. Instead, each
+ * borrowed context is replaced in the background. If the pool was empty, an additional context is prepared, so that
+ * the pool grows (up to its maximum size) while many scripts are loaded, e.g. on startup. Contexts exceeding the
+ * minimum size of the pool are closed once they have been idle for the idle timeout.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class GraalJSContextPool {
+    private final Logger logger = LoggerFactory.getLogger(GraalJSContextPool.class);
+
+    private final Supplier<PreparedContext> contextFactory;
+    private final ScheduledExecutorService executor;
+
+    // the most recently prepared contexts are at the end
+    private final Deque<PreparedContext> idleContexts = new ArrayDeque<>();
+    private int pendingContexts;
+    private int minSize;
+    private int maxSize;
+    private long idleTimeoutMillis;
+    private boolean closed;
+    private @Nullable ScheduledFuture<?> evictionJob;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param contextFactory creates a new context
+     * @param executor the executor to prepare contexts and evict idle ones on
+     */
+    public GraalJSContextPool(Supplier<PreparedContext> contextFactory, ScheduledExecutorService executor) {
+        this.contextFactory = contextFactory;
+        this.executor = executor;
+    }
+
+    /**
+     * Changes the size of the pool.
+     *
+     * @param minSize the number of contexts which are always kept prepared
+     * @param maxSize the maximum number of idle contexts, 0 to disable the pool
+     * @param idleTimeoutMillis the time after which idle contexts exceeding the minimum size are closed
+     */
+    public void configure(int minSize, int maxSize, long idleTimeoutMillis) {
+        List<PreparedContext> evicted = new ArrayList<>();
+        synchronized (this) {
+            this.maxSize = Math.max(maxSize, 0);
+            this.minSize = Math.min(Math.max(minSize, 0), this.maxSize);
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            while (idleContexts.size() > this.maxSize) {
+                evicted.add(idleContexts.removeFirst());
+            }
+
+            ScheduledFuture<?> evictionJob = this.evictionJob;
+            if (evictionJob != null) {
+                evictionJob.cancel(false);
+                this.evictionJob = null;
+            }
+            if (!closed && this.maxSize > this.minSize && idleTimeoutMillis > 0) {
+                long interval = Math.max(idleTimeoutMillis / 2, 1000);
+                this.evictionJob = executor.scheduleWithFixedDelay(this::evictIdleContexts, interval, interval,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+        evicted.forEach(this::closeContext);
+        prepareContexts(0);
+    }
+
+    /**
+     * Takes a prepared context from the pool, or creates a new one if the pool is empty.
+     *
+     * @return the context, to be used by a single script engine
+     */
+    public PreparedContext borrow() {
+        PreparedContext context;
+        synchronized (this) {
+            context = idleContexts.pollLast();
+        }
+        if (context != null) {
+            hits.incrementAndGet();
+            prepareContexts(1);
+            return context;
+        }
+
+        misses.incrementAndGet();
+        // scripts are being loaded faster than contexts are prepared, so grow the pool
+        prepareContexts(2);
+        return contextFactory.get();
+    }
+
+    private void prepareContexts(int requested) {
+        int count;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            int available = idleContexts.size() + pendingContexts;
+            count = Math.min(Math.max(requested, minSize - available), maxSize - available);
+            if (count <= 0) {
+                return;
+            }
+            pendingContexts += count;
+        }
+        for (int i = 0; i < count; i++) {
+            executor.execute(this::prepareContext);
+        }
+    }
+
+    private void prepareContext() {
+        PreparedContext context;
+        try {
+            context = contextFactory.get();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to prepare a JavaScript context: {}", e.getMessage());
+            synchronized (this) {
+                pendingContexts--;
+            }
+            return;
+        }
+
+        boolean added = false;
+        synchronized (this) {
+            pendingContexts--;
+            if (!closed && idleContexts.size() < maxSize) {
+                idleContexts.addLast(context);
+                added = true;
+            }
+        }
+        if (!added) {
+            closeContext(context);
+        }
+    }
+
+    private void evictIdleContexts() {
+        List<PreparedContext> evicted = new ArrayList<>();
+        long idleSince = System.currentTimeMillis() - idleTimeoutMillis;
+        synchronized (this) {
+            while (idleContexts.size() > minSize) {
+                PreparedContext oldest = idleContexts.getFirst();
+                if (oldest.getCreatedMillis() > idleSince) {
+                    break;
+                }
+                evicted.add(idleContexts.removeFirst());
+            }
+        }
+        if (!evicted.isEmpty()) {
+            logger.debug("Closing {} idle JavaScript contexts", evicted.size());
+            evicted.forEach(this::closeContext);
+        }
+    }
+
+    private void closeContext(PreparedContext context) {
+        try {
+            context.close();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to close JavaScript context: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of prepared contexts waiting to be used
+     */
+    public synchronized int getIdleCount() {
+        return idleContexts.size();
+    }
+
+    /**
+     * @return the number of contexts taken from the pool
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of contexts created on demand, because the pool was empty
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Closes all idle contexts, and stops preparing new ones.
+     */
+    public void close() {
+        List<PreparedContext> evicted;
+        synchronized (this) {
+            closed = true;
+            ScheduledFuture<?> evictionJob = this.evictionJob;
+            if (evictionJob != null) {
+                evictionJob.cancel(false);
+                this.evictionJob = null;
+            }
+            evicted = new ArrayList<>(idleContexts);
+            idleContexts.clear();
+        }
+        evicted.forEach(this::closeContext);
+    }
+}
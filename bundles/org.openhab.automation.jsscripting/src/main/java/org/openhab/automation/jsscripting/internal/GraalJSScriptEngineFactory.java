@@ -23,13 +23,19 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.automation.jsscripting.internal.fs.watch.JSDependencyTracker;
 import org.openhab.core.automation.module.script.ScriptDependencyTracker;
 import org.openhab.core.automation.module.script.ScriptEngineFactory;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 
 import com.oracle.truffle.js.scriptengine.GraalJSEngineFactory;
 
@@ -38,6 +44,7 @@ import com.oracle.truffle.js.scriptengine.GraalJSEngineFactory;
  *
  * @author Jonathan Gilbert - Initial contribution
  * @author Dan Cunningham - Script injections
+ * @author Cody Cutrer - Pool of prepared contexts, metrics of the script locks
  */
 @Component(service = ScriptEngineFactory.class, configurationPid = "org.openhab.jsscripting", property = Constants.SERVICE_PID
         + "=org.openhab.jsscripting")
@@ -46,6 +53,10 @@ import com.oracle.truffle.js.scriptengine.GraalJSEngineFactory;
 public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final String CFG_INJECTION_ENABLED = "injectionEnabled";
     private static final String CFG_INJECTION_CACHING_ENABLED = "injectionCachingEnabled";
+    private static final String CFG_CONTEXT_POOL_MIN_SIZE = "contextPoolMinSize";
+    private static final String CFG_CONTEXT_POOL_MAX_SIZE = "contextPoolMaxSize";
+    private static final String CFG_CONTEXT_POOL_IDLE_TIMEOUT = "contextPoolIdleTimeout";
+    private static final String THREAD_POOL_NAME = "jsscripting";
 
     private static final GraalJSEngineFactory factory = new GraalJSEngineFactory();
 
@@ -61,17 +72,24 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private boolean injectionEnabled = true;
     private boolean injectionCachingEnabled = true;
 
-    private final JSScriptServiceUtil jsScriptServiceUtil;
     private final JSDependencyTracker jsDependencyTracker;
+    private final GraalJSContextPool contextPool;
+    private final AddonMetrics metrics = new AddonMetrics();
 
     @Activate
     public GraalJSScriptEngineFactory(final @Reference JSScriptServiceUtil jsScriptServiceUtil,
             final @Reference JSDependencyTracker jsDependencyTracker, Map<String, Object> config) {
         this.jsDependencyTracker = jsDependencyTracker;
-        this.jsScriptServiceUtil = jsScriptServiceUtil;
+        this.contextPool = new GraalJSContextPool(() -> new PreparedContext(jsScriptServiceUtil, jsDependencyTracker),
+                ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME));
         modified(config);
     }
 
+    @Deactivate
+    protected void deactivate() {
+        contextPool.close();
+    }
+
     @Override
     public List<String> getScriptTypes() {
         return scriptTypes;
@@ -87,8 +105,9 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         if (!scriptTypes.contains(scriptType)) {
             return null;
         }
-        return new DebuggingGraalScriptEngine<>(new OpenhabGraalJSScriptEngine(injectionEnabled,
-                injectionCachingEnabled, jsScriptServiceUtil, jsDependencyTracker));
+        return new DebuggingGraalScriptEngine<>(
+                new OpenhabGraalJSScriptEngine(injectionEnabled, injectionCachingEnabled, contextPool.borrow(),
+                        contextPool::borrow, metrics));
     }
 
     @Override
@@ -96,10 +115,22 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         return jsDependencyTracker;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+    }
+
     @Modified
     protected void modified(Map<String, ?> config) {
         this.injectionEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_ENABLED), Boolean.class, true);
         this.injectionCachingEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_CACHING_ENABLED),
                 Boolean.class, true);
+        contextPool.configure(ConfigParser.valueAsOrElse(config.get(CFG_CONTEXT_POOL_MIN_SIZE), Integer.class, 0),
+                ConfigParser.valueAsOrElse(config.get(CFG_CONTEXT_POOL_MAX_SIZE), Integer.class, 4),
+                ConfigParser.valueAsOrElse(config.get(CFG_CONTEXT_POOL_IDLE_TIMEOUT), Integer.class, 300) * 1000L);
     }
 }
@@ -17,26 +17,35 @@ import java.util.Map;
 import java.util.concurrent.locks.Lock;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.automation.jsscripting.internal.threading.IsolatedCallbacks;
+import org.openhab.automation.jsscripting.internal.threading.SharedState;
 import org.openhab.automation.jsscripting.internal.threading.ThreadsafeTimers;
 
 /**
  * Abstraction layer to collect all features injected into the JS runtime during the context creation.
  *
  * @author Florian Hotze - Initial contribution
+ * @author Cody Cutrer - Isolated callbacks and shared state
  */
 @NonNullByDefault
 public class JSRuntimeFeatures {
     /**
      * All elements of this Map are injected into the JS runtime using their key as the name.
      */
+    static final String SHARED_STATE = "SharedState";
+
     private final Map<String, Object> features = new HashMap<>();
     public final ThreadsafeTimers threadsafeTimers;
+    public final IsolatedCallbacks isolatedCallbacks = new IsolatedCallbacks();
+    public final SharedState sharedState = new SharedState();
 
     JSRuntimeFeatures(Lock lock, JSScriptServiceUtil jsScriptServiceUtil) {
         this.threadsafeTimers = new ThreadsafeTimers(lock, jsScriptServiceUtil.getScriptExecution(),
                 jsScriptServiceUtil.getScheduler());
 
         features.put("ThreadsafeTimers", threadsafeTimers);
+        features.put("IsolatedCallbacks", isolatedCallbacks);
+        features.put(SHARED_STATE, sharedState);
     }
 
     /**
@@ -54,5 +63,7 @@ public class JSRuntimeFeatures {
      */
     public void close() {
         threadsafeTimers.clearAll();
+        isolatedCallbacks.close();
+        sharedState.clear();
     }
 }
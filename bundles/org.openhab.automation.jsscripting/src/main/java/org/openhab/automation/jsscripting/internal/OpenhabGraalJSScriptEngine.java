@@ -35,9 +35,9 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.script.ScriptContext;
 import javax.script.ScriptException;
@@ -53,14 +53,20 @@ import org.openhab.automation.jsscripting.internal.fs.PrefixedSeekableByteChanne
 import org.openhab.automation.jsscripting.internal.fs.ReadOnlySeekableByteArrayChannel;
 import org.openhab.automation.jsscripting.internal.fs.watch.JSDependencyTracker;
 import org.openhab.automation.jsscripting.internal.scriptengine.InvocationInterceptingScriptEngineWithInvocableAndCompilableAndAutoCloseable;
+import org.openhab.automation.jsscripting.internal.threading.IsolatedContext;
+import org.openhab.automation.jsscripting.internal.threading.MeteredLock;
+import org.openhab.automation.jsscripting.internal.threading.SharedState;
 import org.openhab.core.automation.module.script.ScriptExtensionAccessor;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.types.QuantityType;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
 
+import io.micrometer.core.instrument.Tags;
+
 /**
  * GraalJS ScriptEngine implementation
  *
@@ -69,12 +75,13 @@ import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
  * @author Florian Hotze - Create lock object for multi-thread synchronization; Inject the {@link JSRuntimeFeatures}
  *         into the JS context; Fix memory leak caused by HostObject by making HostAccess reference static; Switch to
  *         {@link Lock} for multi-thread synchronization; globals and openhab-js injection code caching
+ * @author Cody Cutrer - Use {@link PreparedContext}s; Isolated contexts and lock statistics
  */
 public class OpenhabGraalJSScriptEngine
         extends InvocationInterceptingScriptEngineWithInvocableAndCompilableAndAutoCloseable<GraalJSScriptEngine>
-        implements Lock {
+        implements Lock, IsolatedContext {
 
-    private static final Source GLOBAL_SOURCE;
+    static final Source GLOBAL_SOURCE;
     static {
         try {
             GLOBAL_SOURCE = Source.newBuilder("js", getFileAsReader("node_modules/@jsscripting-globals.js"),
@@ -97,6 +104,7 @@ public class OpenhabGraalJSScriptEngine
     private static final String OPENHAB_JS_INJECTION_CODE = "Object.assign(this, require('openhab'));";
 
     private static final String REQUIRE_WRAPPER_NAME = "__wraprequire__";
+    private static final String METRIC_PREFIX = "openhab.jsscripting.";
     /** Final CommonJS search path for our library */
     private static final Path NODE_DIR = Paths.get("node_modules");
     /** Shared Polyglot {@link Engine} across all instances of {@link OpenhabGraalJSScriptEngine} */
@@ -134,12 +142,19 @@ public class OpenhabGraalJSScriptEngine
     private final Logger logger = LoggerFactory.getLogger(OpenhabGraalJSScriptEngine.class);
 
     /** {@link Lock} synchronization of multi-thread access */
-    private final Lock lock = new ReentrantLock();
+    private final MeteredLock lock;
+    private final AddonMetrics metrics;
+    private @Nullable AddonMetrics.MeterBinder meterBinder;
     private final JSRuntimeFeatures jsRuntimeFeatures;
+    private final PreparedContext preparedContext;
+    private final Supplier<PreparedContext> contextFactory;
+    /** The state shared with the isolated contexts of the script */
+    private SharedState sharedState;
 
     // these fields start as null because they are populated on first use
-    private @Nullable Consumer<String> scriptDependencyListener;
     private String engineIdentifier; // this field is very helpful for debugging, please do not remove it
+    private ScriptExtensionAccessor scriptExtensionAccessor;
+    private @Nullable Consumer<String> scriptDependencyListener;
 
     private boolean initialized = false;
     private final boolean injectionEnabled;
@@ -148,15 +163,35 @@ public class OpenhabGraalJSScriptEngine
     /**
      * Creates an implementation of ScriptEngine {@code (& Invocable)}, wrapping the contained engine,
      * that tracks the script lifecycle and provides hooks for scripts to do so too.
+     * The context of the engine is prepared in advance, usually by the {@link GraalJSContextPool}.
+     *
+     * @param preparedContext the context of the engine
+     * @param contextFactory provides the contexts of the isolated callbacks of the script
+     * @param metrics registers the meters of the lock once the script identifier is known
      */
     public OpenhabGraalJSScriptEngine(boolean injectionEnabled, boolean injectionCachingEnabled,
-            JSScriptServiceUtil jsScriptServiceUtil, JSDependencyTracker jsDependencyTracker) {
-        super(null); // delegate depends on fields not yet initialised, so we cannot set it immediately
+            PreparedContext preparedContext, Supplier<PreparedContext> contextFactory, AddonMetrics metrics) {
+        super(preparedContext.getEngine());
+        this.metrics = metrics;
         this.injectionEnabled = injectionEnabled;
         this.injectionCachingEnabled = injectionCachingEnabled;
-        this.jsRuntimeFeatures = jsScriptServiceUtil.getJSRuntimeFeatures(lock);
+        this.preparedContext = preparedContext;
+        this.contextFactory = contextFactory;
+        this.lock = preparedContext.getLock();
+        this.jsRuntimeFeatures = preparedContext.getJSRuntimeFeatures();
+        this.sharedState = jsRuntimeFeatures.sharedState;
+    }
 
-        delegate = GraalJSScriptEngine.create(ENGINE,
+    /**
+     * Creates the GraalJS script engine wrapped by a {@link PreparedContext}.
+     *
+     * @param jsDependencyTracker the dependency tracker providing the library path
+     * @param scriptDependencyListener provides the dependency listener of the script, once it is known
+     * @return the script engine
+     */
+    static GraalJSScriptEngine createDelegate(JSDependencyTracker jsDependencyTracker,
+            Supplier<@Nullable Consumer<String>> scriptDependencyListener) {
+        return GraalJSScriptEngine.create(ENGINE,
                 Context.newBuilder("js").allowExperimentalOptions(true).allowAllAccess(true)
                         .allowHostAccess(HOST_ACCESS)
                         .option("js.commonjs-require-cwd", jsDependencyTracker.getLibraryPath().toString())
@@ -166,12 +201,12 @@ public class OpenhabGraalJSScriptEngine
                         .option("js.ecmascript-version", "2022") // If Nashorn compat is enabled, it will enforce ES5
                                                                  // compatibility, we want ECMA2022
                         .option("js.commonjs-require", "true") // Enable CommonJS module support
-                        .hostClassLoader(getClass().getClassLoader())
+                        .hostClassLoader(OpenhabGraalJSScriptEngine.class.getClassLoader())
                         .fileSystem(new DelegatingFileSystem(FileSystems.getDefault().provider()) {
                             @Override
                             public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options,
                                     FileAttribute<?>... attrs) throws IOException {
-                                Consumer<String> localScriptDependencyListener = scriptDependencyListener;
+                                Consumer<String> localScriptDependencyListener = scriptDependencyListener.get();
                                 if (localScriptDependencyListener != null) {
                                     localScriptDependencyListener.accept(path.toString());
                                 }
@@ -249,12 +284,18 @@ public class OpenhabGraalJSScriptEngine
             throw new IllegalStateException("Failed to retrieve engine identifier from engine bindings");
         }
         this.engineIdentifier = localEngineIdentifier;
+        lock.setName(localEngineIdentifier);
+        AddonMetrics.MeterBinder meterBinder = lock.meterBinder(METRIC_PREFIX + "lock",
+                Tags.of("script", localEngineIdentifier));
+        this.meterBinder = meterBinder;
+        metrics.add(meterBinder);
 
         ScriptExtensionAccessor scriptExtensionAccessor = (ScriptExtensionAccessor) ctx
                 .getAttribute(CONTEXT_KEY_EXTENSION_ACCESSOR);
         if (scriptExtensionAccessor == null) {
             throw new IllegalStateException("Failed to retrieve script extension accessor from engine bindings");
         }
+        this.scriptExtensionAccessor = scriptExtensionAccessor;
 
         Consumer<String> localScriptDependencyListener = (Consumer<String>) ctx
                 .getAttribute(CONTEXT_KEY_DEPENDENCY_LISTENER);
@@ -262,7 +303,9 @@ public class OpenhabGraalJSScriptEngine
             logger.warn(
                     "Failed to retrieve script script dependency listener from engine bindings. Script dependency tracking will be disabled.");
         }
-        scriptDependencyListener = localScriptDependencyListener;
+        preparedContext.setScriptDependencyListener(localScriptDependencyListener);
+        this.scriptDependencyListener = localScriptDependencyListener;
+        jsRuntimeFeatures.isolatedCallbacks.setContextFactory(this::createIsolatedContext);
 
         ScriptExtensionModuleProvider scriptExtensionModuleProvider = new ScriptExtensionModuleProvider(
                 scriptExtensionAccessor, lock);
@@ -274,17 +317,10 @@ public class OpenhabGraalJSScriptEngine
         delegate.getBindings(ScriptContext.ENGINE_SCOPE).put(REQUIRE_WRAPPER_NAME, wrapRequireFn);
         delegate.put("require", wrapRequireFn.apply((Function<Object[], Object>) delegate.get("require")));
 
-        // Injections into the JS runtime
-        jsRuntimeFeatures.getFeatures().forEach((key, obj) -> {
-            logger.debug("Injecting {} into the JS runtime...", key);
-            delegate.put(key, obj);
-        });
-
+        // the runtime features and the global script were already injected by the PreparedContext
         initialized = true;
 
         try {
-            logger.debug("Evaluating cached global script...");
-            delegate.getPolyglotContext().eval(GLOBAL_SOURCE);
             if (this.injectionEnabled) {
                 if (this.injectionCachingEnabled) {
                     logger.debug("Evaluating cached openhab-js injection...");
@@ -313,8 +349,49 @@ public class OpenhabGraalJSScriptEngine
         return super.afterThrowsInvocation(e);
     }
 
+    /**
+     * Creates an engine for an isolated callback of this script, with its own context and lock. It shares the
+     * {@link SharedState} and the script extensions of this engine.
+     *
+     * @return the isolated engine
+     */
+    private OpenhabGraalJSScriptEngine createIsolatedContext() {
+        // the identifier is shared with the script, so the lock of the isolated context is not published
+        OpenhabGraalJSScriptEngine engine = new OpenhabGraalJSScriptEngine(injectionEnabled, injectionCachingEnabled,
+                contextFactory.get(), contextFactory, new AddonMetrics());
+        ScriptContext ctx = engine.delegate.getContext();
+        ctx.setAttribute(CONTEXT_KEY_ENGINE_IDENTIFIER, engineIdentifier, ScriptContext.ENGINE_SCOPE);
+        ctx.setAttribute(CONTEXT_KEY_EXTENSION_ACCESSOR, scriptExtensionAccessor, ScriptContext.ENGINE_SCOPE);
+        Consumer<String> localScriptDependencyListener = scriptDependencyListener;
+        if (localScriptDependencyListener != null) {
+            ctx.setAttribute(CONTEXT_KEY_DEPENDENCY_LISTENER, localScriptDependencyListener,
+                    ScriptContext.ENGINE_SCOPE);
+        }
+        engine.sharedState = sharedState;
+        engine.delegate.put(JSRuntimeFeatures.SHARED_STATE, sharedState);
+        return engine;
+    }
+
+    @Override
+    public Value evaluateFunction(String source) throws ScriptException {
+        // initializes the context like the first evaluation of a script does
+        eval("");
+        return delegate.getPolyglotContext().eval("js", "(" + source + ")");
+    }
+
     @Override
     public void close() {
+        if (logger.isDebugEnabled()) {
+            MeteredLock.Statistics statistics = lock.getStatistics();
+            logger.debug("Closing script '{}': lock acquired {} times, waited {} times for {} ms (max {} ms)",
+                    engineIdentifier, statistics.acquisitions(), statistics.contendedAcquisitions(),
+                    TimeUnit.NANOSECONDS.toMillis(statistics.totalWaitNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(statistics.maxWaitNanos()));
+        }
+        AddonMetrics.MeterBinder meterBinder = this.meterBinder;
+        if (meterBinder != null) {
+            metrics.remove(meterBinder);
+        }
         jsRuntimeFeatures.close();
     }
 
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.graalvm.polyglot.PolyglotException;
+import org.openhab.automation.jsscripting.internal.fs.watch.JSDependencyTracker;
+import org.openhab.automation.jsscripting.internal.threading.MeteredLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
+
+/**
+ * A GraalJS context with everything that doesn't depend on the script using it: the {@link JSRuntimeFeatures} are
+ * injected, and the global script is evaluated.
+ *
+ * The parts which depend on the script, i.e. the <code>require</code> function providing the script extensions and the
+ * openhab-js injection, are added by the {@link OpenhabGraalJSScriptEngine} when the script is run the first time.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class PreparedContext implements AutoCloseable {
+    private final Logger logger = LoggerFactory.getLogger(PreparedContext.class);
+
+    private final MeteredLock lock = new MeteredLock();
+    private final JSRuntimeFeatures jsRuntimeFeatures;
+    private final GraalJSScriptEngine engine;
+    private final long createdMillis = System.currentTimeMillis();
+    private volatile @Nullable Consumer<String> scriptDependencyListener;
+
+    public PreparedContext(JSScriptServiceUtil jsScriptServiceUtil, JSDependencyTracker jsDependencyTracker) {
+        this.jsRuntimeFeatures = jsScriptServiceUtil.getJSRuntimeFeatures(lock);
+        this.engine = OpenhabGraalJSScriptEngine.createDelegate(jsDependencyTracker,
+                () -> scriptDependencyListener);
+
+        // Injections into the JS runtime
+        jsRuntimeFeatures.getFeatures().forEach((key, obj) -> {
+            logger.debug("Injecting {} into the JS runtime...", key);
+            engine.put(key, obj);
+        });
+
+        try {
+            logger.debug("Evaluating cached global script...");
+            engine.getPolyglotContext().eval(OpenhabGraalJSScriptEngine.GLOBAL_SOURCE);
+        } catch (PolyglotException e) {
+            logger.error("Could not inject global script", e);
+        }
+    }
+
+    public MeteredLock getLock() {
+        return lock;
+    }
+
+    public JSRuntimeFeatures getJSRuntimeFeatures() {
+        return jsRuntimeFeatures;
+    }
+
+    public GraalJSScriptEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * @return the time this context was created, in milliseconds since the epoch
+     */
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    /**
+     * Sets the listener notified of the files loaded by the script.
+     *
+     * @param scriptDependencyListener the listener, or <code>null</code> to disable dependency tracking
+     */
+    public void setScriptDependencyListener(@Nullable Consumer<String> scriptDependencyListener) {
+        this.scriptDependencyListener = scriptDependencyListener;
+    }
+
+    /**
+     * Closes a context which was never used by a script.
+     */
+    @Override
+    public void close() {
+        jsRuntimeFeatures.close();
+        engine.close();
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import javax.script.ScriptException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.graalvm.polyglot.Value;
+
+/**
+ * A function of a script which runs in an {@link IsolatedContext} of its own, so that it doesn't wait for (and doesn't
+ * block) the other rules and timers of the script.
+ *
+ * The source code of the function is evaluated again in the isolated context on the first call, so the function cannot
+ * access the variables of the script. Values are shared through the {@link SharedState} instead.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class IsolatedCallback implements Runnable {
+    private final Target target;
+    private final Object[] arguments;
+
+    /**
+     * The function, shared by all {@link IsolatedCallback}s with bound arguments created from it.
+     */
+    private static class Target {
+        private final String source;
+        private final Supplier<IsolatedContext> contextFactory;
+        private @Nullable IsolatedContext context;
+        private @Nullable Value function;
+        private boolean closed;
+
+        Target(String source, Supplier<IsolatedContext> contextFactory) {
+            this.source = source;
+            this.contextFactory = contextFactory;
+        }
+
+        synchronized IsolatedContext getContext() {
+            if (closed) {
+                throw new IllegalStateException("The script of the isolated callback has been unloaded");
+            }
+            IsolatedContext context = this.context;
+            if (context == null) {
+                context = contextFactory.get();
+                this.context = context;
+            }
+            return context;
+        }
+
+        synchronized void close() {
+            closed = true;
+            IsolatedContext context = this.context;
+            if (context != null) {
+                context.close();
+                this.context = null;
+            }
+        }
+    }
+
+    IsolatedCallback(String source, Supplier<IsolatedContext> contextFactory) {
+        this(new Target(source, contextFactory), new Object[0]);
+    }
+
+    private IsolatedCallback(Target target, Object[] arguments) {
+        this.target = target;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Creates a callback which calls the function with the given arguments.
+     *
+     * @param arguments the arguments, which are converted like the values of the {@link SharedState}
+     * @return the callback
+     * @throws IllegalArgumentException if an argument is a JavaScript object
+     */
+    public IsolatedCallback bind(Value... arguments) {
+        return new IsolatedCallback(target, Arrays.stream(arguments).map(SharedState::toShareable).toArray());
+    }
+
+    @Override
+    public void run() {
+        call(arguments);
+    }
+
+    /**
+     * Calls the function in its isolated context, waiting for other calls of the same function to complete.
+     *
+     * @param arguments the arguments, which must be Java objects
+     */
+    public void call(@Nullable Object... arguments) {
+        IsolatedContext context = target.getContext();
+        context.lock();
+        try {
+            Value function = target.function;
+            if (function == null) {
+                function = context.evaluateFunction(target.source);
+                target.function = function;
+            }
+            function.executeVoid(arguments);
+        } catch (ScriptException e) {
+            throw new IllegalStateException("Failed to initialize the isolated context: " + e.getMessage(), e);
+        } finally {
+            context.unlock();
+        }
+    }
+
+    void close() {
+        target.close();
+    }
+}
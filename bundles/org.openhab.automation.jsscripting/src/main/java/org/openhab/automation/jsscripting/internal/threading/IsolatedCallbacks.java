@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.graalvm.polyglot.SourceSection;
+import org.graalvm.polyglot.Value;
+import org.openhab.core.automation.module.script.rulesupport.shared.simple.SimpleRule;
+
+/**
+ * Creates {@link IsolatedCallback}s, which run rules and timers of a script in contexts of their own, instead of
+ * serializing them with all other invocations of the script.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class IsolatedCallbacks {
+    private final Set<IsolatedCallback> callbacks = ConcurrentHashMap.newKeySet();
+    private volatile @Nullable Supplier<IsolatedContext> contextFactory;
+
+    /**
+     * Sets the factory of the isolated contexts, once the script using this instance is known.
+     *
+     * @param contextFactory creates a new context for the script
+     */
+    public void setContextFactory(Supplier<IsolatedContext> contextFactory) {
+        this.contextFactory = contextFactory;
+    }
+
+    /**
+     * Creates an isolated callback from a function expression or arrow function. The function cannot access the
+     * variables of the script, use the <code>SharedState</code> instead.
+     *
+     * @param function the function
+     * @return the callback, which can be passed to <code>setTimeout()</code> and <code>setInterval()</code>
+     * @throws IllegalArgumentException if the function is not defined in the script
+     */
+    public IsolatedCallback create(Value function) {
+        SourceSection sourceSection = function.canExecute() ? function.getSourceLocation() : null;
+        if (sourceSection == null || !sourceSection.isAvailable()) {
+            throw new IllegalArgumentException("Only functions defined in the script can be isolated");
+        }
+        Supplier<IsolatedContext> localContextFactory = contextFactory;
+        if (localContextFactory == null) {
+            throw new IllegalStateException("Isolated callbacks are not available before the script is initialized");
+        }
+
+        IsolatedCallback callback = new IsolatedCallback(sourceSection.getCharacters().toString(),
+                localContextFactory);
+        callbacks.add(callback);
+        return callback;
+    }
+
+    /**
+     * Creates a rule which executes an isolated callback. The function is called with the action module and the
+     * inputs, like <code>SimpleRule.execute()</code>.
+     *
+     * @param function the function
+     * @return the rule, to be completed with its triggers and added to the <code>automationManager</code>
+     * @throws IllegalArgumentException if the function is not defined in the script
+     */
+    public SimpleRule createRule(Value function) {
+        return new IsolatedSimpleRule(create(function));
+    }
+
+    /**
+     * @param callback a callback
+     * @return whether the callback is an {@link IsolatedCallback}
+     */
+    public boolean isIsolated(@Nullable Object callback) {
+        return callback instanceof IsolatedCallback;
+    }
+
+    /**
+     * Closes the contexts of all isolated callbacks, called when the script is unloaded.
+     */
+    public void close() {
+        callbacks.forEach(IsolatedCallback::close);
+        callbacks.clear();
+    }
+}
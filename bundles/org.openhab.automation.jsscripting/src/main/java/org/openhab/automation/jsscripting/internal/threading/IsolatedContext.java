@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.concurrent.locks.Lock;
+
+import javax.script.ScriptException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.graalvm.polyglot.Value;
+
+/**
+ * A GraalJS context of its own, in which an {@link IsolatedCallback} runs. It belongs to the same script as the
+ * context which created the callback, but is locked independently of it.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public interface IsolatedContext extends Lock {
+    /**
+     * Evaluates a function expression in this context. The lock must be held by the calling thread.
+     *
+     * @param source the source code of the function
+     * @return the function
+     * @throws ScriptException if the context could not be initialized
+     */
+    Value evaluateFunction(String source) throws ScriptException;
+
+    /**
+     * Closes the context, cancelling the timers created in it.
+     */
+    void close();
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.automation.Action;
+import org.openhab.core.automation.module.script.rulesupport.shared.simple.SimpleRule;
+
+/**
+ * A {@link SimpleRule} which executes an {@link IsolatedCallback}, so that it runs in parallel to the other rules of
+ * the script. It is therefore not wrapped in a {@link ThreadsafeSimpleRuleDelegate}.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+class IsolatedSimpleRule extends SimpleRule {
+    private final IsolatedCallback callback;
+
+    IsolatedSimpleRule(IsolatedCallback callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    @NonNullByDefault({})
+    public Object execute(Action module, Map<String, ?> inputs) {
+        callback.call(module, inputs);
+        return "";
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.metrics.instrument.AddonMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * A {@link ReentrantLock} which measures how long threads wait for it, i.e. how long rules, timers and other
+ * invocations of a script are blocked by other invocations of the same script.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class MeteredLock implements Lock {
+    private static final long SLOW_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Logger logger = LoggerFactory.getLogger(MeteredLock.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile String name = "javascript";
+
+    /**
+     * Statistics of the lock.
+     *
+     * @param acquisitions the number of times the lock was acquired
+     * @param contendedAcquisitions the number of times the lock was held by another thread, and had to be waited for
+     * @param totalWaitNanos the total time spent waiting for the lock, in nanoseconds
+     * @param maxWaitNanos the longest time spent waiting for the lock, in nanoseconds
+     */
+    public record Statistics(long acquisitions, long contendedAcquisitions, long totalWaitNanos, long maxWaitNanos) {
+        /**
+         * @return the average time spent waiting for the lock when it was held by another thread, in nanoseconds
+         */
+        public long averageWaitNanos() {
+            return contendedAcquisitions == 0 ? 0 : totalWaitNanos / contendedAcquisitions;
+        }
+    }
+
+    /**
+     * Sets the name used when logging long waits, usually the identifier of the script.
+     *
+     * @param name the name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the statistics of this lock
+     */
+    public Statistics getStatistics() {
+        return new Statistics(acquisitions.sum(), contendedAcquisitions.sum(), totalWaitNanos.sum(),
+                maxWaitNanos.get());
+    }
+
+    /**
+     * Creates the meters of the acquisitions and waits of the lock, named {@code <prefix>.acquisitions},
+     * {@code <prefix>.wait} and {@code <prefix>.wait.max}.
+     *
+     * @param prefix the prefix of the meter names
+     * @param tags the tags of the meters
+     * @return the binder to add to the {@link AddonMetrics} of the add-on
+     */
+    public AddonMetrics.MeterBinder meterBinder(String prefix, Tags tags) {
+        return meterRegistry -> List.of(
+                FunctionCounter.builder(prefix + ".acquisitions", acquisitions, LongAdder::sum).tags(tags)
+                        .description("Acquisitions of the lock").register(meterRegistry),
+                FunctionTimer
+                        .builder(prefix + ".wait", this, meteredLock -> meteredLock.contendedAcquisitions.sum(),
+                                meteredLock -> meteredLock.totalWaitNanos.sum(), TimeUnit.NANOSECONDS)
+                        .tags(tags).description("Acquisitions which waited for the lock held by another invocation")
+                        .register(meterRegistry),
+                TimeGauge.builder(prefix + ".wait.max", maxWaitNanos, TimeUnit.NANOSECONDS, AtomicLong::get).tags(tags)
+                        .description("Longest wait for the lock").register(meterRegistry));
+    }
+
+    @Override
+    public void lock() {
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lock();
+            recordWait(System.nanoTime() - start);
+        }
+        acquisitions.increment();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lockInterruptibly();
+            recordWait(System.nanoTime() - start);
+        }
+        acquisitions.increment();
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (lock.tryLock()) {
+            acquisitions.increment();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            if (!lock.tryLock(time, unit)) {
+                return false;
+            }
+            recordWait(System.nanoTime() - start);
+        }
+        acquisitions.increment();
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        lock.unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return lock.newCondition();
+    }
+
+    private void recordWait(long nanos) {
+        contendedAcquisitions.increment();
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        if (nanos >= SLOW_WAIT_NANOS) {
+            logger.debug("Waited {} ms for the lock of script '{}'", TimeUnit.NANOSECONDS.toMillis(nanos), name);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.graalvm.polyglot.Value;
+
+/**
+ * Thread-safe state of a script, shared between the script and its {@link IsolatedCallback}s.
+ *
+ * JavaScript objects belong to the context which created them and cannot be used by other contexts, therefore only
+ * primitive values (strings, numbers and booleans) and Java objects can be stored.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class SharedState {
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    /**
+     * @param key the key
+     * @return the value stored for the key, or <code>null</code> if there is none
+     */
+    public @Nullable Object get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Stores a value.
+     *
+     * @param key the key
+     * @param value the value, <code>null</code> or <code>undefined</code> to remove it
+     * @return the previous value, or <code>null</code> if there was none
+     * @throws IllegalArgumentException if the value is a JavaScript object
+     */
+    public @Nullable Object put(String key, Value value) {
+        Object shareable = toShareable(value);
+        return shareable == null ? values.remove(key) : values.put(key, shareable);
+    }
+
+    /**
+     * @param key the key
+     * @return the removed value, or <code>null</code> if there was none
+     */
+    public @Nullable Object remove(String key) {
+        return values.remove(key);
+    }
+
+    /**
+     * @param key the key
+     * @return whether a value is stored for the key
+     */
+    public boolean exists(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Atomically replaces a value, e.g. to increment a counter. Other threads updating the same key wait until the
+     * function has returned, so it should be short.
+     *
+     * @param key the key
+     * @param function receives the current value (or <code>null</code>) and returns the new value (or
+     *            <code>null</code> to remove it)
+     * @return the new value
+     * @throws IllegalArgumentException if the new value is a JavaScript object
+     */
+    public @Nullable Object compute(String key, Value function) {
+        return values.compute(key, (k, value) -> toShareable(function.execute(value)));
+    }
+
+    /**
+     * Removes all values, called when the script is unloaded.
+     */
+    public void clear() {
+        values.clear();
+    }
+
+    /**
+     * Converts a JavaScript value into a value which can be used by other contexts.
+     *
+     * @param value the value
+     * @return the Java value, or <code>null</code> if the value is <code>null</code> or <code>undefined</code>
+     * @throws IllegalArgumentException if the value is a JavaScript object
+     */
+    static @Nullable Object toShareable(Value value) {
+        if (value.isNull()) {
+            return null;
+        } else if (value.isHostObject()) {
+            return value.asHostObject();
+        } else if (value.isBoolean()) {
+            return value.asBoolean();
+        } else if (value.isString()) {
+            return value.asString();
+        } else if (value.isNumber()) {
+            if (value.fitsInInt()) {
+                return value.asInt();
+            } else if (value.fitsInLong()) {
+                return value.asLong();
+            }
+            return value.asDouble();
+        }
+        throw new IllegalArgumentException(
+                "Only primitive values and Java objects can be shared between contexts, but got " + value);
+    }
+}
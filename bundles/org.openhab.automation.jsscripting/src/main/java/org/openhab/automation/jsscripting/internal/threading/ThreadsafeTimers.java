@@ -36,6 +36,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Florian Hotze - Initial contribution; Reimplementation to conform standard JS setTimeout and setInterval;
  *         Threadsafe reimplementation of the timer creation methods of {@link ScriptExecution}
+ * @author Cody Cutrer - Run {@link IsolatedCallback}s without the lock of the script
  */
 public class ThreadsafeTimers {
     private final Logger logger = LoggerFactory.getLogger(ThreadsafeTimers.class);
@@ -83,17 +84,7 @@ public class ThreadsafeTimers {
      * @return a handle to the created timer, so that it can be canceled or rescheduled
      */
     public Timer createTimer(@Nullable String identifier, ZonedDateTime instant, Runnable closure) {
-        return scriptExecution.createTimer(identifier, instant, () -> {
-            lock.lock();
-            logger.debug("Lock acquired before timer execution");
-            try {
-                closure.run();
-            } finally { // Make sure that Lock is unlocked regardless of an exception being thrown or not to avoid
-                        // deadlocks
-                lock.unlock();
-                logger.debug("Lock released after timer execution");
-            }
-        });
+        return scriptExecution.createTimer(identifier, instant, () -> run(closure, "timer"));
     }
 
     /**
@@ -108,16 +99,8 @@ public class ThreadsafeTimers {
     public long setTimeout(Runnable callback, long delay) {
         long id = lastId.incrementAndGet();
         ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> {
-            lock.lock();
-            logger.debug("Lock acquired before timeout execution");
-            try {
-                callback.run();
-                idSchedulerMapping.remove(id);
-            } finally { // Make sure that Lock is unlocked regardless of an exception being thrown or not to avoid
-                        // deadlocks
-                lock.unlock();
-                logger.debug("Lock released after timeout execution");
-            }
+            run(callback, "timeout");
+            idSchedulerMapping.remove(id);
         }, identifier + ".timeout." + id, Instant.now().plusMillis(delay));
         idSchedulerMapping.put(id, future);
         return id;
@@ -152,17 +135,8 @@ public class ThreadsafeTimers {
      */
     public long setInterval(Runnable callback, long delay) {
         long id = lastId.incrementAndGet();
-        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> {
-            lock.lock();
-            logger.debug("Lock acquired before interval execution");
-            try {
-                callback.run();
-            } finally { // Make sure that Lock is unlocked regardless of an exception being thrown or not to avoid
-                        // deadlocks
-                lock.unlock();
-                logger.debug("Lock released after interval execution");
-            }
-        }, identifier + ".interval." + id, new LoopingAdjuster(Duration.ofMillis(delay)));
+        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> run(callback, "interval"),
+                identifier + ".interval." + id, new LoopingAdjuster(Duration.ofMillis(delay)));
         idSchedulerMapping.put(id, future);
         return id;
     }
@@ -183,6 +157,29 @@ public class ThreadsafeTimers {
         clearTimeout(intervalID);
     }
 
+    /**
+     * Runs a callback while holding the lock of the script, unless it is an {@link IsolatedCallback} running in a
+     * context of its own.
+     *
+     * @param callback the callback
+     * @param type the type of the callback, for logging
+     */
+    private void run(Runnable callback, String type) {
+        if (callback instanceof IsolatedCallback) {
+            callback.run();
+            return;
+        }
+        lock.lock();
+        logger.debug("Lock acquired before {} execution", type);
+        try {
+            callback.run();
+        } finally { // Make sure that Lock is unlocked regardless of an exception being thrown or not to avoid
+                    // deadlocks
+            lock.unlock();
+            logger.debug("Lock released after {} execution", type);
+        }
+    }
+
     /**
      * Cancels all timed actions (i.e. timeouts and intervals) that were created with this instance of
      * {@link ThreadsafeTimers}.
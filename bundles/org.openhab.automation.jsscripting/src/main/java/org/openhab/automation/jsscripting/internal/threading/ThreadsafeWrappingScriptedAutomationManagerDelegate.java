@@ -34,6 +34,7 @@ import org.openhab.core.automation.type.TriggerType;
  * @author Jonathan Gilbert - Initial contribution
  * @author Florian Hotze - Pass in lock object for multi-thread synchronization; Switch to {@link Lock} for multi-thread
  *         synchronization
+ * @author Cody Cutrer - Don't wrap {@link IsolatedSimpleRule}s
  */
 @NonNullByDefault
 public class ThreadsafeWrappingScriptedAutomationManagerDelegate {
@@ -63,8 +64,8 @@ public class ThreadsafeWrappingScriptedAutomationManagerDelegate {
     }
 
     public Rule addRule(Rule element) {
-        // wrap in a threadsafe version, safe per context
-        if (element instanceof SimpleRule rule) {
+        // wrap in a threadsafe version, safe per context, unless the rule runs in a context of its own
+        if (element instanceof SimpleRule rule && !(element instanceof IsolatedSimpleRule)) {
             element = new ThreadsafeSimpleRuleDelegate(lock, rule);
         }
 
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import static org.openhab.automation.pidcontroller.internal.PIDControllerConstants.AUTOMATION_NAME;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.events.Event;
+import org.openhab.core.events.EventFilter;
+import org.openhab.core.events.EventSubscriber;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+import org.openhab.core.items.events.ItemStateChangedEvent;
+import org.openhab.io.metrics.instrument.AddonMetrics;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Single {@link EventSubscriber} for all PID controllers, which passes the item state changes to the controllers
+ * registered for the item, and runs their loops on a dedicated scheduler. The delays of the loops after their planned
+ * time are published as meters.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@Component(service = { EventSubscriber.class, PIDControllerEventDispatcher.class })
+@NonNullByDefault
+public class PIDControllerEventDispatcher implements EventSubscriber {
+    private static final Set<String> SUBSCRIBED_EVENT_TYPES = Set.of(ItemStateChangedEvent.TYPE);
+    private static final String METRIC_PREFIX = "openhab.pidcontroller.loop.";
+
+    private final Logger logger = LoggerFactory.getLogger(PIDControllerEventDispatcher.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Set<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private final LongAdder loops = new LongAdder();
+    private final LongAdder totalJitterNanos = new LongAdder();
+    private final AtomicLong maxJitterNanos = new AtomicLong();
+    private final AddonMetrics metrics = new AddonMetrics();
+
+    /**
+     * Receives the state changes of the items a controller is registered for.
+     */
+    public interface Listener {
+        /**
+         * Called on the scheduler of the dispatcher when the state of an item changed.
+         *
+         * @param event the event
+         */
+        void itemStateChanged(ItemStateChangedEvent event);
+    }
+
+    @Activate
+    public PIDControllerEventDispatcher() {
+        this(ThreadPoolManager.getScheduledPool(AUTOMATION_NAME));
+    }
+
+    PIDControllerEventDispatcher(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        metrics.add(this::bindMetrics);
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        setMeterRegistry(null);
+    }
+
+    void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
+        metrics.setMeterRegistry(meterRegistry);
+    }
+
+    private List<Meter> bindMetrics(MeterRegistry meterRegistry) {
+        return List.of(
+                FunctionTimer
+                        .builder(METRIC_PREFIX + "jitter", this, dispatcher -> dispatcher.loops.sum(),
+                                dispatcher -> dispatcher.totalJitterNanos.sum(), TimeUnit.NANOSECONDS)
+                        .description("Loop calculations and their delay after the planned time")
+                        .register(meterRegistry),
+                TimeGauge.builder(METRIC_PREFIX + "jitter.max", maxJitterNanos, TimeUnit.NANOSECONDS, AtomicLong::get)
+                        .description("Longest delay of a loop calculation after its planned time")
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Registers a controller for the state changes of items.
+     *
+     * @param listener the controller
+     * @param itemNames the names of the items
+     */
+    public void register(Listener listener, String... itemNames) {
+        for (String itemName : itemNames) {
+            listeners.compute(itemName, (name, itemListeners) -> {
+                Set<Listener> localItemListeners = itemListeners;
+                if (localItemListeners == null) {
+                    localItemListeners = new CopyOnWriteArraySet<>();
+                }
+                localItemListeners.add(listener);
+                return localItemListeners;
+            });
+        }
+    }
+
+    /**
+     * Removes a controller from all items it was registered for.
+     *
+     * @param listener the controller
+     */
+    public void unregister(Listener listener) {
+        for (String itemName : listeners.keySet()) {
+            listeners.computeIfPresent(itemName, (name, itemListeners) -> {
+                itemListeners.remove(listener);
+                return itemListeners.isEmpty() ? null : itemListeners;
+            });
+        }
+    }
+
+    /**
+     * Runs the loop of a controller, with a fixed delay between the calculations.
+     *
+     * @param calculation the calculation
+     * @param loopTimeMs the delay between the calculations in milliseconds
+     * @return the job, to be cancelled when the controller is removed
+     */
+    public ScheduledFuture<?> scheduleLoop(Runnable calculation, long loopTimeMs) {
+        long loopTimeNanos = TimeUnit.MILLISECONDS.toNanos(loopTimeMs);
+        Runnable loop = new Runnable() {
+            private long plannedNanos = System.nanoTime();
+
+            @Override
+            public void run() {
+                recordJitter(System.nanoTime() - plannedNanos, loopTimeNanos);
+                try {
+                    calculation.run();
+                } finally {
+                    plannedNanos = System.nanoTime() + loopTimeNanos;
+                }
+            }
+        };
+        return scheduler.scheduleWithFixedDelay(loop, 0, loopTimeMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void recordJitter(long jitterNanos, long loopTimeNanos) {
+        long jitter = Math.max(jitterNanos, 0);
+        loops.increment();
+        totalJitterNanos.add(jitter);
+        maxJitterNanos.accumulateAndGet(jitter, Math::max);
+        if (jitter > loopTimeNanos) {
+            logger.debug("PID controller loop started {} ms late", TimeUnit.NANOSECONDS.toMillis(jitter));
+        }
+    }
+
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return SUBSCRIBED_EVENT_TYPES;
+    }
+
+    @Override
+    public @Nullable EventFilter getEventFilter() {
+        return null;
+    }
+
+    @Override
+    public void receive(Event event) {
+        if (event instanceof ItemStateChangedEvent changedEvent) {
+            Set<Listener> itemListeners = listeners.get(changedEvent.getItemName());
+            if (itemListeners != null) {
+                for (Listener listener : itemListeners) {
+                    scheduler.execute(() -> listener.itemStateChanged(changedEvent));
+                }
+            }
+        }
+    }
+}
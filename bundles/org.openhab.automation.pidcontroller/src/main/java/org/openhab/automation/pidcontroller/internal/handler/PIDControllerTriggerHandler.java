@@ -16,9 +16,7 @@ import static org.openhab.automation.pidcontroller.internal.PIDControllerConstan
 
 import java.math.BigDecimal;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ScheduledFuture;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -28,23 +26,17 @@ import org.openhab.core.automation.Trigger;
 import org.openhab.core.automation.handler.BaseTriggerModuleHandler;
 import org.openhab.core.automation.handler.TriggerHandlerCallback;
 import org.openhab.core.config.core.Configuration;
-import org.openhab.core.events.Event;
-import org.openhab.core.events.EventFilter;
 import org.openhab.core.events.EventPublisher;
-import org.openhab.core.events.EventSubscriber;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.events.ItemEventFactory;
 import org.openhab.core.items.events.ItemStateChangedEvent;
-import org.openhab.core.items.events.ItemStateEvent;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.types.RefreshType;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
-import org.osgi.framework.BundleContext;
-import org.osgi.framework.ServiceRegistration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,20 +44,21 @@ import org.slf4j.LoggerFactory;
  *
  * @author Hilbrand Bouwkamp - Initial Contribution
  * @author Fabian Wolter - Add PID debug output values
+ * @author Cody Cutrer - Use the shared {@link PIDControllerEventDispatcher}
  */
 @NonNullByDefault
-public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implements EventSubscriber {
+public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler
+        implements PIDControllerEventDispatcher.Listener {
     public static final String MODULE_TYPE_ID = AUTOMATION_NAME + ".trigger";
-    private static final Set<String> SUBSCRIBED_EVENT_TYPES = Set.of(ItemStateEvent.TYPE, ItemStateChangedEvent.TYPE);
     private final Logger logger = LoggerFactory.getLogger(PIDControllerTriggerHandler.class);
-    private final ServiceRegistration<?> eventSubscriberRegistration;
+    private final PIDControllerEventDispatcher eventDispatcher;
+    private @Nullable ScheduledFuture<?> loopJob;
     private final PIDController controller;
     private final int loopTimeMs;
     private long previousTimeMs = System.currentTimeMillis();
     private Item inputItem;
     private Item setpointItem;
-    private Optional<String> commandTopic;
-    private EventFilter eventFilter;
+    private @Nullable String commandItemName;
     private EventPublisher eventPublisher;
     private @Nullable String pInspector;
     private @Nullable String iInspector;
@@ -74,10 +67,11 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
     private ItemRegistry itemRegistry;
 
     public PIDControllerTriggerHandler(Trigger module, ItemRegistry itemRegistry, EventPublisher eventPublisher,
-            BundleContext bundleContext) {
+            PIDControllerEventDispatcher eventDispatcher) {
         super(module);
         this.itemRegistry = itemRegistry;
         this.eventPublisher = eventPublisher;
+        this.eventDispatcher = eventDispatcher;
 
         Configuration config = module.getConfiguration();
 
@@ -97,11 +91,7 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         }
 
         String commandItemName = (String) config.get(CONFIG_COMMAND_ITEM);
-        if (commandItemName != null) {
-            commandTopic = Optional.of("openhab/items/" + commandItemName + "/statechanged");
-        } else {
-            commandTopic = Optional.empty();
-        }
+        this.commandItemName = commandItemName;
 
         double kpAdjuster = getDoubleFromConfig(config, CONFIG_KP_GAIN);
         double kiAdjuster = getDoubleFromConfig(config, CONFIG_KI_GAIN);
@@ -124,16 +114,11 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         controller = new PIDController(kpAdjuster, kiAdjuster, kdAdjuster, kdTimeConstant, iMinValue, iMaxValue,
                 previousIntegralPart, previousDerivativePart, previousError);
 
-        eventFilter = event -> {
-            String topic = event.getTopic();
-
-            return ("openhab/items/" + inputItemName + "/state").equals(topic)
-                    || ("openhab/items/" + inputItemName + "/statechanged").equals(topic)
-                    || ("openhab/items/" + setpointItemName + "/statechanged").equals(topic)
-                    || commandTopic.map(t -> topic.equals(t)).orElse(false);
-        };
-
-        eventSubscriberRegistration = bundleContext.registerService(EventSubscriber.class.getName(), this, null);
+        if (commandItemName != null) {
+            eventDispatcher.register(this, inputItemName, setpointItemName, commandItemName);
+        } else {
+            eventDispatcher.register(this, inputItemName, setpointItemName);
+        }
 
         eventPublisher.post(ItemEventFactory.createCommandEvent(inputItemName, RefreshType.REFRESH));
     }
@@ -141,7 +126,11 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
     @Override
     public void setCallback(ModuleHandlerCallback callback) {
         super.setCallback(callback);
-        getCallback().getScheduler().scheduleWithFixedDelay(this::calculate, 0, loopTimeMs, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> loopJob = this.loopJob;
+        if (loopJob != null) {
+            loopJob.cancel(false);
+        }
+        this.loopJob = eventDispatcher.scheduleLoop(this::calculate, loopTimeMs);
     }
 
     private <T> T requireNonNull(T obj, String message) {
@@ -161,7 +150,7 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         return ((BigDecimal) rawValue).doubleValue();
     }
 
-    private void calculate() {
+    private synchronized void calculate() {
         double input;
         double setpoint;
 
@@ -253,35 +242,30 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
     }
 
     @Override
-    public void receive(Event event) {
-        if (event instanceof ItemStateChangedEvent changedEvent) {
-            if (commandTopic.isPresent() && event.getTopic().equals(commandTopic.get())) {
-                if ("RESET".equals(changedEvent.getItemState().toString())) {
+    public void itemStateChanged(ItemStateChangedEvent event) {
+        if (event.getItemName().equals(commandItemName)) {
+            if ("RESET".equals(event.getItemState().toString())) {
+                synchronized (this) {
                     controller.setIntegralResult(0);
                     controller.setDerivativeResult(0);
-                    eventPublisher.post(ItemEventFactory.createStateEvent(changedEvent.getItemName(), UnDefType.NULL));
-                } else if (changedEvent.getItemState() != UnDefType.NULL) {
-                    logger.warn("Unknown command: {}", changedEvent.getItemState());
                 }
-            } else {
-                calculate();
+                eventPublisher.post(ItemEventFactory.createStateEvent(event.getItemName(), UnDefType.NULL));
+            } else if (event.getItemState() != UnDefType.NULL) {
+                logger.warn("Unknown command: {}", event.getItemState());
             }
+        } else {
+            calculate();
         }
     }
 
-    @Override
-    public Set<String> getSubscribedEventTypes() {
-        return SUBSCRIBED_EVENT_TYPES;
-    }
-
-    @Override
-    public @Nullable EventFilter getEventFilter() {
-        return eventFilter;
-    }
-
     @Override
     public void dispose() {
-        eventSubscriberRegistration.unregister();
+        eventDispatcher.unregister(this);
+        ScheduledFuture<?> loopJob = this.loopJob;
+        if (loopJob != null) {
+            loopJob.cancel(false);
+            this.loopJob = null;
+        }
 
         super.dispose();
     }
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.items.events.ItemStateChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test for PIDControllerEventDispatcher.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+class PIDControllerEventDispatcherTest {
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final PIDControllerEventDispatcher dispatcher = new PIDControllerEventDispatcher(scheduler);
+    private final PIDControllerEventDispatcher.Listener first = mock(PIDControllerEventDispatcher.Listener.class);
+    private final PIDControllerEventDispatcher.Listener second = mock(PIDControllerEventDispatcher.Listener.class);
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(scheduler).execute(any(Runnable.class));
+    }
+
+    private ItemStateChangedEvent event(String itemName) {
+        ItemStateChangedEvent event = mock(ItemStateChangedEvent.class);
+        when(event.getItemName()).thenReturn(itemName);
+        return event;
+    }
+
+    @Test
+    void testEventsAreDispatchedToRegisteredControllers() {
+        dispatcher.register(first, "Temperature", "Setpoint");
+        dispatcher.register(second, "Temperature2", "Setpoint");
+
+        ItemStateChangedEvent temperature = event("Temperature");
+        ItemStateChangedEvent setpoint = event("Setpoint");
+        dispatcher.receive(temperature);
+        dispatcher.receive(setpoint);
+        dispatcher.receive(event("Unrelated"));
+
+        verify(first).itemStateChanged(temperature);
+        verify(first).itemStateChanged(setpoint);
+        verify(second).itemStateChanged(setpoint);
+        verifyNoMoreInteractions(first, second);
+    }
+
+    @Test
+    void testUnregisteredControllersReceiveNoEvents() {
+        dispatcher.register(first, "Temperature", "Setpoint");
+        dispatcher.register(second, "Setpoint");
+        dispatcher.unregister(first);
+
+        ItemStateChangedEvent setpoint = event("Setpoint");
+        dispatcher.receive(event("Temperature"));
+        dispatcher.receive(setpoint);
+
+        verify(second).itemStateChanged(setpoint);
+        verifyNoInteractions(first);
+    }
+
+    @Test
+    void testLoopJitterIsRecorded() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        dispatcher.setMeterRegistry(meterRegistry);
+        Runnable calculation = mock(Runnable.class);
+        dispatcher.scheduleLoop(calculation, 1000);
+
+        ArgumentCaptor<Runnable> loop = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(loop.capture(), eq(0L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        loop.getValue().run();
+        loop.getValue().run();
+
+        verify(calculation, times(2)).run();
+        assertEquals(2, meterRegistry.get("openhab.pidcontroller.loop.jitter").functionTimer().count());
+
+        dispatcher.setMeterRegistry(null);
+        assertEquals(0, meterRegistry.getMeters().size());
+    }
+}
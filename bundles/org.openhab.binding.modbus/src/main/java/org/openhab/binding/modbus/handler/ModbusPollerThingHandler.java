@@ -15,6 +15,8 @@ package org.openhab.binding.modbus.handler;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -22,7 +24,9 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.modbus.internal.AtomicStampedValue;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
+import org.openhab.binding.modbus.internal.ModbusPollPlanner;
 import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
+import org.openhab.binding.modbus.internal.handler.AbstractModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
 import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
@@ -43,14 +47,22 @@ import org.openhab.core.thing.ThingStatusInfo;
 import org.openhab.core.thing.binding.BaseBridgeHandler;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.types.Command;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * The {@link ModbusPollerThingHandler} is responsible for polling Modbus slaves. Errors and data is delegated to
  * child thing handlers inheriting from {@link ModbusReadCallback} -- in practice: {@link ModbusDataThingHandler}.
  *
  * @author Sami Salonen - Initial contribution
+ * @author Cody Cutrer - Metrics of the poll results
  */
 @NonNullByDefault
 public class ModbusPollerThingHandler extends BaseBridgeHandler {
@@ -75,6 +87,18 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             if (hasConfigurationError() || disposed) {
                 return;
             }
+            long start = System.nanoTime();
+            try {
+                processResult(result);
+            } finally {
+                Timer localProcessingTimer = processingTimer;
+                if (localProcessingTimer != null) {
+                    localProcessingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        private void processResult(PollResult result) {
             if (config.getCacheMillis() >= 0) {
                 AtomicStampedValue<PollResult> localLastResult = this.lastResult;
                 if (localLastResult == null) {
@@ -85,8 +109,10 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
                 }
             }
             logger.debug("Thing {} received response {}", thing.getUID(), result);
+            pollCount.incrementAndGet();
             notifyChildren(result);
             if (result.failure != null) {
+                failedPollCount.incrementAndGet();
                 Exception error = result.failure.getCause();
                 assert error != null;
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
@@ -139,13 +165,24 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             AsyncModbusReadResult result = pollResult.result;
             @Nullable
             AsyncModbusFailure<ModbusReadRequestBlueprint> failure = pollResult.failure;
-            childCallbacks.forEach(handler -> {
+            int notified = 0;
+            int skipped = 0;
+            for (ModbusDataThingHandler handler : childCallbacks) {
                 if (result != null) {
-                    handler.onReadResult(result);
+                    notified++;
+                    if (handler.onReadResult(result)) {
+                        skipped++;
+                    }
                 } else if (failure != null) {
                     handler.handleReadError(failure);
                 }
-            });
+            }
+            if (notified > 0) {
+                childUpdateCount.addAndGet(notified);
+                skippedChildUpdateCount.addAndGet(skipped);
+                logger.trace("Thing {} notified {} data things, {} of them skipped with unchanged data",
+                        thing.getUID(), notified, skipped);
+            }
         }
 
         /**
@@ -185,14 +222,34 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
 
     private static final List<String> SORTED_READ_FUNCTION_CODES = ModbusBindingConstantsInternal.READ_FUNCTION_CODES
             .keySet().stream().sorted().collect(Collectors.toUnmodifiableList());
+    private static final String METRIC_PREFIX = "openhab.modbus.";
+    private static final String METRIC_TAG_THING = "thing";
 
     private @NonNullByDefault({}) ModbusPollerConfiguration config;
     private long cacheMillis;
     private volatile @Nullable PollTask pollTask;
+    private volatile ModbusPollPlanner.@Nullable Registration pollRegistration;
     private volatile @Nullable ModbusReadRequestBlueprint request;
     private volatile boolean disposed;
     private volatile List<ModbusDataThingHandler> childCallbacks = new CopyOnWriteArrayList<>();
     private volatile AtomicReference<@Nullable ModbusRegisterArray> lastPolledDataCache = new AtomicReference<>();
+    private final AtomicLong childUpdateCount = new AtomicLong();
+    private final AtomicLong skippedChildUpdateCount = new AtomicLong();
+    private final AtomicLong pollCount = new AtomicLong();
+    private final AtomicLong failedPollCount = new AtomicLong();
+    private final AddonMetrics metrics;
+    private final AddonMetrics.MeterBinder meterBinder = new AddonMetrics.MeterBinder() {
+        @Override
+        public List<Meter> bind(MeterRegistry meterRegistry) {
+            return bindMetrics(meterRegistry);
+        }
+
+        @Override
+        public void unbind() {
+            processingTimer = null;
+        }
+    };
+    private volatile @Nullable Timer processingTimer;
     private @NonNullByDefault({}) ModbusCommunicationInterface comms;
 
     private ReadCallbackDelegator callbackDelegator = new ReadCallbackDelegator();
@@ -200,7 +257,18 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     private @Nullable ModbusReadFunctionCode functionCode;
 
     public ModbusPollerThingHandler(Bridge bridge) {
+        this(bridge, new AddonMetrics());
+    }
+
+    /**
+     * Creates a handler which publishes its metrics.
+     *
+     * @param bridge the poller thing
+     * @param metrics registers the meters of the poller
+     */
+    public ModbusPollerThingHandler(Bridge bridge, AddonMetrics metrics) {
         super(bridge);
+        this.metrics = metrics;
     }
 
     @Override
@@ -244,6 +312,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
         comms = null;
         request = null;
         disposed = false;
+        metrics.add(meterBinder);
         logger.trace("Initializing {} from status {}", this.getThing().getUID(), this.getThing().getStatus());
         try {
             config = getConfigAs(ModbusPollerConfiguration.class);
@@ -291,6 +360,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
         logger.debug("dispose()");
         // Mark handler as disposed as soon as possible to halt processing of callbacks
         disposed = true;
+        metrics.remove(meterBinder);
         unregisterPollTask();
         this.callbackDelegator.resetCache();
         comms = null;
@@ -312,7 +382,13 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             logger.debug("Unregistering polling from ModbusManager");
             comms.unregisterRegularPoll(localPollTask);
         }
+        ModbusPollPlanner.Registration localPollRegistration = this.pollRegistration;
+        if (localPollRegistration != null) {
+            logger.debug("Unregistering polling from endpoint poll planner");
+            localPollRegistration.unregister();
+        }
         this.pollTask = null;
+        this.pollRegistration = null;
         request = null;
         comms = null;
         updateStatus(ThingStatus.OFFLINE);
@@ -327,7 +403,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     @SuppressWarnings("null")
     private synchronized void registerPollTask() throws EndpointNotInitializedException {
         logger.trace("registerPollTask()");
-        if (pollTask != null) {
+        if (pollTask != null || pollRegistration != null) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR);
             logger.debug("pollTask should be unregistered before registering a new one!");
             return;
@@ -361,14 +437,43 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             logger.debug("Not registering polling with ModbusManager since refresh disabled");
             updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Not polling");
         } else {
-            logger.debug("Registering polling with ModbusManager");
-            pollTask = localComms.registerRegularPoll(localRequest, config.getRefresh(), 0, callbackDelegator,
-                    callbackDelegator);
-            assert pollTask != null;
+            ModbusPollPlanner pollPlanner = null;
+            if (slaveEndpointThingHandler instanceof AbstractModbusEndpointThingHandler<?, ?> endpointHandler) {
+                pollPlanner = endpointHandler.getPollPlanner();
+            }
+            if (pollPlanner != null) {
+                logger.debug("Registering polling with endpoint poll planner");
+                pollRegistration = pollPlanner.register(localRequest, config.getRefresh(), callbackDelegator,
+                        callbackDelegator);
+            } else {
+                logger.debug("Registering polling with ModbusManager");
+                pollTask = localComms.registerRegularPoll(localRequest, config.getRefresh(), 0, callbackDelegator,
+                        callbackDelegator);
+                assert pollTask != null;
+            }
             updateStatus(ThingStatus.ONLINE);
         }
     }
 
+    private List<Meter> bindMetrics(MeterRegistry meterRegistry) {
+        Tags tags = Tags.of(METRIC_TAG_THING, getThing().getUID().getAsString());
+        String prefix = METRIC_PREFIX;
+        Timer localProcessingTimer = Timer.builder(prefix + "poll.processing").tags(tags)
+                .description("Duration of processing a poll result, including the updates of the data things")
+                .register(meterRegistry);
+        processingTimer = localProcessingTimer;
+        return List.of(localProcessingTimer,
+                FunctionCounter.builder(prefix + "poll.results", pollCount, AtomicLong::get).tags(tags)
+                        .description("Poll results and failures received").register(meterRegistry),
+                FunctionCounter.builder(prefix + "poll.failures", failedPollCount, AtomicLong::get).tags(tags)
+                        .description("Failed polls").register(meterRegistry),
+                FunctionCounter.builder(prefix + "child.updates", childUpdateCount, AtomicLong::get).tags(tags)
+                        .description("Polled data passed to a data thing").register(meterRegistry),
+                FunctionCounter.builder(prefix + "child.updates.skipped", skippedChildUpdateCount, AtomicLong::get)
+                        .tags(tags).description("Polled data skipped by a data thing because it was unchanged")
+                        .register(meterRegistry));
+    }
+
     private boolean hasConfigurationError() {
         ThingStatusInfo statusInfo = getThing().getStatusInfo();
         return statusInfo.getStatus() == ThingStatus.OFFLINE
@@ -463,4 +568,18 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     public AtomicReference<@Nullable ModbusRegisterArray> getLastPolledDataCache() {
         return lastPolledDataCache;
     }
+
+    /**
+     * @return number of times polled data was passed to a data thing
+     */
+    public long getChildUpdateCount() {
+        return childUpdateCount.get();
+    }
+
+    /**
+     * @return number of times a data thing skipped processing polled data since its registers or bit were unchanged
+     */
+    public long getSkippedChildUpdateCount() {
+        return skippedChildUpdateCount.get();
+    }
 }
@@ -0,0 +1,350 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusConstants;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the regular polls of the pollers of one endpoint into as few Modbus transactions as possible.
+ *
+ * Polls with the same unit id, function code and poll period are merged if they overlap or if the gap between them
+ * is at most <code>maxGap</code> registers (or coils/discrete inputs), as long as the merged poll does not exceed
+ * <code>maxLength</code>. The merged poll is registered with the {@link ModbusCommunicationInterface}, and its result
+ * is sliced into the ranges of the individual polls, which are passed to their callbacks with their original
+ * request. Failures of a merged poll are passed to all of its polls.
+ *
+ * The plan of a group is recomputed whenever a poll is registered or unregistered. Merged polls which did not change
+ * keep polling.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollPlanner {
+
+    /**
+     * A regular poll registered by a poller.
+     */
+    public class Registration {
+        private final ModbusReadRequestBlueprint request;
+        private final long pollPeriodMillis;
+        private final ModbusReadCallback resultCallback;
+        private final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+
+        private Registration(ModbusReadRequestBlueprint request, long pollPeriodMillis,
+                ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.pollPeriodMillis = pollPeriodMillis;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+        }
+
+        private int start() {
+            return request.getReference();
+        }
+
+        private int end() {
+            return request.getReference() + request.getDataLength();
+        }
+
+        /**
+         * Stops polling the request of this registration.
+         */
+        public void unregister() {
+            ModbusPollPlanner.this.unregister(this);
+        }
+    }
+
+    private record GroupKey(int unitId, ModbusReadFunctionCode functionCode, long pollPeriodMillis) {
+    }
+
+    /**
+     * A poll registered with the communication interface, which reads the ranges of one or more registrations.
+     */
+    private class MergedPoll implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final ModbusReadRequestBlueprint request;
+        private final List<Registration> members;
+        private @Nullable PollTask pollTask;
+
+        MergedPoll(ModbusReadRequestBlueprint request, List<Registration> members) {
+            this.request = request;
+            this.members = members;
+        }
+
+        boolean isSamePlan(MergedPoll other) {
+            return members.equals(other.members) && request.getReference() == other.request.getReference()
+                    && request.getDataLength() == other.request.getDataLength()
+                    && request.getMaxTries() == other.request.getMaxTries();
+        }
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            Optional<ModbusRegisterArray> registers = result.getRegisters();
+            Optional<BitArray> bits = result.getBits();
+            for (Registration member : members) {
+                int offset = member.start() - request.getReference();
+                int length = member.request.getDataLength();
+                try {
+                    if (registers.isPresent()) {
+                        ModbusRegisterArray sliced = sliceRegisters(registers.get(), offset, length);
+                        if (sliced != null) {
+                            member.resultCallback.handle(new AsyncModbusReadResult(member.request, sliced));
+                            continue;
+                        }
+                    } else if (bits.isPresent()) {
+                        BitArray sliced = sliceBits(bits.get(), offset, length);
+                        if (sliced != null) {
+                            member.resultCallback.handle(new AsyncModbusReadResult(member.request, sliced));
+                            continue;
+                        }
+                    }
+                    member.failureCallback.handle(new AsyncModbusFailure<>(member.request, new IllegalStateException(
+                            String.format("Response to merged request %s does not contain the requested data", request))));
+                } catch (RuntimeException e) {
+                    logger.warn("Error handling the result of request {}: {}", member.request, e.getMessage(), e);
+                }
+            }
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            for (Registration member : members) {
+                try {
+                    member.failureCallback.handle(new AsyncModbusFailure<>(member.request, failure.getCause()));
+                } catch (RuntimeException e) {
+                    logger.warn("Error handling the failure of request {}: {}", member.request, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusPollPlanner.class);
+
+    private final ModbusCommunicationInterface comms;
+    private final int maxGap;
+    private final int maxLength;
+    private final Map<GroupKey, List<Registration>> registrations = new HashMap<>();
+    private final Map<GroupKey, List<MergedPoll>> plans = new HashMap<>();
+    private boolean disposed = false;
+
+    /**
+     * @param comms the communication interface of the endpoint
+     * @param maxGap the maximum number of unrequested registers (or coils/discrete inputs) between two merged polls
+     * @param maxLength the maximum length of a merged poll, limited by the protocol maximum, 0 for the protocol
+     *            maximum
+     */
+    public ModbusPollPlanner(ModbusCommunicationInterface comms, int maxGap, int maxLength) {
+        this.comms = comms;
+        this.maxGap = Math.max(0, maxGap);
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Registers a regular poll. The result callback receives results for the given request, even if it was merged
+     * with other requests.
+     *
+     * @param request the request to poll
+     * @param pollPeriodMillis the poll period
+     * @param resultCallback the callback for results
+     * @param failureCallback the callback for failures
+     * @return the registration, which is used to unregister the poll
+     */
+    public synchronized Registration register(ModbusReadRequestBlueprint request, long pollPeriodMillis,
+            ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+        Registration registration = new Registration(request, pollPeriodMillis, resultCallback, failureCallback);
+        GroupKey key = groupKey(registration);
+        registrations.computeIfAbsent(key, k -> new ArrayList<>()).add(registration);
+        replan(key);
+        return registration;
+    }
+
+    private synchronized void unregister(Registration registration) {
+        GroupKey key = groupKey(registration);
+        List<Registration> group = registrations.get(key);
+        if (group != null && group.remove(registration)) {
+            if (group.isEmpty()) {
+                registrations.remove(key);
+            }
+            replan(key);
+        }
+    }
+
+    /**
+     * Stops all merged polls. Registrations are not polled anymore and unregistering them has no effect.
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        plans.values().forEach(plan -> plan.forEach(this::stop));
+        plans.clear();
+        registrations.clear();
+    }
+
+    /**
+     * @return the number of merged polls registered with the communication interface
+     */
+    public synchronized int getPollCount() {
+        return plans.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * @return the number of registered polls
+     */
+    public synchronized int getRegistrationCount() {
+        return registrations.values().stream().mapToInt(List::size).sum();
+    }
+
+    private GroupKey groupKey(Registration registration) {
+        return new GroupKey(registration.request.getUnitID(), registration.request.getFunctionCode(),
+                registration.pollPeriodMillis);
+    }
+
+    private void replan(GroupKey key) {
+        if (disposed) {
+            return;
+        }
+        List<MergedPoll> oldPlan = plans.getOrDefault(key, List.of());
+        List<MergedPoll> newPlan = plan(key, registrations.getOrDefault(key, List.of()));
+
+        // keep the merged polls which did not change, so they are not polled again immediately
+        List<MergedPoll> plan = new ArrayList<>(newPlan.size());
+        List<MergedPoll> unchanged = new ArrayList<>();
+        for (MergedPoll poll : newPlan) {
+            MergedPoll existing = oldPlan.stream().filter(poll::isSamePlan).findFirst().orElse(null);
+            if (existing != null) {
+                unchanged.add(existing);
+                plan.add(existing);
+            } else {
+                plan.add(poll);
+            }
+        }
+        oldPlan.stream().filter(poll -> !unchanged.contains(poll)).forEach(this::stop);
+        plan.stream().filter(poll -> !unchanged.contains(poll)).forEach(this::start);
+
+        if (plan.isEmpty()) {
+            plans.remove(key);
+        } else {
+            plans.put(key, plan);
+        }
+        logger.debug("Polls of unit {} with function code {} every {} ms are merged into {} transaction(s)",
+                key.unitId(), key.functionCode(), key.pollPeriodMillis(), plan.size());
+    }
+
+    private List<MergedPoll> plan(GroupKey key, List<Registration> group) {
+        int limit = maxLength(key.functionCode());
+        List<Registration> sorted = new ArrayList<>(group);
+        sorted.sort(Comparator.comparingInt(Registration::start).thenComparingInt(Registration::end));
+
+        List<MergedPoll> plan = new ArrayList<>();
+        List<Registration> members = new ArrayList<>();
+        int start = 0;
+        int end = 0;
+        for (Registration registration : sorted) {
+            if (!members.isEmpty() && registration.start() <= end + maxGap
+                    && Math.max(end, registration.end()) - start <= limit) {
+                members.add(registration);
+                end = Math.max(end, registration.end());
+            } else {
+                if (!members.isEmpty()) {
+                    plan.add(mergedPoll(key, members, start, end));
+                }
+                members = new ArrayList<>();
+                members.add(registration);
+                start = registration.start();
+                end = registration.end();
+            }
+        }
+        if (!members.isEmpty()) {
+            plan.add(mergedPoll(key, members, start, end));
+        }
+        return plan;
+    }
+
+    private MergedPoll mergedPoll(GroupKey key, List<Registration> members, int start, int end) {
+        if (members.size() == 1) {
+            // nothing to merge, poll the original request
+            return new MergedPoll(members.get(0).request, members);
+        }
+        int maxTries = members.stream().mapToInt(member -> member.request.getMaxTries()).max().orElse(1);
+        return new MergedPoll(
+                new ModbusReadRequestBlueprint(key.unitId(), key.functionCode(), start, end - start, maxTries),
+                members);
+    }
+
+    private int maxLength(ModbusReadFunctionCode functionCode) {
+        int protocolMax = switch (functionCode) {
+            case READ_COILS, READ_INPUT_DISCRETES -> ModbusConstants.MAX_BITS_READ_COUNT;
+            default -> ModbusConstants.MAX_REGISTERS_READ_COUNT;
+        };
+        return maxLength > 0 ? Math.min(maxLength, protocolMax) : protocolMax;
+    }
+
+    private void start(MergedPoll poll) {
+        if (poll.members.size() == 1) {
+            Registration member = poll.members.get(0);
+            poll.pollTask = comms.registerRegularPoll(member.request, member.pollPeriodMillis, 0,
+                    member.resultCallback, member.failureCallback);
+        } else {
+            logger.debug("Merged {} requests into {}", poll.members.size(), poll.request);
+            poll.pollTask = comms.registerRegularPoll(poll.request, poll.members.get(0).pollPeriodMillis, 0, poll,
+                    poll);
+        }
+    }
+
+    private void stop(MergedPoll poll) {
+        PollTask pollTask = poll.pollTask;
+        if (pollTask != null) {
+            comms.unregisterRegularPoll(pollTask);
+            poll.pollTask = null;
+        }
+    }
+
+    static @Nullable ModbusRegisterArray sliceRegisters(ModbusRegisterArray registers, int offset, int length) {
+        if (offset < 0 || registers.size() < offset + length) {
+            return null;
+        }
+        byte[] bytes = registers.getBytes();
+        return new ModbusRegisterArray(Arrays.copyOfRange(bytes, offset * 2, (offset + length) * 2));
+    }
+
+    static @Nullable BitArray sliceBits(BitArray bits, int offset, int length) {
+        if (offset < 0 || bits.size() < offset + length) {
+            return null;
+        }
+        BitArray sliced = new BitArray(length);
+        for (int i = 0; i < length; i++) {
+            sliced.setBit(i, bits.getBit(offset + i));
+        }
+        return sliced;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal.config;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Configuration of merging the polls of an endpoint, common to tcp and serial things
+ *
+ * @author Cody Cutrer - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ModbusPollCoalescingConfiguration {
+    private boolean coalescePolls;
+    private int coalesceMaxGap;
+    private int coalesceMaxLength;
+
+    /**
+     * Whether the polls of the pollers of this endpoint are merged
+     */
+    public boolean isCoalescePolls() {
+        return coalescePolls;
+    }
+
+    public void setCoalescePolls(boolean coalescePolls) {
+        this.coalescePolls = coalescePolls;
+    }
+
+    /**
+     * Maximum number of registers, coils or discrete inputs between two merged polls, which are read but not used
+     */
+    public int getCoalesceMaxGap() {
+        return coalesceMaxGap;
+    }
+
+    public void setCoalesceMaxGap(int coalesceMaxGap) {
+        this.coalesceMaxGap = coalesceMaxGap;
+    }
+
+    /**
+     * Maximum length of a merged poll, 0 for the protocol maximum
+     */
+    public int getCoalesceMaxLength() {
+        return coalesceMaxLength;
+    }
+
+    public void setCoalesceMaxLength(int coalesceMaxLength) {
+        this.coalesceMaxLength = coalesceMaxLength;
+    }
+}
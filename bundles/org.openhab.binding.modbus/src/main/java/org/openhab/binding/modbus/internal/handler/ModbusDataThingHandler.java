@@ -145,6 +145,10 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    // raw polled data of the last processed poll, registers or bit packed into a long (at most 64 bits)
+    private volatile long lastReadRawData;
+    private volatile boolean lastReadRawDataValid;
+    private volatile long lastReadRawDataProcessedMillis;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -164,6 +168,8 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         }
 
         if (RefreshType.REFRESH == command) {
+            // channels are updated with the next data, even if it is unchanged
+            lastReadRawDataValid = false;
             ModbusPollerThingHandler poller = pollerHandler;
             if (poller == null) {
                 // Data thing must be child of endpoint, and thus write-only.
@@ -480,6 +486,9 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        lastReadRawData = 0L;
+        lastReadRawDataValid = false;
+        lastReadRawDataProcessedMillis = 0L;
     }
 
     @Override
@@ -791,9 +800,20 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         return acceptedDataTypes.stream().anyMatch(clz -> clz.equals(OpenClosedType.class));
     }
 
-    public synchronized void onReadResult(AsyncModbusReadResult result) {
-        result.getRegisters().ifPresent(registers -> onRegisters(result.getRequest(), registers));
-        result.getBits().ifPresent(bits -> onBits(result.getRequest(), bits));
+    /**
+     * Update channels with polled data
+     *
+     * Processing is skipped if the registers or bit read by this thing are identical to the previously processed poll,
+     * and unchanged values do not need to be updated yet (see updateUnchangedValuesEveryMillis).
+     *
+     * @param result polled data
+     * @return <code>true</code> if the data of this thing was unchanged and processing was skipped
+     */
+    public synchronized boolean onReadResult(AsyncModbusReadResult result) {
+        boolean skipped = result.getRegisters().map(registers -> onRegisters(result.getRequest(), registers))
+                .orElse(false);
+        skipped |= result.getBits().map(bits -> onBits(result.getRequest(), bits)).orElse(false);
+        return skipped;
     }
 
     public synchronized void handleReadError(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
@@ -804,15 +824,15 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         onError(failure.getRequest(), failure.getCause());
     }
 
-    private synchronized void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+    private synchronized boolean onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
         if (hasConfigurationError()) {
-            return;
+            return false;
         } else if (!isReadEnabled) {
-            return;
+            return false;
         }
         ValueType readValueType = this.readValueType;
         if (readValueType == null) {
-            return;
+            return false;
         }
         State numericState;
 
@@ -835,6 +855,12 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
+        if (isReadDataUnchanged(registers, extractIndex, readValueType)) {
+            logger.trace("Thing {} registers unchanged, skipping update. Registers {} for request {}", thing.getUID(),
+                    registers, request);
+            updateLastReadSuccess();
+            return true;
+        }
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
                 .map(state -> (State) state).orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
@@ -843,20 +869,90 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                 "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
                 boolValue, registers, request);
+        return false;
     }
 
-    private synchronized void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+    private synchronized boolean onBits(ModbusReadRequestBlueprint request, BitArray bits) {
         if (hasConfigurationError()) {
-            return;
+            return false;
         } else if (!isReadEnabled) {
-            return;
+            return false;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
+        if (skipUnchangedReadData(boolValue ? 1L : 0L)) {
+            logger.trace("Thing {} bit unchanged, skipping update. Bits {} for request {}", thing.getUID(), bits,
+                    request);
+            updateLastReadSuccess();
+            return true;
+        }
         DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
+        return false;
+    }
+
+    /**
+     * Check whether the registers read by this thing are unchanged, see {@link #skipUnchangedReadData(long)}
+     *
+     * @param registers polled registers
+     * @param extractIndex index of the value, as passed to {@link ModbusBitUtilities#extractStateFromRegisters}
+     * @param readValueType value type
+     * @return whether the data is unchanged and processing can be skipped
+     */
+    private boolean isReadDataUnchanged(ModbusRegisterArray registers, int extractIndex, ValueType readValueType) {
+        int valueTypeBitCount = readValueType.getBits();
+        long rawData;
+        if (valueTypeBitCount >= 16) {
+            int registerCount = valueTypeBitCount / 16;
+            if (extractIndex < 0 || extractIndex + registerCount > registers.size()) {
+                // let the extraction deal with out-of-bounds data
+                lastReadRawDataValid = false;
+                return false;
+            }
+            rawData = 0L;
+            for (int i = 0; i < registerCount; i++) {
+                rawData = (rawData << 16) | (registers.getRegister(extractIndex + i) & 0xffff);
+            }
+        } else {
+            // only the bits of the value, e.g. other bits of the same register might change
+            int itemsPerRegister = 16 / valueTypeBitCount;
+            int registerIndex = extractIndex / itemsPerRegister;
+            if (extractIndex < 0 || registerIndex >= registers.size()) {
+                lastReadRawDataValid = false;
+                return false;
+            }
+            int shift = (extractIndex % itemsPerRegister) * valueTypeBitCount;
+            rawData = (registers.getRegister(registerIndex) >>> shift) & ((1 << valueTypeBitCount) - 1);
+        }
+        return skipUnchangedReadData(rawData);
+    }
+
+    /**
+     * Check whether the raw data read by this thing is identical to the previously processed poll and channels do not
+     * need to be updated yet. Otherwise the data is remembered as processed.
+     *
+     * @param rawData registers or bit read by this thing
+     * @return whether processing can be skipped
+     */
+    private boolean skipUnchangedReadData(long rawData) {
+        long now = System.currentTimeMillis();
+        if (lastReadRawDataValid && lastReadRawData == rawData && updateUnchangedValuesEveryMillis > 0L
+                && now - lastReadRawDataProcessedMillis <= updateUnchangedValuesEveryMillis) {
+            return true;
+        }
+        lastReadRawData = rawData;
+        lastReadRawDataValid = true;
+        lastReadRawDataProcessedMillis = now;
+        return false;
+    }
+
+    private void updateLastReadSuccess() {
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            updateExpiredChannel(System.currentTimeMillis(), lastReadSuccessUID, new DateTimeType());
+        }
     }
 
     private synchronized void onError(ModbusReadRequestBlueprint request, Exception error) {
@@ -865,6 +961,8 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         } else if (!isReadEnabled) {
             return;
         }
+        // channels and status are updated with the next data, even if it is unchanged
+        lastReadRawDataValid = false;
         if (error instanceof ModbusConnectionException) {
             logger.trace("Thing {} '{}' had {} error on read: {}", getThing().getUID(), getThing().getLabel(),
                     error.getClass().getSimpleName(), error.toString());
@@ -901,6 +999,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         } else if (!isWriteEnabled) {
             return;
         }
+        lastReadRawDataValid = false;
         if (error instanceof ModbusConnectionException) {
             logger.debug("Thing {} '{}' had {} error on write: {}", getThing().getUID(), getThing().getLabel(),
                     error.getClass().getSimpleName(), error.toString());
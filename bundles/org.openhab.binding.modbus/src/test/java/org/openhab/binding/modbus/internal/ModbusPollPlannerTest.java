@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+
+/**
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollPlannerTest {
+
+    private static class Poller implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        final List<AsyncModbusReadResult> results = new ArrayList<>();
+        final List<AsyncModbusFailure<ModbusReadRequestBlueprint>> failures = new ArrayList<>();
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            failures.add(failure);
+        }
+    }
+
+    private @NonNullByDefault({}) ModbusCommunicationInterface comms;
+
+    @BeforeEach
+    public void setUp() {
+        comms = mock(ModbusCommunicationInterface.class);
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any()))
+                .thenAnswer(invocation -> mock(PollTask.class));
+    }
+
+    private static ModbusReadRequestBlueprint request(ModbusReadFunctionCode functionCode, int start, int length) {
+        return new ModbusReadRequestBlueprint(1, functionCode, start, length, 3);
+    }
+
+    private static ModbusReadRequestBlueprint request(int start, int length) {
+        return request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length);
+    }
+
+    private List<ModbusReadRequestBlueprint> registeredRequests() {
+        ArgumentCaptor<ModbusReadRequestBlueprint> captor = ArgumentCaptor.forClass(ModbusReadRequestBlueprint.class);
+        verify(comms, atLeastOnce()).registerRegularPoll(captor.capture(), anyLong(), anyLong(), any(), any());
+        return captor.getAllValues();
+    }
+
+    private ModbusReadCallback lastResultCallback() {
+        ArgumentCaptor<ModbusReadCallback> captor = ArgumentCaptor.forClass(ModbusReadCallback.class);
+        verify(comms, atLeastOnce()).registerRegularPoll(any(), anyLong(), anyLong(), captor.capture(), any());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ModbusFailureCallback<ModbusReadRequestBlueprint> lastFailureCallback() {
+        ArgumentCaptor<ModbusFailureCallback<ModbusReadRequestBlueprint>> captor = ArgumentCaptor
+                .forClass(ModbusFailureCallback.class);
+        verify(comms, atLeastOnce()).registerRegularPoll(any(), anyLong(), anyLong(), any(), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    public void testSinglePollIsRegisteredUnchanged() {
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 0, 0);
+        Poller poller = new Poller();
+        ModbusReadRequestBlueprint request = request(5, 10);
+        planner.register(request, 1000, poller, poller);
+
+        verify(comms).registerRegularPoll(same(request), eq(1000L), eq(0L), same(poller), same(poller));
+        assertThat(planner.getPollCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingPollsAreMerged() {
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 0, 0);
+        Poller poller1 = new Poller();
+        Poller poller2 = new Poller();
+        Poller poller3 = new Poller();
+        planner.register(request(0, 4), 1000, poller1, poller1);
+        planner.register(request(4, 4), 1000, poller2, poller2);
+        planner.register(request(6, 4), 1000, poller3, poller3);
+
+        assertThat(planner.getPollCount(), is(equalTo(1)));
+        assertThat(planner.getRegistrationCount(), is(equalTo(3)));
+        ModbusReadRequestBlueprint merged = registeredRequests().get(2);
+        assertThat(merged.getReference(), is(equalTo(0)));
+        assertThat(merged.getDataLength(), is(equalTo(10)));
+
+        int[] values = IntStream.range(100, 110).toArray();
+        lastResultCallback().handle(new AsyncModbusReadResult(merged, new ModbusRegisterArray(values)));
+
+        assertThat(poller1.results.size(), is(equalTo(1)));
+        assertThat(poller1.results.get(0).getRequest().getReference(), is(equalTo(0)));
+        ModbusRegisterArray registers2 = poller2.results.get(0).getRegisters().get();
+        assertThat(registers2.size(), is(equalTo(4)));
+        assertThat(registers2.getRegister(0), is(equalTo(104)));
+        ModbusRegisterArray registers3 = poller3.results.get(0).getRegisters().get();
+        assertThat(registers3.getRegister(0), is(equalTo(106)));
+        assertThat(registers3.getRegister(3), is(equalTo(109)));
+    }
+
+    @Test
+    public void testGapsAndLimitsArePreserved() {
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 2, 10);
+        Poller poller = new Poller();
+        planner.register(request(0, 4), 1000, poller, poller);
+        // gap of 2 is merged
+        planner.register(request(6, 2), 1000, poller, poller);
+        // would exceed the maximum length
+        planner.register(request(8, 4), 1000, poller, poller);
+        // gap of 3 is not merged
+        planner.register(request(15, 1), 1000, poller, poller);
+        // different function code or poll period are not merged
+        planner.register(request(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 4, 2), 1000, poller, poller);
+        planner.register(request(2, 2), 500, poller, poller);
+
+        assertThat(planner.getPollCount(), is(equalTo(5)));
+    }
+
+    @Test
+    public void testBitsAreSliced() {
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 0, 0);
+        Poller poller1 = new Poller();
+        Poller poller2 = new Poller();
+        planner.register(request(ModbusReadFunctionCode.READ_COILS, 0, 3), 1000, poller1, poller1);
+        planner.register(request(ModbusReadFunctionCode.READ_COILS, 3, 2), 1000, poller2, poller2);
+
+        ModbusReadRequestBlueprint merged = registeredRequests().get(1);
+        lastResultCallback().handle(new AsyncModbusReadResult(merged, new BitArray(true, false, false, false, true)));
+
+        BitArray bits = poller2.results.get(0).getBits().get();
+        assertThat(bits.size(), is(equalTo(2)));
+        assertThat(bits.getBit(0), is(equalTo(false)));
+        assertThat(bits.getBit(1), is(equalTo(true)));
+    }
+
+    @Test
+    public void testFailureIsPassedToAllPolls() {
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 0, 0);
+        Poller poller1 = new Poller();
+        Poller poller2 = new Poller();
+        ModbusReadRequestBlueprint request1 = request(0, 2);
+        ModbusReadRequestBlueprint request2 = request(2, 2);
+        planner.register(request1, 1000, poller1, poller1);
+        planner.register(request2, 1000, poller2, poller2);
+
+        Exception error = new Exception("timeout");
+        lastFailureCallback().handle(new AsyncModbusFailure<>(registeredRequests().get(1), error));
+
+        assertThat(poller1.failures.get(0).getRequest(), is(sameInstance(request1)));
+        assertThat(poller1.failures.get(0).getCause(), is(sameInstance(error)));
+        assertThat(poller2.failures.get(0).getRequest(), is(sameInstance(request2)));
+    }
+
+    @Test
+    public void testUnregisterReplansAndDisposeStopsPolling() {
+        ModbusPollPlanner planner = new ModbusPollPlanner(comms, 0, 0);
+        Poller poller = new Poller();
+        planner.register(request(0, 2), 1000, poller, poller);
+        ModbusPollPlanner.Registration middle = planner.register(request(2, 2), 1000, poller, poller);
+        planner.register(request(4, 2), 1000, poller, poller);
+        assertThat(planner.getPollCount(), is(equalTo(1)));
+
+        middle.unregister();
+        assertThat(planner.getPollCount(), is(equalTo(2)));
+        assertThat(planner.getRegistrationCount(), is(equalTo(2)));
+
+        planner.dispose();
+        assertThat(planner.getPollCount(), is(equalTo(0)));
+        // 3 merged polls which replaced each other, and the 2 single polls
+        verify(comms, times(5)).unregisterRegularPoll(any());
+    }
+}
@@ -45,6 +45,7 @@ import org.openhab.core.types.RefreshType;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
 import org.openhab.core.util.UIDUtils;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -85,10 +86,23 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
     private AtomicBoolean messageReceived = new AtomicBoolean(false);
     private Map<String, @Nullable ChannelState> availabilityStates = new ConcurrentHashMap<>();
     private AvailabilityMode availabilityMode = AvailabilityMode.ALL;
+    private final PayloadDispatcher payloadDispatcher;
 
     public AbstractMQTTThingHandler(Thing thing, int subscribeTimeout) {
+        this(thing, subscribeTimeout, new AddonMetrics());
+    }
+
+    /**
+     * Creates a handler which publishes the metrics of its state topics.
+     *
+     * @param thing the thing
+     * @param subscribeTimeout the timeout of the subscriptions in milliseconds
+     * @param metrics registers the meters of the state topics
+     */
+    public AbstractMQTTThingHandler(Thing thing, int subscribeTimeout, AddonMetrics metrics) {
         super(thing);
         this.subscribeTimeout = subscribeTimeout;
+        this.payloadDispatcher = new PayloadDispatcher(metrics, thing.getUID().getAsString());
     }
 
     /**
@@ -121,6 +135,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
     protected void stop() {
         clearAllAvailabilityTopics();
         resetMessageReceived();
+        payloadDispatcher.clear();
     }
 
     @Override
@@ -281,6 +296,11 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
         postCommand(channelUID, command);
     }
 
+    @Override
+    public DecodedPayload decodePayload(String topic, byte[] payload) {
+        return payloadDispatcher.decode(topic, payload);
+    }
+
     public @Nullable MqttBrokerConnection getConnection() {
         return connection;
     }
@@ -327,6 +347,11 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
                         @Override
                         public void postChannelCommand(ChannelUID channelUID, Command value) {
                         }
+
+                        @Override
+                        public @Nullable DecodedPayload decodePayload(String topic, byte[] payload) {
+                            return AbstractMQTTThingHandler.this.decodePayload(topic, payload);
+                        }
                     }, transformation, null);
             MqttBrokerConnection connection = getConnection();
             if (connection != null) {
@@ -12,7 +12,6 @@
  */
 package org.openhab.binding.mqtt.generic;
 
-import java.nio.charset.StandardCharsets;
 import java.util.IllegalFormatException;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -159,9 +158,15 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
+        DecodedPayload decodedPayload = channelStateUpdateListener.decodePayload(topic, payload);
+        if (decodedPayload == null) {
+            decodedPayload = new DecodedPayload(payload);
+        }
+        String strValue = decodedPayload.getText();
         if (incomingTransformation.isPresent()) {
-            Optional<String> transformedValue = incomingTransformation.apply(strValue);
+            Optional<String> transformedValue = incomingTransformation instanceof DecodedPayloadTransformation t
+                    ? t.apply(decodedPayload)
+                    : incomingTransformation.apply(strValue);
             if (transformedValue.isEmpty()) {
                 logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue,
                         incomingTransformation);
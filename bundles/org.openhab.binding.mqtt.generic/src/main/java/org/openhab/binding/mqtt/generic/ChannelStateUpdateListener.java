@@ -13,6 +13,7 @@
 package org.openhab.binding.mqtt.generic;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
@@ -47,4 +48,16 @@ public interface ChannelStateUpdateListener {
      * @param eventPayload The new value. Doesn't necessarily need to be different than the value before.
      */
     void triggerChannel(ChannelUID channelUID, String eventPayload);
+
+    /**
+     * A message got published on a configured MQTT topic, and is about to be processed by a channel.
+     * Listeners may return a {@link DecodedPayload} shared by all channels subscribed to the topic.
+     *
+     * @param topic The topic
+     * @param payload The payload
+     * @return The decoded payload, or null if the channel should decode the payload on its own.
+     */
+    default @Nullable DecodedPayload decodePayload(String topic, byte[] payload) {
+        return null;
+    }
 }
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A received MQTT message, which is shared by all {@link ChannelState}s subscribed to its topic.
+ *
+ * The payload is decoded to a string only once, and any parsed form of it (e.g. a JSON tree) is created by the first
+ * transformation requesting it and reused by the others.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class DecodedPayload {
+    private static final Object NULL = new Object();
+
+    private final byte[] payload;
+    private final PayloadDispatcher.@Nullable TopicEntry topicEntry;
+    private final Map<Object, Object> parsed = new HashMap<>();
+    private @Nullable String text;
+
+    /**
+     * Creates a payload which is not shared with other channels.
+     *
+     * @param payload the raw payload
+     */
+    public DecodedPayload(byte[] payload) {
+        this(payload, null);
+    }
+
+    DecodedPayload(byte[] payload, PayloadDispatcher.@Nullable TopicEntry topicEntry) {
+        this.payload = payload;
+        this.topicEntry = topicEntry;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * @return the payload decoded as UTF-8
+     */
+    public synchronized String getText() {
+        String text = this.text;
+        if (text == null) {
+            long start = System.nanoTime();
+            text = new String(payload, StandardCharsets.UTF_8);
+            this.text = text;
+            addDecodeTime(start);
+        }
+        return text;
+    }
+
+    /**
+     * Returns a parsed form of the payload, parsing it if this hasn't been done for this message yet.
+     *
+     * @param key identifies the parsed form; transformations using the same key must use equivalent parsers
+     * @param parser parses the text of the payload, returning <code>null</code> if it cannot be parsed
+     * @return the parsed payload, or <code>null</code> if it cannot be parsed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T getParsed(Object key, Function<String, @Nullable T> parser) {
+        String text = getText();
+        synchronized (this) {
+            Object result = parsed.get(key);
+            if (result == null) {
+                long start = System.nanoTime();
+                result = parser.apply(text);
+                addDecodeTime(start);
+                parsed.put(key, result == null ? NULL : result);
+            }
+            return result == NULL ? null : (T) result;
+        }
+    }
+
+    private void addDecodeTime(long start) {
+        PayloadDispatcher.TopicEntry topicEntry = this.topicEntry;
+        if (topicEntry != null) {
+            topicEntry.addDecodeTime(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.thing.binding.generic.ChannelTransformation;
+
+/**
+ * An incoming {@link ChannelTransformation} which can work on a {@link DecodedPayload}, sharing its parsed forms with
+ * the transformations of the other channels subscribed to the same topic.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public interface DecodedPayloadTransformation {
+    /**
+     * Transforms a received message, like {@link ChannelTransformation#apply(String)} does with its text.
+     *
+     * @param payload the received message
+     * @return the transformed value, or empty if the message should be discarded
+     */
+    Optional<String> apply(DecodedPayload payload);
+}
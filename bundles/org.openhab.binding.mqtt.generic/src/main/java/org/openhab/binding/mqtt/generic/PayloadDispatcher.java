@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.metrics.instrument.AddonMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Decodes each MQTT message once for all {@link ChannelState}s of a thing subscribed to its topic.
+ *
+ * Often many channels of a thing share one state topic with a JSON payload. The broker connection passes the same
+ * payload to each of them, so the {@link DecodedPayload} of the last message of each topic is kept and handed to the
+ * following channels, which then share its text and parsed JSON tree.
+ *
+ * The messages, deliveries and decoding time of each topic are published as meters tagged by thing and topic.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class PayloadDispatcher {
+    private static final String METRIC_PREFIX = "openhab.mqtt.topic.";
+
+    private final Logger logger = LoggerFactory.getLogger(PayloadDispatcher.class);
+
+    /**
+     * Statistics of a topic.
+     *
+     * @param messages the number of messages received on the topic
+     * @param deliveries the number of times a message was passed to a channel
+     * @param decodeNanos the total time spent decoding and parsing the messages, in nanoseconds
+     */
+    public record TopicStatistics(long messages, long deliveries, long decodeNanos) {
+        /**
+         * @return the average number of channels a message was passed to
+         */
+        public double fanOut() {
+            return messages == 0 ? 0 : (double) deliveries / messages;
+        }
+
+        /**
+         * @return the average time spent decoding and parsing a message, in nanoseconds
+         */
+        public long averageDecodeNanos() {
+            return messages == 0 ? 0 : decodeNanos / messages;
+        }
+    }
+
+    static class TopicEntry implements AddonMetrics.MeterBinder {
+        private final Tags tags;
+        private byte @Nullable [] lastPayload;
+        private @Nullable DecodedPayload lastDecoded;
+        private long messages;
+        private long deliveries;
+        private long decodeNanos;
+
+        TopicEntry(Tags tags) {
+            this.tags = tags;
+        }
+
+        synchronized DecodedPayload decode(byte[] payload) {
+            deliveries++;
+            DecodedPayload decoded = lastDecoded;
+            if (payload == lastPayload && decoded != null) {
+                return decoded;
+            }
+            messages++;
+            // a repeated message decodes to the same result
+            if (decoded == null || !Arrays.equals(payload, lastPayload)) {
+                decoded = new DecodedPayload(payload, this);
+                lastDecoded = decoded;
+            }
+            lastPayload = payload;
+            return decoded;
+        }
+
+        synchronized void addDecodeTime(long nanos) {
+            decodeNanos += nanos;
+        }
+
+        synchronized TopicStatistics getStatistics() {
+            return new TopicStatistics(messages, deliveries, decodeNanos);
+        }
+
+        synchronized long getMessages() {
+            return messages;
+        }
+
+        synchronized long getDeliveries() {
+            return deliveries;
+        }
+
+        synchronized long getDecodeNanos() {
+            return decodeNanos;
+        }
+
+        @Override
+        public List<Meter> bind(MeterRegistry meterRegistry) {
+            return List.of(
+                    FunctionCounter.builder(METRIC_PREFIX + "messages", this, TopicEntry::getMessages).tags(tags)
+                            .description("Messages received on the topic").register(meterRegistry),
+                    FunctionCounter.builder(METRIC_PREFIX + "deliveries", this, TopicEntry::getDeliveries).tags(tags)
+                            .description("Messages passed to the channels of the topic").register(meterRegistry),
+                    FunctionTimer
+                            .builder(METRIC_PREFIX + "decode", this, TopicEntry::getMessages,
+                                    TopicEntry::getDecodeNanos, TimeUnit.NANOSECONDS)
+                            .tags(tags).description("Decoding and parsing of the messages received on the topic")
+                            .register(meterRegistry));
+        }
+    }
+
+    private final Map<String, TopicEntry> topics = new ConcurrentHashMap<>();
+    private final AddonMetrics metrics;
+    private final String thing;
+
+    /**
+     * Creates a dispatcher which doesn't publish metrics.
+     */
+    public PayloadDispatcher() {
+        this(new AddonMetrics(), "");
+    }
+
+    /**
+     * Creates a dispatcher which publishes the metrics of each topic.
+     *
+     * @param metrics registers the meters of the topics
+     * @param thing the UID of the thing, the value of the thing tag of the meters
+     */
+    public PayloadDispatcher(AddonMetrics metrics, String thing) {
+        this.metrics = metrics;
+        this.thing = thing;
+    }
+
+    /**
+     * Returns the decoded form of a received message.
+     *
+     * @param topic the topic the message was received on
+     * @param payload the payload
+     * @return the decoded payload, shared with the other channels the same message is passed to
+     */
+    public DecodedPayload decode(String topic, byte[] payload) {
+        TopicEntry entry = topics.get(topic);
+        if (entry == null) {
+            TopicEntry newEntry = new TopicEntry(Tags.of("thing", thing, "topic", topic));
+            entry = topics.putIfAbsent(topic, newEntry);
+            if (entry == null) {
+                // registered outside of computeIfAbsent, which locks a part of the map
+                metrics.add(newEntry);
+                entry = newEntry;
+            }
+        }
+        DecodedPayload decoded = entry.decode(payload);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Dispatching message on {}: {}", topic, entry.getStatistics());
+        }
+        return decoded;
+    }
+
+    /**
+     * @return the statistics of each topic messages were received on
+     */
+    public Map<String, TopicStatistics> getTopicStatistics() {
+        return topics.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getStatistics()));
+    }
+
+    /**
+     * Forgets all topics, e.g. when the subscriptions are removed.
+     */
+    public void clear() {
+        topics.values().forEach(metrics::remove);
+        topics.clear();
+    }
+}
@@ -46,6 +46,7 @@ import org.openhab.core.thing.binding.generic.ChannelTransformation;
 import org.openhab.core.thing.type.ChannelTypeUID;
 import org.openhab.core.types.StateDescription;
 import org.openhab.core.types.util.UnitUtils;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,7 +70,20 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
      */
     public GenericMQTTThingHandler(Thing thing, MqttChannelStateDescriptionProvider stateDescProvider,
             int subscribeTimeout) {
-        super(thing, subscribeTimeout);
+        this(thing, stateDescProvider, subscribeTimeout, new AddonMetrics());
+    }
+
+    /**
+     * Creates a new Thing handler for generic MQTT channels, which publishes the metrics of its state topics.
+     *
+     * @param thing The thing of this handler
+     * @param stateDescProvider A channel state provider
+     * @param subscribeTimeout The subscribe timeout
+     * @param metrics Registers the meters of the state topics
+     */
+    public GenericMQTTThingHandler(Thing thing, MqttChannelStateDescriptionProvider stateDescProvider,
+            int subscribeTimeout, AddonMetrics metrics) {
+        super(thing, subscribeTimeout, metrics);
         this.stateDescProvider = stateDescProvider;
     }
 
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.io.metrics.instrument.AddonMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests the {@link PayloadDispatcher} and {@link DecodedPayload}.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class PayloadDispatcherTests {
+    private static final String TOPIC = "zigbee2mqtt/sensor";
+
+    private final AtomicInteger parseCount = new AtomicInteger();
+
+    private String parse(String text) {
+        parseCount.incrementAndGet();
+        return text.toUpperCase();
+    }
+
+    @Test
+    public void testMessageIsDecodedOncePerTopic() {
+        PayloadDispatcher dispatcher = new PayloadDispatcher();
+        byte[] payload = "{\"state\": \"on\"}".getBytes(StandardCharsets.UTF_8);
+
+        DecodedPayload first = dispatcher.decode(TOPIC, payload);
+        DecodedPayload second = dispatcher.decode(TOPIC, payload);
+        DecodedPayload third = dispatcher.decode(TOPIC, payload);
+        assertThat(second, is(sameInstance(first)));
+        assertThat(third, is(sameInstance(first)));
+        assertThat(first.getText(), is("{\"state\": \"on\"}"));
+
+        assertThat(first.getParsed(String.class, this::parse), is("{\"STATE\": \"ON\"}"));
+        assertThat(third.getParsed(String.class, this::parse), is("{\"STATE\": \"ON\"}"));
+        assertThat(parseCount.get(), is(1));
+
+        PayloadDispatcher.TopicStatistics statistics = Objects
+                .requireNonNull(dispatcher.getTopicStatistics().get(TOPIC));
+        assertThat(statistics.messages(), is(1L));
+        assertThat(statistics.deliveries(), is(3L));
+        assertThat(statistics.fanOut(), is(3.0));
+    }
+
+    @Test
+    public void testNewMessagesAreDecodedAgain() {
+        PayloadDispatcher dispatcher = new PayloadDispatcher();
+
+        DecodedPayload first = dispatcher.decode(TOPIC, "on".getBytes(StandardCharsets.UTF_8));
+        DecodedPayload other = dispatcher.decode("other", "on".getBytes(StandardCharsets.UTF_8));
+        DecodedPayload second = dispatcher.decode(TOPIC, "off".getBytes(StandardCharsets.UTF_8));
+        assertThat(other, is(not(sameInstance(first))));
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getText(), is("off"));
+
+        // a repeated message decodes to the same result
+        DecodedPayload repeated = dispatcher.decode(TOPIC, "off".getBytes(StandardCharsets.UTF_8));
+        assertThat(repeated, is(sameInstance(second)));
+        assertThat(Objects.requireNonNull(dispatcher.getTopicStatistics().get(TOPIC)).messages(), is(3L));
+
+        dispatcher.clear();
+        assertThat(dispatcher.getTopicStatistics().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testTopicMetersArePublishedUntilCleared() {
+        AddonMetrics metrics = new AddonMetrics();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        metrics.setMeterRegistry(meterRegistry);
+        PayloadDispatcher dispatcher = new PayloadDispatcher(metrics, "mqtt:topic:sensor");
+        byte[] payload = "on".getBytes(StandardCharsets.UTF_8);
+
+        dispatcher.decode(TOPIC, payload).getText();
+        dispatcher.decode(TOPIC, payload);
+        assertThat(meterRegistry.get("openhab.mqtt.topic.messages").tag("thing", "mqtt:topic:sensor")
+                .tag("topic", TOPIC).functionCounter().count(), is(1.0));
+        assertThat(meterRegistry.get("openhab.mqtt.topic.deliveries").functionCounter().count(), is(2.0));
+        assertThat(meterRegistry.get("openhab.mqtt.topic.decode").functionTimer().count(), is(1.0));
+
+        dispatcher.clear();
+        assertThat(meterRegistry.getMeters().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testFailedParseIsShared() {
+        DecodedPayload payload = new DecodedPayload("not json".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(payload.getParsed(Integer.class, text -> {
+            parseCount.incrementAndGet();
+            return null;
+        }), is(nullValue()));
+        assertThat(payload.getParsed(Integer.class, text -> {
+            parseCount.incrementAndGet();
+            return null;
+        }), is(nullValue()));
+        assertThat(parseCount.get(), is(1));
+    }
+}
@@ -23,15 +23,19 @@ import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantJinjaFunctionLibrary;
 import org.openhab.binding.mqtt.homeassistant.internal.handler.HomeAssistantThingHandler;
 import org.openhab.core.i18n.UnitProvider;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingTypeUID;
 import org.openhab.core.thing.binding.BaseThingHandlerFactory;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
 import org.openhab.core.thing.type.ChannelTypeRegistry;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 
 import com.hubspot.jinjava.Jinjava;
 
@@ -40,6 +44,7 @@ import com.hubspot.jinjava.Jinjava;
  * handlers.
  *
  * @author David Graeff - Initial contribution
+ * @author Cody Cutrer - Metrics of the state topics
  */
 @Component(service = ThingHandlerFactory.class)
 @NonNullByDefault
@@ -49,6 +54,7 @@ public class MqttThingHandlerFactory extends BaseThingHandlerFactory {
     private final ChannelTypeRegistry channelTypeRegistry;
     private final Jinjava jinjava = new Jinjava();
     private final UnitProvider unitProvider;
+    private final AddonMetrics metrics = new AddonMetrics();
 
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Stream
             .of(MqttBindingConstants.HOMEASSISTANT_MQTT_THING).collect(Collectors.toSet());
@@ -81,7 +87,7 @@ public class MqttThingHandlerFactory extends BaseThingHandlerFactory {
 
         if (supportsThingType(thingTypeUID)) {
             return new HomeAssistantThingHandler(thing, typeProvider, stateDescriptionProvider, channelTypeRegistry,
-                    jinjava, unitProvider, 10000, 2000);
+                    jinjava, unitProvider, 10000, 2000, metrics);
         }
         return null;
     }
@@ -89,4 +95,13 @@ public class MqttThingHandlerFactory extends BaseThingHandlerFactory {
     public Jinjava getJinjava() {
         return jinjava;
     }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+    }
 }
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
+
+/**
+ * A Jinja template which is parsed only once, instead of on every {@link Jinjava#render(String, Map)}.
+ *
+ * If the template has one of the shapes supported by {@link SimpleTemplate}, it can also be evaluated without Jinjava.
+ * The first results of the {@link SimpleTemplate} are compared with the results of Jinjava, and it is only used on its
+ * own when they matched. A sample of the later results is still compared, so a payload which the simple form evaluates
+ * differently falls back to Jinjava as well.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class CompiledTemplate {
+    private static final int SIMPLE_TEMPLATE_VERIFICATIONS = 5;
+    private static final int SIMPLE_TEMPLATE_SAMPLE_INTERVAL = 100;
+
+    private final String template;
+    private final @Nullable Node root;
+    private final boolean usesValueJson;
+    private volatile @Nullable SimpleTemplate simpleTemplate;
+    private final AtomicInteger remainingVerifications = new AtomicInteger(SIMPLE_TEMPLATE_VERIFICATIONS);
+    private final AtomicInteger trustedResults = new AtomicInteger();
+
+    private CompiledTemplate(String template, @Nullable Node root, @Nullable SimpleTemplate simpleTemplate) {
+        this.template = template;
+        this.root = root;
+        this.simpleTemplate = simpleTemplate;
+        this.usesValueJson = template.contains("value_json");
+    }
+
+    /**
+     * Parses a template.
+     *
+     * @param jinjava the Jinjava instance to parse and render the template with
+     * @param template the template
+     * @return the compiled template. Templates with syntax errors are rendered by Jinjava as they are, which reports
+     *         the errors.
+     */
+    public static CompiledTemplate compile(Jinjava jinjava, String template) {
+        Node root = null;
+        try {
+            JinjavaInterpreter interpreter = jinjava.newInterpreter();
+            Node parsed = interpreter.parse(template);
+            if (interpreter.getErrors().isEmpty()) {
+                root = parsed;
+            }
+        } catch (RuntimeException e) {
+            // rendering reports the error
+        }
+        return new CompiledTemplate(template, root,
+                SimpleTemplate.compile(template, jinjava.getGlobalConfig().getLocale()));
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return whether the template uses <code>value_json</code>, i.e. whether it needs the parsed payload
+     */
+    public boolean usesValueJson() {
+        return usesValueJson;
+    }
+
+    /**
+     * @return the simple form of the template, or <code>null</code> if it must be rendered by Jinjava
+     */
+    public @Nullable SimpleTemplate getSimpleTemplate() {
+        return simpleTemplate;
+    }
+
+    /**
+     * Decides whether the next result of the simple form of the template is used without rendering the template by
+     * Jinjava as well.
+     *
+     * @return whether the results of the simple form of the template matched those of Jinjava often enough to skip
+     *         Jinjava, false for every {@value #SIMPLE_TEMPLATE_SAMPLE_INTERVAL}th result which is verified again
+     */
+    public boolean trustSimpleTemplate() {
+        if (remainingVerifications.get() > 0) {
+            return false;
+        }
+        return trustedResults.incrementAndGet() % SIMPLE_TEMPLATE_SAMPLE_INTERVAL != 0;
+    }
+
+    /**
+     * Compares a result of the simple form of the template with the result of Jinjava. The simple form is not used
+     * anymore if they differ.
+     *
+     * @param simpleResult the result of the simple form
+     * @param result the result of Jinjava, <code>null</code> if rendering failed
+     * @return whether the results match
+     */
+    public boolean verifySimpleTemplate(String simpleResult, @Nullable String result) {
+        if (simpleResult.equals(result)) {
+            remainingVerifications.decrementAndGet();
+            return true;
+        }
+        simpleTemplate = null;
+        return false;
+    }
+
+    /**
+     * Renders the template like {@link Jinjava#render(String, Map)}, but using the parsed template.
+     *
+     * @param jinjava the Jinjava instance the template was compiled with
+     * @param bindings the variables of the template
+     * @return the result
+     * @throws FatalTemplateErrorsException if rendering failed
+     */
+    public String render(Jinjava jinjava, Map<String, @Nullable Object> bindings) {
+        Node root = this.root;
+        if (root == null) {
+            return jinjava.render(template, bindings);
+        }
+
+        JinjavaConfig config = jinjava.getGlobalConfig();
+        Context context = new Context(jinjava.getGlobalContext(), bindings, config.getDisabled());
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, context, config);
+        String result = null;
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            result = interpreter.render(root);
+        } catch (RuntimeException e) {
+            // handled below
+        } finally {
+            jinjava.getGlobalContext().reset();
+            JinjavaInterpreter.popCurrent();
+        }
+        if (result == null) {
+            // let Jinjava turn the exception into template errors
+            return jinjava.render(template, bindings);
+        }
+
+        List<TemplateError> fatalErrors = interpreter.getErrors().stream()
+                .filter(error -> error.getSeverity() == ErrorType.FATAL).toList();
+        if (!fatalErrors.isEmpty()) {
+            throw new FatalTemplateErrorsException(template, fatalErrors);
+        }
+        return result;
+    }
+}
@@ -73,6 +73,18 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         void componentDiscovered(HaID homeAssistantTopicID, AbstractComponent<?> component);
 
         void componentRemoved(HaID homeAssistantTopicID);
+
+        /**
+         * Checks whether a component with exactly the given configuration is already known, e.g. because it was
+         * restored from the channel configuration. Such retained configurations are not parsed again.
+         *
+         * @param homeAssistantTopicID the topic of the component
+         * @param configJSON the configuration of the component
+         * @return whether the component is known and unchanged
+         */
+        default boolean isKnownComponent(HaID homeAssistantTopicID, String configJSON) {
+            return false;
+        }
     }
 
     /**
@@ -106,6 +118,11 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         AbstractComponent<?> component = null;
 
         if (config.length() > 0) {
+            ComponentDiscovered discoveredListener = this.discoveredListener;
+            if (discoveredListener != null && discoveredListener.isKnownComponent(haID, config)) {
+                logger.trace("HomeAssistant component {} is unchanged", haID);
+                return;
+            }
             try {
                 component = ComponentFactory.createComponent(thingUID, haID, config, updateListener, tracker, scheduler,
                         gson, jinjava, unitProvider, newStyleChannels);
@@ -23,6 +23,8 @@ import java.util.Optional;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.mqtt.generic.DecodedPayload;
+import org.openhab.binding.mqtt.generic.DecodedPayloadTransformation;
 import org.openhab.binding.mqtt.homeassistant.internal.component.AbstractComponent;
 import org.openhab.core.thing.binding.generic.ChannelTransformation;
 import org.slf4j.Logger;
@@ -40,10 +42,13 @@ import com.hubspot.jinjava.interpret.JinjavaInterpreter;
  * Jinja2 template, providing the additional context and extensions required by Home Assistant
  * Based in part on the JinjaTransformationService
  *
+ * Components sharing a JSON state topic share the parsed payload of each message, see {@link DecodedPayload}.
+ *
  * @author Cody Cutrer - Initial contribution
  */
 @NonNullByDefault
-public class HomeAssistantChannelTransformation extends ChannelTransformation {
+public class HomeAssistantChannelTransformation extends ChannelTransformation
+        implements DecodedPayloadTransformation {
     public static class UndefinedException extends InvalidInputException {
         public UndefinedException(JinjavaInterpreter interpreter) {
             super(interpreter, "is_defined", "Value is undefined");
@@ -55,6 +60,7 @@ public class HomeAssistantChannelTransformation extends ChannelTransformation {
     private final Jinjava jinjava;
     private final AbstractComponent component;
     private final String template;
+    private final TemplateCache templateCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public HomeAssistantChannelTransformation(Jinjava jinjava, AbstractComponent component, String template) {
@@ -62,6 +68,7 @@ public class HomeAssistantChannelTransformation extends ChannelTransformation {
         this.jinjava = jinjava;
         this.component = component;
         this.template = template;
+        this.templateCache = TemplateCache.forJinjava(jinjava);
     }
 
     @Override
@@ -74,28 +81,56 @@ public class HomeAssistantChannelTransformation extends ChannelTransformation {
         return apply(template, value);
     }
 
+    @Override
+    public Optional<String> apply(DecodedPayload payload) {
+        return apply(template, payload.getText(), payload);
+    }
+
     public Optional<String> apply(String template, String value) {
-        Map<String, @Nullable Object> bindings = new HashMap<>();
+        return apply(template, value, null);
+    }
+
+    private Optional<String> apply(String template, String value, @Nullable DecodedPayload payload) {
+        CompiledTemplate compiledTemplate = templateCache.get(jinjava, template);
 
         logger.debug("about to transform '{}' by the function '{}'", value, template);
 
-        bindings.put("value", value);
+        JsonNode tree = null;
+        if (compiledTemplate.usesValueJson()) {
+            // the tree is only read, so it can be shared by the components subscribed to the same topic
+            tree = payload == null ? readTree(value) : payload.getParsed(JsonNode.class, this::readTree);
+        }
 
-        try {
-            JsonNode tree = objectMapper.readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
+        SimpleTemplate simpleTemplate = compiledTemplate.getSimpleTemplate();
+        String simpleResult = simpleTemplate == null ? null : simpleTemplate.apply(value, tree);
+        if (simpleResult != null && compiledTemplate.trustSimpleTemplate()) {
+            logger.debug("transformation resulted in '{}'", simpleResult);
+            return Optional.of(simpleResult);
         }
 
-        return apply(template, bindings);
+        Map<String, @Nullable Object> bindings = new HashMap<>();
+        bindings.put("value", value);
+        if (tree != null) {
+            bindings.put("value_json", toObject(tree));
+        }
+        Optional<String> result = apply(compiledTemplate, bindings);
+        if (simpleResult != null && !compiledTemplate.verifySimpleTemplate(simpleResult, result.orElse(null))) {
+            logger.debug("Template {} for component {} evaluated to '{}' instead of '{}', always using Jinjava",
+                    template, component.getHaID().toShortTopic(), simpleResult, result.orElse(null));
+        }
+        return result;
     }
 
     public Optional<String> apply(String template, Map<String, @Nullable Object> bindings) {
+        return apply(templateCache.get(jinjava, template), bindings);
+    }
+
+    private Optional<String> apply(CompiledTemplate compiledTemplate, Map<String, @Nullable Object> bindings) {
+        String template = compiledTemplate.getTemplate();
         String transformationResult;
 
         try {
-            transformationResult = jinjava.render(template, bindings);
+            transformationResult = compiledTemplate.render(jinjava, bindings);
         } catch (FatalTemplateErrorsException e) {
             var error = e.getErrors().iterator();
             Exception exception = null;
@@ -116,6 +151,15 @@ public class HomeAssistantChannelTransformation extends ChannelTransformation {
         return Optional.of(transformationResult);
     }
 
+    private @Nullable JsonNode readTree(String value) {
+        try {
+            return objectMapper.readTree(value);
+        } catch (IOException e) {
+            // ok, then value_json is null...
+            return null;
+        }
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A template of one of the most common shapes, which is evaluated directly on the payload instead of by Jinjava:
+ *
+ * <ul>
+ * <li><code>{{ value }}</code></li>
+ * <li><code>{{ value_json.a.b }}</code>, where the value at the path is a string, number or boolean</li>
+ * <li>either of the above, followed by any of the filters <code>float</code>, <code>int</code> and
+ * <code>round(precision)</code></li>
+ * </ul>
+ *
+ * The filters behave like the Jinjava filters of the same name. Anything else, e.g. a missing value, is not handled by
+ * {@link #apply(String, JsonNode)}, and must be rendered by Jinjava.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class SimpleTemplate {
+    private static final Pattern TEMPLATE_PATTERN = Pattern.compile(
+            "\\{\\{\\s*(value|value_json(?:\\.[A-Za-z_][A-Za-z0-9_]*)+)\\s*((?:\\|\\s*[a-z]+\\s*(?:\\(\\s*\\d+\\s*\\)\\s*)?)*)\\}\\}");
+    private static final Pattern FILTER_PATTERN = Pattern.compile("\\|\\s*([a-z]+)\\s*(?:\\(\\s*(\\d+)\\s*\\)\\s*)?");
+    // names which are parsed as operators or literals instead of attributes
+    private static final Set<String> RESERVED_NAMES = Set.of("and", "or", "not", "in", "is", "if", "else", "true",
+            "false", "none", "null", "True", "False", "None", "div", "mod", "eq", "ne", "lt", "gt", "le", "ge", "empty",
+            "instanceof");
+
+    private enum FilterType {
+        FLOAT,
+        INT,
+        ROUND
+    }
+
+    private record Filter(FilterType type, int precision) {
+    }
+
+    private final String[] path;
+    private final List<Filter> filters;
+    private final Locale locale;
+
+    private SimpleTemplate(String[] path, List<Filter> filters, Locale locale) {
+        this.path = path;
+        this.filters = filters;
+        this.locale = locale;
+    }
+
+    /**
+     * Compiles a template, if it has one of the supported shapes.
+     *
+     * @param template the template
+     * @param locale the locale used by Jinjava to parse numbers
+     * @return the compiled template, or <code>null</code> if the template must be rendered by Jinjava
+     */
+    public static @Nullable SimpleTemplate compile(String template, Locale locale) {
+        Matcher matcher = TEMPLATE_PATTERN.matcher(template);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String[] names = matcher.group(1).split("\\.");
+        String[] path = new String[names.length - 1];
+        for (int i = 1; i < names.length; i++) {
+            if (RESERVED_NAMES.contains(names[i])) {
+                return null;
+            }
+            path[i - 1] = names[i];
+        }
+
+        List<Filter> filters = new ArrayList<>();
+        Matcher filterMatcher = FILTER_PATTERN.matcher(matcher.group(2));
+        while (filterMatcher.find()) {
+            String name = filterMatcher.group(1);
+            String argument = filterMatcher.group(2);
+            switch (name) {
+                case "float":
+                case "int":
+                    if (argument != null) {
+                        // default values are not supported
+                        return null;
+                    }
+                    filters.add(new Filter("float".equals(name) ? FilterType.FLOAT : FilterType.INT, 0));
+                    break;
+                case "round":
+                    filters.add(new Filter(FilterType.ROUND, argument == null ? 0 : Integer.parseInt(argument)));
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return new SimpleTemplate(path, List.copyOf(filters), locale);
+    }
+
+    /**
+     * @return whether the template uses <code>value_json</code>
+     */
+    public boolean usesValueJson() {
+        return path.length > 0;
+    }
+
+    /**
+     * Evaluates the template.
+     *
+     * @param value the payload
+     * @param json the parsed payload, or <code>null</code> if it is not JSON
+     * @return the result, or <code>null</code> if the template cannot be evaluated without Jinjava for this payload
+     */
+    public @Nullable String apply(String value, @Nullable JsonNode json) {
+        Object result;
+        if (path.length == 0) {
+            result = value;
+        } else {
+            JsonNode node = json;
+            for (String name : path) {
+                if (node == null || !node.isObject()) {
+                    return null;
+                }
+                node = node.get(name);
+            }
+            if (node == null) {
+                return null;
+            } else if (node.isTextual()) {
+                result = node.asText();
+            } else if (node.isBoolean()) {
+                result = node.booleanValue();
+            } else if (node.isNumber()) {
+                result = node.decimalValue();
+            } else {
+                // objects, arrays and null
+                return null;
+            }
+        }
+
+        for (Filter filter : filters) {
+            result = switch (filter.type()) {
+                case FLOAT -> toFloat(result);
+                case INT -> toInt(result);
+                case ROUND -> round(result, filter.precision());
+            };
+            if (result == null) {
+                return null;
+            }
+        }
+        return result.toString();
+    }
+
+    private @Nullable Number parse(Object value) {
+        String input = value.toString().trim();
+        ParsePosition position = new ParsePosition(0);
+        Number result = NumberFormat.getNumberInstance(locale).parse(input, position);
+        if (position.getErrorIndex() != -1 || position.getIndex() != input.length()) {
+            return null;
+        }
+        return result;
+    }
+
+    private Object toFloat(Object value) {
+        Number number = value instanceof Number n ? n : parse(value);
+        return number == null ? 0.0f : number.floatValue();
+    }
+
+    private @Nullable Object toInt(Object value) {
+        Number number = value instanceof Number n ? n : parse(value);
+        if (number == null) {
+            return 0;
+        }
+        double doubleValue = number.doubleValue();
+        if (doubleValue < Integer.MIN_VALUE || doubleValue > Integer.MAX_VALUE) {
+            // leave larger numbers to Jinjava
+            return null;
+        }
+        return number.intValue();
+    }
+
+    private Object round(Object value, int precision) {
+        BigDecimal decimal;
+        try {
+            decimal = new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            decimal = BigDecimal.ZERO;
+        }
+        return decimal.setScale(precision, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.hubspot.jinjava.Jinjava;
+
+/**
+ * Keeps the recently used templates of a {@link Jinjava} instance in compiled form, keyed by their text.
+ *
+ * Many components of the same kind of device use the same templates, so they also share the compiled templates.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class TemplateCache {
+    private static final int MAX_SIZE = 1000;
+
+    // compiled templates depend on the configuration of the Jinjava instance
+    private static final Map<Jinjava, TemplateCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<String, CompiledTemplate> templates = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledTemplate> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /**
+     * @param jinjava the Jinjava instance
+     * @return the cache of the templates rendered by the Jinjava instance
+     */
+    public static TemplateCache forJinjava(Jinjava jinjava) {
+        return CACHES.computeIfAbsent(jinjava, j -> new TemplateCache());
+    }
+
+    /**
+     * Returns a compiled template, compiling it if it is not in the cache.
+     *
+     * @param jinjava the Jinjava instance of this cache
+     * @param template the template
+     * @return the compiled template
+     */
+    public CompiledTemplate get(Jinjava jinjava, String template) {
+        synchronized (templates) {
+            @Nullable
+            CompiledTemplate compiled = templates.get(template);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+        CompiledTemplate compiled = CompiledTemplate.compile(jinjava, template);
+        synchronized (templates) {
+            templates.putIfAbsent(template, compiled);
+        }
+        return compiled;
+    }
+
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.util.Objects;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.DecodedPayload;
 import org.openhab.binding.mqtt.generic.values.LocationValue;
 import org.openhab.binding.mqtt.generic.values.NumberValue;
 import org.openhab.binding.mqtt.generic.values.OnOffValue;
@@ -225,6 +226,11 @@ public class DeviceTracker extends AbstractComponent<DeviceTracker.ChannelConfig
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public @Nullable DecodedPayload decodePayload(String topic, byte[] payload) {
+        return channelStateUpdateListener.decodePayload(topic, payload);
+    }
+
     @Override
     public void triggerChannel(ChannelUID channelUID, String eventPayload) {
         throw new UnsupportedOperationException();
@@ -16,7 +16,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.DecodedPayload;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.binding.mqtt.homeassistant.internal.ComponentChannelType;
 import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantChannelTransformation;
@@ -110,4 +112,9 @@ public class Event extends AbstractComponent<Event.ChannelConfiguration> impleme
     public void postChannelCommand(ChannelUID channel, Command command) {
         // N/A (only trigger channels)
     }
+
+    @Override
+    public @Nullable DecodedPayload decodePayload(String topic, byte[] payload) {
+        return componentConfiguration.getUpdateListener().decodePayload(topic, payload);
+    }
 }
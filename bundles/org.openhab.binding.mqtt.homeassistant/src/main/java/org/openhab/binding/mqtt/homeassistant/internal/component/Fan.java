@@ -19,6 +19,7 @@ import java.util.Objects;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.DecodedPayload;
 import org.openhab.binding.mqtt.generic.values.OnOffValue;
 import org.openhab.binding.mqtt.generic.values.PercentageValue;
 import org.openhab.binding.mqtt.generic.values.TextValue;
@@ -240,6 +241,11 @@ public class Fan extends AbstractComponent<Fan.ChannelConfiguration> implements
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public @Nullable DecodedPayload decodePayload(String topic, byte[] payload) {
+        return channelStateUpdateListener.decodePayload(topic, payload);
+    }
+
     @Override
     public void triggerChannel(ChannelUID channelUID, String eventPayload) {
         throw new UnsupportedOperationException();
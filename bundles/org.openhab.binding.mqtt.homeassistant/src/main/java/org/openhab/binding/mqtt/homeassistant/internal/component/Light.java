@@ -18,6 +18,7 @@ import java.util.List;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.DecodedPayload;
 import org.openhab.binding.mqtt.generic.mapping.ColorMode;
 import org.openhab.binding.mqtt.generic.values.ColorValue;
 import org.openhab.binding.mqtt.generic.values.NumberValue;
@@ -307,6 +308,11 @@ public abstract class Light extends AbstractComponent<Light.ChannelConfiguration
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public @Nullable DecodedPayload decodePayload(String topic, byte[] payload) {
+        return channelStateUpdateListener.decodePayload(topic, payload);
+    }
+
     @Override
     public void triggerChannel(ChannelUID channelUID, String eventPayload) {
         throw new UnsupportedOperationException();
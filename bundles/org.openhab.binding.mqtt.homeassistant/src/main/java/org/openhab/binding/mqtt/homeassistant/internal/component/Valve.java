@@ -26,6 +26,7 @@ import java.util.Set;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.DecodedPayload;
 import org.openhab.binding.mqtt.generic.values.OnOffValue;
 import org.openhab.binding.mqtt.generic.values.PercentageValue;
 import org.openhab.binding.mqtt.generic.values.TextValue;
@@ -302,6 +303,11 @@ public class Valve extends AbstractComponent<Valve.ChannelConfiguration> impleme
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public @Nullable DecodedPayload decodePayload(String topic, byte[] payload) {
+        return channelStateUpdateListener.decodePayload(topic, payload);
+    }
+
     @Override
     public void triggerChannel(ChannelUID channelUID, String eventPayload) {
         throw new UnsupportedOperationException();
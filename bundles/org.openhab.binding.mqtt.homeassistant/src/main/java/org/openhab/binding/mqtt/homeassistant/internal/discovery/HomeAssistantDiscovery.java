@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -76,6 +77,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     protected final Map<String, ThingUID> thingIDPerTopic = new HashMap<>();
     protected final Map<String, DiscoveryResult> results = new HashMap<>();
     protected final Map<String, DiscoveryResult> allResults = new HashMap<>();
+    // The last parsed configuration of each topic, to skip parsing when Home Assistant re-publishes it unchanged
+    private final Map<String, ParsedConfiguration> parsedConfigurations = new ConcurrentHashMap<>();
 
     private @Nullable ScheduledFuture<?> future;
     private final Gson gson;
@@ -90,6 +93,9 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     @NonNullByDefault({})
     protected MQTTTopicDiscoveryService mqttTopicDiscovery;
 
+    private record ParsedConfiguration(String json, AbstractChannelConfiguration config) {
+    }
+
     @Activate
     public HomeAssistantDiscovery(@Nullable Map<String, Object> properties) {
         super(null, 3, true, BASE_TOPIC + "/#");
@@ -151,8 +157,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         HaID haID = new HaID(topic);
 
         try {
-            AbstractChannelConfiguration config = AbstractChannelConfiguration
-                    .fromString(new String(payload, StandardCharsets.UTF_8), gson);
+            AbstractChannelConfiguration config = parseConfiguration(topic,
+                    new String(payload, StandardCharsets.UTF_8));
 
             final String thingID = config.getThingId(haID.objectID);
             final ThingUID thingUID = new ThingUID(MqttBindingConstants.HOMEASSISTANT_MQTT_THING, bridgeUID, thingID);
@@ -175,6 +181,16 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         }
     }
 
+    private AbstractChannelConfiguration parseConfiguration(String topic, String json) {
+        ParsedConfiguration parsed = parsedConfigurations.get(topic);
+        if (parsed != null && parsed.json().equals(json)) {
+            return parsed.config();
+        }
+        AbstractChannelConfiguration config = AbstractChannelConfiguration.fromString(json, gson);
+        parsedConfigurations.put(topic, new ParsedConfiguration(json, config));
+        return config;
+    }
+
     @Override
     protected void startScan() {
         super.startScan();
@@ -252,6 +268,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
+        parsedConfigurations.remove(topic);
         synchronized (results) {
             ThingUID thingUID = thingIDPerTopic.remove(topic);
             if (thingUID != null) {
@@ -58,6 +58,7 @@ import org.openhab.core.thing.ThingTypeUID;
 import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.binding.builder.ThingBuilder;
 import org.openhab.core.thing.type.ChannelTypeRegistry;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -126,7 +127,24 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
     public HomeAssistantThingHandler(Thing thing, MqttChannelTypeProvider channelTypeProvider,
             MqttChannelStateDescriptionProvider stateDescriptionProvider, ChannelTypeRegistry channelTypeRegistry,
             Jinjava jinjava, UnitProvider unitProvider, int subscribeTimeout, int attributeReceiveTimeout) {
-        super(thing, subscribeTimeout);
+        this(thing, channelTypeProvider, stateDescriptionProvider, channelTypeRegistry, jinjava, unitProvider,
+                subscribeTimeout, attributeReceiveTimeout, new AddonMetrics());
+    }
+
+    /**
+     * Create a new thing handler for HomeAssistant MQTT components, which publishes the metrics of its state topics.
+     *
+     * @param thing The thing of this handler
+     * @param channelTypeProvider A channel type provider
+     * @param subscribeTimeout Timeout for the entire tree parsing and subscription. In milliseconds.
+     * @param attributeReceiveTimeout The timeout per attribute field subscription. In milliseconds.
+     * @param metrics Registers the meters of the state topics
+     */
+    public HomeAssistantThingHandler(Thing thing, MqttChannelTypeProvider channelTypeProvider,
+            MqttChannelStateDescriptionProvider stateDescriptionProvider, ChannelTypeRegistry channelTypeRegistry,
+            Jinjava jinjava, UnitProvider unitProvider, int subscribeTimeout, int attributeReceiveTimeout,
+            AddonMetrics metrics) {
+        super(thing, subscribeTimeout, metrics);
         this.gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
         this.channelTypeProvider = channelTypeProvider;
         this.stateDescriptionProvider = stateDescriptionProvider;
@@ -283,6 +301,22 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         delayedProcessing.accept(haID);
     }
 
+    /**
+     * Callback of {@link DiscoverComponents}. Retained configurations of components which were restored from the
+     * channel configuration are usually unchanged, and don't need to be parsed or added again.
+     */
+    @Override
+    public boolean isKnownComponent(HaID haID, String configJSON) {
+        synchronized (haComponents) {
+            AbstractComponent<?> known = haComponentsByHaId.get(haID);
+            if (known == null || !known.getChannelConfigurationJson().equals(configJSON)) {
+                return false;
+            }
+            known.setConfigSeen();
+            return true;
+        }
+    }
+
     /**
      * Callback of {@link DelayedBatchProcessing}.
      * Add all newly discovered and removed components to the Thing and start the components.
@@ -317,6 +351,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
 
         synchronized (haComponents) { // sync whenever discoverComponents is started
             ThingTypeUID typeID = getThing().getThingTypeUID();
+            boolean componentsChanged = false;
             for (AbstractComponent<?> discovered : discoveredComponentsList) {
                 if (typeID.equals(MqttBindingConstants.HOMEASSISTANT_MQTT_THING)) {
                     typeID = calculateThingTypeUID(discovered);
@@ -341,6 +376,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
                     }
                 }
 
+                componentsChanged = true;
                 // Add component to the component map
                 if (addComponent(discovered)) {
                     // Start component / Subscribe to channel topics
@@ -355,7 +391,10 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
                     updateComponent.setReleaseStateUpdateListener(this::releaseStateUpdated);
                 }
             }
-            updateThingType(typeID);
+            // don't regenerate the channel types if all components were re-published unchanged
+            if (componentsChanged) {
+                updateThingType(typeID);
+            }
         }
     }
 
@@ -13,7 +13,9 @@
 package org.openhab.binding.mqtt.homeassistant.internal.listener;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.DecodedPayload;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
@@ -48,4 +50,9 @@ public abstract class ChannelStateUpdateListenerProxy implements ChannelStateUpd
     public void triggerChannel(ChannelUID channelUID, String eventPayload) {
         original.triggerChannel(channelUID, eventPayload);
     }
+
+    @Override
+    public @Nullable DecodedPayload decodePayload(String topic, byte[] payload) {
+        return original.decodePayload(topic, payload);
+    }
 }
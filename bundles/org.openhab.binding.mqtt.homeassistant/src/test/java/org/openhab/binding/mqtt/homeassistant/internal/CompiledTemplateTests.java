@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import com.hubspot.jinjava.Jinjava;
+
+/**
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class CompiledTemplateTests {
+
+    @Test
+    public void testSimpleTemplateIsVerifiedBySamples() {
+        CompiledTemplate template = CompiledTemplate.compile(new Jinjava(), "{{ value }}");
+        assertThat(template.getSimpleTemplate(), is(notNullValue()));
+
+        int verifications = 0;
+        for (int i = 0; i < 1005; i++) {
+            if (!template.trustSimpleTemplate()) {
+                verifications++;
+                assertThat(template.verifySimpleTemplate("ON", "ON"), is(true));
+            }
+        }
+        // the first 5 results and every 100th result afterwards
+        assertThat(verifications, is(15));
+        assertThat(template.getSimpleTemplate(), is(notNullValue()));
+    }
+
+    @Test
+    public void testSimpleTemplateIsDroppedWhenASampleDiffers() {
+        CompiledTemplate template = CompiledTemplate.compile(new Jinjava(), "{{ value }}");
+        for (int i = 0; i < 5; i++) {
+            template.verifySimpleTemplate("ON", "ON");
+        }
+        for (int i = 0; i < 99; i++) {
+            assertThat(template.trustSimpleTemplate(), is(true));
+        }
+        assertThat(template.trustSimpleTemplate(), is(false));
+
+        assertThat(template.verifySimpleTemplate("1.0", "1"), is(false));
+        assertThat(template.getSimpleTemplate(), is(nullValue()));
+    }
+}
@@ -12,12 +12,14 @@
  */
 package org.openhab.binding.mqtt.homeassistant.internal;
 
-import static org.hamcrest.CoreMatchers.is;
-import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,8 +30,10 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.openhab.binding.mqtt.generic.DecodedPayload;
 import org.openhab.binding.mqtt.generic.MqttChannelStateDescriptionProvider;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
+import org.openhab.binding.mqtt.generic.PayloadDispatcher;
 import org.openhab.binding.mqtt.homeassistant.generic.internal.MqttThingHandlerFactory;
 import org.openhab.binding.mqtt.homeassistant.internal.component.AbstractComponent;
 import org.openhab.core.i18n.UnitProvider;
@@ -37,6 +41,8 @@ import org.openhab.core.test.storage.VolatileStorageService;
 import org.openhab.core.thing.type.ChannelTypeRegistry;
 import org.openhab.core.thing.type.ThingTypeRegistry;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 /**
  * @author Jochen Klein - Initial contribution
  */
@@ -47,6 +53,8 @@ public class HomeAssistantChannelTransformationTests {
     protected @Mock @NonNullByDefault({}) ThingTypeRegistry thingTypeRegistry;
     protected @Mock @NonNullByDefault({}) UnitProvider unitProvider;
 
+    protected @NonNullByDefault({}) MqttThingHandlerFactory thingHandlerFactory;
+    protected @NonNullByDefault({}) AbstractComponent component;
     protected @NonNullByDefault({}) HomeAssistantChannelTransformation transformation;
 
     @BeforeEach
@@ -55,10 +63,10 @@ public class HomeAssistantChannelTransformationTests {
                 new VolatileStorageService());
         MqttChannelStateDescriptionProvider stateDescriptionProvider = new MqttChannelStateDescriptionProvider();
         ChannelTypeRegistry channelTypeRegistry = new ChannelTypeRegistry();
-        MqttThingHandlerFactory thingHandlerFactory = new MqttThingHandlerFactory(channelTypeProvider,
+        thingHandlerFactory = new MqttThingHandlerFactory(channelTypeProvider,
                 stateDescriptionProvider, channelTypeRegistry, unitProvider);
 
-        AbstractComponent component = Mockito.mock(AbstractComponent.class);
+        component = Mockito.mock(AbstractComponent.class);
         HaID haID = new HaID("homeassistant/light/pool/light/config");
         when(component.getHaID()).thenReturn(haID);
         transformation = new HomeAssistantChannelTransformation(thingHandlerFactory.getJinjava(), component, "");
@@ -98,6 +106,45 @@ public class HomeAssistantChannelTransformationTests {
     public void testIsDefined() {
         assertThat(transform("{{ value_json.val | is_defined }}", "{}"), is(nullValue()));
         assertThat(transform("{{ 'hi' | is_defined }}", "{}"), is("hi"));
+        // parsed templates are cached
+        assertThat(transform("{{ value_json.val | is_defined }}", "{\"val\": 1}"), is("1"));
+        assertThat(transform("{{ value_json.val | is_defined }}", "{}"), is(nullValue()));
+    }
+
+    @Test
+    public void testSimpleTemplates() {
+        // the first results are also rendered by Jinjava, later results are only evaluated directly
+        for (int i = 0; i < 10; i++) {
+            String temperature = "2" + i + ".5";
+            assertThat(transform("{{ value_json.temperature }}", "{\"temperature\": " + temperature + "}"),
+                    is(temperature));
+            assertThat(transform("{{ value_json.state }}", "{\"state\": \"ON\"}"), is("ON"));
+            assertThat(transform("{{ value | round(0) }}", "1.1"), is("1"));
+        }
+        // values that cannot be evaluated directly are rendered by Jinjava
+        assertThat(transform("{{ value_json.state }}", "{}"), is(""));
+        assertThat(transform("{{ value_json.val | is_defined }}", "{}"), is(nullValue()));
+    }
+
+    @Test
+    public void testSharedPayload() {
+        HomeAssistantChannelTransformation state = new HomeAssistantChannelTransformation(
+                thingHandlerFactory.getJinjava(), component, "{{ value_json.state }}");
+        HomeAssistantChannelTransformation temperature = new HomeAssistantChannelTransformation(
+                thingHandlerFactory.getJinjava(), component, "{{ value_json.temperature | round(1) }}");
+        PayloadDispatcher dispatcher = new PayloadDispatcher();
+        byte[] payload = "{\"state\": \"ON\", \"temperature\": 21.46}".getBytes(StandardCharsets.UTF_8);
+
+        DecodedPayload decoded = dispatcher.decode("zigbee2mqtt/sensor", payload);
+        assertThat(state.apply(decoded).orElse(null), is("ON"));
+        assertThat(dispatcher.decode("zigbee2mqtt/sensor", payload), is(sameInstance(decoded)));
+        assertThat(temperature.apply(decoded).orElse(null), is("21.5"));
+
+        // the tree was parsed by the first transformation, and reused by the second
+        JsonNode tree = decoded.<JsonNode> getParsed(JsonNode.class, value -> null);
+        assertThat(tree, is(notNullValue()));
+        assertThat(Objects.requireNonNull(dispatcher.getTopicStatistics().get("zigbee2mqtt/sensor")).fanOut(),
+                is(2.0));
     }
 
     protected @Nullable String transform(String template, String value) {
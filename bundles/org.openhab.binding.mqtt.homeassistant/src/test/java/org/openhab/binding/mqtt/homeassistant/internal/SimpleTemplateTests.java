@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class SimpleTemplateTests {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static @Nullable SimpleTemplate compile(String template) {
+        return SimpleTemplate.compile(template, Locale.ENGLISH);
+    }
+
+    private @Nullable String apply(String template, String value) {
+        SimpleTemplate simpleTemplate = Objects.requireNonNull(compile(template));
+        JsonNode json;
+        try {
+            json = objectMapper.readTree(value);
+        } catch (IOException e) {
+            json = null;
+        }
+        return simpleTemplate.apply(value, json);
+    }
+
+    @Test
+    public void testSupportedShapes() {
+        assertThat(compile("{{ value }}"), is(notNullValue()));
+        assertThat(compile("{{value_json.temperature}}"), is(notNullValue()));
+        assertThat(compile("{{ value_json.state.power_l1 }}"), is(notNullValue()));
+        assertThat(compile("{{ value_json.temperature | float }}"), is(notNullValue()));
+        assertThat(compile("{{ value | round(1) }}"), is(notNullValue()));
+        assertThat(compile("{{ value_json.brightness | float | round }}"), is(notNullValue()));
+
+        assertThat(compile(" {{ value }}"), is(nullValue()));
+        assertThat(compile("{{ value }}\n"), is(nullValue()));
+        assertThat(compile("{{ value_json['temperature'] }}"), is(nullValue()));
+        assertThat(compile("{{ value_json.temperature | default(0) }}"), is(nullValue()));
+        assertThat(compile("{{ value_json.temperature | float(0) }}"), is(nullValue()));
+        assertThat(compile("{{ value_json.is }}"), is(nullValue()));
+        assertThat(compile("{{ value_json.state == 'ON' }}"), is(nullValue()));
+        assertThat(compile("{% if value %}{{ value }}{% endif %}"), is(nullValue()));
+    }
+
+    @Test
+    public void testValue() {
+        assertThat(apply("{{ value }}", "ON"), is("ON"));
+        assertThat(apply("{{ value }}", "{\"state\": \"ON\"}"), is("{\"state\": \"ON\"}"));
+        assertThat(apply("{{ value | round(1) }}", "21.55"), is("21.6"));
+        assertThat(apply("{{ value | round(0) }}", "1.1"), is("1"));
+        assertThat(apply("{{ value | round }}", "abc"), is("0"));
+    }
+
+    @Test
+    public void testValueJson() {
+        assertThat(apply("{{ value_json.state }}", "{\"state\": \"ON\"}"), is("ON"));
+        assertThat(apply("{{ value_json.temperature }}", "{\"temperature\": 21.5}"), is("21.5"));
+        assertThat(apply("{{ value_json.linkquality }}", "{\"linkquality\": 87}"), is("87"));
+        assertThat(apply("{{ value_json.a.b }}", "{\"a\": {\"b\": true}}"), is("true"));
+        assertThat(apply("{{ value_json.temperature | float }}", "{\"temperature\": \"21.5\"}"), is("21.5"));
+        assertThat(apply("{{ value_json.temperature | int }}", "{\"temperature\": 21.7}"), is("21"));
+        assertThat(apply("{{ value_json.temperature | round(1) }}", "{\"temperature\": 21.45}"), is("21.5"));
+    }
+
+    @Test
+    public void testUnsupportedValuesAreLeftToJinjava() {
+        assertThat(apply("{{ value_json.state }}", "ON"), is(nullValue()));
+        assertThat(apply("{{ value_json.state }}", "{}"), is(nullValue()));
+        assertThat(apply("{{ value_json.state }}", "{\"state\": null}"), is(nullValue()));
+        assertThat(apply("{{ value_json.state }}", "{\"state\": {\"power\": \"ON\"}}"), is(nullValue()));
+        assertThat(apply("{{ value_json.state }}", "{\"state\": [1, 2]}"), is(nullValue()));
+        assertThat(apply("{{ value_json.a.b }}", "{\"a\": 1}"), is(nullValue()));
+        assertThat(apply("{{ value_json.a | int }}", "{\"a\": 10000000000}"), is(nullValue()));
+    }
+}
@@ -238,6 +238,29 @@ public class HomeAssistantThingHandlerTests extends AbstractHomeAssistantTests {
         });
     }
 
+    @Test
+    public void testUnchangedComponentPublish() {
+        thingHandler.initialize();
+        verify(thingHandler, timeout(SUBSCRIBE_TIMEOUT)).start(any());
+
+        var configTopic = "homeassistant/climate/0x847127fffe11dd6a_climate_zigbee2mqtt/config";
+        thingHandler.discoverComponents.processMessage(configTopic,
+                getResourceAsByteArray("component/configTS0601ClimateThermostat.json"));
+        thingHandler.delayedProcessing.forceProcessNow();
+        assertThat(nonSpyThingHandler.getThing().getChannels().size(), is(7));
+        verify(channelTypeProvider, times(1)).putChannelGroupType(any());
+
+        // Home Assistant re-publishes the same configuration, e.g. after a restart
+        thingHandler.discoverComponents.processMessage(configTopic,
+                getResourceAsByteArray("component/configTS0601ClimateThermostat.json"));
+        thingHandler.delayedProcessing.forceProcessNow();
+
+        verify(thingHandler, times(2)).isKnownComponent(eq(new HaID(configTopic)), any());
+        verify(thingHandler, times(1)).componentDiscovered(any(), any());
+        verify(channelTypeProvider, times(1)).putChannelGroupType(any());
+        assertThat(nonSpyThingHandler.getThing().getChannels().size(), is(7));
+    }
+
     @Test
     public void testDispose() {
         thingHandler.initialize();
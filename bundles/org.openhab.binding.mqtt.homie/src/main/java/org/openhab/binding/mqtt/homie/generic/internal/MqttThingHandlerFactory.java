@@ -19,21 +19,26 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.generic.MqttChannelStateDescriptionProvider;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.homie.internal.handler.HomieThingHandler;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingTypeUID;
 import org.openhab.core.thing.binding.BaseThingHandlerFactory;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
 import org.openhab.core.thing.type.ChannelTypeRegistry;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 
 /**
  * The {@link MqttThingHandlerFactory} is responsible for creating things and thing
  * handlers.
  *
  * @author David Graeff - Initial contribution
+ * @author Cody Cutrer - Metrics of the state topics
  */
 @Component(service = ThingHandlerFactory.class)
 @NonNullByDefault
@@ -41,6 +46,7 @@ public class MqttThingHandlerFactory extends BaseThingHandlerFactory {
     private final MqttChannelTypeProvider typeProvider;
     private final MqttChannelStateDescriptionProvider stateDescriptionProvider;
     private final ChannelTypeRegistry channelTypeRegistry;
+    private final AddonMetrics metrics = new AddonMetrics();
 
     @Activate
     public MqttThingHandlerFactory(final @Reference MqttChannelTypeProvider typeProvider,
@@ -71,8 +77,17 @@ public class MqttThingHandlerFactory extends BaseThingHandlerFactory {
         if (supportsThingType(thingTypeUID)) {
             return new HomieThingHandler(thing, typeProvider, stateDescriptionProvider, channelTypeRegistry,
                     MqttBindingConstants.HOMIE_DEVICE_TIMEOUT_MS, MqttBindingConstants.HOMIE_SUBSCRIBE_TIMEOUT_MS,
-                    MqttBindingConstants.HOMIE_ATTRIBUTE_TIMEOUT_MS);
+                    MqttBindingConstants.HOMIE_ATTRIBUTE_TIMEOUT_MS, metrics);
         }
         return null;
     }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+    }
 }
@@ -50,6 +50,7 @@ import org.openhab.core.thing.type.ChannelTypeRegistry;
 import org.openhab.core.thing.type.ThingType;
 import org.openhab.core.types.CommandDescription;
 import org.openhab.core.types.StateDescription;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -91,7 +92,26 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
     public HomieThingHandler(Thing thing, MqttChannelTypeProvider channelTypeProvider,
             MqttChannelStateDescriptionProvider stateDescriptionProvider, ChannelTypeRegistry channelTypeRegistry,
             int deviceTimeout, int subscribeTimeout, int attributeReceiveTimeout) {
-        super(thing, deviceTimeout);
+        this(thing, channelTypeProvider, stateDescriptionProvider, channelTypeRegistry, deviceTimeout, subscribeTimeout,
+                attributeReceiveTimeout, new AddonMetrics());
+    }
+
+    /**
+     * Create a new thing handler for homie discovered things, which publishes the metrics of its state topics.
+     *
+     * @param thing The thing of this handler
+     * @param channelTypeProvider A channel type provider
+     * @param stateDescriptionProvider A state description provider
+     * @param channelTypeRegistry The channel type registry
+     * @param deviceTimeout Timeout for the entire device subscription. In milliseconds.
+     * @param subscribeTimeout Timeout for an entire attribute class subscription and receive. In milliseconds.
+     * @param attributeReceiveTimeout The timeout per attribute field subscription. In milliseconds.
+     * @param metrics Registers the meters of the state topics
+     */
+    public HomieThingHandler(Thing thing, MqttChannelTypeProvider channelTypeProvider,
+            MqttChannelStateDescriptionProvider stateDescriptionProvider, ChannelTypeRegistry channelTypeRegistry,
+            int deviceTimeout, int subscribeTimeout, int attributeReceiveTimeout, AddonMetrics metrics) {
+        super(thing, deviceTimeout, metrics);
         this.channelTypeProvider = channelTypeProvider;
         this.stateDescriptionProvider = stateDescriptionProvider;
         this.channelTypeRegistry = channelTypeRegistry;
@@ -52,6 +52,7 @@ import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
 import org.openhab.core.types.UnDefType;
 import org.openhab.core.util.HexUtils;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -108,7 +109,11 @@ public class RuuviTagHandler extends AbstractMQTTThingHandler implements MqttMes
     private @NonNullByDefault({}) String topic;
 
     public RuuviTagHandler(Thing thing, int subscribeTimeout) {
-        super(thing, subscribeTimeout);
+        this(thing, subscribeTimeout, new AddonMetrics());
+    }
+
+    public RuuviTagHandler(Thing thing, int subscribeTimeout, AddonMetrics metrics) {
+        super(thing, subscribeTimeout, metrics);
     }
 
     @Override
@@ -92,9 +92,13 @@ class HomekitAccessoryRegistry {
     }
 
     public synchronized void addRootAccessory(String itemName, HomekitAccessory accessory) {
-        createdAccessories.put(itemName, accessory);
+        final HomekitAccessory previousAccessory = createdAccessories.put(itemName, accessory);
         final HomekitRoot bridge = this.bridge;
         if (bridge != null) {
+            if (previousAccessory != null) {
+                // e.g. the placeholder advertised during startup
+                bridge.removeAccessory(previousAccessory);
+            }
             bridge.addAccessory(accessory);
         }
     }
@@ -30,13 +30,19 @@ import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
  * Subscribes and unsubscribes from Item changes to enable notification to HomeKit
  * clients. Each item/key pair (key is optional) should be unique, as the underlying
  * HomeKit library takes care of insuring only a single subscription exists for
- * each accessory.
+ * each accessory. The changes of characteristics are notified through a {@link HomekitNotificationBatcher}.
  *
  * @author Andy Lintner - Initial contribution
+ * @author Cody Cutrer - Batched notifications
  */
 public class HomekitAccessoryUpdater {
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, StateChangeListener> subscriptionsByName = new ConcurrentHashMap<>();
+    private final HomekitNotificationBatcher notificationBatcher;
+
+    public HomekitAccessoryUpdater(HomekitNotificationBatcher notificationBatcher) {
+        this.notificationBatcher = notificationBatcher;
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -58,7 +64,8 @@ public class HomekitAccessoryUpdater {
                 unsubscribe(item, key);
             }
             logger.trace("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = (changedItem, oldState, newState) -> notificationBatcher.changed(itemKey,
+                    changedItem, callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -97,6 +104,7 @@ public class HomekitAccessoryUpdater {
         subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
             logger.trace("Removing existing subscription for {} / {}", item, key);
             item.removeStateChangeListener(v);
+            notificationBatcher.remove(k);
             return null;
         });
     }
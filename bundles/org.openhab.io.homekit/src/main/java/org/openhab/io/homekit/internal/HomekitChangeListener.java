@@ -12,17 +12,22 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
@@ -52,8 +57,13 @@ import io.github.hapjava.server.impl.HomekitRoot;
 /**
  * Listens for changes to the item and metadata registry. When changes are detected, check
  * for HomeKit tags and, if present, add the items to the HomekitAccessoryRegistry.
+ * <p>
+ * The serialized accessories are persisted together with a hash of them. On startup, the bridge advertises the
+ * persisted accessories as placeholders while the actual accessories are created in the background, and the
+ * configuration revision is only increased when the hash of the accessories changes.
  *
  * @author Andy Lintner - Initial contribution
+ * @author Cody Cutrer - Persisted accessory snapshot for fast startup
  */
 @NonNullByDefault
 public class HomekitChangeListener implements ItemRegistryChangeListener {
@@ -61,20 +71,31 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private static final String REVISION_CONFIG = "revision";
     private static final String ACCESSORY_COUNT = "accessory_count";
     private static final String KNOWN_ACCESSORIES = "known_accessories";
+    private static final String KNOWN_ACCESSORIES_HASH = "known_accessories_hash";
+    private static final String STARTUP_POOL_NAME = "homekit-startup";
     private final ItemRegistry itemRegistry;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
     private final MetadataRegistry metadataRegistry;
     private final Storage<Object> storage;
     private final RegistryChangeListener<Metadata> metadataChangeListener;
-    private HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
+    private final HomekitNotificationBatcher notificationBatcher;
+    private HomekitAccessoryUpdater updater;
     private HomekitSettings settings;
     private int lastAccessoryCount;
     private Map<String, String> knownAccessories = new HashMap<>();
+    // hash of the accessories published with the current configuration revision
+    private String knownAccessoriesHash = "";
+    // placeholders advertised until the accessories are created after startup
+    private final Set<String> startupPlaceholders = new HashSet<>();
+    private volatile boolean stopped;
     private int instance;
     private List<String> priorDummies = new ArrayList<>();
 
     private final Set<String> pendingUpdates = new HashSet<>();
 
+    private record BuiltAccessory(String name, AbstractHomekitAccessoryImpl accessory, String json) {
+    }
+
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
 
@@ -95,6 +116,9 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.metadataRegistry = metadataRegistry;
         this.storage = storage;
         this.instance = instance;
+        this.notificationBatcher = new HomekitNotificationBatcher(scheduler);
+        notificationBatcher.configure(settings.notificationWindow);
+        this.updater = new HomekitAccessoryUpdater(notificationBatcher);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices-" + instance, scheduler,
                 Duration.ofMillis(1000), Clock.systemUTC(), this::applyUpdates);
         metadataChangeListener = new RegistryChangeListener<>() {
@@ -139,29 +163,25 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         };
         itemRegistry.addRegistryChangeListener(this);
         metadataRegistry.addRegistryChangeListener(metadataChangeListener);
-        initialiseRevision();
-        boolean changed = false;
-        for (var i : itemRegistry.getItems()) {
-            String oldValue = knownAccessories.get(i.getName());
-            createRootAccessories(i);
-            if (accessoryChanged(i.getName(), oldValue)) {
-                logger.debug("Accessory {} changed:\n{}\n{}", i.getName(), oldValue, knownAccessories.get(i.getName()));
-                changed = true;
-            }
-        }
-        // order of this conditional is important - checkMissingAccessories has side effects that need to always happen
-        if (checkMissingAccessories() || changed) {
-            makeNewConfigurationRevision();
+        if (initialiseRevision()) {
+            // advertise the persisted accessories at once, creating all accessories may take minutes
+            knownAccessories.forEach((name, json) -> {
+                accessoryRegistry.addRootAccessory(name, new DummyHomekitAccessory(name, json));
+                startupPlaceholders.add(name);
+            });
+            logger.debug("Advertising {} persisted HomeKit accessories in instance {} while creating them.",
+                    startupPlaceholders.size(), instance);
         } else {
-            logger.info("Created {} HomeKit items in instance {} (no change from prior configuration).",
-                    accessoryRegistry.getAllAccessories().size(), instance);
-            if (settings.useDummyAccessories) {
-                checkForDummyAccessories();
-            }
+            createAllAccessories();
         }
     }
 
-    private void initialiseRevision() {
+    /**
+     * Loads the configuration revision and the accessories published with it.
+     *
+     * @return whether the persisted accessories are complete and can be advertised until the accessories are created
+     */
+    private boolean initialiseRevision() {
         int revision = 1;
         try {
             String revisionString = (String) storage.get(REVISION_CONFIG);
@@ -190,6 +210,95 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             knownAccessories = localKnownAccessories;
             lastAccessoryCount = knownAccessories.size();
         }
+
+        String hash = hashAccessories(knownAccessories);
+        String storedHash = (String) storage.get(KNOWN_ACCESSORIES_HASH);
+        if (storedHash == null) {
+            // Back-compat, the accessories were persisted without a hash
+            knownAccessoriesHash = hash;
+        } else if (!storedHash.equals(hash)) {
+            logger.debug("Persisted HomeKit accessories of instance {} don't match their hash, recreating them.",
+                    instance);
+            knownAccessoriesHash = storedHash;
+            return false;
+        } else {
+            knownAccessoriesHash = storedHash;
+        }
+        return !knownAccessories.isEmpty();
+    }
+
+    /**
+     * Builds the accessories of all items in the background and then replaces the placeholders advertised since
+     * startup. The accessories are built without holding the lock, since this may take minutes and item registry
+     * changes would be blocked meanwhile. Changes of items during the build are applied after the placeholders were
+     * replaced, within the same update batch.
+     */
+    private void replaceStartupPlaceholders() {
+        List<BuiltAccessory> builtAccessories = new ArrayList<>();
+        for (var i : itemRegistry.getItems()) {
+            if (stopped) {
+                return;
+            }
+            try {
+                final @Nullable BuiltAccessory builtAccessory = buildRootAccessory(i);
+                if (builtAccessory != null) {
+                    builtAccessories.add(builtAccessory);
+                }
+            } catch (RuntimeException e) {
+                // the placeholders have to be replaced anyway, otherwise no update would be applied anymore
+                logger.warn("Cannot create accessory for item {}: {}", i.getName(), e.getMessage());
+            }
+        }
+
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            HomekitRoot bridge = accessoryRegistry.getBridge();
+            if (bridge != null) {
+                bridge.batchUpdate();
+            }
+
+            try {
+                for (BuiltAccessory builtAccessory : builtAccessories) {
+                    // changed items are rebuilt by the pending updates below
+                    if (!pendingUpdates.contains(builtAccessory.name())) {
+                        addRootAccessory(builtAccessory);
+                    }
+                }
+                // placeholders which weren't replaced are handled like missing accessories
+                for (String name : startupPlaceholders) {
+                    if (accessoryRegistry.getAllAccessories().get(name) instanceof DummyHomekitAccessory) {
+                        accessoryRegistry.remove(name);
+                    }
+                }
+                startupPlaceholders.clear();
+                logger.debug("Replaced the placeholders of instance {} by {} accessories.", instance,
+                        builtAccessories.size());
+                applyPendingUpdates();
+            } finally {
+                if (bridge != null) {
+                    bridge.completeUpdateBatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the accessories of all items, if there are no persisted accessories to advertise meanwhile.
+     */
+    private synchronized void createAllAccessories() {
+        for (var i : itemRegistry.getItems()) {
+            createRootAccessories(i);
+        }
+        checkMissingAccessories();
+        if (!updateConfigurationRevision()) {
+            logger.info("Created {} HomeKit items in instance {} (no change from prior configuration).",
+                    accessoryRegistry.getAllAccessories().size(), instance);
+        }
+        if (settings.useDummyAccessories) {
+            checkForDummyAccessories();
+        }
     }
 
     private boolean hasHomeKitMetadata(Item item) {
@@ -252,10 +361,49 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     public void makeNewConfigurationRevision() {
         final int newRevision = accessoryRegistry.makeNewConfigurationRevision();
         lastAccessoryCount = accessoryRegistry.getAllAccessories().size();
+        knownAccessoriesHash = hashAccessories(knownAccessories);
         logger.info("Created {} HomeKit items in instance {}.", accessoryRegistry.getAllAccessories().size(), instance);
         logger.trace("Making new configuration revision {}", newRevision);
         storage.put(REVISION_CONFIG, "" + newRevision);
         storage.put(KNOWN_ACCESSORIES, knownAccessories);
+        storage.put(KNOWN_ACCESSORIES_HASH, knownAccessoriesHash);
+    }
+
+    /**
+     * Makes a new configuration revision if the accessories differ from the ones published with the current
+     * revision, so HomeKit clients only reload the accessories after actual changes.
+     *
+     * @return whether a new configuration revision was made
+     */
+    private boolean updateConfigurationRevision() {
+        String hash = hashAccessories(knownAccessories);
+        if (hash.equals(knownAccessoriesHash)) {
+            logger.trace("HomeKit accessories of instance {} are unchanged", instance);
+            return false;
+        }
+        logger.debug("HomeKit accessories of instance {} changed (hash {} -> {})", instance, knownAccessoriesHash,
+                hash);
+        makeNewConfigurationRevision();
+        return true;
+    }
+
+    /**
+     * Calculates a hash of the serialized accessories, independent of the order of the map.
+     */
+    private static String hashAccessories(Map<String, String> accessories) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            new TreeMap<>(accessories).forEach((name, json) -> {
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(json.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            });
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
     }
 
     public synchronized void pruneDummyAccessories() {
@@ -265,6 +413,10 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             if (accessory instanceof DummyHomekitAccessory) {
                 try {
                     String name = accessory.getName().get();
+                    if (startupPlaceholders.contains(name)) {
+                        // not missing, the accessory hasn't been created yet
+                        continue;
+                    }
                     logger.info("Pruning dummy accessory {}.", name);
                     knownAccessories.remove(name);
                     accessoryRegistry.remove(name);
@@ -280,6 +432,10 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     }
 
     private synchronized void applyUpdates() {
+        if (!startupPlaceholders.isEmpty()) {
+            logger.trace("Deferring updates until the placeholders are replaced");
+            return;
+        }
         logger.trace("Apply updates");
 
         HomekitRoot bridge = accessoryRegistry.getBridge();
@@ -288,21 +444,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         }
 
         try {
-            boolean changed = false;
-            for (final String name : pendingUpdates) {
-                String oldValue = knownAccessories.get(name);
-                accessoryRegistry.remove(name);
-                logger.trace(" Add items {}", name);
-                getItemOptional(name).ifPresent(this::createRootAccessories);
-                if (accessoryChanged(name, oldValue)) {
-                    changed = true;
-                }
-            }
-            pendingUpdates.clear();
-            if (checkMissingAccessories() || changed) {
-                makeNewConfigurationRevision();
-            }
-            checkForDummyAccessories();
+            applyPendingUpdates();
         } finally {
             if (bridge != null) {
                 bridge.completeUpdateBatch();
@@ -310,13 +452,17 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         }
     }
 
-    private boolean accessoryChanged(String name, @Nullable String oldValue) {
-        String newValue = knownAccessories.get(name);
-        if (oldValue == null && newValue == null) {
-            return false;
+    private void applyPendingUpdates() {
+        for (final String name : pendingUpdates) {
+            accessoryRegistry.remove(name);
+            logger.trace(" Add items {}", name);
+            getItemOptional(name).ifPresent(this::createRootAccessories);
         }
-        return oldValue == null && newValue != null || oldValue != null && newValue == null
-                || !oldValue.equals(newValue);
+        pendingUpdates.clear();
+        // order is important - checkMissingAccessories has side effects that need to always happen
+        checkMissingAccessories();
+        updateConfigurationRevision();
+        checkForDummyAccessories();
     }
 
     @Override
@@ -335,6 +481,10 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public synchronized void setBridge(HomekitRoot bridge) {
         accessoryRegistry.setBridge(bridge);
+        notificationBatcher.setBridge(bridge);
+        if (!startupPlaceholders.isEmpty()) {
+            ThreadPoolManager.getPool(STARTUP_POOL_NAME).execute(this::replaceStartupPlaceholders);
+        }
     }
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
@@ -344,6 +494,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     public void updateSettings(HomekitSettings settings) {
         boolean wasUsingDummyAccessories = this.settings.useDummyAccessories;
         this.settings = settings;
+        notificationBatcher.configure(settings.notificationWindow);
         // If they turned off dummy accessories, immediately prune them
         if (wasUsingDummyAccessories && !settings.useDummyAccessories) {
             pruneDummyAccessories();
@@ -353,7 +504,10 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     public synchronized void stop() {
         this.itemRegistry.removeRegistryChangeListener(this);
         this.metadataRegistry.removeRegistryChangeListener(metadataChangeListener);
+        stopped = true;
         applyUpdatesDebouncer.stop();
+        startupPlaceholders.clear();
+        notificationBatcher.stop();
         accessoryRegistry.unsetBridge();
     }
 
@@ -361,6 +515,14 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         return this.accessoryRegistry.getAllAccessories();
     }
 
+    public HomekitNotificationBatcher getNotificationBatcher() {
+        return notificationBatcher;
+    }
+
+    public int getInstance() {
+        return instance;
+    }
+
     public int getConfigurationRevision() {
         return this.accessoryRegistry.getConfigurationRevision();
     }
@@ -434,22 +596,41 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      * @param item openHAB item
      */
     private void createRootAccessories(Item item) {
+        final @Nullable BuiltAccessory builtAccessory = buildRootAccessory(item);
+        if (builtAccessory != null) {
+            addRootAccessory(builtAccessory);
+        }
+    }
+
+    private void addRootAccessory(BuiltAccessory builtAccessory) {
+        knownAccessories.put(builtAccessory.name(), builtAccessory.json());
+        accessoryRegistry.addRootAccessory(builtAccessory.name(), builtAccessory.accessory());
+    }
+
+    /**
+     * Builds the root accessory of an item, see {@link #createRootAccessories(Item)}, without registering it. Only
+     * reads the registries and the settings, so it may be called without holding the lock of the listener.
+     *
+     * @param item openHAB item
+     * @return the accessory, or null if the item is no root accessory of this bridge
+     */
+    private @Nullable BuiltAccessory buildRootAccessory(Item item) {
         final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = HomekitAccessoryFactory
                 .getAccessoryTypes(item, metadataRegistry);
         if (accessoryTypes.isEmpty()) {
-            return;
+            return null;
         }
 
         final List<GroupItem> groups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry);
         // Don't create accessories that are sub-accessories of other accessories
         if (groups.stream().anyMatch(g -> !HomekitAccessoryFactory.getAccessoryTypes(g, metadataRegistry).isEmpty())) {
-            return;
+            return null;
         }
 
         final @Nullable Map<String, Object> itemConfiguration = HomekitAccessoryFactory.getItemConfiguration(item,
                 metadataRegistry);
         if (!itemIsForThisBridge(item, itemConfiguration)) {
-            return;
+            return null;
         }
 
         final HomekitAccessoryType primaryAccessoryType = getPrimaryAccessoryType(item, accessoryTypes,
@@ -464,7 +645,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             if (accessory.isLinkedServiceOnly()) {
                 logger.warn("Item '{}' is a '{}' which must be nested another another accessory.", taggedItem.getName(),
                         primaryAccessoryType);
-                return;
+                return null;
             }
 
             accessoryTypes.stream().filter(aType -> !primaryAccessoryType.equals(aType.getKey()))
@@ -480,10 +661,10 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                             logger.warn("Cannot create additional accessory {}", additionalTaggedItem);
                         }
                     });
-            knownAccessories.put(taggedItem.getName(), accessory.toJson());
-            accessoryRegistry.addRootAccessory(taggedItem.getName(), accessory);
+            return new BuiltAccessory(taggedItem.getName(), accessory, accessory.toJson());
         } catch (HomekitException e) {
             logger.warn("Cannot create accessory {}: {}", taggedItem, e.getMessage());
+            return null;
         }
     }
 
@@ -19,11 +19,13 @@ import java.security.InvalidAlgorithmParameterException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Dictionary;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.jmdns.JmDNS;
 
@@ -32,6 +34,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.config.core.Configuration;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.io.transport.mdns.MDNSClient;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.MetadataRegistry;
@@ -45,6 +48,7 @@ import org.openhab.core.service.StartLevelService;
 import org.openhab.core.storage.Storage;
 import org.openhab.core.storage.StorageService;
 import org.openhab.io.homekit.Homekit;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.osgi.framework.Constants;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.service.cm.ConfigurationAdmin;
@@ -53,6 +57,8 @@ import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,17 +67,26 @@ import io.github.hapjava.server.HomekitAccessoryCategories;
 import io.github.hapjava.server.impl.HomekitRoot;
 import io.github.hapjava.server.impl.HomekitServer;
 import io.github.hapjava.server.impl.crypto.HAPSetupCodeUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 
 /**
  * Provides access to openHAB items via the HomeKit API
  *
  * @author Andy Lintner - Initial contribution
+ * @author Cody Cutrer - Metrics of the notifications
  */
 @Component(service = { Homekit.class }, configurationPid = HomekitSettings.CONFIG_PID, property = {
         Constants.SERVICE_PID + "=org.openhab.homekit", "port:Integer=9123" })
 @ConfigurableService(category = "io", label = "HomeKit Integration", description_uri = "io:homekit")
 @NonNullByDefault
 public class HomekitImpl implements Homekit, NetworkAddressChangeListener, ReadyService.ReadyTracker {
+    private static final String METRIC_PREFIX = "openhab.homekit.notifications.";
+
     private final Logger logger = LoggerFactory.getLogger(HomekitImpl.class);
 
     private final StorageService storageService;
@@ -90,6 +105,8 @@ public class HomekitImpl implements Homekit, NetworkAddressChangeListener, Ready
     private boolean started = false;
 
     private final List<HomekitChangeListener> changeListeners = new ArrayList<>();
+    private final AddonMetrics metrics = new AddonMetrics();
+    private final Map<HomekitChangeListener, AddonMetrics.MeterBinder> meterBinders = new HashMap<>();
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
@@ -265,6 +282,7 @@ public class HomekitImpl implements Homekit, NetworkAddressChangeListener, Ready
         HomekitChangeListener changeListener = new HomekitChangeListener(itemRegistry, settings, metadataRegistry,
                 storage, instance + 1);
         changeListeners.add(changeListener);
+        addMetrics(changeListener);
         startBridge(homekitServer, authInfo, changeListener, instance + 1);
         authInfos.add(authInfo);
     }
@@ -298,6 +316,7 @@ public class HomekitImpl implements Homekit, NetworkAddressChangeListener, Ready
 
     private void stopHomekitServer() {
         logger.trace("stopping HomeKit bridge");
+        changeListeners.forEach(this::removeMetrics);
         changeListeners.parallelStream().forEach(HomekitChangeListener::stop);
         bridges.parallelStream().forEach(HomekitRoot::stop);
         homekitServers.parallelStream().forEach(HomekitServer::stop);
@@ -309,6 +328,7 @@ public class HomekitImpl implements Homekit, NetworkAddressChangeListener, Ready
 
     private void stopHomekitServer(int instance) {
         logger.trace("stopping HomeKit bridge instance {}", instance + 1);
+        removeMetrics(changeListeners.get(instance));
         changeListeners.get(instance).stop();
         bridges.get(instance).stop();
         homekitServers.get(instance).stop();
@@ -327,6 +347,49 @@ public class HomekitImpl implements Homekit, NetworkAddressChangeListener, Ready
         storage.getKeys().forEach(k -> storage.remove(k));
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+    }
+
+    private void addMetrics(HomekitChangeListener changeListener) {
+        AddonMetrics.MeterBinder meterBinder = meterRegistry -> bindMetrics(changeListener, meterRegistry);
+        meterBinders.put(changeListener, meterBinder);
+        metrics.add(meterBinder);
+    }
+
+    private void removeMetrics(HomekitChangeListener changeListener) {
+        AddonMetrics.MeterBinder meterBinder = meterBinders.remove(changeListener);
+        if (meterBinder != null) {
+            metrics.remove(meterBinder);
+        }
+    }
+
+    private List<Meter> bindMetrics(HomekitChangeListener changeListener, MeterRegistry meterRegistry) {
+        HomekitNotificationBatcher batcher = changeListener.getNotificationBatcher();
+        Tags tags = Tags.of("instance", Integer.toString(changeListener.getInstance()));
+        return List.of(
+                FunctionCounter.builder(METRIC_PREFIX + "changed", batcher, HomekitNotificationBatcher::getChangedCount)
+                        .description("Characteristic changes of the accessories").tags(tags).register(meterRegistry),
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "deduplicated", batcher,
+                                HomekitNotificationBatcher::getDeduplicatedCount)
+                        .description("Characteristic changes dropped as duplicates").tags(tags).register(meterRegistry),
+                FunctionCounter.builder(METRIC_PREFIX + "batches", batcher, HomekitNotificationBatcher::getBatchCount)
+                        .description("Batches of characteristic changes notified").tags(tags).register(meterRegistry),
+                FunctionTimer
+                        .builder(METRIC_PREFIX + "latency", batcher, HomekitNotificationBatcher::getNotifiedCount,
+                                HomekitNotificationBatcher::getTotalLatencySeconds, TimeUnit.SECONDS)
+                        .description("Characteristic changes notified and the time they were pending").tags(tags)
+                        .register(meterRegistry),
+                Gauge.builder(METRIC_PREFIX + "pending", batcher, HomekitNotificationBatcher::getPendingCount)
+                        .description("Characteristics with a pending change").tags(tags).register(meterRegistry));
+    }
+
     @Deactivate
     protected void deactivate() {
         networkAddressService.removeNetworkAddressChangeListener(this);
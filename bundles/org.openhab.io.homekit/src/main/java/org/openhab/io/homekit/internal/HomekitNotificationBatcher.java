@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.items.Item;
+import org.openhab.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
+import io.github.hapjava.server.impl.HomekitRoot;
+
+/**
+ * Collects the characteristic changes of the accessories of a bridge over a short window, so a scene changing many
+ * items doesn't send an event to the HomeKit clients per item. A characteristic changed several times within the
+ * window is notified once, and not at all if its item is back at the state last notified. The notifications of a
+ * window are passed to HAP-Java within one update batch of the bridge, which sends them to each connection as one
+ * event message.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class HomekitNotificationBatcher {
+
+    private static class PendingNotification {
+        private final Item item;
+        private final HomekitCharacteristicChangeCallback callback;
+        private final long changedNanos;
+
+        PendingNotification(Item item, HomekitCharacteristicChangeCallback callback, long changedNanos) {
+            this.item = item;
+            this.callback = callback;
+            this.changedNanos = changedNanos;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(HomekitNotificationBatcher.class);
+
+    private final ScheduledExecutorService scheduler;
+    // keeps the order of the changes, so the clients receive them in the order they happened
+    private final Map<Object, PendingNotification> pendingNotifications = new LinkedHashMap<>();
+    private final Map<Object, State> notifiedStates = new ConcurrentHashMap<>();
+    private @Nullable ScheduledFuture<?> flushJob;
+    private @Nullable HomekitRoot bridge;
+    private long windowMillis;
+
+    private final AtomicLong changedCount = new AtomicLong();
+    private final AtomicLong notifiedCount = new AtomicLong();
+    private final AtomicLong deduplicatedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong latencyNanos = new AtomicLong();
+
+    public HomekitNotificationBatcher(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets the window. Pending changes are notified after the previous window.
+     *
+     * @param windowMillis the time in milliseconds to collect changes, 0 to notify every change at once
+     */
+    public synchronized void configure(long windowMillis) {
+        this.windowMillis = Math.max(windowMillis, 0);
+        // changes notified at once don't record their state, so the recorded ones may be outdated
+        notifiedStates.clear();
+        logger.debug("Notifying HomeKit characteristic changes with a window of {} ms", this.windowMillis);
+    }
+
+    /**
+     * @param bridge the bridge whose update batch groups the notifications, or null if the bridge was stopped
+     */
+    public synchronized void setBridge(@Nullable HomekitRoot bridge) {
+        this.bridge = bridge;
+    }
+
+    /**
+     * Queues the change of a characteristic, unless a change of it is already pending.
+     *
+     * @param key identifies the subscription of the characteristic
+     * @param item the item whose state changed
+     * @param callback the callback of HAP-Java, notifying the clients subscribed to the characteristic
+     */
+    public void changed(Object key, Item item, HomekitCharacteristicChangeCallback callback) {
+        changedCount.incrementAndGet();
+        synchronized (this) {
+            if (windowMillis > 0) {
+                if (pendingNotifications.putIfAbsent(key,
+                        new PendingNotification(item, callback, System.nanoTime())) != null) {
+                    deduplicatedCount.incrementAndGet();
+                } else if (flushJob == null) {
+                    flushJob = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        notifiedCount.incrementAndGet();
+        callback.changed();
+    }
+
+    /**
+     * Drops a pending change of a characteristic which was unsubscribed.
+     *
+     * @param key identifies the subscription of the characteristic
+     */
+    public synchronized void remove(Object key) {
+        pendingNotifications.remove(key);
+        notifiedStates.remove(key);
+    }
+
+    /**
+     * Stops notifying, dropping the pending changes.
+     */
+    public synchronized void stop() {
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        pendingNotifications.clear();
+        notifiedStates.clear();
+        bridge = null;
+    }
+
+    private void flush() {
+        List<Map.Entry<Object, PendingNotification>> batch;
+        HomekitRoot bridge;
+        synchronized (this) {
+            batch = new ArrayList<>(pendingNotifications.entrySet());
+            pendingNotifications.clear();
+            bridge = this.bridge;
+        }
+
+        try {
+            if (bridge != null) {
+                bridge.batchUpdate();
+            }
+            try {
+                long now = System.nanoTime();
+                for (Map.Entry<Object, PendingNotification> entry : batch) {
+                    PendingNotification notification = entry.getValue();
+                    State state = notification.item.getState();
+                    if (state.equals(notifiedStates.put(entry.getKey(), state))) {
+                        // changed back within the window
+                        deduplicatedCount.incrementAndGet();
+                        continue;
+                    }
+                    notifiedCount.incrementAndGet();
+                    latencyNanos.addAndGet(now - notification.changedNanos);
+                    notification.callback.changed();
+                }
+                batchCount.incrementAndGet();
+            } finally {
+                if (bridge != null) {
+                    bridge.completeUpdateBatch();
+                }
+            }
+            logger.trace("Notified {} HomeKit characteristic changes", batch.size());
+        } finally {
+            synchronized (this) {
+                // changes received while notifying are notified after another window, even if notifying failed
+                flushJob = null;
+                if (!pendingNotifications.isEmpty()) {
+                    flushJob = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of characteristic changes received from the items
+     */
+    public long getChangedCount() {
+        return changedCount.get();
+    }
+
+    /**
+     * @return the number of characteristic changes notified to HAP-Java
+     */
+    public long getNotifiedCount() {
+        return notifiedCount.get();
+    }
+
+    /**
+     * @return the number of characteristic changes dropped because a change of the same characteristic was pending,
+     *         or the item was back at the state last notified
+     */
+    public long getDeduplicatedCount() {
+        return deduplicatedCount.get();
+    }
+
+    /**
+     * @return the number of windows notified
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return the total time in seconds the notified changes were pending
+     */
+    public double getTotalLatencySeconds() {
+        return latencyNanos.get() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * @return the number of characteristics with a pending change
+     */
+    public synchronized int getPendingCount() {
+        return pendingNotifications.size();
+    }
+}
@@ -34,6 +34,7 @@ public class HomekitSettings {
     public boolean useFahrenheitTemperature = false;
     public boolean useOHmDNS = false;
     public boolean blockUserDeletion = false;
+    public int notificationWindow = 100;
     public String networkInterface;
 
     @Override
@@ -45,6 +46,7 @@ public class HomekitSettings {
         result = prime * result + port;
         result = prime * result + (useFahrenheitTemperature ? 1231 : 1237);
         result = prime * result + (useDummyAccessories ? 1249 : 1259);
+        result = prime * result + notificationWindow;
         return result;
     }
 
@@ -86,6 +88,9 @@ public class HomekitSettings {
         if (useDummyAccessories != other.useDummyAccessories) {
             return false;
         }
+        if (notificationWindow != other.notificationWindow) {
+            return false;
+        }
         return true;
     }
 }
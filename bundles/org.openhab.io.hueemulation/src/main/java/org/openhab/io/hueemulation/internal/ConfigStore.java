@@ -38,6 +38,8 @@ import org.openhab.core.items.MetadataRegistry;
 import org.openhab.core.net.CidrAddress;
 import org.openhab.core.net.NetUtil;
 import org.openhab.core.net.NetworkAddressService;
+import org.openhab.io.hueemulation.internal.JsonSnapshotCache.JsonSnapshot;
+import org.openhab.io.hueemulation.internal.JsonSnapshotCache.Section;
 import org.openhab.io.hueemulation.internal.dto.HueAuthorizedConfig;
 import org.openhab.io.hueemulation.internal.dto.HueDataStore;
 import org.openhab.io.hueemulation.internal.dto.HueGroupEntry;
@@ -71,6 +73,7 @@ import com.google.gson.GsonBuilder;
  * depend on anything in this bundle.
  *
  * @author David Graeff - Initial contribution
+ * @author Cody Cutrer - Versioned JSON snapshots of the lights, groups and sensors
  */
 @Component(immediate = false, service = ConfigStore.class, configurationPid = HueEmulationService.CONFIG_PID)
 @ConfigurableService(category = "io", label = "Hue Emulation", description_uri = "io:hueemulation")
@@ -84,6 +87,11 @@ public class ConfigStore {
 
     public HueDataStore ds = new HueDataStore();
 
+    /**
+     * The serialized lights, groups and sensors. Components changing those entries have to invalidate the snapshots.
+     */
+    public final JsonSnapshotCache snapshots = new JsonSnapshotCache();
+
     protected @NonNullByDefault({}) ScheduledExecutorService scheduler;
     private @Nullable ScheduledFuture<?> pairingOffFuture;
     private @Nullable ScheduledFuture<?> writeUUIDFuture;
@@ -347,6 +355,98 @@ public class ConfigStore {
         return unique;
     }
 
+    /**
+     * Invalidates the snapshots containing the item. Called for every item state change, so the hue ID is only looked
+     * up and not assigned.
+     *
+     * @param itemUID the item which state has changed
+     */
+    public void itemStateChanged(String itemUID) {
+        String hueID = lookupHueID(itemUID);
+        if (hueID == null) {
+            return;
+        }
+        if (ds.lights.containsKey(hueID)) {
+            snapshots.invalidateLight(hueID);
+        }
+        if (ds.groups.containsKey(hueID)) {
+            snapshots.invalidate(Section.GROUPS);
+        }
+        if (ds.sensors.containsKey(hueID)) {
+            snapshots.invalidate(Section.SENSORS);
+        }
+    }
+
+    /**
+     * Look up the hue ID of an item without assigning one.
+     *
+     * @param itemUID The item UID
+     * @return The hue ID or null if the item has none
+     */
+    protected @Nullable String lookupHueID(String itemUID) {
+        Metadata metadata = metadataRegistry.get(new MetadataKey(METAKEY, itemUID));
+        return metadata != null ? metadata.getValue() : null;
+    }
+
+    /**
+     * @return The lights, as served by /api/{username}/lights
+     */
+    public JsonSnapshot getLightsSnapshot() {
+        return snapshots.get(Section.LIGHTS, () -> {
+            StringBuilder json = new StringBuilder(ds.lights.size() * 1024).append('{');
+            for (Map.Entry<String, HueLightEntry> light : ds.lights.entrySet()) {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append(gson.toJson(light.getKey())).append(':')
+                        .append(getLightJson(light.getKey(), light.getValue()));
+            }
+            return json.append('}').toString();
+        });
+    }
+
+    /**
+     * @param hueID The hue ID of the light
+     * @param light The light
+     * @return The light, as served by /api/{username}/lights/{id}
+     */
+    public String getLightJson(String hueID, HueLightEntry light) {
+        return snapshots.getLight(hueID, () -> gson.toJson(light));
+    }
+
+    /**
+     * @return The groups, as served by /api/{username}/groups
+     */
+    public JsonSnapshot getGroupsSnapshot() {
+        return snapshots.get(Section.GROUPS, () -> gson.toJson(ds.groups));
+    }
+
+    /**
+     * @return The sensors, as served by /api/{username}/sensors
+     */
+    public JsonSnapshot getSensorsSnapshot() {
+        return snapshots.get(Section.SENSORS, () -> gson.toJson(ds.sensors));
+    }
+
+    /**
+     * Serializes the complete data store. The lights, groups and sensors are taken from the snapshots, the other
+     * sections are serialized, since the configuration contains the current time anyway.
+     *
+     * @return The data store, as served by /api/{username}
+     */
+    public String getDataStoreJson() {
+        // keep the order of the fields of the HueDataStore
+        return new StringBuilder().append("{\"config\":").append(gson.toJson(ds.config)) //
+                .append(",\"lights\":").append(getLightsSnapshot().getJson()) //
+                .append(",\"groups\":").append(getGroupsSnapshot().getJson()) //
+                .append(",\"scenes\":").append(gson.toJson(ds.scenes)) //
+                .append(",\"rules\":").append(gson.toJson(ds.rules)) //
+                .append(",\"sensors\":").append(getSensorsSnapshot().getJson()) //
+                .append(",\"schedules\":").append(gson.toJson(ds.schedules)) //
+                .append(",\"resourcelinks\":").append(gson.toJson(ds.resourcelinks)) //
+                .append(",\"capabilities\":").append(gson.toJson(ds.capabilities)).append('}').toString();
+    }
+
     public boolean isReady() {
         return !discoveryIps.isEmpty();
     }
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Caches the serialized JSON of the item based sections of the hue data store, because hue hubs like the Amazon Echo
+ * and the Harmony Hub poll the complete lists constantly. Each section has a version, which is increased whenever one
+ * of its entries or the state of one of their items changes. A snapshot is serialized at most once per version.
+ * <p>
+ * The lights are cached per light in addition, so a state change only serializes the changed light again and the
+ * list of all lights is assembled from the cached fragments.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class JsonSnapshotCache {
+
+    /**
+     * The cached sections of the data store.
+     */
+    public enum Section {
+        LIGHTS,
+        GROUPS,
+        SENSORS
+    }
+
+    /**
+     * The serialized JSON of a section at a version.
+     */
+    public static class JsonSnapshot {
+        private final String json;
+        private final String etag;
+        private byte @Nullable [] gzipJson;
+
+        JsonSnapshot(String json, String etag) {
+            this.json = json;
+            this.etag = etag;
+        }
+
+        public String getJson() {
+            return json;
+        }
+
+        /**
+         * @return the entity tag identifying the section and its version, including the quotes
+         */
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * @return the JSON encoded in UTF-8 and compressed with gzip, compressed once on the first call; must not be
+         *         modified
+         */
+        public synchronized byte[] getGzipJson() {
+            byte[] gzipJson = this.gzipJson;
+            if (gzipJson == null) {
+                byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+                ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 8 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(bytes);
+                } catch (IOException e) {
+                    // not thrown by the in-memory stream
+                    throw new UncheckedIOException(e);
+                }
+                gzipJson = out.toByteArray();
+                this.gzipJson = gzipJson;
+            }
+            return gzipJson;
+        }
+    }
+
+    private static class Entry {
+        private long version;
+        private @Nullable JsonSnapshot snapshot;
+    }
+
+    // distinguishes the entity tags of a restarted service, which counts the versions from 0 again
+    private final String instanceId = Long.toHexString(System.currentTimeMillis());
+    private final Map<Section, Entry> entries = new EnumMap<>(Section.class);
+    private final Map<String, String> lightFragments = new ConcurrentHashMap<>();
+
+    public JsonSnapshotCache() {
+        for (Section section : Section.values()) {
+            entries.put(section, new Entry());
+        }
+    }
+
+    /**
+     * Increases the version of a section after its entries or their states have changed.
+     *
+     * @param section the changed section
+     */
+    public synchronized void invalidate(Section section) {
+        Entry entry = entries.get(section);
+        entry.version++;
+        entry.snapshot = null;
+        if (section == Section.LIGHTS) {
+            lightFragments.clear();
+        }
+    }
+
+    /**
+     * Increases the version of the lights after a single light or the state of its item has changed, keeping the
+     * cached JSON of the other lights.
+     *
+     * @param hueId the id of the changed light
+     */
+    public synchronized void invalidateLight(String hueId) {
+        Entry entry = entries.get(Section.LIGHTS);
+        entry.version++;
+        entry.snapshot = null;
+        lightFragments.remove(hueId);
+    }
+
+    /**
+     * Returns the snapshot of a section, serializing it if it changed since the last call.
+     *
+     * @param section the section
+     * @param serializer serializes the current entries of the section
+     * @return the snapshot
+     */
+    public JsonSnapshot get(Section section, Supplier<String> serializer) {
+        long version;
+        synchronized (this) {
+            Entry entry = entries.get(section);
+            JsonSnapshot snapshot = entry.snapshot;
+            if (snapshot != null) {
+                return snapshot;
+            }
+            version = entry.version;
+        }
+        JsonSnapshot snapshot = new JsonSnapshot(serializer.get(),
+                "\"" + section.name().toLowerCase() + "-" + instanceId + "-" + version + "\"");
+        synchronized (this) {
+            // a change while serializing may not be contained in the snapshot, which is then only used once
+            Entry entry = entries.get(section);
+            if (entry.version == version) {
+                entry.snapshot = snapshot;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the JSON of a light, serializing it if it changed since the last call.
+     *
+     * @param hueId the id of the light
+     * @param serializer serializes the current state of the light
+     * @return the JSON of the light
+     */
+    public String getLight(String hueId, Supplier<String> serializer) {
+        String json = lightFragments.get(hueId);
+        if (json != null) {
+            return json;
+        }
+        long version;
+        synchronized (this) {
+            version = entries.get(Section.LIGHTS).version;
+        }
+        json = serializer.get();
+        synchronized (this) {
+            if (entries.get(Section.LIGHTS).version == version) {
+                lightFragments.put(hueId, json);
+            }
+        }
+        return json;
+    }
+}
@@ -20,12 +20,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.hueemulation.internal.JsonSnapshotCache.JsonSnapshot;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponse;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponse.HueErrorMessage;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponseSuccessSimple;
@@ -41,6 +43,11 @@ import com.google.gson.reflect.TypeToken;
  */
 @NonNullByDefault
 public class NetworkUtils {
+    /**
+     * Smaller snapshots are not compressed, since the gzip overhead outweighs the savings
+     */
+    private static final int MIN_GZIP_LENGTH = 1024;
+
     /**
      * Try to get the ethernet interface MAC for the network interface that belongs to the given IP address.
      * Returns a default MAC on any failure.
@@ -116,6 +123,40 @@ public class NetworkUtils {
         return Response.status(httpCode).entity(str).build();
     }
 
+    /**
+     * Creates a json response of a snapshot. A client which already has the snapshot, according to its
+     * <code>If-None-Match</code> header, gets a 304 response without content. The content is compressed if the client
+     * accepts gzip.
+     *
+     * @param headers The headers of the request
+     * @param snapshot The snapshot
+     * @return The response, with the entity tag of the snapshot
+     */
+    public static Response snapshotResponse(HttpHeaders headers, JsonSnapshot snapshot) {
+        String etag = snapshot.getETag();
+        String ifNoneMatch = headers.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(etag) || "*".equals(tag)) {
+                    return Response.notModified().header(HttpHeaders.ETAG, etag).build();
+                }
+            }
+        }
+        ResponseBuilder response;
+        String acceptEncoding = headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")
+                && snapshot.getJson().length() >= MIN_GZIP_LENGTH) {
+            response = Response.ok(snapshot.getGzipJson()).header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        } else {
+            response = Response.ok(snapshot.getJson());
+        }
+        return response.header(HttpHeaders.ETAG, etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+    }
+
     public static Response singleSuccess(Gson gson, String message, String uriPart) {
         List<HueResponse> responses = new ArrayList<>();
         responses.add(new HueResponse(new HueSuccessGeneric(message, uriPart)));
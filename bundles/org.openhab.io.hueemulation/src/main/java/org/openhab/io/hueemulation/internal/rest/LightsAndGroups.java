@@ -26,6 +26,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
@@ -44,6 +45,7 @@ import org.openhab.core.types.Command;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.HueEmulationService;
+import org.openhab.io.hueemulation.internal.JsonSnapshotCache.Section;
 import org.openhab.io.hueemulation.internal.NetworkUtils;
 import org.openhab.io.hueemulation.internal.StateUtils;
 import org.openhab.io.hueemulation.internal.dto.HueGroupEntry;
@@ -95,6 +97,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
  *
  * @author David Graeff - Initial contribution
  * @author Florian Schmidt - Removed base type restriction from Group items
+ * @author Cody Cutrer - Cached JSON snapshots of the lights and groups
  */
 @Component(immediate = false, service = LightsAndGroups.class)
 @JaxrsResource
@@ -124,6 +127,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Activate
     protected void activate() {
         cs.ds.resetGroupsAndLights();
+        cs.snapshots.invalidate(Section.LIGHTS);
+        cs.snapshots.invalidate(Section.GROUPS);
 
         itemRegistry.removeRegistryChangeListener(this);
         itemRegistry.addRegistryChangeListener(this);
@@ -143,6 +148,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
 
     @Override
     public synchronized void added(Item newElement) {
+        // the item may be a member of a group
+        cs.snapshots.invalidate(Section.GROUPS);
         if (!(newElement instanceof GenericItem)) {
             return;
         }
@@ -184,6 +191,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             device.item = element;
             cs.ds.lights.put(hueID, device);
             updateGroup0();
+            cs.snapshots.invalidateLight(hueID);
         }
     }
 
@@ -193,6 +201,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     private void updateGroup0() {
         cs.ds.groups.get("0").lights = cs.ds.lights.keySet().stream().map(v -> String.valueOf(v))
                 .collect(Collectors.toList());
+        cs.snapshots.invalidate(Section.GROUPS);
     }
 
     @Override
@@ -202,6 +211,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         cs.ds.lights.remove(hueID);
         cs.ds.groups.remove(hueID);
         updateGroup0();
+        cs.snapshots.invalidateLight(hueID);
     }
 
     /**
@@ -210,6 +220,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @SuppressWarnings({ "null", "unused" })
     @Override
     public synchronized void updated(Item oldElement, Item newElement) {
+        // the groups of the item may have changed
+        cs.snapshots.invalidate(Section.GROUPS);
         if (!(newElement instanceof GenericItem)) {
             return;
         }
@@ -242,17 +254,18 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         }
 
         hueDevice.updateItem(element);
+        cs.snapshots.invalidateLight(hueID);
     }
 
     @GET
     @Path("{username}/lights")
     @Operation(summary = "Return all lights", responses = { @ApiResponse(responseCode = "200", description = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context HttpHeaders headers,
             @PathParam("username") @Parameter(description = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        return NetworkUtils.snapshotResponse(headers, cs.getLightsSnapshot());
     }
 
     @GET
@@ -288,7 +301,11 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        HueLightEntry hueDevice = cs.ds.lights.get(id);
+        if (hueDevice == null) {
+            return Response.ok(cs.gson.toJson(null)).build();
+        }
+        return Response.ok(cs.getLightJson(id, hueDevice)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -383,6 +400,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             }
             hueDevice.lastCommand = command;
             hueDevice.lastHueChange = newState;
+            // the last command adjusts the serialized state until the item state follows
+            cs.snapshots.invalidateLight(id);
         }
 
         return Response.ok(cs.gson.toJson(responses, new TypeToken<List<?>>() {
@@ -430,6 +449,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
                 logger.warn("No event publisher. Cannot post item '{}' command!", groupItem.getUID());
             }
         }
+        cs.snapshots.invalidate(Section.GROUPS);
 
         return Response.ok(cs.gson.toJson(responses, new TypeToken<List<?>>() {
         }.getType())).build();
@@ -438,12 +458,12 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @GET
     @Path("{username}/groups")
     @Operation(summary = "Return all groups", responses = { @ApiResponse(responseCode = "200", description = "OK") })
-    public Response getAllGroupsApi(@Context UriInfo uri,
+    public Response getAllGroupsApi(@Context UriInfo uri, @Context HttpHeaders headers,
             @PathParam("username") @Parameter(description = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups)).build();
+        return NetworkUtils.snapshotResponse(headers, cs.getGroupsSnapshot());
     }
 
     @GET
@@ -25,6 +25,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
@@ -37,6 +38,7 @@ import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.library.CoreItemFactory;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.HueEmulationService;
+import org.openhab.io.hueemulation.internal.JsonSnapshotCache.Section;
 import org.openhab.io.hueemulation.internal.NetworkUtils;
 import org.openhab.io.hueemulation.internal.dto.HueNewLights;
 import org.openhab.io.hueemulation.internal.dto.HueSensorEntry;
@@ -61,6 +63,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
  * as sensors.
  *
  * @author David Graeff - Initial contribution
+ * @author Cody Cutrer - Cached JSON snapshot of the sensors
  */
 @Component(immediate = false, service = Sensors.class)
 @JaxrsResource
@@ -91,6 +94,7 @@ public class Sensors implements RegistryChangeListener<Item> {
     @Activate
     protected void activate() {
         cs.ds.resetSensors();
+        cs.snapshots.invalidate(Section.SENSORS);
 
         itemRegistry.removeRegistryChangeListener(this);
         itemRegistry.addRegistryChangeListener(this);
@@ -125,6 +129,7 @@ public class Sensors implements RegistryChangeListener<Item> {
 
         HueSensorEntry sensor = new HueSensorEntry(element);
         cs.ds.sensors.put(hueID, sensor);
+        cs.snapshots.invalidate(Section.SENSORS);
     }
 
     @Override
@@ -132,6 +137,7 @@ public class Sensors implements RegistryChangeListener<Item> {
         String hueID = cs.mapItemUIDtoHueID(element);
         logger.debug("Remove item {}", hueID);
         cs.ds.sensors.remove(hueID);
+        cs.snapshots.invalidate(Section.SENSORS);
     }
 
     @Override
@@ -145,17 +151,18 @@ public class Sensors implements RegistryChangeListener<Item> {
 
         HueSensorEntry sensor = new HueSensorEntry(element);
         cs.ds.sensors.put(hueID, sensor);
+        cs.snapshots.invalidate(Section.SENSORS);
     }
 
     @GET
     @Path("{username}/sensors")
     @Operation(summary = "Return all sensors", responses = { @ApiResponse(responseCode = "200", description = "OK") })
-    public Response getAllSensorsApi(@Context UriInfo uri,
+    public Response getAllSensorsApi(@Context UriInfo uri, @Context HttpHeaders headers,
             @PathParam("username") @Parameter(description = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.sensors)).build();
+        return NetworkUtils.snapshotResponse(headers, cs.getSensorsSnapshot());
     }
 
     @GET
@@ -46,4 +46,9 @@ public class ConfigStoreWithoutMetadata extends ConfigStore {
         }
         return item.getUID();
     }
+
+    @Override
+    protected @Nullable String lookupHueID(String itemUID) {
+        return itemUID;
+    }
 }
@@ -18,9 +18,12 @@ import java.util.Set;
 
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -29,6 +32,8 @@ import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.io.rest.RESTConstants;
+import org.openhab.io.metrics.PrometheusScrapeCache.Format;
+import org.openhab.io.metrics.PrometheusScrapeCache.Snapshot;
 import org.openhab.io.metrics.exporters.InfluxMetricsExporter;
 import org.openhab.io.metrics.exporters.JmxMetricsExporter;
 import org.osgi.service.component.annotations.Activate;
@@ -55,6 +60,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
  * The {@link MetricsRestController} class implements the REST endpoints for all pull based monitoring systems.
  *
  * @author Robert Bach - Initial contribution
+ * @author Cody Cutrer - Cached and compressed Prometheus scrapes
  */
 @Component(configurationPid = "org.openhab.metrics", immediate = true, service = MetricsRestController.class)
 @JaxrsResource
@@ -71,16 +77,26 @@ public class MetricsRestController {
     private @Nullable CompositeMeterRegistry meterRegistry;
     private final PrometheusMeterRegistry prometheusMeterRegistry = new PrometheusMeterRegistry(
             PrometheusConfig.DEFAULT);
+    private final PrometheusScrapeCache scrapeCache = new PrometheusScrapeCache(prometheusMeterRegistry);
     private final Set<MetricsExporter> metricsExporters = new HashSet<>();
     private @Nullable MetricsConfiguration config;
 
     @GET
     @Path("/prometheus")
-    @Produces(MediaType.TEXT_PLAIN)
+    @Produces({ MediaType.TEXT_PLAIN, OpenMetricsTextFormat.CONTENT_TYPE })
     @Operation(operationId = "getPrometheusMetrics", summary = "Gets openHAB system and core metrics in a Prometheus compatible format.", responses = {
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = String.class))) })
-    public String getPrometheusMetrics() {
-        return prometheusMeterRegistry.scrape();
+    public Response getPrometheusMetrics(@HeaderParam(HttpHeaders.ACCEPT) @Nullable String accept,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) @Nullable String acceptEncoding) {
+        Snapshot snapshot = scrapeCache.get(Format.fromAcceptHeader(accept));
+        Response.ResponseBuilder response;
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response = Response.ok(snapshot.getGzipContent()).encoding("gzip");
+        } else {
+            response = Response.ok(snapshot.getContent());
+        }
+        return response.type(snapshot.getFormat().getContentType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
     }
 
     @Reference
@@ -92,6 +108,7 @@ public class MetricsRestController {
         meterRegistry = meterRegistryProvider.getOHMeterRegistry();
         meterRegistry.add(prometheusMeterRegistry);
         this.meterRegistry = meterRegistry;
+        scrapeCache.invalidate();
         logger.debug("Core metrics registry retrieved and Prometheus registry added successfully.");
         updateMeterRegistry();
     }
@@ -111,8 +128,10 @@ public class MetricsRestController {
     }
 
     private void updateConfig(@Nullable Map<@Nullable String, @Nullable Object> configuration) {
-        this.config = new Configuration(configuration).as(MetricsConfiguration.class);
-        logger.debug("Configuration: {}", this.config);
+        MetricsConfiguration config = new Configuration(configuration).as(MetricsConfiguration.class);
+        this.config = config;
+        logger.debug("Configuration: {}", config);
+        scrapeCache.setMaxAge(config.prometheusScrapeMaxAgeInSeconds);
         this.metricsExporters.forEach(e -> e.updateExporterState(config));
     }
 
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.Collector.MetricFamilySamples;
+
+/**
+ * The {@link OpenMetricsTextFormat} writes metric samples in the OpenMetrics 1.0.0 text format, which the Prometheus
+ * client library used by Micrometer doesn't support yet.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+final class OpenMetricsTextFormat {
+    static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final String TOTAL_SUFFIX = "_total";
+
+    private OpenMetricsTextFormat() {
+    }
+
+    static void write(Writer writer, Enumeration<MetricFamilySamples> metricFamilySamples) throws IOException {
+        while (metricFamilySamples.hasMoreElements()) {
+            MetricFamilySamples family = metricFamilySamples.nextElement();
+            String name = family.name;
+            // counter families are named without the suffix of their samples
+            if (family.type == Collector.Type.COUNTER && name.endsWith(TOTAL_SUFFIX)) {
+                name = name.substring(0, name.length() - TOTAL_SUFFIX.length());
+            }
+            writer.write("# TYPE ");
+            writer.write(name);
+            writer.write(' ');
+            writer.write(typeName(family.type));
+            writer.write('\n');
+            writer.write("# HELP ");
+            writer.write(name);
+            writer.write(' ');
+            writeEscaped(writer, family.help);
+            writer.write('\n');
+            for (MetricFamilySamples.Sample sample : family.samples) {
+                writeSample(writer, sample);
+            }
+        }
+        writer.write("# EOF\n");
+    }
+
+    private static void writeSample(Writer writer, MetricFamilySamples.Sample sample) throws IOException {
+        writer.write(sample.name);
+        List<String> labelNames = sample.labelNames;
+        if (!labelNames.isEmpty()) {
+            writer.write('{');
+            for (int i = 0; i < labelNames.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(labelNames.get(i));
+                writer.write("=\"");
+                writeEscaped(writer, sample.labelValues.get(i));
+                writer.write('"');
+            }
+            writer.write('}');
+        }
+        writer.write(' ');
+        writer.write(Collector.doubleToGoString(sample.value));
+        Long timestampMs = sample.timestampMs;
+        if (timestampMs != null) {
+            writer.write(' ');
+            writer.write(Long.toString(timestampMs / 1000));
+            writer.write('.');
+            writer.write(String.format("%03d", timestampMs % 1000));
+        }
+        writer.write('\n');
+    }
+
+    private static String typeName(Collector.Type type) {
+        switch (type) {
+            case COUNTER:
+                return "counter";
+            case GAUGE:
+                return "gauge";
+            case SUMMARY:
+                return "summary";
+            case HISTOGRAM:
+                return "histogram";
+            default:
+                return "unknown";
+        }
+    }
+
+    private static void writeEscaped(Writer writer, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                default:
+                    writer.write(c);
+            }
+        }
+    }
+}
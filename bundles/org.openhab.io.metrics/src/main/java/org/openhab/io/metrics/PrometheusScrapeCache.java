@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.exporter.common.TextFormat;
+
+/**
+ * The {@link PrometheusScrapeCache} renders the metrics of a {@link PrometheusMeterRegistry} at most once per maximum
+ * age and format. Concurrent scrapes of an outdated snapshot wait for a single rendering and share its result, which
+ * is kept together with its gzip-compressed form.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class PrometheusScrapeCache {
+
+    /**
+     * The formats a scrape can be rendered in.
+     */
+    public enum Format {
+        TEXT_004(TextFormat.CONTENT_TYPE_004),
+        OPENMETRICS_100(OpenMetricsTextFormat.CONTENT_TYPE);
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Selects the format requested by the <code>Accept</code> header of a scrape.
+         *
+         * @param accept the header, or null if there is none
+         * @return the OpenMetrics format if it is accepted, otherwise the Prometheus text format
+         */
+        public static Format fromAcceptHeader(@Nullable String accept) {
+            return accept != null && accept.contains("application/openmetrics-text") ? OPENMETRICS_100 : TEXT_004;
+        }
+    }
+
+    /**
+     * A rendered scrape.
+     */
+    public static class Snapshot {
+        private final Format format;
+        private final byte[] content;
+        private final long renderedNanos;
+        private byte @Nullable [] gzipContent;
+
+        private Snapshot(Format format, byte[] content, long renderedNanos) {
+            this.format = format;
+            this.content = content;
+            this.renderedNanos = renderedNanos;
+        }
+
+        public Format getFormat() {
+            return format;
+        }
+
+        /**
+         * @return the rendered metrics, encoded in UTF-8; must not be modified
+         */
+        public byte[] getContent() {
+            return content;
+        }
+
+        /**
+         * @return the rendered metrics compressed with gzip, compressed once on the first call; must not be modified
+         */
+        public synchronized byte[] getGzipContent() {
+            byte[] gzipContent = this.gzipContent;
+            if (gzipContent == null) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 8 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                    gzip.write(content);
+                } catch (IOException e) {
+                    // not thrown by the in-memory stream
+                    throw new UncheckedIOException(e);
+                }
+                gzipContent = bytes.toByteArray();
+                this.gzipContent = gzipContent;
+            }
+            return gzipContent;
+        }
+    }
+
+    private static class Entry {
+        private volatile @Nullable Snapshot snapshot;
+        private int lastSize = 8192;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(PrometheusScrapeCache.class);
+
+    private final PrometheusMeterRegistry registry;
+    private final Entry[] entries = new Entry[Format.values().length];
+    private volatile long maxAgeNanos;
+
+    /**
+     * Creates a cache which renders every scrape, until the maximum age is set.
+     *
+     * @param registry the registry to render
+     */
+    public PrometheusScrapeCache(PrometheusMeterRegistry registry) {
+        this.registry = registry;
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new Entry();
+        }
+    }
+
+    /**
+     * @param maxAgeSeconds the maximum age of a snapshot, 0 renders every scrape
+     */
+    public void setMaxAge(int maxAgeSeconds) {
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(Math.max(maxAgeSeconds, 0));
+    }
+
+    /**
+     * Returns the current snapshot in a format, rendering it if it's older than the maximum age.
+     *
+     * @param format the format
+     * @return the snapshot
+     */
+    public Snapshot get(Format format) {
+        Entry entry = entries[format.ordinal()];
+        Snapshot snapshot = entry.snapshot;
+        if (snapshot != null && isFresh(snapshot)) {
+            return snapshot;
+        }
+        synchronized (entry) {
+            // another scrape may have rendered it while waiting
+            snapshot = entry.snapshot;
+            if (snapshot != null && isFresh(snapshot)) {
+                return snapshot;
+            }
+            long start = System.nanoTime();
+            snapshot = new Snapshot(format, render(format, entry.lastSize), start);
+            entry.lastSize = snapshot.content.length;
+            entry.snapshot = snapshot;
+            logger.trace("Rendered {} bytes of {} metrics in {} ms", snapshot.content.length, format,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return snapshot;
+        }
+    }
+
+    /**
+     * Drops the snapshots, so the next scrapes render the metrics again.
+     */
+    public void invalidate() {
+        for (Entry entry : entries) {
+            entry.snapshot = null;
+        }
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return maxAgeNanos > 0 && System.nanoTime() - snapshot.renderedNanos < maxAgeNanos;
+    }
+
+    private byte[] render(Format format, int sizeHint) {
+        // leave some room for new meters, so the buffer rarely grows
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(sizeHint + sizeHint / 8);
+        try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            Enumeration<MetricFamilySamples> samples = registry.getPrometheusRegistry().metricFamilySamples();
+            if (format == Format.OPENMETRICS_100) {
+                OpenMetricsTextFormat.write(writer, samples);
+            } else {
+                TextFormat.write004(writer, samples);
+            }
+        } catch (IOException e) {
+            // not thrown by the in-memory stream
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
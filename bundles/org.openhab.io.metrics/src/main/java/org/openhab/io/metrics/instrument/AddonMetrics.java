@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.instrument;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The {@link AddonMetrics} registers the meters of an add-on in the openHAB meter registry, when the registry is
+ * available. Add-ons pass the registry of their optional {@code MeterRegistryProvider} reference to
+ * {@link #setMeterRegistry(MeterRegistry)} and add a {@link MeterBinder} per service, thing or other source of
+ * measurements. The meters are created once per binder and registry, so recording a measurement doesn't allocate.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class AddonMetrics {
+
+    /**
+     * Creates the meters of a source of measurements.
+     */
+    @FunctionalInterface
+    public interface MeterBinder {
+        /**
+         * Creates and registers the meters, called again when the registry changes.
+         *
+         * @param meterRegistry the registry
+         * @return the registered meters, to be removed when the binder is removed
+         */
+        List<Meter> bind(MeterRegistry meterRegistry);
+
+        /**
+         * Called when the meters have been removed from the registry.
+         */
+        default void unbind() {
+        }
+    }
+
+    private final Map<MeterBinder, List<Meter>> binders = new HashMap<>();
+    private @Nullable MeterRegistry meterRegistry;
+
+    /**
+     * Sets the registry, moving the meters of all binders to it.
+     *
+     * @param meterRegistry the registry, or null if it is no longer available
+     */
+    public synchronized void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
+        binders.replaceAll((binder, meters) -> unbind(binder, meters));
+        this.meterRegistry = meterRegistry;
+        if (meterRegistry != null) {
+            binders.replaceAll((binder, meters) -> binder.bind(meterRegistry));
+        }
+    }
+
+    /**
+     * Adds the meters of a binder, registering them right away if the registry is available.
+     *
+     * @param binder creates the meters
+     */
+    public synchronized void add(MeterBinder binder) {
+        MeterRegistry meterRegistry = this.meterRegistry;
+        List<Meter> meters = binders.get(binder);
+        if (meters != null) {
+            unbind(binder, meters);
+        }
+        binders.put(binder, meterRegistry == null ? List.of() : binder.bind(meterRegistry));
+    }
+
+    /**
+     * Removes the meters of a binder.
+     *
+     * @param binder the binder passed to {@link #add(MeterBinder)}
+     */
+    public synchronized void remove(MeterBinder binder) {
+        List<Meter> meters = binders.remove(binder);
+        if (meters != null) {
+            unbind(binder, meters);
+        }
+    }
+
+    private List<Meter> unbind(MeterBinder binder, List<Meter> meters) {
+        MeterRegistry meterRegistry = this.meterRegistry;
+        if (meterRegistry != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+        binder.unbind();
+        return List.of();
+    }
+}
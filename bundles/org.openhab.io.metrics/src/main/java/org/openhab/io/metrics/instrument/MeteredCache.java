@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.instrument;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * The {@link MeteredCache} keeps the values of the most recently used keys, e.g. compiled expressions, and counts how
+ * often a cached value was reused or had to be loaded. Values are loaded without holding the lock of the cache, so
+ * a slow load doesn't block lookups of other keys. Concurrent misses of the same key may load its value more than
+ * once.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class MeteredCache<K, V> {
+
+    /**
+     * Loads the value of a key missing in the cache.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V, E extends Exception> {
+        V load(K key) throws E;
+    }
+
+    private final Map<K, V> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache which evicts the least recently used value when it is full.
+     *
+     * @param maxSize the maximum number of cached values
+     */
+    public MeteredCache(int maxSize) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value of a key, loading and caching it if it is missing.
+     *
+     * @param key the key
+     * @param loader loads the value if it is not cached
+     * @return the value
+     * @throws E if the value could not be loaded, nothing is cached then
+     */
+    public <E extends Exception> V get(K key, Loader<K, V, E> loader) throws E {
+        synchronized (entries) {
+            @Nullable
+            V value = entries.get(key);
+            if (value != null) {
+                hits.incrementAndGet();
+                return value;
+            }
+        }
+        misses.incrementAndGet();
+        V value = loader.load(key);
+        synchronized (entries) {
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return the number of cached values
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the number of lookups which reused a cached value
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which loaded their value
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Creates the meters of the hits, misses and size of the cache, named {@code <prefix>.hits},
+     * {@code <prefix>.misses} and {@code <prefix>.size}.
+     *
+     * @param prefix the prefix of the meter names
+     * @param tags the tags of the meters
+     * @return the binder to add to the {@link AddonMetrics} of the add-on
+     */
+    public AddonMetrics.MeterBinder meterBinder(String prefix, Tags tags) {
+        return meterRegistry -> List.of(
+                FunctionCounter.builder(prefix + ".hits", hits, AtomicLong::get).tags(tags)
+                        .description("Lookups which reused a cached value").register(meterRegistry),
+                FunctionCounter.builder(prefix + ".misses", misses, AtomicLong::get).tags(tags)
+                        .description("Lookups which loaded their value").register(meterRegistry),
+                Gauge.builder(prefix + ".size", this, MeteredCache::size).tags(tags)
+                        .description("Values in the cache").register(meterRegistry));
+    }
+}
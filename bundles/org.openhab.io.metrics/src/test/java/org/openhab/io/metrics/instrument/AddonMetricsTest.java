@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.instrument;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class AddonMetricsTest {
+
+    private final AddonMetrics metrics = new AddonMetrics();
+    private final AtomicLong polls = new AtomicLong(3);
+    private final AddonMetrics.MeterBinder binder = meterRegistry -> List
+            .of(FunctionCounter.builder("openhab.modbus.poll.results", polls, AtomicLong::get)
+                    .tag("thing", "modbus:poller:test").register(meterRegistry));
+
+    private double polls(MeterRegistry meterRegistry) {
+        FunctionCounter counter = meterRegistry.find("openhab.modbus.poll.results").functionCounter();
+        return counter == null ? -1 : counter.count();
+    }
+
+    @Test
+    public void testMetersAreRegisteredWhenRegistryBecomesAvailable() {
+        metrics.add(binder);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        metrics.setMeterRegistry(meterRegistry);
+
+        assertThat(polls(meterRegistry), is(3.0));
+    }
+
+    @Test
+    public void testMetersAreMovedToNewRegistry() {
+        MeterRegistry first = new SimpleMeterRegistry();
+        metrics.setMeterRegistry(first);
+        metrics.add(binder);
+        MeterRegistry second = new SimpleMeterRegistry();
+        metrics.setMeterRegistry(second);
+
+        assertThat(first.getMeters().isEmpty(), is(true));
+        assertThat(polls(second), is(3.0));
+    }
+
+    @Test
+    public void testMetersAreRemoved() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        metrics.setMeterRegistry(meterRegistry);
+        metrics.add(binder);
+        metrics.remove(binder);
+
+        assertThat(meterRegistry.getMeters().isEmpty(), is(true));
+    }
+}
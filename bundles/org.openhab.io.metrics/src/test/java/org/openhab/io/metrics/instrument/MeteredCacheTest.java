@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.instrument;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class MeteredCacheTest {
+
+    private final MeteredCache<String, String> cache = new MeteredCache<>(2);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(String key) {
+        loads.incrementAndGet();
+        return key.toUpperCase();
+    }
+
+    @Test
+    public void testValuesAreLoadedOnce() {
+        assertThat(cache.get("a", this::load), is("A"));
+        assertThat(cache.get("a", this::load), is("A"));
+
+        assertThat(loads.get(), is(1));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedValueIsEvicted() {
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.get("a", this::load);
+        cache.get("c", this::load);
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+
+        assertThat(cache.size(), is(2));
+        assertThat(loads.get(), is(4));
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        assertThrows(IOException.class, () -> cache.get("a", key -> {
+            throw new IOException("unreadable");
+        }));
+
+        assertThat(cache.get("a", this::load), is("A"));
+        assertThat(cache.getMisses(), is(2L));
+    }
+
+    @Test
+    public void testMetersReadTheCache() {
+        AddonMetrics metrics = new AddonMetrics();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        metrics.setMeterRegistry(meterRegistry);
+        metrics.add(cache.meterBinder("openhab.test.cache", Tags.of("service", "TEST")));
+        cache.get("a", this::load);
+        cache.get("a", this::load);
+
+        assertThat(meterRegistry.get("openhab.test.cache.hits").tag("service", "TEST").functionCounter().count(),
+                is(1.0));
+        assertThat(meterRegistry.get("openhab.test.cache.misses").functionCounter().count(), is(1.0));
+        assertThat(meterRegistry.get("openhab.test.cache.size").gauge().value(), is(1.0));
+    }
+}
@@ -36,8 +36,10 @@ import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.MimeTypes;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.URIUtil;
 import org.json.JSONArray;
@@ -72,6 +74,7 @@ import okhttp3.logging.HttpLoggingInterceptor.Level;
  * @author Victor Belov - Initial contribution
  * @author Kai Kreuzer - migrated code to new Jetty client and ESH APIs
  * @author Dan Cunningham - Extended notification enhancements
+ * @author Cody Cutrer - Streaming of proxied responses with backpressure and compression
  */
 public class CloudClient {
 
@@ -83,6 +86,16 @@ public class CloudClient {
 
     private static final long READ_TIMEOUT = 60_0000;
 
+    /*
+     * Responses with a smaller content length are not compressed, since the gzip overhead outweighs the savings
+     */
+    private static final long MIN_COMPRESS_LENGTH = 1024;
+
+    /*
+     * Name of the thread pool of the add-on, shared with the item updates
+     */
+    private static final String THREAD_POOL_NAME = "openhabcloud";
+
     /*
      * Logger for this class
      */
@@ -142,6 +155,21 @@ public class CloudClient {
     private boolean remoteAccessEnabled;
     private Set<String> exposedItems;
 
+    /*
+     * The maximum size of the frames of proxied responses, 0 to send the content as it is received
+     */
+    private int proxyFrameSize;
+
+    /*
+     * This variable indicates if compressible proxied responses are compressed when the client accepts it
+     */
+    private boolean proxyCompression;
+
+    /*
+     * Holds back the proxied responses while the send buffer of the connection is full
+     */
+    private ProxyFlowControl proxyFlowControl;
+
     /**
      * Back-off strategy for reconnecting when manual reconnection is needed
      */
@@ -154,6 +182,12 @@ public class CloudClient {
     protected final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
 
+    /*
+     * Sends the incomplete frames of proxied responses and resumes their demand, which includes compressing and
+     * emitting content, so it doesn't run on the common pool
+     */
+    private final ScheduledExecutorService proxyScheduler = ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME);
+
     @SuppressWarnings("null")
     private final AtomicReference<Optional<ScheduledFuture<?>>> reconnectFuture = new AtomicReference<>(
             Optional.empty());
@@ -180,6 +214,18 @@ public class CloudClient {
         reconnectBackoff.setJitter(RECONNECT_JITTER);
     }
 
+    /**
+     * Configures how the content of proxied responses is sent to the openHAB Cloud
+     *
+     * @param frameSize the maximum size of the frames the content is collected in, 0 to send the content as it is
+     *            received
+     * @param compression whether to compress text content with gzip when the client accepts it
+     */
+    public void setProxyStreaming(int frameSize, boolean compression) {
+        this.proxyFrameSize = Math.max(frameSize, 0);
+        this.proxyCompression = compression;
+    }
+
     /**
      * Connect to the openHAB Cloud
      */
@@ -205,7 +251,8 @@ public class CloudClient {
                 okHttpBuilder.addNetworkInterceptor(loggingInterceptor);
             }
             options.callFactory = okHttpBuilder.build();
-            options.webSocketFactory = okHttpBuilder.build();
+            proxyFlowControl = new ProxyFlowControl(okHttpBuilder.build(), proxyScheduler);
+            options.webSocketFactory = proxyFlowControl;
             socket = IO.socket(baseURL, options);
             URL parsed = new URL(baseURL);
             protocol = parsed.getProtocol();
@@ -381,6 +428,8 @@ public class CloudClient {
         isConnected = false;
         // And clean up the list of running requests
         runningRequests.clear();
+        // The responses held back can't be sent anymore
+        proxyFlowControl.reset();
     }
 
     /**
@@ -461,12 +510,35 @@ public class CloudClient {
                 request.content(new BytesContentProvider(requestBody.getBytes()));
             }
 
+            boolean acceptsGzip = acceptsGzip(requestHeadersJson);
+            AtomicReference<ProxyResponseStream> responseStream = new AtomicReference<>();
+
             request.onResponseHeaders(response -> {
                 logger.debug("onHeaders {}", requestId);
+                HttpFields headers = response.getHeaders();
+                if (proxyFrameSize > 0 && !isEventStream(headers)) {
+                    boolean compress = proxyCompression && acceptsGzip && method != HttpMethod.HEAD
+                            && response.getStatus() == HttpStatus.OK_200 && isCompressible(headers);
+                    try {
+                        responseStream.set(new ProxyResponseStream(proxyFrameSize, compress,
+                                content -> sendResponseContent(requestId, content), proxyFlowControl,
+                                jettyClient.getByteBufferPool(), proxyScheduler));
+                        if (compress) {
+                            headers = new HttpFields(headers);
+                            headers.remove(HttpHeader.CONTENT_LENGTH);
+                            headers.put(HttpHeader.CONTENT_ENCODING, "gzip");
+                            headers.add(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING.asString());
+                        }
+                    } catch (IOException e) {
+                        // the content is sent as it is received
+                        logger.debug("Failed to create the response stream of request {}: {}", requestId,
+                                e.getMessage());
+                    }
+                }
                 JSONObject responseJson = new JSONObject();
                 try {
                     responseJson.put("id", requestId);
-                    responseJson.put("headers", getJSONHeaders(response.getHeaders()));
+                    responseJson.put("headers", getJSONHeaders(headers));
                     responseJson.put("responseStatusCode", response.getStatus());
                     responseJson.put("responseStatusText", response.getReason());
                     socket.emit("responseHeader", responseJson);
@@ -475,20 +547,19 @@ public class CloudClient {
                 } catch (JSONException e) {
                     logger.debug("{}", e.getMessage());
                 }
-            }).onResponseContent((theResponse, content) -> {
+            }).onResponseContentAsync((theResponse, content, callback) -> {
                 logger.debug("onResponseContent: {}, content size {}", requestId, String.valueOf(content.remaining()));
-                JSONObject responseJson = new JSONObject();
-                try {
-                    responseJson.put("id", requestId);
-                    responseJson.put("body", BufferUtil.toArray(content));
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("{}", StandardCharsets.UTF_8.decode(content).toString());
-                    }
-                    socket.emit("responseContentBinary", responseJson);
-                    logger.trace("Sent content to request {}", requestId);
-                } catch (JSONException e) {
-                    logger.debug("{}", e.getMessage());
+                ProxyResponseStream stream = responseStream.get();
+                if (stream != null) {
+                    // completes the callback once the content may be released and more content can be sent
+                    stream.content(content, callback);
+                    return;
+                }
+                if (logger.isTraceEnabled()) {
+                    logger.trace("{}", StandardCharsets.UTF_8.decode(content.slice()).toString());
                 }
+                sendResponseContent(requestId, BufferUtil.toArray(content));
+                callback.succeeded();
             }).onRequestFailure((origRequest, failure) -> {
                 logger.debug("onRequestFailure: {},  {}", requestId, failure.getMessage());
                 JSONObject responseJson = new JSONObject();
@@ -515,6 +586,19 @@ public class CloudClient {
                         logger.debug("Response Failure: {}", result.getResponseFailure().getMessage());
                     }
                 }
+                ProxyResponseStream stream = responseStream.get();
+                if (stream != null) {
+                    if (result != null && result.isFailed()) {
+                        stream.abort();
+                    } else {
+                        try {
+                            stream.close();
+                        } catch (IOException e) {
+                            logger.debug("Failed to send the remaining content of request {}: {}", requestId,
+                                    e.getMessage());
+                        }
+                    }
+                }
                 JSONObject responseJson = new JSONObject();
                 try {
                     responseJson.put("id", requestId);
@@ -533,6 +617,51 @@ public class CloudClient {
         }
     }
 
+    private void sendResponseContent(int requestId, byte[] content) {
+        JSONObject responseJson = new JSONObject();
+        try {
+            responseJson.put("id", requestId);
+            responseJson.put("body", content);
+            socket.emit("responseContentBinary", responseJson);
+            logger.trace("Sent {} bytes of content to request {}", content.length, requestId);
+        } catch (JSONException e) {
+            logger.debug("{}", e.getMessage());
+        }
+    }
+
+    private boolean acceptsGzip(JSONObject requestHeadersJson) {
+        for (String headerName : requestHeadersJson.keySet()) {
+            if (HttpHeader.ACCEPT_ENCODING.is(headerName)) {
+                return requestHeadersJson.optString(headerName).contains("gzip");
+            }
+        }
+        return false;
+    }
+
+    private boolean isEventStream(HttpFields headers) {
+        String contentType = headers.get(HttpHeader.CONTENT_TYPE);
+        return contentType != null && contentType.startsWith("text/event-stream");
+    }
+
+    private boolean isCompressible(HttpFields headers) {
+        if (headers.containsKey(HttpHeader.CONTENT_ENCODING.asString())) {
+            // already compressed by openHAB
+            return false;
+        }
+        long contentLength = headers.getLongField(HttpHeader.CONTENT_LENGTH.asString());
+        if (contentLength >= 0 && contentLength < MIN_COMPRESS_LENGTH) {
+            return false;
+        }
+        String contentType = headers.get(HttpHeader.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        contentType = MimeTypes.getContentTypeWithoutCharset(contentType).toLowerCase();
+        // includes the structured syntax suffixes like image/svg+xml
+        return contentType.startsWith("text/") || contentType.endsWith("json") || contentType.endsWith("xml")
+                || contentType.endsWith("javascript");
+    }
+
     private void setRequestHeaders(Request request, JSONObject requestHeadersJson) {
         Iterator<String> headersIterator = requestHeadersJson.keys();
         // Convert JSONObject of headers into Header ArrayList
@@ -26,12 +26,14 @@ import java.util.Set;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.openhab.core.OpenHAB;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.events.Event;
 import org.openhab.core.events.EventFilter;
 import org.openhab.core.events.EventPublisher;
 import org.openhab.core.events.EventSubscriber;
 import org.openhab.core.id.InstanceUUID;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.io.net.http.HttpClientFactory;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -47,6 +49,7 @@ import org.openhab.core.net.HttpServiceUtil;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.TypeParser;
 import org.openhab.core.util.StringUtils;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.openhab.io.openhabcloud.NotificationAction;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
@@ -55,15 +58,23 @@ import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * This class starts the cloud connection service and implements interface to communicate with the cloud.
  *
  * @author Victor Belov - Initial contribution
  * @author Kai Kreuzer - migrated code to new Jetty client and ESH APIs
  * @author Dan Cunningham - Extended notification enhancements
+ * @author Cody Cutrer - Coalesced and rate limited item updates
  */
 @Component(service = { CloudService.class, EventSubscriber.class,
         ActionService.class }, configurationPid = "org.openhab.openhabcloud", property = Constants.SERVICE_PID
@@ -76,11 +87,19 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_UPDATE_WINDOW = "updateWindow";
+    private static final String CFG_UPDATE_RATE = "updateRate";
+    private static final String CFG_PROXY_FRAME_SIZE = "proxyFrameSize";
+    private static final String CFG_PROXY_COMPRESSION = "proxyCompression";
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
     private static final int DEFAULT_LOCAL_OPENHAB_REQUEST_TIMEOUT = 30000;
     private static final String HTTPCLIENT_NAME = "openhabcloud";
+    private static final long DEFAULT_UPDATE_WINDOW = 500;
+    private static final long DEFAULT_UPDATE_RATE = 10;
+    private static final long DEFAULT_PROXY_FRAME_SIZE = 65536;
+    private static final String METRIC_PREFIX = "openhab.cloud.itemupdates.";
 
     private final Logger logger = LoggerFactory.getLogger(CloudService.class);
 
@@ -95,6 +114,10 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private Set<String> exposedItems = null;
     private int localPort;
 
+    private final ItemUpdateBatcher itemUpdateBatcher = new ItemUpdateBatcher(
+            ThreadPoolManager.getScheduledPool(HTTPCLIENT_NAME), this::sendItemUpdate);
+    private final AddonMetrics metrics = new AddonMetrics();
+
     @Activate
     public CloudService(final @Reference HttpClientFactory httpClientFactory,
             final @Reference ItemRegistry itemRegistry, final @Reference EventPublisher eventPublisher) {
@@ -106,6 +129,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         this.itemRegistry = itemRegistry;
         this.eventPublisher = eventPublisher;
+        metrics.add(this::bindMetrics);
     }
 
     /**
@@ -256,6 +280,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     @Deactivate
     protected void deactivate() {
         logger.debug("openHAB Cloud connector deactivated");
+        itemUpdateBatcher.stop();
         cloudClient.shutdown();
         try {
             httpClient.stop();
@@ -296,6 +321,9 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             }
         }
 
+        itemUpdateBatcher.configure(getLong(config, CFG_UPDATE_WINDOW, DEFAULT_UPDATE_WINDOW),
+                getLong(config, CFG_UPDATE_RATE, DEFAULT_UPDATE_RATE));
+
         logger.debug("UUID = {}, secret = {}", censored(InstanceUUID.get()), censored(getSecret()));
 
         if (cloudClient != null) {
@@ -315,11 +343,27 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(httpClient, InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl,
                 remoteAccessEnabled, exposedItems);
+        cloudClient.setProxyStreaming((int) getLong(config, CFG_PROXY_FRAME_SIZE, DEFAULT_PROXY_FRAME_SIZE),
+                !"false".equals(String.valueOf(config.get(CFG_PROXY_COMPRESSION))));
         cloudClient.connect();
         cloudClient.setListener(this);
         NotificationAction.cloudService = this;
     }
 
+    private long getLong(Map<String, ?> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        if (value instanceof Number number) {
+            return number.longValue();
+        } else if (value instanceof String string && !string.isBlank()) {
+            try {
+                return Long.parseLong(string.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' of '{}', using {}", string, key, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
     @Override
     public String getActionClassName() {
         return NotificationAction.class.getCanonicalName();
@@ -436,10 +480,47 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     public void receive(Event event) {
         ItemStateEvent ise = (ItemStateEvent) event;
         if (supportsUpdates() && exposedItems != null && exposedItems.contains(ise.getItemName())) {
-            cloudClient.sendItemUpdate(ise.getItemName(), ise.getItemState().toString());
+            itemUpdateBatcher.update(ise.getItemName(), ise.getItemState().toString());
         }
     }
 
+    private boolean sendItemUpdate(String itemName, String itemState) {
+        CloudClient cloudClient = this.cloudClient;
+        if (cloudClient == null || !cloudClient.isConnected()) {
+            logger.debug("No connection, Item update is not sent");
+            return false;
+        }
+        cloudClient.sendItemUpdate(itemName, itemState);
+        return true;
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+    }
+
+    private List<Meter> bindMetrics(MeterRegistry meterRegistry) {
+        return List.of(
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "received", itemUpdateBatcher, ItemUpdateBatcher::getReceivedCount)
+                        .description("Updates of exposed items").register(meterRegistry),
+                FunctionCounter.builder(METRIC_PREFIX + "sent", itemUpdateBatcher, ItemUpdateBatcher::getSentCount)
+                        .description("Item updates sent to the openHAB Cloud").register(meterRegistry),
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "coalesced", itemUpdateBatcher, ItemUpdateBatcher::getCoalescedCount)
+                        .description("Item updates replaced by a later update of the same item")
+                        .register(meterRegistry),
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "dropped", itemUpdateBatcher, ItemUpdateBatcher::getDroppedCount)
+                        .description("Item updates dropped because they could not be sent").register(meterRegistry),
+                Gauge.builder(METRIC_PREFIX + "pending", itemUpdateBatcher, ItemUpdateBatcher::getPendingCount)
+                        .description("Items with an update waiting to be sent").register(meterRegistry));
+    }
+
     private boolean supportsUpdates() {
         return cloudBaseUrl.contains(CFG_BASE_URL);
     }
@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the item updates sent to the openHAB Cloud. Only the latest state of an item within the update window is
+ * sent, and the updates are limited to a rate by a token bucket, which allows a burst of one second of updates.
+ * Updates exceeding the rate stay pending, so they are coalesced with later updates of the same item as well.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class ItemUpdateBatcher {
+
+    /**
+     * Sends an item update to the openHAB Cloud.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        /**
+         * @param itemName the name of the item
+         * @param itemState the state of the item
+         * @return whether the update was sent, false if there is no connection
+         */
+        boolean send(String itemName, String itemState);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ItemUpdateBatcher.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Sender sender;
+    private final LongSupplier nanoTime;
+    // keeps the order in which the items were first updated, so no item is starved by frequently updated ones
+    private final Map<String, String> pendingUpdates = new LinkedHashMap<>();
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    private long windowMillis;
+    private double ratePerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public ItemUpdateBatcher(ScheduledExecutorService scheduler, Sender sender) {
+        this(scheduler, sender, System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime the clock refilling the token bucket, in nanoseconds like {@link System#nanoTime()}
+     */
+    ItemUpdateBatcher(ScheduledExecutorService scheduler, Sender sender, LongSupplier nanoTime) {
+        this.scheduler = scheduler;
+        this.sender = sender;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Sets the window and the rate, and refills the token bucket for a new connection.
+     *
+     * @param windowMillis the time in milliseconds to wait for further updates of an item, 0 to send updates at once
+     * @param ratePerSecond the maximum number of updates sent per second, 0 for no limit
+     */
+    public synchronized void configure(long windowMillis, double ratePerSecond) {
+        this.windowMillis = Math.max(windowMillis, 0);
+        this.ratePerSecond = Math.max(ratePerSecond, 0);
+        this.tokens = capacity();
+        this.lastRefillNanos = nanoTime.getAsLong();
+        logger.debug("Sending item updates with a window of {} ms and at most {} updates per second", windowMillis,
+                ratePerSecond);
+    }
+
+    /**
+     * Queues the update of an item, replacing a pending update of the same item.
+     *
+     * @param itemName the name of the item
+     * @param itemState the new state
+     */
+    public void update(String itemName, String itemState) {
+        receivedCount.incrementAndGet();
+        synchronized (this) {
+            if (windowMillis > 0 || ratePerSecond > 0) {
+                if (pendingUpdates.put(itemName, itemState) != null) {
+                    coalescedCount.incrementAndGet();
+                }
+                if (flushJob == null) {
+                    flushJob = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        send(itemName, itemState);
+    }
+
+    /**
+     * Stops sending, dropping the pending updates.
+     */
+    public synchronized void stop() {
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        droppedCount.addAndGet(pendingUpdates.size());
+        pendingUpdates.clear();
+    }
+
+    private void flush() {
+        List<Map.Entry<String, String>> batch;
+        synchronized (this) {
+            refill();
+            int count = pendingUpdates.size();
+            if (ratePerSecond > 0) {
+                count = Math.min(count, (int) tokens);
+                tokens -= count;
+            }
+            batch = new ArrayList<>(count);
+            Iterator<Map.Entry<String, String>> iterator = pendingUpdates.entrySet().iterator();
+            while (batch.size() < count) {
+                Map.Entry<String, String> update = iterator.next();
+                batch.add(Map.entry(update.getKey(), update.getValue()));
+                iterator.remove();
+            }
+        }
+
+        try {
+            // the flush job is still set while sending, so updates of the same item are sent in order
+            for (Map.Entry<String, String> update : batch) {
+                send(update.getKey(), update.getValue());
+            }
+        } finally {
+            synchronized (this) {
+                flushJob = null;
+                if (!pendingUpdates.isEmpty()) {
+                    long delay = Math.max(windowMillis, millisUntilNextToken());
+                    flushJob = scheduler.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+                    logger.trace("{} item updates exceed the rate limit, sending them in {} ms",
+                            pendingUpdates.size(), delay);
+                }
+            }
+        }
+    }
+
+    private void send(String itemName, String itemState) {
+        boolean sent;
+        try {
+            sent = sender.send(itemName, itemState);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to send the update of item '{}' to the openHAB Cloud: {}", itemName, e.getMessage());
+            sent = false;
+        }
+        if (sent) {
+            sentCount.incrementAndGet();
+        } else {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private double capacity() {
+        return Math.max(ratePerSecond, 1);
+    }
+
+    private void refill() {
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(capacity(), tokens + (now - lastRefillNanos) * ratePerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+    }
+
+    private long millisUntilNextToken() {
+        if (ratePerSecond <= 0 || tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * 1000 / ratePerSecond);
+    }
+
+    /**
+     * @return the number of item updates received from the event bus
+     */
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    /**
+     * @return the number of item updates sent to the openHAB Cloud
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * @return the number of item updates replaced by a later update of the same item before being sent
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * @return the number of item updates dropped because they could not be sent
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return the number of items with an update waiting to be sent
+     */
+    public synchronized int getPendingCount() {
+        return pendingUpdates.size();
+    }
+}
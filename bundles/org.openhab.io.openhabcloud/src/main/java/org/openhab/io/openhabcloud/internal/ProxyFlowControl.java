@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.util.Callback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * Applies backpressure to the proxied responses. The demand of a response for more content from Jetty is held back
+ * while the send buffer of the web socket to the openHAB Cloud is above a high watermark, and is resumed once the
+ * buffer has drained below a low watermark. OkHttp closes a web socket whose send buffer exceeds 16 MiB, so without
+ * backpressure a large response on a slow connection would drop the connection to the openHAB Cloud.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class ProxyFlowControl implements WebSocket.Factory {
+
+    private static final long HIGH_WATERMARK = 1024 * 1024;
+    private static final long LOW_WATERMARK = 256 * 1024;
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private final Logger logger = LoggerFactory.getLogger(ProxyFlowControl.class);
+
+    private final WebSocket.Factory factory;
+    private final ScheduledExecutorService scheduler;
+    private final List<Callback> pendingDemands = new ArrayList<>();
+    private volatile @Nullable WebSocket webSocket;
+    private @Nullable ScheduledFuture<?> pollJob;
+
+    /**
+     * @param factory the factory creating the web sockets, usually an OkHttp client
+     * @param scheduler the scheduler polling the send buffer while demand is held back
+     */
+    public ProxyFlowControl(WebSocket.Factory factory, ScheduledExecutorService scheduler) {
+        this.factory = factory;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public WebSocket newWebSocket(Request request, WebSocketListener listener) {
+        WebSocket webSocket = factory.newWebSocket(request, listener);
+        this.webSocket = webSocket;
+        return webSocket;
+    }
+
+    /**
+     * Demands more content after a frame was sent, at once if the send buffer is below the high watermark, otherwise
+     * after it has drained.
+     *
+     * @param demand the callback of the content, succeeded to demand more content
+     */
+    public void demand(Callback demand) {
+        if (queueSize() <= HIGH_WATERMARK) {
+            demand.succeeded();
+            return;
+        }
+        synchronized (this) {
+            pendingDemands.add(demand);
+            if (pollJob == null) {
+                logger.debug("Send buffer of the openHAB Cloud connection is full, holding back proxied responses");
+                pollJob = scheduler.scheduleWithFixedDelay(this::poll, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Fails the demands held back, since the responses can't be sent after the connection was closed.
+     */
+    public void reset() {
+        List<Callback> demands = takePendingDemands();
+        IOException failure = new IOException("Disconnected from the openHAB Cloud");
+        demands.forEach(demand -> demand.failed(failure));
+    }
+
+    private void poll() {
+        if (queueSize() <= LOW_WATERMARK) {
+            List<Callback> demands = takePendingDemands();
+            logger.debug("Send buffer of the openHAB Cloud connection has drained, resuming {} proxied responses",
+                    demands.size());
+            demands.forEach(Callback::succeeded);
+        }
+    }
+
+    private synchronized List<Callback> takePendingDemands() {
+        ScheduledFuture<?> pollJob = this.pollJob;
+        if (pollJob != null) {
+            pollJob.cancel(false);
+            this.pollJob = null;
+        }
+        List<Callback> demands = new ArrayList<>(pendingDemands);
+        pendingDemands.clear();
+        return demands;
+    }
+
+    private long queueSize() {
+        WebSocket webSocket = this.webSocket;
+        return webSocket == null ? 0 : webSocket.queueSize();
+    }
+}
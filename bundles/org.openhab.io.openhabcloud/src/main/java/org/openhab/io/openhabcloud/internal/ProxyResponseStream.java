@@ -0,0 +1,289 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.eclipse.jetty.util.Callback;
+
+/**
+ * Streams the content of a proxied response to the openHAB Cloud. The content chunks received from Jetty are collected
+ * in a pooled buffer, optionally compressed with gzip, and sent as frames of up to the frame size. Content which
+ * doesn't fill a frame is sent after a short delay, so streamed responses aren't held back. Jetty is asked for more
+ * content through the {@link ProxyFlowControl} once a frame was sent.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class ProxyResponseStream extends OutputStream {
+
+    private static final long FLUSH_DELAY_MILLIS = 20;
+
+    /**
+     * Sends a frame of content to the openHAB Cloud.
+     */
+    @FunctionalInterface
+    public interface FrameSender {
+        /**
+         * @param content the content of the frame, owned by the receiver
+         */
+        void send(byte[] content);
+    }
+
+    private final int frameSize;
+    private final FrameSender sender;
+    private final ProxyFlowControl flowControl;
+    private final ByteBufferPool bufferPool;
+    private final ScheduledExecutorService scheduler;
+    private final @Nullable GZIPOutputStream gzip;
+    private @Nullable ByteBuffer frame;
+    private byte @Nullable [] chunk;
+    private @Nullable ScheduledFuture<?> flushJob;
+    private long lastContentNanos;
+    private boolean frameSent;
+    private boolean closed;
+
+    /**
+     * @param frameSize the maximum size of a frame
+     * @param compress whether to compress the content with gzip
+     * @param sender the sender of the frames
+     * @param flowControl the flow control demanding more content
+     * @param bufferPool the pool of the frame buffers
+     * @param scheduler the scheduler sending incomplete frames
+     */
+    public ProxyResponseStream(int frameSize, boolean compress, FrameSender sender, ProxyFlowControl flowControl,
+            ByteBufferPool bufferPool, ScheduledExecutorService scheduler) throws IOException {
+        this.frameSize = frameSize;
+        this.sender = sender;
+        this.flowControl = flowControl;
+        this.bufferPool = bufferPool;
+        this.scheduler = scheduler;
+        // flushing the gzip stream sends the content compressed so far, so streamed responses can be decompressed
+        this.gzip = compress ? new GZIPOutputStream(this, frameSize, true) : null;
+    }
+
+    /**
+     * Adds a chunk of content received from Jetty.
+     *
+     * @param content the content, only valid until the callback is completed
+     * @param callback the callback of the content, completed when more content can be received
+     */
+    public synchronized void content(ByteBuffer content, Callback callback) {
+        if (closed) {
+            callback.failed(new IOException("Response stream is closed"));
+            return;
+        }
+        frameSent = false;
+        try {
+            GZIPOutputStream gzip = this.gzip;
+            if (gzip != null) {
+                if (content.hasArray()) {
+                    gzip.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+                    content.position(content.limit());
+                } else {
+                    byte[] chunk = chunk();
+                    while (content.hasRemaining()) {
+                        int length = Math.min(content.remaining(), chunk.length);
+                        content.get(chunk, 0, length);
+                        gzip.write(chunk, 0, length);
+                    }
+                }
+            } else {
+                while (content.hasRemaining()) {
+                    ByteBuffer frame = frame();
+                    int length = Math.min(content.remaining(), frame.remaining());
+                    ByteBuffer slice = content.slice();
+                    slice.limit(length);
+                    frame.put(slice);
+                    content.position(content.position() + length);
+                    if (!frame.hasRemaining()) {
+                        sendFrame();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            callback.failed(e);
+            return;
+        }
+        lastContentNanos = System.nanoTime();
+        scheduleFlush(FLUSH_DELAY_MILLIS);
+        if (frameSent) {
+            flowControl.demand(callback);
+        } else {
+            callback.succeeded();
+        }
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        if (closed) {
+            return;
+        }
+        ByteBuffer frame = frame();
+        frame.put((byte) b);
+        if (!frame.hasRemaining()) {
+            sendFrame();
+        }
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) {
+        if (closed) {
+            return;
+        }
+        int written = 0;
+        while (written < length) {
+            ByteBuffer frame = frame();
+            int chunk = Math.min(length - written, frame.remaining());
+            frame.put(bytes, offset + written, chunk);
+            written += chunk;
+            if (!frame.hasRemaining()) {
+                sendFrame();
+            }
+        }
+    }
+
+    /**
+     * Sends the content collected so far, called by the gzip stream after it has flushed the compressed content.
+     */
+    @Override
+    public synchronized void flush() {
+        ByteBuffer frame = this.frame;
+        if (!closed && frame != null && frame.position() > 0) {
+            sendFrame();
+        }
+    }
+
+    /**
+     * Sends the remaining content at the end of the response and releases the buffer.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        cancelFlush();
+        try {
+            GZIPOutputStream gzip = this.gzip;
+            if (gzip != null) {
+                gzip.finish();
+            }
+            ByteBuffer frame = this.frame;
+            if (frame != null && frame.position() > 0) {
+                sendFrame();
+            }
+        } finally {
+            abort();
+        }
+    }
+
+    /**
+     * Drops the remaining content after a failure and releases the buffer.
+     */
+    public synchronized void abort() {
+        cancelFlush();
+        closed = true;
+        ByteBuffer frame = this.frame;
+        if (frame != null) {
+            bufferPool.release(frame);
+            this.frame = null;
+        }
+        GZIPOutputStream gzip = this.gzip;
+        if (gzip != null) {
+            // releases the native memory of the deflater, the content is not written anymore
+            try {
+                gzip.close();
+            } catch (IOException e) {
+                // ignored, the stream is closed
+            }
+        }
+    }
+
+    private byte[] chunk() {
+        byte[] chunk = this.chunk;
+        if (chunk == null) {
+            chunk = new byte[Math.min(frameSize, 8192)];
+            this.chunk = chunk;
+        }
+        return chunk;
+    }
+
+    private ByteBuffer frame() {
+        ByteBuffer frame = this.frame;
+        if (frame == null) {
+            frame = bufferPool.acquire(frameSize, false);
+            // the pool may return a larger buffer
+            frame.clear().limit(frameSize);
+            this.frame = frame;
+        }
+        return frame;
+    }
+
+    private void sendFrame() {
+        ByteBuffer frame = frame();
+        frame.flip();
+        // the socket.io client keeps the content until it is sent, so the pooled buffer can't be passed on
+        byte[] content = new byte[frame.remaining()];
+        frame.get(content);
+        frame.clear().limit(frameSize);
+        frameSent = true;
+        sender.send(content);
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        ByteBuffer frame = this.frame;
+        if (flushJob == null && (gzip != null || (frame != null && frame.position() > 0))) {
+            flushJob = scheduler.schedule(this::flushIfIdle, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void flushIfIdle() {
+        flushJob = null;
+        if (closed) {
+            return;
+        }
+        // flushing while content is still arriving would split the frames and worsen the compression
+        long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastContentNanos);
+        if (idleMillis < FLUSH_DELAY_MILLIS) {
+            scheduleFlush(FLUSH_DELAY_MILLIS - idleMillis);
+            return;
+        }
+        try {
+            GZIPOutputStream gzip = this.gzip;
+            if (gzip != null) {
+                gzip.flush();
+            } else {
+                flush();
+            }
+        } catch (IOException e) {
+            abort();
+        }
+    }
+
+    private void cancelFlush() {
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ItemUpdateBatcher} with a scheduler and a clock controlled by the test.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class ItemUpdateBatcherTest {
+
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final List<Runnable> scheduledJobs = new ArrayList<>();
+    private final List<Long> scheduledDelays = new ArrayList<>();
+    private final List<String> sentUpdates = new ArrayList<>();
+    private long nanoTime;
+
+    @BeforeEach
+    public void setUp() {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            scheduledJobs.add(invocation.getArgument(0));
+            scheduledDelays.add(invocation.getArgument(1));
+            return mock(ScheduledFuture.class);
+        });
+    }
+
+    private ItemUpdateBatcher createBatcher(long windowMillis, double ratePerSecond) {
+        ItemUpdateBatcher batcher = new ItemUpdateBatcher(scheduler, (itemName, itemState) -> {
+            sentUpdates.add(itemName + "=" + itemState);
+            return true;
+        }, () -> nanoTime);
+        batcher.configure(windowMillis, ratePerSecond);
+        return batcher;
+    }
+
+    private void runNextJob(long afterMillis) {
+        nanoTime += TimeUnit.MILLISECONDS.toNanos(afterMillis);
+        scheduledJobs.remove(0).run();
+    }
+
+    @Test
+    public void updatesAreSentAtOnceWithoutWindowAndRate() {
+        ItemUpdateBatcher batcher = createBatcher(0, 0);
+        batcher.update("Light", "ON");
+
+        assertThat(sentUpdates, contains("Light=ON"));
+        assertThat(scheduledJobs, is(empty()));
+    }
+
+    @Test
+    public void updatesOfAnItemAreCoalescedWithinTheWindow() {
+        ItemUpdateBatcher batcher = createBatcher(100, 0);
+        batcher.update("Light", "ON");
+        batcher.update("Light", "OFF");
+        batcher.update("Dimmer", "50");
+
+        assertThat(scheduledDelays, contains(100L));
+        assertThat(sentUpdates, is(empty()));
+
+        runNextJob(100);
+        assertThat(sentUpdates, contains("Light=OFF", "Dimmer=50"));
+        assertThat(scheduledJobs, is(empty()));
+        assertThat(batcher.getReceivedCount(), is(3L));
+        assertThat(batcher.getSentCount(), is(2L));
+        assertThat(batcher.getCoalescedCount(), is(1L));
+        assertThat(batcher.getPendingCount(), is(0));
+    }
+
+    @Test
+    public void tokenBucketLimitsTheRate() {
+        ItemUpdateBatcher batcher = createBatcher(0, 2);
+        for (String itemName : List.of("A", "B", "C", "D", "E")) {
+            batcher.update(itemName, "1");
+        }
+
+        // the bucket holds the updates of one second
+        runNextJob(0);
+        assertThat(sentUpdates, contains("A=1", "B=1"));
+        assertThat(batcher.getPendingCount(), is(3));
+
+        // updates exceeding the rate are still coalesced
+        batcher.update("C", "2");
+        assertThat(batcher.getCoalescedCount(), is(1L));
+
+        runNextJob(500);
+        assertThat(sentUpdates, contains("A=1", "B=1", "C=2"));
+
+        runNextJob(1000);
+        assertThat(sentUpdates, contains("A=1", "B=1", "C=2", "D=1", "E=1"));
+        assertThat(scheduledDelays, contains(0L, 500L, 500L));
+        assertThat(scheduledJobs, is(empty()));
+    }
+
+    @Test
+    public void failedUpdateDoesNotStopSending() {
+        ItemUpdateBatcher batcher = new ItemUpdateBatcher(scheduler, (itemName, itemState) -> {
+            if ("Broken".equals(itemName)) {
+                throw new IllegalStateException("socket closed");
+            }
+            sentUpdates.add(itemName + "=" + itemState);
+            return true;
+        }, () -> nanoTime);
+        batcher.configure(100, 0);
+
+        batcher.update("Broken", "ON");
+        batcher.update("Light", "ON");
+        runNextJob(100);
+        assertThat(sentUpdates, contains("Light=ON"));
+        assertThat(batcher.getDroppedCount(), is(1L));
+
+        batcher.update("Light", "OFF");
+        runNextJob(100);
+        assertThat(sentUpdates, contains("Light=ON", "Light=OFF"));
+    }
+}
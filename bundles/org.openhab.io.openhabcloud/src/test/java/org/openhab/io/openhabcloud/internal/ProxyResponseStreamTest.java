@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.io.ArrayByteBufferPool;
+import org.eclipse.jetty.util.Callback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import okhttp3.WebSocket;
+
+/**
+ * Tests the {@link ProxyResponseStream} with a {@link ProxyResponseStream.FrameSender} recording the frames.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class ProxyResponseStreamTest {
+
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final List<Runnable> scheduledJobs = new ArrayList<>();
+    private final List<byte[]> frames = new ArrayList<>();
+    // without a web socket the send buffer is empty, so demand is never held back
+    private final ProxyFlowControl flowControl = new ProxyFlowControl(mock(WebSocket.Factory.class), scheduler);
+
+    @BeforeEach
+    public void setUp() {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            scheduledJobs.add(invocation.getArgument(0));
+            return mock(ScheduledFuture.class);
+        });
+    }
+
+    private ProxyResponseStream createStream(int frameSize, boolean compress) throws IOException {
+        return new ProxyResponseStream(frameSize, compress, frames::add, flowControl, new ArrayByteBufferPool(),
+                scheduler);
+    }
+
+    private void runIdleFlush() throws InterruptedException {
+        // the incomplete frame is only sent once no content was received for the flush delay
+        Thread.sleep(30);
+        scheduledJobs.remove(0).run();
+    }
+
+    private byte[] content() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        frames.forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private static byte[] text(int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < length; i++) {
+            text.append("{\"item\":\"Sensor").append(i).append("\",\"state\":\"").append(i % 7).append("\"}");
+        }
+        return text.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void contentIsSplitIntoFrames() throws IOException {
+        ProxyResponseStream stream = createStream(10, false);
+        byte[] source = text(25);
+        Callback callback = mock(Callback.class);
+
+        stream.content(ByteBuffer.wrap(source), callback);
+        assertThat(frames.stream().map(frame -> frame.length).toList(), contains(10, 10));
+        verify(callback).succeeded();
+
+        stream.close();
+        assertThat(frames.stream().map(frame -> frame.length).toList(), contains(10, 10, 5));
+        assertThat(content(), is(source));
+    }
+
+    @Test
+    public void incompleteFrameIsSentWhenIdle() throws Exception {
+        ProxyResponseStream stream = createStream(100, false);
+        byte[] source = text(30);
+        Callback callback = mock(Callback.class);
+
+        // a direct buffer is not backed by an array
+        ByteBuffer direct = ByteBuffer.allocateDirect(source.length);
+        direct.put(source).flip();
+        stream.content(direct, callback);
+        verify(callback).succeeded();
+        assertThat(frames, is(empty()));
+        assertThat(scheduledJobs, hasSize(1));
+
+        runIdleFlush();
+        assertThat(content(), is(source));
+
+        stream.close();
+        assertThat(frames, hasSize(1));
+    }
+
+    @Test
+    public void compressedContentCanBeDecompressed() throws Exception {
+        ProxyResponseStream stream = createStream(64, true);
+        byte[] source = text(4000);
+        Callback callback = mock(Callback.class);
+
+        stream.content(ByteBuffer.wrap(source, 0, 1000), callback);
+        runIdleFlush();
+        // the content compressed so far can already be decompressed by the client
+        assertThat(frames.size(), is(greaterThan(0)));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content()))) {
+            assertThat(gzip.readNBytes(1000), is(Arrays.copyOf(source, 1000)));
+        }
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(source.length - 1000);
+        direct.put(source, 1000, source.length - 1000).flip();
+        stream.content(direct, callback);
+        stream.close();
+        verify(callback, times(2)).succeeded();
+
+        assertThat(frames.stream().map(frame -> frame.length).toList(), everyItem(is(lessThanOrEqualTo(64))));
+        assertThat(content().length, is(lessThanOrEqualTo(source.length / 2)));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content()))) {
+            assertThat(gzip.readAllBytes(), is(source));
+        }
+    }
+
+    @Test
+    public void contentAfterAbortIsRejected() throws IOException {
+        ProxyResponseStream stream = createStream(10, false);
+        stream.abort();
+        Callback callback = mock(Callback.class);
+
+        stream.content(ByteBuffer.wrap(text(5)), callback);
+        verify(callback).failed(any(IOException.class));
+        assertThat(frames, is(empty()));
+    }
+}
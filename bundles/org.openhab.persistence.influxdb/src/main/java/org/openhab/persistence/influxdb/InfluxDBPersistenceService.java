@@ -14,9 +14,9 @@ package org.openhab.persistence.influxdb;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -24,17 +24,17 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemFactory;
 import org.openhab.core.items.ItemRegistry;
@@ -48,11 +48,14 @@ import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBHistoricItem;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
+import org.openhab.persistence.influxdb.internal.InfluxDBPointQueue;
+import org.openhab.persistence.influxdb.internal.InfluxDBPointQueue.OverflowPolicy;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
@@ -68,6 +71,12 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * This is the implementation of the InfluxDB {@link PersistenceService}. It
  * persists item values using the <a href="http://influxdb.org">InfluxDB</a> time
@@ -98,6 +107,9 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
     private final Logger logger = LoggerFactory.getLogger(InfluxDBPersistenceService.class);
 
     private static final int COMMIT_INTERVAL = 3; // in s
+    private static final Path SPILL_FILE = Path.of(OpenHAB.getUserDataFolder(), "persistence", "influxdb",
+            "points.spill");
+    private static final String METRIC_PREFIX = "openhab.persistence.influxdb.";
     protected static final String CONFIG_URI = "persistence:influxdb";
 
     // External dependencies
@@ -110,7 +122,11 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     // storage
     private final ScheduledFuture<?> storeJob;
-    private final BlockingQueue<InfluxPoint> pointsQueue = new LinkedBlockingQueue<>();
+    private final InfluxDBPointQueue pointsQueue;
+
+    // metrics
+    private final AddonMetrics metrics = new AddonMetrics();
+    private volatile @Nullable Timer writeTimer;
 
     // conversion
     private final Set<ItemFactory> itemFactories = new HashSet<>();
@@ -123,11 +139,17 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         this.influxDBMetadataService = influxDBMetadataService;
         this.configuration = new InfluxDBConfiguration(config);
         if (configuration.isValid()) {
+            long maxSpillBytes = configuration.getOverflowPolicy() == OverflowPolicy.SPILL
+                    ? configuration.getMaxSpillSize() * 1024L * 1024L
+                    : 0;
+            this.pointsQueue = new InfluxDBPointQueue(configuration.getMaxQueueSize(),
+                    configuration.getOverflowPolicy(), SPILL_FILE, (int) Math.min(maxSpillBytes, Integer.MAX_VALUE));
             this.influxDBRepository = createInfluxDBRepository();
             this.influxDBRepository.connect();
             this.storeJob = ThreadPoolManager.getScheduledPool("org.openhab.influxdb")
                     .scheduleWithFixedDelay(this::commit, COMMIT_INTERVAL, COMMIT_INTERVAL, TimeUnit.SECONDS);
             serviceActivated = true;
+            metrics.add(this::bindMetrics);
         } else {
             throw new IllegalArgumentException("Configuration invalid.");
         }
@@ -154,9 +176,17 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         storeJob.cancel(false);
         commit(); // ensure we at least tried to store the data;
 
-        if (!pointsQueue.isEmpty()) {
-            logger.warn("InfluxDB failed to finally store {} points.", pointsQueue.size());
+        // keep what could not be stored for the next start
+        int remaining = pointsQueue.spillAll();
+        if (remaining > 0) {
+            logger.warn("InfluxDB failed to finally store {} points.", remaining);
+        }
+        if (pointsQueue.hasSpilledPoints()) {
+            logger.info("{} points are kept in the spill file and stored after the next start.",
+                    pointsQueue.getSpilledSize());
         }
+        pointsQueue.close();
+        unbindMetrics();
 
         influxDBRepository.disconnect();
         logger.info("InfluxDB persistence service stopped.");
@@ -212,7 +242,7 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
             if (pointsQueue.offer(point)) {
                 logger.trace("Queued {} for item {}", point, item);
             } else {
-                logger.warn("Failed to queue {} for item {}", point, item);
+                logger.debug("Dropped {} for item {}, the queue is full", point, item);
             }
         });
     }
@@ -278,16 +308,53 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
     }
 
     private void commit() {
-        if (!pointsQueue.isEmpty() && checkConnection()) {
-            List<InfluxPoint> points = new ArrayList<>();
-            pointsQueue.drainTo(points);
-            if (!influxDBRepository.write(points)) {
-                logger.warn("Re-queuing {} elements, failed to write batch.", points.size());
-                pointsQueue.addAll(points);
-                influxDBRepository.disconnect();
-            } else {
+        if ((!pointsQueue.isEmpty() || pointsQueue.hasSpilledPoints()) && checkConnection()) {
+            List<InfluxPoint> points = pointsQueue.drain();
+            if (!points.isEmpty()) {
+                if (!timedWrite(points)) {
+                    logger.warn("Re-queuing {} elements, failed to write batch.", points.size());
+                    pointsQueue.requeue(points);
+                    pointsQueue.flush();
+                    influxDBRepository.disconnect();
+                    return;
+                }
                 logger.trace("Wrote {} elements to database", points.size());
             }
+            replaySpilledPoints();
+        }
+        pointsQueue.flush();
+    }
+
+    private boolean timedWrite(List<InfluxPoint> points) {
+        long start = System.nanoTime();
+        try {
+            return influxDBRepository.write(points);
+        } finally {
+            Timer writeTimer = this.writeTimer;
+            if (writeTimer != null) {
+                writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Writes one chunk of spilled points, so replaying a long outage doesn't delay new points.
+     */
+    private void replaySpilledPoints() {
+        if (!pointsQueue.hasSpilledPoints()) {
+            return;
+        }
+        List<InfluxPoint> spilledPoints = pointsQueue.readSpilled(configuration.getReplayBatchSize());
+        if (spilledPoints.isEmpty()) {
+            // none of the points could be read, discard them
+            pointsQueue.acknowledgeSpilled();
+        } else if (timedWrite(spilledPoints)) {
+            pointsQueue.acknowledgeSpilled();
+            logger.debug("Replayed {} spilled elements, {} remaining", spilledPoints.size(),
+                    pointsQueue.getSpilledSize());
+        } else {
+            logger.warn("Failed to replay {} spilled elements, retrying later.", spilledPoints.size());
+            influxDBRepository.disconnect();
         }
     }
 
@@ -349,6 +416,38 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         });
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+        writeTimer = null;
+    }
+
+    private List<Meter> bindMetrics(MeterRegistry meterRegistry) {
+        Timer writeTimer = Timer.builder(METRIC_PREFIX + "write")
+                .description("Duration of the batch writes to the database").register(meterRegistry);
+        this.writeTimer = writeTimer;
+        return List.of(writeTimer,
+                Gauge.builder(METRIC_PREFIX + "queue.size", pointsQueue, InfluxDBPointQueue::size)
+                        .description("Points waiting in memory to be written").register(meterRegistry),
+                Gauge.builder(METRIC_PREFIX + "spill.size", pointsQueue, InfluxDBPointQueue::getSpilledSize)
+                        .description("Points waiting in the spill file to be written").register(meterRegistry),
+                Gauge.builder(METRIC_PREFIX + "spill.bytes", pointsQueue, InfluxDBPointQueue::getSpilledBytes)
+                        .description("Used size of the spill file").baseUnit("bytes").register(meterRegistry),
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "points.spilled", pointsQueue, InfluxDBPointQueue::getSpilledCount)
+                        .description("Points written to the spill file").register(meterRegistry),
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "points.replayed", pointsQueue, InfluxDBPointQueue::getReplayedCount)
+                        .description("Spilled points written to the database").register(meterRegistry),
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "points.dropped", pointsQueue, InfluxDBPointQueue::getDroppedCount)
+                        .description("Points dropped because the queue was full").register(meterRegistry));
+    }
+
     @Reference(cardinality = ReferenceCardinality.AT_LEAST_ONE, policy = ReferencePolicy.DYNAMIC)
     public void setItemFactory(ItemFactory itemFactory) {
         itemFactories.add(itemFactory);
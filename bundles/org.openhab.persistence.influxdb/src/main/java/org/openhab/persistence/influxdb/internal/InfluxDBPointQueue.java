@@ -0,0 +1,289 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of the {@link InfluxPoint}s waiting to be written.
+ *
+ * If the queue is full, the {@link OverflowPolicy} decides which point is dropped, or whether the point is appended
+ * to a {@link InfluxDBSpillFile}. The spill file is created when the first point is spilled, an existing one is
+ * opened immediately so its points are replayed. Spilled points are read back in chunks by
+ * {@link #readSpilled(int)} once the queue has been written.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBPointQueue {
+
+    /**
+     * Handling of new points when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Remove the oldest point from the queue to make room for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the new point.
+         */
+        DROP_NEWEST,
+        /**
+         * Append the new point to the spill file, discard it if the spill file is full.
+         */
+        SPILL
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBPointQueue.class);
+
+    private final ArrayDeque<InfluxPoint> points = new ArrayDeque<>();
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final @Nullable Path spillPath;
+    private final int maxSpillBytes;
+    private volatile @Nullable InfluxDBSpillFile spillFile;
+    private boolean spillFileFailed = false;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private boolean overflowing = false;
+
+    /**
+     * @param capacity the maximum number of points kept in memory
+     * @param overflowPolicy the handling of new points when the queue is full
+     * @param spillPath the file spilled points are written to and replayed from, <code>null</code> to disable
+     *            spilling
+     * @param maxSpillBytes the maximum size of the spill file in bytes, 0 to only replay an existing file
+     */
+    public InfluxDBPointQueue(int capacity, OverflowPolicy overflowPolicy, @Nullable Path spillPath,
+            int maxSpillBytes) {
+        this.capacity = Math.max(1, capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.spillPath = spillPath;
+        this.maxSpillBytes = maxSpillBytes;
+        if (spillPath != null && Files.exists(spillPath)) {
+            openSpillFile();
+        }
+    }
+
+    /**
+     * Adds a point to the queue.
+     *
+     * @param point the point
+     * @return <code>true</code> if the point has been queued or spilled, <code>false</code> if it was dropped
+     */
+    public synchronized boolean offer(InfluxPoint point) {
+        if (points.size() < capacity) {
+            points.addLast(point);
+            overflowing = false;
+            return true;
+        }
+        logOverflow();
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+            points.removeFirst();
+            points.addLast(point);
+            droppedCount.incrementAndGet();
+            return true;
+        } else if (overflowPolicy == OverflowPolicy.SPILL && spill(point)) {
+            return true;
+        }
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Removes all points from the in-memory queue.
+     *
+     * @return the points in the order they were queued
+     */
+    public synchronized List<InfluxPoint> drain() {
+        List<InfluxPoint> drained = new ArrayList<>(points);
+        points.clear();
+        return drained;
+    }
+
+    /**
+     * Puts points which could not be written back to the head of the queue. Points which do not fit anymore are
+     * spilled if the overflow policy allows it, otherwise they are dropped.
+     *
+     * @param failedPoints the points in the order they were drained
+     */
+    public synchronized void requeue(List<InfluxPoint> failedPoints) {
+        ListIterator<InfluxPoint> iterator = failedPoints.listIterator(failedPoints.size());
+        while (iterator.hasPrevious() && points.size() < capacity) {
+            points.addFirst(iterator.previous());
+        }
+        int remaining = iterator.nextIndex();
+        if (remaining > 0) {
+            logOverflow();
+            for (InfluxPoint point : failedPoints.subList(0, remaining)) {
+                if (overflowPolicy != OverflowPolicy.SPILL || !spill(point)) {
+                    droppedCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves all points of the in-memory queue to the spill file, e.g. before the service is stopped.
+     *
+     * @return the number of points which could not be spilled and are still in the queue
+     */
+    public synchronized int spillAll() {
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            while (!points.isEmpty() && spill(points.getFirst())) {
+                points.removeFirst();
+            }
+        }
+        flush();
+        return points.size();
+    }
+
+    private boolean spill(InfluxPoint point) {
+        InfluxDBSpillFile spillFile = openSpillFile();
+        if (spillFile != null && spillFile.append(point)) {
+            spilledCount.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private @Nullable InfluxDBSpillFile openSpillFile() {
+        InfluxDBSpillFile spillFile = this.spillFile;
+        Path spillPath = this.spillPath;
+        if (spillFile == null && spillPath != null && !spillFileFailed
+                && (maxSpillBytes > 0 || Files.exists(spillPath))) {
+            try {
+                spillFile = new InfluxDBSpillFile(spillPath, maxSpillBytes);
+                this.spillFile = spillFile;
+            } catch (IOException e) {
+                spillFileFailed = true;
+                logger.warn("Failed to open spill file {}, points which do not fit into the queue are dropped: {}",
+                        spillPath, e.getMessage());
+            }
+        }
+        return spillFile;
+    }
+
+    private void logOverflow() {
+        if (!overflowing) {
+            overflowing = true;
+            logger.warn("InfluxDB write queue is full ({} points), applying overflow policy {}", capacity,
+                    overflowPolicy);
+        }
+    }
+
+    /**
+     * Reads the oldest spilled points. They are kept in the spill file until {@link #acknowledgeSpilled()} is called.
+     *
+     * @param maxCount the maximum number of points to read
+     * @return the points, empty if there are none
+     */
+    public List<InfluxPoint> readSpilled(int maxCount) {
+        InfluxDBSpillFile spillFile = this.spillFile;
+        return spillFile == null ? List.of() : spillFile.read(maxCount);
+    }
+
+    /**
+     * Removes the points returned by the last call of {@link #readSpilled(int)} after they have been written.
+     */
+    public void acknowledgeSpilled() {
+        InfluxDBSpillFile spillFile = this.spillFile;
+        if (spillFile != null) {
+            replayedCount.addAndGet(spillFile.acknowledge());
+        }
+    }
+
+    /**
+     * Writes pending changes of the spill file to the storage device.
+     */
+    public void flush() {
+        InfluxDBSpillFile spillFile = this.spillFile;
+        if (spillFile != null) {
+            spillFile.flush();
+        }
+    }
+
+    /**
+     * Flushes and closes the spill file.
+     */
+    public void close() {
+        InfluxDBSpillFile spillFile = this.spillFile;
+        if (spillFile != null) {
+            spillFile.close();
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return points.isEmpty();
+    }
+
+    public synchronized int size() {
+        return points.size();
+    }
+
+    public boolean hasSpilledPoints() {
+        return getSpilledSize() > 0;
+    }
+
+    /**
+     * @return the number of points in the spill file
+     */
+    public int getSpilledSize() {
+        InfluxDBSpillFile spillFile = this.spillFile;
+        return spillFile == null ? 0 : spillFile.size();
+    }
+
+    /**
+     * @return the number of bytes used in the spill file
+     */
+    public int getSpilledBytes() {
+        InfluxDBSpillFile spillFile = this.spillFile;
+        return spillFile == null ? 0 : spillFile.getUsedBytes();
+    }
+
+    /**
+     * @return the total number of points dropped because the queue was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return the total number of points written to the spill file
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * @return the total number of spilled points which have been written to the database
+     */
+    public long getReplayedCount() {
+        return replayedCount.get();
+    }
+}
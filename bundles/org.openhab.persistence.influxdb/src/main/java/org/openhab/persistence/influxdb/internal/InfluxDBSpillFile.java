@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only, memory-mapped file which keeps {@link InfluxPoint}s that did not fit into the in-memory queue, e.g.
+ * while the database is not reachable.
+ *
+ * The file starts with a header containing the read and the write position, followed by the length-prefixed
+ * points. Points are appended at the write position and read from the read position, which is only moved forward
+ * after the points have been written to the database. The space is reclaimed once all points have been replayed.
+ * Since the file is mapped, appended points survive a crash of the JVM and are replayed after a restart.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBSpillFile implements AutoCloseable {
+    private static final int READ_POSITION_OFFSET = 0;
+    private static final int WRITE_POSITION_OFFSET = 8;
+    private static final int HEADER_SIZE = 16;
+
+    private static final byte TYPE_STRING = 0;
+    private static final byte TYPE_BIG_DECIMAL = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_BOOLEAN = 5;
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBSpillFile.class);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private int readPosition;
+    private int writePosition;
+    private int pendingReadPosition;
+    private int pendingCount;
+    private int count;
+    private boolean dirty = false;
+
+    /**
+     * Opens or creates a spill file.
+     *
+     * @param path the file
+     * @param maxSize the maximum size of the file in bytes, an existing larger file keeps its size
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public InfluxDBSpillFile(Path path, int maxSize) throws IOException {
+        this.path = path;
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = Math.min(Math.max(channel.size(), Math.max(maxSize, HEADER_SIZE)), Integer.MAX_VALUE);
+            buffer = channel.map(MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        recover();
+    }
+
+    /**
+     * Validates the header and counts the stored points. A partially written point at the end of the file is
+     * discarded.
+     */
+    private void recover() {
+        long read = buffer.getLong(READ_POSITION_OFFSET);
+        long write = buffer.getLong(WRITE_POSITION_OFFSET);
+        if (read < HEADER_SIZE || write < read || write > buffer.capacity()) {
+            if (read != 0 || write != 0) {
+                logger.warn("Discarding invalid spill file {}", path);
+            }
+            readPosition = HEADER_SIZE;
+            writePosition = HEADER_SIZE;
+            writeHeader();
+            return;
+        }
+        readPosition = (int) read;
+        writePosition = readPosition;
+        while (writePosition < write) {
+            int length = writePosition + Integer.BYTES <= write ? buffer.getInt(writePosition) : -1;
+            if (length <= 0 || writePosition + Integer.BYTES + length > write) {
+                logger.warn("Discarding {} bytes of incomplete data in spill file {}", write - writePosition, path);
+                break;
+            }
+            writePosition += Integer.BYTES + length;
+            count++;
+        }
+        pendingReadPosition = readPosition;
+        writeHeader();
+        if (count > 0) {
+            logger.info("Found {} points in spill file {} which will be replayed", count, path);
+        }
+    }
+
+    /**
+     * Appends a point.
+     *
+     * @param point the point to append
+     * @return <code>true</code> if the point has been appended, <code>false</code> if the file is full
+     */
+    public synchronized boolean append(InfluxPoint point) {
+        byte[] data = encode(point);
+        if ((long) writePosition + Integer.BYTES + data.length > buffer.capacity()) {
+            return false;
+        }
+        buffer.putInt(writePosition, data.length);
+        buffer.put(writePosition + Integer.BYTES, data);
+        writePosition += Integer.BYTES + data.length;
+        count++;
+        writeHeader();
+        return true;
+    }
+
+    /**
+     * Reads the oldest points without removing them. Calling this again before {@link #acknowledge()} returns the
+     * same points.
+     *
+     * @param maxCount the maximum number of points to read
+     * @return the points, empty if the file does not contain any
+     */
+    public synchronized List<InfluxPoint> read(int maxCount) {
+        List<InfluxPoint> points = new ArrayList<>();
+        int position = readPosition;
+        int read = 0;
+        while (position < writePosition && read < maxCount) {
+            int length = buffer.getInt(position);
+            byte[] data = new byte[length];
+            buffer.get(position + Integer.BYTES, data);
+            position += Integer.BYTES + length;
+            read++;
+            InfluxPoint point = decode(data);
+            if (point != null) {
+                points.add(point);
+            }
+        }
+        pendingReadPosition = position;
+        pendingCount = read;
+        return points;
+    }
+
+    /**
+     * Removes the points returned by the last call of {@link #read(int)}.
+     *
+     * @return the number of removed points
+     */
+    public synchronized int acknowledge() {
+        int acknowledged = pendingCount;
+        readPosition = pendingReadPosition;
+        count -= pendingCount;
+        pendingCount = 0;
+        if (readPosition >= writePosition) {
+            // everything has been replayed, start from the beginning again
+            readPosition = HEADER_SIZE;
+            writePosition = HEADER_SIZE;
+            count = 0;
+        }
+        pendingReadPosition = readPosition;
+        writeHeader();
+        return acknowledged;
+    }
+
+    /**
+     * Writes the changes to the storage device.
+     */
+    public synchronized void flush() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * @return the number of points in the file
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * @return the number of bytes used by the points in the file
+     */
+    public synchronized int getUsedBytes() {
+        return writePosition - readPosition;
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close spill file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void writeHeader() {
+        buffer.putLong(READ_POSITION_OFFSET, readPosition);
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+        dirty = true;
+    }
+
+    static byte[] encode(InfluxPoint point) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, point.getMeasurementName());
+            Instant time = point.getTime();
+            out.writeLong(time.getEpochSecond());
+            out.writeInt(time.getNano());
+            Object value = point.getValue();
+            if (value instanceof BigDecimal decimal) {
+                out.writeByte(TYPE_BIG_DECIMAL);
+                writeString(out, decimal.toString());
+            } else if (value instanceof Integer integer) {
+                out.writeByte(TYPE_INTEGER);
+                out.writeInt(integer);
+            } else if (value instanceof Long longValue) {
+                out.writeByte(TYPE_LONG);
+                out.writeLong(longValue);
+            } else if (value instanceof Double doubleValue) {
+                out.writeByte(TYPE_DOUBLE);
+                out.writeDouble(doubleValue);
+            } else if (value instanceof Number number) {
+                out.writeByte(TYPE_BIG_DECIMAL);
+                writeString(out, new BigDecimal(number.toString()).toString());
+            } else if (value instanceof Boolean booleanValue) {
+                out.writeByte(TYPE_BOOLEAN);
+                out.writeBoolean(booleanValue);
+            } else {
+                out.writeByte(TYPE_STRING);
+                writeString(out, String.valueOf(value));
+            }
+            Map<String, String> tags = point.getTags();
+            out.writeInt(tags.size());
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                writeString(out, tag.getKey());
+                writeString(out, tag.getValue());
+            }
+        } catch (IOException e) {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Nullable
+    InfluxPoint decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            InfluxPoint.Builder builder = InfluxPoint.newBuilder(readString(in));
+            builder.withTime(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+            byte type = in.readByte();
+            switch (type) {
+                case TYPE_STRING -> builder.withValue(readString(in));
+                case TYPE_BIG_DECIMAL -> builder.withValue(new BigDecimal(readString(in)));
+                case TYPE_INTEGER -> builder.withValue(in.readInt());
+                case TYPE_LONG -> builder.withValue(in.readLong());
+                case TYPE_DOUBLE -> builder.withValue(in.readDouble());
+                case TYPE_BOOLEAN -> builder.withValue(in.readBoolean());
+                default -> {
+                    logger.warn("Discarding spilled point with unknown value type {}", type);
+                    return null;
+                }
+            }
+            int tagCount = in.readInt();
+            for (int i = 0; i < tagCount; i++) {
+                builder.withTag(readString(in), readString(in));
+            }
+            return builder.build();
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Discarding spilled point which could not be read: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // writeUTF is limited to 64 kB, which is not enough for string states
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
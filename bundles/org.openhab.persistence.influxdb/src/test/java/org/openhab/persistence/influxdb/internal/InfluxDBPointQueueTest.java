@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.persistence.influxdb.internal.InfluxDBPointQueue.OverflowPolicy;
+
+/**
+ * Tests the {@link InfluxDBPointQueue} and the {@link InfluxDBSpillFile}.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBPointQueueTest {
+    private static final Instant TIME = Instant.parse("2024-01-01T00:00:00.123456789Z");
+
+    private @TempDir @NonNullByDefault({}) Path tempDir;
+
+    private static InfluxPoint point(int value) {
+        return InfluxPoint.newBuilder("measurement").withTime(TIME.plusSeconds(value)).withValue(value)
+                .withTag(InfluxDBConstants.TAG_ITEM_NAME, "item").build();
+    }
+
+    private static List<Integer> values(List<InfluxPoint> points) {
+        return points.stream().map(point -> (Integer) point.getValue()).collect(Collectors.toList());
+    }
+
+    @Test
+    public void dropOldestKeepsNewestPoints() {
+        InfluxDBPointQueue queue = new InfluxDBPointQueue(3, OverflowPolicy.DROP_OLDEST, null, 0);
+        IntStream.range(0, 5).forEach(i -> assertThat(queue.offer(point(i)), is(true)));
+
+        assertThat(values(queue.drain()), contains(2, 3, 4));
+        assertThat(queue.getDroppedCount(), is(2L));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void dropNewestKeepsOldestPoints() {
+        InfluxDBPointQueue queue = new InfluxDBPointQueue(3, OverflowPolicy.DROP_NEWEST, null, 0);
+        IntStream.range(0, 5).forEach(i -> queue.offer(point(i)));
+
+        assertThat(values(queue.drain()), contains(0, 1, 2));
+        assertThat(queue.getDroppedCount(), is(2L));
+    }
+
+    @Test
+    public void requeuedPointsAreWrittenFirst() {
+        InfluxDBPointQueue queue = new InfluxDBPointQueue(3, OverflowPolicy.DROP_NEWEST, null, 0);
+        queue.offer(point(0));
+        queue.offer(point(1));
+        List<InfluxPoint> failed = queue.drain();
+        queue.offer(point(2));
+        queue.offer(point(3));
+        queue.requeue(failed);
+
+        assertThat(values(queue.drain()), contains(1, 2, 3));
+        assertThat(queue.getDroppedCount(), is(1L));
+    }
+
+    @Test
+    public void overflowIsSpilledAndReplayedInChunks() {
+        Path spillPath = tempDir.resolve("points.spill");
+        InfluxDBPointQueue queue = new InfluxDBPointQueue(2, OverflowPolicy.SPILL, spillPath, 1024 * 1024);
+        assertThat(Files.exists(spillPath), is(false));
+
+        IntStream.range(0, 7).forEach(i -> assertThat(queue.offer(point(i)), is(true)));
+        assertThat(values(queue.drain()), contains(0, 1));
+        assertThat(queue.getSpilledSize(), is(5));
+        assertThat(queue.getSpilledCount(), is(5L));
+
+        assertThat(values(queue.readSpilled(3)), contains(2, 3, 4));
+        // not acknowledged, e.g. because writing failed
+        assertThat(values(queue.readSpilled(3)), contains(2, 3, 4));
+        queue.acknowledgeSpilled();
+        assertThat(queue.getSpilledSize(), is(2));
+        assertThat(values(queue.readSpilled(3)), contains(5, 6));
+        queue.acknowledgeSpilled();
+
+        assertThat(queue.hasSpilledPoints(), is(false));
+        assertThat(queue.getSpilledBytes(), is(0));
+        assertThat(queue.getReplayedCount(), is(5L));
+        queue.close();
+    }
+
+    @Test
+    public void pointsAreDroppedWhenSpillFileIsFull() {
+        InfluxDBPointQueue queue = new InfluxDBPointQueue(1, OverflowPolicy.SPILL, tempDir.resolve("points.spill"),
+                256);
+        IntStream.range(0, 10).forEach(i -> queue.offer(point(i)));
+
+        assertThat(queue.getSpilledSize(), is(greaterThan(0)));
+        assertThat(queue.getSpilledSize() + queue.getDroppedCount(), is(9L));
+        queue.close();
+    }
+
+    @Test
+    public void spilledPointsAreReplayedAfterRestart() {
+        Path spillPath = tempDir.resolve("points.spill");
+        InfluxDBPointQueue queue = new InfluxDBPointQueue(10, OverflowPolicy.SPILL, spillPath, 1024 * 1024);
+        IntStream.range(0, 3).forEach(i -> queue.offer(point(i)));
+        assertThat(queue.spillAll(), is(0));
+        queue.close();
+
+        // the spill file is replayed even if spilling has been disabled in the meantime
+        InfluxDBPointQueue restarted = new InfluxDBPointQueue(10, OverflowPolicy.DROP_OLDEST, spillPath, 0);
+        assertThat(restarted.getSpilledSize(), is(3));
+        List<InfluxPoint> points = restarted.readSpilled(10);
+        assertThat(values(points), contains(0, 1, 2));
+        assertThat(points.get(0).getTime(), is(TIME));
+        assertThat(points.get(0).getMeasurementName(), is("measurement"));
+        assertThat(points.get(0).getTags(), is(point(0).getTags()));
+        restarted.close();
+    }
+
+    @Test
+    public void spillFileKeepsValueTypes() throws IOException {
+        InfluxDBSpillFile spillFile = new InfluxDBSpillFile(tempDir.resolve("points.spill"), 1024 * 1024);
+        List<Object> values = List.of(new BigDecimal("21.5"), 1, 1700000000000L, 1.5, true, "a string");
+        for (Object value : values) {
+            spillFile.append(InfluxPoint.newBuilder("measurement").withTime(TIME).withValue(value).build());
+        }
+
+        assertThat(spillFile.read(10).stream().map(InfluxPoint::getValue).collect(Collectors.toList()), is(values));
+        spillFile.close();
+    }
+}
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.inmemory.internal;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.types.State;
+
+/**
+ * Stores the numeric states of an item in two primitive arrays, one with the timestamps in epoch milliseconds and one
+ * with the values, which needs 16 bytes per value instead of several objects.
+ *
+ * All values of a series have the same state type, and quantities are converted to the unit of the first value. The
+ * arrays are sorted by timestamp, so queries find their range by binary search.
+ *
+ * Modifications must be done by a single thread at a time, i.e. while holding the lock of the item. Queries do not
+ * need a lock: they read an immutable snapshot of the arrays. Values are only ever written to the arrays beyond the
+ * end of all published snapshots, anything else (out-of-order values, removal, growing) copies the arrays.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class ColumnarSeries {
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The values in <code>[start, end)</code> of the arrays.
+     */
+    private record Snapshot(long[] timestamps, double[] values, int start, int end) {
+        int size() {
+            return end - start;
+        }
+    }
+
+    private final Class<? extends State> type;
+    private final @Nullable Unit<?> unit;
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new double[0], 0, 0);
+
+    private ColumnarSeries(Class<? extends State> type, @Nullable Unit<?> unit) {
+        this.type = type;
+        this.unit = unit;
+    }
+
+    /**
+     * Creates an empty series for states of the type of the given state.
+     *
+     * @param state the first state of the series
+     * @return the series, or <code>null</code> if the state is not numeric
+     */
+    public static @Nullable ColumnarSeries create(State state) {
+        // only exactly these types, subclasses like HSBType can't be restored from a single value
+        if (state.getClass() == QuantityType.class) {
+            return new ColumnarSeries(QuantityType.class, ((QuantityType<?>) state).getUnit());
+        } else if (state.getClass() == DecimalType.class || state.getClass() == PercentType.class) {
+            return new ColumnarSeries(state.getClass(), null);
+        }
+        return null;
+    }
+
+    /**
+     * Adds a state. A state with the same timestamp as an existing one is ignored.
+     *
+     * @param timestamp the timestamp of the state
+     * @param state the state
+     * @return <code>false</code> if the state cannot be stored in this series, e.g. because it has a different type
+     */
+    public boolean add(ZonedDateTime timestamp, State state) {
+        if (state.getClass() != type) {
+            return false;
+        }
+        double value;
+        Unit<?> unit = this.unit;
+        if (state instanceof QuantityType<?> quantity && unit != null) {
+            QuantityType<?> converted = quantity.toUnit(unit);
+            if (converted == null) {
+                return false;
+            }
+            value = converted.doubleValue();
+        } else if (state instanceof DecimalType decimal) {
+            value = decimal.doubleValue();
+        } else {
+            return false;
+        }
+        insert(timestamp.toInstant().toEpochMilli(), value);
+        return true;
+    }
+
+    private void insert(long time, double value) {
+        Snapshot current = snapshot;
+        int size = current.size();
+        if (size == 0 || time > current.timestamps[current.end - 1]) {
+            if (current.end < current.timestamps.length) {
+                // the slot is not part of any published snapshot
+                current.timestamps[current.end] = time;
+                current.values[current.end] = value;
+                snapshot = new Snapshot(current.timestamps, current.values, current.start, current.end + 1);
+            } else {
+                long[] timestamps = Arrays.copyOfRange(current.timestamps, current.start,
+                        current.start + Math.max(INITIAL_CAPACITY, size * 2));
+                double[] values = Arrays.copyOfRange(current.values, current.start,
+                        current.start + timestamps.length);
+                timestamps[size] = time;
+                values[size] = value;
+                snapshot = new Snapshot(timestamps, values, 0, size + 1);
+            }
+            return;
+        }
+
+        int index = Arrays.binarySearch(current.timestamps, current.start, current.end, time);
+        if (index >= 0) {
+            return;
+        }
+        int position = -(index + 1) - current.start;
+        long[] timestamps = new long[Math.max(INITIAL_CAPACITY, size + 1 + size / 2)];
+        double[] values = new double[timestamps.length];
+        System.arraycopy(current.timestamps, current.start, timestamps, 0, position);
+        System.arraycopy(current.values, current.start, values, 0, position);
+        timestamps[position] = time;
+        values[position] = value;
+        System.arraycopy(current.timestamps, current.start + position, timestamps, position + 1, size - position);
+        System.arraycopy(current.values, current.start + position, values, position + 1, size - position);
+        snapshot = new Snapshot(timestamps, values, 0, size + 1);
+    }
+
+    /**
+     * Removes the oldest values until the series contains at most the given number of values.
+     *
+     * @param maxEntries the maximum number of values, 0 for no limit
+     */
+    public void trim(long maxEntries) {
+        Snapshot current = snapshot;
+        if (maxEntries > 0 && current.size() > maxEntries) {
+            snapshot = new Snapshot(current.timestamps, current.values, (int) (current.end - maxEntries),
+                    current.end);
+        }
+    }
+
+    /**
+     * Removes all values matching a filter.
+     *
+     * @param filter the filter
+     */
+    public void removeIf(Predicate<PersistEntry> filter) {
+        Snapshot current = snapshot;
+        long[] timestamps = new long[current.timestamps.length];
+        double[] values = new double[current.values.length];
+        int size = 0;
+        for (int i = current.start; i < current.end; i++) {
+            if (!filter.test(toEntry(current, i))) {
+                timestamps[size] = current.timestamps[i];
+                values[size] = current.values[i];
+                size++;
+            }
+        }
+        if (size < current.size()) {
+            snapshot = new Snapshot(timestamps, values, 0, size);
+        }
+    }
+
+    /**
+     * Returns the values within a time range.
+     *
+     * @param beginDate the earliest timestamp, inclusive, or <code>null</code> for no limit
+     * @param endDate the latest timestamp, inclusive, or <code>null</code> for no limit
+     * @param ascending whether to return the values in ascending or descending order of their timestamps
+     * @return the values
+     */
+    public List<PersistEntry> entries(@Nullable ZonedDateTime beginDate, @Nullable ZonedDateTime endDate,
+            boolean ascending) {
+        Snapshot current = snapshot;
+        int from = current.start;
+        int to = current.end;
+        if (beginDate != null) {
+            int index = Arrays.binarySearch(current.timestamps, from, to, beginDate.toInstant().toEpochMilli());
+            from = index >= 0 ? index : -(index + 1);
+        }
+        if (endDate != null && from < to) {
+            int index = Arrays.binarySearch(current.timestamps, from, to, endDate.toInstant().toEpochMilli());
+            to = index >= 0 ? index + 1 : -(index + 1);
+        }
+        List<PersistEntry> entries = new ArrayList<>(Math.max(0, to - from));
+        if (ascending) {
+            for (int i = from; i < to; i++) {
+                entries.add(toEntry(current, i));
+            }
+        } else {
+            for (int i = to - 1; i >= from; i--) {
+                entries.add(toEntry(current, i));
+            }
+        }
+        return entries;
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * @return the oldest value, or <code>null</code> if the series is empty
+     */
+    public @Nullable PersistEntry first() {
+        Snapshot current = snapshot;
+        return current.size() > 0 ? toEntry(current, current.start) : null;
+    }
+
+    /**
+     * @return the newest value, or <code>null</code> if the series is empty
+     */
+    public @Nullable PersistEntry last() {
+        Snapshot current = snapshot;
+        return current.size() > 0 ? toEntry(current, current.end - 1) : null;
+    }
+
+    private PersistEntry toEntry(Snapshot snapshot, int index) {
+        return new PersistEntry(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(snapshot.timestamps[index]), ZoneId.systemDefault()),
+                toState(snapshot.values[index]));
+    }
+
+    private State toState(double value) {
+        BigDecimal decimal = BigDecimal.valueOf(value).stripTrailingZeros();
+        Unit<?> unit = this.unit;
+        if (unit != null) {
+            return new QuantityType<>(decimal, unit);
+        } else if (type == PercentType.class) {
+            return new PercentType(decimal);
+        }
+        return new DecimalType(decimal);
+    }
+}
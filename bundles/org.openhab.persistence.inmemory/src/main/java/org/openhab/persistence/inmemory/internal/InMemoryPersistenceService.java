@@ -20,9 +20,11 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -66,11 +68,13 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     protected static final String CONFIG_URI = "persistence:inmemory";
     private final String MAX_ENTRIES_CONFIG = "maxEntries";
     private final long MAX_ENTRIES_DEFAULT = 512;
+    private final String COLUMNAR_STORAGE_CONFIG = "columnarStorage";
 
     private final Logger logger = LoggerFactory.getLogger(InMemoryPersistenceService.class);
 
     private final Map<String, PersistItem> persistMap = new ConcurrentHashMap<>();
     private long maxEntries = MAX_ENTRIES_DEFAULT;
+    private boolean columnarStorage = false;
 
     @Activate
     public void activate(Map<String, Object> config) {
@@ -81,14 +85,13 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     @Modified
     public void modified(Map<String, Object> config) {
         maxEntries = ConfigParser.valueAsOrElse(config.get(MAX_ENTRIES_CONFIG), Long.class, MAX_ENTRIES_DEFAULT);
+        columnarStorage = ConfigParser.valueAsOrElse(config.get(COLUMNAR_STORAGE_CONFIG), Boolean.class, false);
 
         persistMap.values().forEach(persistItem -> {
             Lock lock = persistItem.lock();
             lock.lock();
             try {
-                while (persistItem.database().size() > maxEntries) {
-                    persistItem.database().pollFirst();
-                }
+                trim(persistItem);
             } finally {
                 lock.unlock();
             }
@@ -112,7 +115,8 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return persistMap.entrySet().stream().map(this::toItemInfo).collect(Collectors.toSet());
+        return persistMap.entrySet().stream().flatMap(itemEntry -> toItemInfo(itemEntry).stream())
+                .collect(Collectors.toSet());
     }
 
     @Override
@@ -151,6 +155,11 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         Lock lock = persistItem.lock();
         lock.lock();
         try {
+            ColumnarSeries series = persistItem.series().get();
+            if (series != null) {
+                series.removeIf(e -> applies(e, filter));
+                return true;
+            }
             List<PersistEntry> toRemove = persistItem.database().stream().filter(e -> applies(e, filter)).toList();
             toRemove.forEach(persistItem.database()::remove);
         } finally {
@@ -171,6 +180,15 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             return List.of();
         }
 
+        ColumnarSeries series = persistItem.series().get();
+        if (series != null) {
+            // the series is read without locking, the date range is found by binary search
+            return series
+                    .entries(filter.getBeginDate(), filter.getEndDate(),
+                            filter.getOrdering() == FilterCriteria.Ordering.ASCENDING)
+                    .stream().filter(e -> applies(e, filter)).map(e -> toHistoricItem(itemName, e)).toList();
+        }
+
         Lock lock = persistItem.lock();
         lock.lock();
 
@@ -192,15 +210,36 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         return List.of(PersistenceStrategy.Globals.FORECAST);
     }
 
-    private PersistenceItemInfo toItemInfo(Map.Entry<String, PersistItem> itemEntry) {
+    /**
+     * @return the info of an item, or empty if all values of the item were removed
+     */
+    private Optional<PersistenceItemInfo> toItemInfo(Map.Entry<String, PersistItem> itemEntry) {
         Lock lock = itemEntry.getValue().lock();
         lock.lock();
         try {
             String name = itemEntry.getKey();
-            Integer count = itemEntry.getValue().database().size();
-            Instant earliest = itemEntry.getValue().database().first().timestamp().toInstant();
-            Instant latest = itemEntry.getValue().database.last().timestamp.toInstant();
-            return new PersistenceItemInfo() {
+            ColumnarSeries series = itemEntry.getValue().series().get();
+            Integer count;
+            Instant earliest;
+            Instant latest;
+            if (series != null) {
+                PersistEntry first = series.first();
+                PersistEntry last = series.last();
+                if (first == null || last == null) {
+                    return Optional.empty();
+                }
+                count = series.size();
+                earliest = first.timestamp().toInstant();
+                latest = last.timestamp().toInstant();
+            } else {
+                if (itemEntry.getValue().database().isEmpty()) {
+                    return Optional.empty();
+                }
+                count = itemEntry.getValue().database().size();
+                earliest = itemEntry.getValue().database().first().timestamp().toInstant();
+                latest = itemEntry.getValue().database.last().timestamp.toInstant();
+            }
+            return Optional.of(new PersistenceItemInfo() {
 
                 @Override
                 public String getName() {
@@ -221,7 +260,7 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
                 public @Nullable Date getLatest() {
                     return Date.from(latest);
                 }
-            };
+            });
         } finally {
             lock.unlock();
         }
@@ -253,21 +292,42 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
 
         PersistItem persistItem = Objects.requireNonNull(persistMap.computeIfAbsent(itemName,
                 k -> new PersistItem(new TreeSet<>(Comparator.comparing(PersistEntry::timestamp)),
-                        new ReentrantLock())));
+                        new ReentrantLock(),
+                        new AtomicReference<>(columnarStorage ? ColumnarSeries.create(state) : null))));
 
         Lock lock = persistItem.lock();
         lock.lock();
         try {
-            persistItem.database().add(new PersistEntry(timestamp, state));
-
-            while (persistItem.database.size() > maxEntries) {
-                persistItem.database().pollFirst();
+            ColumnarSeries series = persistItem.series().get();
+            if (series != null && !series.add(timestamp, state)) {
+                // e.g. the item type changed, move the values to the object storage so the item can store any state
+                logger.debug("State {} of item '{}' cannot be stored in a columnar series, using object storage",
+                        state, itemName);
+                persistItem.database().addAll(series.entries(null, null, true));
+                persistItem.series().set(null);
+                series = null;
             }
+            if (series == null) {
+                persistItem.database().add(new PersistEntry(timestamp, state));
+            }
+
+            trim(persistItem);
         } finally {
             lock.unlock();
         }
     }
 
+    private void trim(PersistItem persistItem) {
+        ColumnarSeries series = persistItem.series().get();
+        if (series != null) {
+            series.trim(maxEntries);
+        } else if (maxEntries > 0) {
+            while (persistItem.database().size() > maxEntries) {
+                persistItem.database().pollFirst();
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private boolean applies(PersistEntry entry, FilterCriteria filter) {
         ZonedDateTime beginDate = filter.getBeginDate();
@@ -313,9 +373,10 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         return true;
     }
 
-    private record PersistEntry(ZonedDateTime timestamp, State state) {
-    }
-
-    private record PersistItem(TreeSet<PersistEntry> database, Lock lock) {
+    /**
+     * The values of an item are stored either in the columnar series, if it is set, or in the database.
+     */
+    private record PersistItem(TreeSet<PersistEntry> database, Lock lock,
+            AtomicReference<@Nullable ColumnarSeries> series) {
     }
 }
@@ -21,6 +21,7 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,6 +36,7 @@ import org.openhab.core.items.GenericItem;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.HSBType;
 import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
@@ -275,4 +277,107 @@ public class InMemoryPersistenceTests {
 
         // begin date is before first date is already covered by case #1
     }
+
+    @Test
+    public void columnarStorageQueriesRangeInOrder() {
+        service.activate(Map.of("columnarStorage", true));
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        // stored out of order, e.g. a forecast that is updated
+        for (int i : new int[] { 3, 1, 5, 2, 4 }) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setBeginDate(start.plusHours(2));
+        filterCriteria.setEndDate(start.plusHours(4));
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        List<HistoricItem> ascending = new ArrayList<>();
+        service.query(filterCriteria).forEach(ascending::add);
+
+        assertThat(ascending.stream().map(HistoricItem::getState).toList(),
+                contains(new DecimalType(2), new DecimalType(3), new DecimalType(4)));
+        assertThat(ascending.get(0).getTimestamp(), is(start.plusHours(2)));
+        assertThat(ascending.get(0).getName(), is(ITEM_NAME));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.DESCENDING);
+        List<Integer> descending = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> descending.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(descending, contains(4, 3, 2));
+    }
+
+    @Test
+    public void columnarStorageObservesMaxEntriesAndRemove() {
+        service.activate(Map.of("columnarStorage", true, "maxEntries", 3));
+        ZonedDateTime start = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 5; i++) {
+            service.store(item, start.plusHours(i), new PercentType(i));
+        }
+
+        List<State> storedStates = new ArrayList<>();
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        service.query(filterCriteria).forEach(h -> storedStates.add(h.getState()));
+        assertThat(storedStates, contains(new PercentType(2), new PercentType(3), new PercentType(4)));
+
+        filterCriteria.setBeginDate(start.plusHours(3));
+        filterCriteria.setEndDate(start.plusHours(3));
+        service.remove(filterCriteria);
+
+        filterCriteria = new FilterCriteria();
+        filterCriteria.setItemName(ITEM_NAME);
+        storedStates.clear();
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        service.query(filterCriteria).forEach(h -> storedStates.add(h.getState()));
+        assertThat(storedStates, contains(new PercentType(2), new PercentType(4)));
+    }
+
+    @Test
+    public void columnarStorageConvertsQuantities() {
+        service.activate(Map.of("columnarStorage", true));
+        ZonedDateTime start = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, new QuantityType<>("1.5 kW"));
+        service.store(item, start.plusHours(1), new QuantityType<>("500 W"));
+
+        List<State> storedStates = new ArrayList<>();
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        service.query(filterCriteria).forEach(h -> storedStates.add(h.getState()));
+        assertThat(storedStates, contains(new QuantityType<>("1.5 kW"), new QuantityType<>("0.5 kW")));
+    }
+
+    @Test
+    public void columnarStorageFallsBackToObjectStorage() {
+        service.activate(Map.of("columnarStorage", true));
+        ZonedDateTime start = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, new DecimalType(1));
+        service.store(item, start.plusHours(1), new StringType("value"));
+
+        List<State> storedStates = new ArrayList<>();
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        service.query(filterCriteria).forEach(h -> storedStates.add(h.getState()));
+        assertThat(storedStates, contains(new DecimalType(1), new StringType("value")));
+    }
+
+    @Test
+    public void columnarStorageKeepsColorStates() {
+        service.activate(Map.of("columnarStorage", true));
+        ZonedDateTime start = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        // HSBType is a DecimalType, but can't be restored from its brightness
+        service.store(item, start, new HSBType("120,100,50"));
+        service.store(item, start.plusHours(1), new HSBType("240,50,100"));
+
+        List<State> storedStates = new ArrayList<>();
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        service.query(filterCriteria).forEach(h -> storedStates.add(h.getState()));
+        assertThat(storedStates, contains(new HSBType("120,100,50"), new HSBType("240,50,100")));
+    }
+
+    @Test
+    public void columnarStorageOmitsEmptyItemInfo() {
+        service.activate(Map.of("columnarStorage", true));
+        ZonedDateTime start = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, new DecimalType(1));
+        assertThat(service.getItemInfo(), hasSize(1));
+
+        service.remove(filterCriteria);
+        assertThat(service.getItemInfo(), is(empty()));
+    }
 }
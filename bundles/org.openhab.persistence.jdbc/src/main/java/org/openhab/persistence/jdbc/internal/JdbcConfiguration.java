@@ -63,6 +63,10 @@ public class JdbcConfiguration {
     private String tableNamePrefix = "item";
     private int tableIdDigitCount = 4;
     private boolean rebuildTableNames = false;
+    private int batchSize = 0;
+    private int batchInterval = 1000;
+    private int writerThreads = 1;
+    private int fetchSize = 0;
 
     private int errReconnectThreshold = 0;
 
@@ -191,6 +195,30 @@ public class JdbcConfiguration {
             logger.debug("JDBC::updateConfig: rebuildTableNames={}", rebuildTableNames);
         }
 
+        String bs = (String) configuration.get("batchSize");
+        if (bs != null && !bs.isBlank() && isNumericPattern.matcher(bs).matches()) {
+            batchSize = Integer.parseInt(bs);
+            logger.debug("JDBC::updateConfig: batchSize={}", batchSize);
+        }
+
+        String bi = (String) configuration.get("batchInterval");
+        if (bi != null && !bi.isBlank() && isNumericPattern.matcher(bi).matches()) {
+            batchInterval = Math.max(Integer.parseInt(bi), 10);
+            logger.debug("JDBC::updateConfig: batchInterval={}", batchInterval);
+        }
+
+        String wt = (String) configuration.get("writerThreads");
+        if (wt != null && !wt.isBlank() && isNumericPattern.matcher(wt).matches()) {
+            writerThreads = Math.max(Integer.parseInt(wt), 1);
+            logger.debug("JDBC::updateConfig: writerThreads={}", writerThreads);
+        }
+
+        String fs = (String) configuration.get("fetchSize");
+        if (fs != null && !fs.isBlank() && isNumericPattern.matcher(fs).matches()) {
+            fetchSize = Integer.parseInt(fs);
+            logger.debug("JDBC::updateConfig: fetchSize={}", fetchSize);
+        }
+
         // undocumented
         String ac = (String) configuration.get("maximumPoolSize");
         if (ac != null && !ac.isBlank()) {
@@ -404,6 +432,40 @@ public class JdbcConfiguration {
         return tableIdDigitCount;
     }
 
+    /**
+     * Checks if states are collected and written in batches instead of one by one.
+     *
+     * @return true if batchSize is greater than zero.
+     */
+    public boolean isBatchingEnabled() {
+        return batchSize > 0;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchInterval() {
+        return batchInterval;
+    }
+
+    public int getWriterThreads() {
+        return writerThreads;
+    }
+
+    /**
+     * Checks if query results are read in chunks while they are iterated instead of all at once.
+     *
+     * @return true if fetchSize is greater than zero.
+     */
+    public boolean isStreamingEnabled() {
+        return fetchSize > 0;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
     public JdbcBaseDAO getDBDAO() {
         return dBDAO;
     }
@@ -427,6 +489,8 @@ public class JdbcConfiguration {
         dBDAO.initAfterFirstDbConnection();
         // Running once again to prior external configured SqlTypes!
         setSqlTypes();
+        // SQL rendered before depends on the former sqlTypes and queries
+        dBDAO.clearSqlCache();
         this.dbConnected = dbConnected;
     }
 
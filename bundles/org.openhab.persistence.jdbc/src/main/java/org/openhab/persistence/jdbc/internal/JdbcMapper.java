@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -32,7 +33,9 @@ import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.internal.dto.Column;
+import org.openhab.persistence.jdbc.internal.dto.ItemStateVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.dto.JdbcPersistenceItemInfo;
@@ -59,7 +62,7 @@ public class JdbcMapper {
     protected int errCnt;
     protected boolean initialized = false;
     protected @NonNullByDefault({}) JdbcConfiguration conf;
-    protected final Map<String, String> itemNameToTableNameMap = new HashMap<>();
+    protected final Map<String, String> itemNameToTableNameMap = new ConcurrentHashMap<>();
     protected @NonNullByDefault({}) NamingStrategy namingStrategy;
     private long afterAccessMin = 10000;
     private long afterAccessMax = 0;
@@ -142,6 +145,7 @@ public class JdbcMapper {
         logger.debug("JDBC::dropTable");
         long timerStart = System.currentTimeMillis();
         conf.getDBDAO().doDropTable(tableName);
+        conf.getDBDAO().clearSqlCache(tableName);
         logTime("doDropTable", timerStart, System.currentTimeMillis());
     }
 
@@ -209,6 +213,8 @@ public class JdbcMapper {
         logger.debug("JDBC::alterTableColumn");
         long timerStart = System.currentTimeMillis();
         conf.getDBDAO().doAlterTableColumn(tableName, columnName, columnType, nullable);
+        // cached statements may cast to the former column type
+        conf.getDBDAO().clearSqlCache(tableName);
         logTime("alterTableColumn", timerStart, System.currentTimeMillis());
     }
 
@@ -225,6 +231,15 @@ public class JdbcMapper {
         errCnt = 0;
     }
 
+    protected void storeItemValues(Item item, List<ItemStateVO> states) throws JdbcException {
+        logger.debug("JDBC::storeItemValues: item={} count={}", item, states.size());
+        String tableName = getTable(item);
+        long timerStart = System.currentTimeMillis();
+        conf.getDBDAO().doStoreItemValues(item, tableName, states);
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+    }
+
     public long getRowCount(String tableName) throws JdbcSQLException {
         return conf.getDBDAO().doGetRowCount(tableName);
     }
@@ -242,6 +257,18 @@ public class JdbcMapper {
         return result;
     }
 
+    protected List<HistoricItem> getHistItemAggregateQuery(FilterCriteria filter, AggregationFunction function,
+            long bucketSeconds, String table, Item item) throws JdbcSQLException {
+        logger.debug("JDBC::getHistItemAggregateQuery function='{}' bucketSeconds='{}' table='{}' itemName='{}'",
+                function, bucketSeconds, table, item.getName());
+        long timerStart = System.currentTimeMillis();
+        List<HistoricItem> result = conf.getDBDAO().doGetHistItemAggregateQuery(item, filter, function, bucketSeconds,
+                table, timeZoneProvider.getTimeZone());
+        logTime("getHistItemAggregateQuery", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+        return result;
+    }
+
     protected void deleteItemValues(FilterCriteria filter, String table) throws JdbcSQLException {
         logger.debug("JDBC::deleteItemValues filter='{}' table='{}' itemName='{}'", true, table, filter.getItemName());
         long timerStart = System.currentTimeMillis();
@@ -336,6 +363,7 @@ public class JdbcMapper {
 
     public void populateItemNameToTableNameMap() throws JdbcSQLException {
         itemNameToTableNameMap.clear();
+        conf.getDBDAO().clearSqlCache();
         if (conf.getTableUseRealCaseSensitiveItemNames()) {
             for (String itemName : getItemTables().stream().map(t -> t.getTableName()).collect(Collectors.toList())) {
                 itemNameToTableNameMap.put(itemName, itemName);
@@ -353,7 +381,7 @@ public class JdbcMapper {
         }
     }
 
-    protected String getTable(Item item) throws JdbcException {
+    protected synchronized String getTable(Item item) throws JdbcException {
         String itemName = item.getName();
         if (!initialized) {
             throw new JdbcException("Not initialized, unable to find table for item " + itemName);
@@ -484,29 +512,33 @@ public class JdbcMapper {
      *****************/
     private void logTime(String me, long timerStart, long timerStop) {
         if (conf.enableLogTime && logger.isInfoEnabled()) {
-            conf.timerCount++;
-            int timerDiff = (int) (timerStop - timerStart);
-            if (timerDiff < afterAccessMin) {
-                afterAccessMin = timerDiff;
-            }
-            if (timerDiff > afterAccessMax) {
-                afterAccessMax = timerDiff;
-            }
-            conf.timeAverage50arr.add(timerDiff);
-            conf.timeAverage100arr.add(timerDiff);
-            conf.timeAverage200arr.add(timerDiff);
-            if (conf.timerCount == 1) {
-                conf.timer1000 = System.currentTimeMillis();
-            }
-            if (conf.timerCount == 1001) {
-                conf.time1000Statements = Math.round(((int) (System.currentTimeMillis() - conf.timer1000)) / 1000);// Seconds
-                conf.timerCount = 0;
+            // statements may be timed concurrently by the batch writers
+            synchronized (conf) {
+                conf.timerCount++;
+                int timerDiff = (int) (timerStop - timerStart);
+                if (timerDiff < afterAccessMin) {
+                    afterAccessMin = timerDiff;
+                }
+                if (timerDiff > afterAccessMax) {
+                    afterAccessMax = timerDiff;
+                }
+                conf.timeAverage50arr.add(timerDiff);
+                conf.timeAverage100arr.add(timerDiff);
+                conf.timeAverage200arr.add(timerDiff);
+                if (conf.timerCount == 1) {
+                    conf.timer1000 = System.currentTimeMillis();
+                }
+                if (conf.timerCount == 1001) {
+                    conf.time1000Statements = Math
+                            .round(((int) (System.currentTimeMillis() - conf.timer1000)) / 1000);// Seconds
+                    conf.timerCount = 0;
+                }
+                logger.info(
+                        "JDBC::logTime: '{}':\n afterAccess     = {} ms\n timeAverage50  = {} ms\n timeAverage100 = {} ms\n timeAverage200 = {} ms\n afterAccessMin  = {} ms\n afterAccessMax  = {} ms\n 1000Statements = {} sec\n statementCount = {}\n",
+                        me, timerDiff, conf.timeAverage50arr.getAverageInteger(),
+                        conf.timeAverage100arr.getAverageInteger(), conf.timeAverage200arr.getAverageInteger(),
+                        afterAccessMin, afterAccessMax, conf.time1000Statements, conf.timerCount);
             }
-            logger.info(
-                    "JDBC::logTime: '{}':\n afterAccess     = {} ms\n timeAverage50  = {} ms\n timeAverage100 = {} ms\n timeAverage200 = {} ms\n afterAccessMin  = {} ms\n afterAccessMax  = {} ms\n 1000Statements = {} sec\n statementCount = {}\n",
-                    me, timerDiff, conf.timeAverage50arr.getAverageInteger(),
-                    conf.timeAverage100arr.getAverageInteger(), conf.timeAverage200arr.getAverageInteger(),
-                    afterAccessMin, afterAccessMax, conf.time1000Statements, conf.timerCount);
         }
     }
 }
@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -23,6 +24,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -30,10 +33,12 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.ModifiablePersistenceService;
@@ -43,8 +48,11 @@ import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
+import org.openhab.io.metrics.instrument.AddonMetrics;
 import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
+import org.openhab.persistence.jdbc.internal.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.internal.dto.Column;
+import org.openhab.persistence.jdbc.internal.dto.ItemStateVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
@@ -54,14 +62,23 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * This is the implementation of the JDBC {@link PersistenceService}.
  *
  * @author Helmut Lehmeyer - Initial contribution
  * @author Kai Kreuzer - Migration to 3.x
+ * @author Cody Cutrer - Metrics of the write queue
  */
 @NonNullByDefault
 @Component(service = { PersistenceService.class,
@@ -70,6 +87,8 @@ import org.slf4j.LoggerFactory;
 @ConfigurableService(category = "persistence", label = "JDBC Persistence Service", description_uri = JdbcPersistenceServiceConstants.CONFIG_URI)
 public class JdbcPersistenceService extends JdbcMapper implements ModifiablePersistenceService {
 
+    private static final String METRIC_PREFIX = "openhab.persistence.jdbc.";
+
     private final Logger logger = LoggerFactory.getLogger(JdbcPersistenceService.class);
 
     private final ItemRegistry itemRegistry;
@@ -77,11 +96,18 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory(JdbcPersistenceServiceConstants.SERVICE_ID));
 
+    private volatile @Nullable JdbcWriteQueue writeQueue;
+
+    // metrics
+    private final AddonMetrics metrics = new AddonMetrics();
+    private volatile @Nullable Timer writeTimer;
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
         super(timeZoneProvider);
         this.itemRegistry = itemRegistry;
+        metrics.add(this::bindMetrics);
     }
 
     /**
@@ -121,6 +147,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
         // closeConnection();
+        stopWriteQueue();
         initialized = false;
     }
 
@@ -137,24 +164,39 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
     @Override
     public void store(Item item) {
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        scheduleStore(item, null, item.getState());
     }
 
     @Override
     public void store(Item item, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        scheduleStore(item, null, item.getState());
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state) {
-        scheduler.execute(() -> internalStore(item, date, state));
+        scheduleStore(item, date, state);
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, date, state));
+        scheduleStore(item, date, state);
+    }
+
+    private void scheduleStore(Item item, @Nullable ZonedDateTime date, State state) {
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        if (writeQueue == null) {
+            scheduler.execute(() -> internalStore(item, date, state));
+            return;
+        }
+        // Do not store undefined/uninitialized data
+        if (state instanceof UnDefType) {
+            logger.debug("JDBC::store: ignore Item '{}' because it is UnDefType", item.getName());
+            return;
+        }
+        // the timestamp has to be taken now, as the state is written later on
+        writeQueue.enqueue(item, new ItemStateVO(state, date == null ? ZonedDateTime.now() : date));
     }
 
     private synchronized void internalStore(Item item, @Nullable ZonedDateTime date, State state) {
@@ -181,6 +223,39 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         }
     }
 
+    private boolean internalStore(Item item, List<ItemStateVO> states) {
+        if (!checkDBAccessability()) {
+            logger.warn(
+                    "JDBC::store: No connection to database. Cannot persist {} states for item '{}'! Will retry connecting to database when error count:{} equals errReconnectThreshold:{}",
+                    states.size(), item, errCnt, conf.getErrReconnectThreshold());
+            return false;
+        }
+        try {
+            long timerStart = System.currentTimeMillis();
+            storeItemValues(item, states);
+            if (logger.isDebugEnabled()) {
+                logger.debug("JDBC: Stored {} states of item '{}' in SQL database at {} in {} ms.", states.size(),
+                        item.getName(), new Date(), System.currentTimeMillis() - timerStart);
+            }
+            return true;
+        } catch (JdbcException e) {
+            logger.warn("JDBC::store: Unable to store item", e);
+            return false;
+        }
+    }
+
+    private boolean timedStore(Item item, List<ItemStateVO> states) {
+        long start = System.nanoTime();
+        try {
+            return internalStore(item, states);
+        } finally {
+            Timer writeTimer = this.writeTimer;
+            if (writeTimer != null) {
+                writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
         return getItems();
@@ -203,40 +278,29 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
         // Get the item name from the filter
         // Also get the Item object so we can determine the type
-        Item item = null;
         String itemName = filter.getItemName();
         if (itemName == null) {
             logger.warn("Item name is missing in filter {}", filter);
             return List.of();
         }
-        logger.debug("JDBC::query: item is {}", itemName);
-        try {
-            item = itemRegistry.getItem(itemName);
-        } catch (ItemNotFoundException e1) {
-            logger.error("JDBC::query: unable to get item for itemName: '{}'. Ignore and give up!", itemName);
+        Item item = getQueryItem(itemName);
+        if (item == null) {
             return List.of();
         }
 
-        if (item instanceof GroupItem) {
-            // For Group Item is BaseItem needed to get correct Type of Value.
-            item = GroupItem.class.cast(item).getBaseItem();
-            logger.debug("JDBC::query: item is instanceof GroupItem '{}'", itemName);
-            if (item == null) {
-                logger.debug("JDBC::query: BaseItem of GroupItem is null. Ignore and give up!");
-                return List.of();
-            }
-            if (item instanceof GroupItem) {
-                logger.debug("JDBC::query: BaseItem of GroupItem is a GroupItem too. Ignore and give up!");
-                return List.of();
-            }
-        }
-
         String table = itemNameToTableNameMap.get(itemName);
         if (table == null) {
             logger.debug("JDBC::query: unable to find table for item with name: '{}', no data in database.", itemName);
             return List.of();
         }
 
+        if (conf.isStreamingEnabled() && filter.getPageSize() == Integer.MAX_VALUE) {
+            // paged queries are limited in SQL already
+            logger.debug("JDBC::query: Reading rows of item '{}' in chunks of {}", itemName, conf.getFetchSize());
+            return new JdbcQueryResult(filter, conf.getFetchSize(), chunkFilter -> getHistItemFilterQuery(chunkFilter,
+                    conf.getNumberDecimalcount(), table, item));
+        }
+
         try {
             long timerStart = System.currentTimeMillis();
             List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
@@ -253,9 +317,98 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         }
     }
 
+    /**
+     * Queries aggregated values of a number item. The values are grouped into time buckets and aggregated by the
+     * database, so only one row per bucket is transferred.
+     *
+     * @param filter the filter to apply to the query, paging is ignored
+     * @param function the aggregate function applied to the values of a bucket
+     * @param bucket the length of a time bucket, at least one second
+     * @return one item per bucket, with the time of the first value in the bucket
+     */
+    public Iterable<HistoricItem> queryAggregated(FilterCriteria filter, AggregationFunction function,
+            Duration bucket) {
+        if (!checkDBAccessability()) {
+            logger.warn("JDBC::queryAggregated: database not connected, query aborted for item '{}'",
+                    filter.getItemName());
+            return List.of();
+        }
+
+        String itemName = filter.getItemName();
+        if (itemName == null) {
+            logger.warn("Item name is missing in filter {}", filter);
+            return List.of();
+        }
+        Item item = getQueryItem(itemName);
+        if (item == null) {
+            return List.of();
+        }
+        if (!(item instanceof NumberItem)) {
+            logger.warn("JDBC::queryAggregated: Item '{}' is not a number item, values cannot be aggregated.",
+                    itemName);
+            return List.of();
+        }
+
+        String table = itemNameToTableNameMap.get(itemName);
+        if (table == null) {
+            logger.debug("JDBC::queryAggregated: unable to find table for item with name: '{}', no data in database.",
+                    itemName);
+            return List.of();
+        }
+
+        try {
+            long timerStart = System.currentTimeMillis();
+            List<HistoricItem> items = getHistItemAggregateQuery(filter, function, Math.max(bucket.getSeconds(), 1),
+                    table, item);
+            if (logger.isDebugEnabled()) {
+                logger.debug("JDBC: Aggregate query for item '{}' returned {} buckets in {} ms", itemName,
+                        items.size(), System.currentTimeMillis() - timerStart);
+            }
+            // Success
+            errCnt = 0;
+            return items;
+        } catch (JdbcSQLException e) {
+            logger.warn("JDBC::queryAggregated: Unable to query item", e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Returns the item to query for the given name, or the base item in case of a group item.
+     *
+     * @param itemName the name of the item
+     * @return the item, or null if there is no item or no base item to determine the type of values from
+     */
+    private @Nullable Item getQueryItem(String itemName) {
+        logger.debug("JDBC::query: item is {}", itemName);
+        Item item;
+        try {
+            item = itemRegistry.getItem(itemName);
+        } catch (ItemNotFoundException e1) {
+            logger.error("JDBC::query: unable to get item for itemName: '{}'. Ignore and give up!", itemName);
+            return null;
+        }
+
+        if (item instanceof GroupItem groupItem) {
+            // For Group Item is BaseItem needed to get correct Type of Value.
+            item = groupItem.getBaseItem();
+            logger.debug("JDBC::query: item is instanceof GroupItem '{}'", itemName);
+            if (item == null) {
+                logger.debug("JDBC::query: BaseItem of GroupItem is null. Ignore and give up!");
+                return null;
+            }
+            if (item instanceof GroupItem) {
+                logger.debug("JDBC::query: BaseItem of GroupItem is a GroupItem too. Ignore and give up!");
+                return null;
+            }
+        }
+        return item;
+    }
+
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        stopWriteQueue();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             namingStrategy = new NamingStrategy(conf);
@@ -271,9 +424,67 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
             initialized = false;
         }
 
+        if (conf.valid && conf.isBatchingEnabled()) {
+            writeQueue = new JdbcWriteQueue(this::timedStore, scheduler, conf.getBatchSize(),
+                    conf.getBatchInterval(), conf.getWriterThreads());
+        }
+
         logger.debug("JDBC::updateConfig: configuration complete for service={}.", getId());
     }
 
+    private void stopWriteQueue() {
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        if (writeQueue != null) {
+            this.writeQueue = null;
+            writeQueue.stop();
+        }
+    }
+
+    /**
+     * Get the queue of states waiting to be written in batches.
+     *
+     * @return the write queue, or null if batching is disabled
+     */
+    public @Nullable JdbcWriteQueue getWriteQueue() {
+        return writeQueue;
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+        writeTimer = null;
+    }
+
+    private List<Meter> bindMetrics(MeterRegistry meterRegistry) {
+        Timer writeTimer = Timer.builder(METRIC_PREFIX + "write")
+                .description("Duration of the batch writes to the database").register(meterRegistry);
+        this.writeTimer = writeTimer;
+        // the write queue is replaced when the configuration changes, so the meters read the current one
+        return List.of(writeTimer,
+                Gauge.builder(METRIC_PREFIX + "queue.size", this, s -> s.queueStatistic(JdbcWriteQueue::getQueueSize))
+                        .description("States waiting to be written in batches").register(meterRegistry),
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "states.stored", this,
+                                s -> s.queueStatistic(JdbcWriteQueue::getStoredCount))
+                        .description("States written in batches").register(meterRegistry),
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "states.failed", this,
+                                s -> s.queueStatistic(JdbcWriteQueue::getFailedCount))
+                        .description("States which could not be written in batches").register(meterRegistry),
+                FunctionCounter
+                        .builder(METRIC_PREFIX + "batches", this, s -> s.queueStatistic(JdbcWriteQueue::getBatchCount))
+                        .description("Batches written to the database").register(meterRegistry));
+    }
+
+    private double queueStatistic(ToDoubleFunction<JdbcWriteQueue> statistic) {
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        return writeQueue == null ? 0 : statistic.applyAsDouble(writeQueue);
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.CHANGE);
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lazy result of a history query, which reads the rows in chunks of a fixed size instead of loading the whole
+ * result at once.
+ *
+ * Chunks are read with keyset paging on the time column (the primary key of all item tables): every chunk
+ * continues after the timestamp of the last row of the previous chunk. Each chunk is a complete query, so no
+ * connection is held while the caller iterates and only one chunk is kept in memory. Rows written while iterating
+ * are only returned if they follow the rows already read. Every call of {@link #iterator()} starts reading from the
+ * beginning again.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcQueryResult implements Iterable<HistoricItem> {
+
+    /**
+     * Reads a single chunk of rows.
+     */
+    @FunctionalInterface
+    public interface ChunkQuery {
+        List<HistoricItem> query(FilterCriteria chunkFilter) throws JdbcSQLException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcQueryResult.class);
+
+    private final FilterCriteria filter;
+    private final int fetchSize;
+    private final ChunkQuery chunkQuery;
+
+    /**
+     * @param filter the filter of the query, must not be paged
+     * @param fetchSize number of rows read per chunk
+     * @param chunkQuery reads a chunk for a filter derived from the given one
+     */
+    public JdbcQueryResult(FilterCriteria filter, int fetchSize, ChunkQuery chunkQuery) {
+        this.filter = filter;
+        this.fetchSize = fetchSize;
+        this.chunkQuery = chunkQuery;
+    }
+
+    @Override
+    public Iterator<HistoricItem> iterator() {
+        return new ChunkIterator();
+    }
+
+    private class ChunkIterator implements Iterator<HistoricItem> {
+        private final boolean ascending = filter.getOrdering() == Ordering.ASCENDING;
+
+        private Iterator<HistoricItem> chunk = List.<HistoricItem> of().iterator();
+        private @Nullable Instant lastInstant;
+        private @Nullable ZonedDateTime lastTimestamp;
+        private int chunkSize = fetchSize;
+        private boolean exhausted = false;
+
+        @Override
+        public boolean hasNext() {
+            while (!chunk.hasNext() && !exhausted) {
+                readChunk();
+            }
+            return chunk.hasNext();
+        }
+
+        @Override
+        public HistoricItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            HistoricItem item = chunk.next();
+            lastInstant = item.getInstant();
+            lastTimestamp = item.getTimestamp();
+            return item;
+        }
+
+        private void readChunk() {
+            List<HistoricItem> rows;
+            try {
+                rows = chunkQuery.query(createChunkFilter());
+            } catch (JdbcSQLException e) {
+                logger.warn("JDBC::query: Unable to read rows of item '{}' after {}", filter.getItemName(),
+                        lastTimestamp, e);
+                exhausted = true;
+                return;
+            }
+            if (rows.size() < chunkSize) {
+                exhausted = true;
+            }
+
+            // time filters only have a precision of seconds, so the rows up to the last one are read again
+            Instant last = lastInstant;
+            List<HistoricItem> newRows = last == null ? rows
+                    : rows.stream().filter(row -> ascending ? row.getInstant().isAfter(last)
+                            : row.getInstant().isBefore(last)).toList();
+            if (newRows.isEmpty() && !exhausted) {
+                // more rows than a chunk share the second of the last row
+                chunkSize *= 2;
+            }
+            chunk = newRows.iterator();
+        }
+
+        private FilterCriteria createChunkFilter() {
+            FilterCriteria chunkFilter = new FilterCriteria();
+            chunkFilter.setItemName(filter.getItemName());
+            chunkFilter.setOrdering(filter.getOrdering());
+            chunkFilter.setPageNumber(0);
+            chunkFilter.setPageSize(chunkSize);
+            chunkFilter.setBeginDate(filter.getBeginDate());
+            chunkFilter.setEndDate(filter.getEndDate());
+
+            ZonedDateTime last = lastTimestamp;
+            if (last != null) {
+                ZonedDateTime lastSecond = last.truncatedTo(ChronoUnit.SECONDS);
+                if (ascending) {
+                    chunkFilter.setBeginDate(lastSecond);
+                } else {
+                    ZonedDateTime nextSecond = lastSecond.plusSeconds(1);
+                    ZonedDateTime end = filter.getEndDate();
+                    chunkFilter.setEndDate(end != null && end.isBefore(nextSecond) ? end : nextSecond);
+                }
+            }
+            return chunkFilter;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.items.Item;
+import org.openhab.persistence.jdbc.internal.dto.ItemStateVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind queue collecting states per item (and thus per item table) and handing them over to a
+ * {@link BatchWriter} in batches.
+ *
+ * A batch for an item is flushed as soon as it reaches the configured batch size, and all pending batches are
+ * flushed periodically after the configured interval. Items are partitioned over a number of single threaded
+ * writers, so that writes to different tables run in parallel while writes to the same table keep their order.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteQueue {
+
+    /**
+     * Writes a batch of states of a single item.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        /**
+         * @return true if the states were written, false if they could not be written
+         */
+        boolean write(Item item, List<ItemStateVO> states);
+    }
+
+    private static class PendingItem {
+        private @Nullable Item item;
+        private List<ItemStateVO> states = new ArrayList<>();
+        private boolean flushScheduled = false;
+        // set when a flush drained the states and removed the entry, later states go to a new entry
+        private boolean removed = false;
+    }
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcWriteQueue.class);
+
+    private final BatchWriter batchWriter;
+    private final int batchSize;
+    private final ExecutorService[] writers;
+    private final Map<String, PendingItem> pendingItems = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> flushJob;
+
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicLong storedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong totalFlushTime = new AtomicLong();
+    private volatile long lastFlushTime = 0;
+    private volatile long maxFlushTime = 0;
+
+    public JdbcWriteQueue(BatchWriter batchWriter, ScheduledExecutorService scheduler, int batchSize,
+            int batchInterval, int writerThreads) {
+        this.batchWriter = batchWriter;
+        this.batchSize = batchSize;
+        this.writers = new ExecutorService[writerThreads];
+        for (int i = 0; i < writerThreads; i++) {
+            writers[i] = Executors.newSingleThreadExecutor(
+                    new NamedThreadFactory(JdbcPersistenceServiceConstants.SERVICE_ID + "-writer-" + i));
+        }
+        flushJob = scheduler.scheduleWithFixedDelay(this::flushAll, batchInterval, batchInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a state to the queue of its item.
+     *
+     * @param item the item to store
+     * @param state the state and timestamp to store
+     */
+    public void enqueue(Item item, ItemStateVO state) {
+        String itemName = item.getName();
+        boolean flushNow;
+        while (true) {
+            PendingItem pendingItem = pendingItems.computeIfAbsent(itemName, k -> new PendingItem());
+            synchronized (pendingItem) {
+                if (pendingItem.removed) {
+                    continue;
+                }
+                pendingItem.item = item;
+                pendingItem.states.add(state);
+                flushNow = !pendingItem.flushScheduled && pendingItem.states.size() >= batchSize;
+                if (flushNow) {
+                    pendingItem.flushScheduled = true;
+                }
+            }
+            break;
+        }
+        queueSize.incrementAndGet();
+        if (flushNow) {
+            submit(itemName);
+        }
+    }
+
+    /**
+     * Schedules all pending batches to be written.
+     */
+    public void flushAll() {
+        for (Map.Entry<String, PendingItem> entry : pendingItems.entrySet()) {
+            PendingItem pendingItem = entry.getValue();
+            boolean flushNow;
+            synchronized (pendingItem) {
+                flushNow = !pendingItem.flushScheduled && !pendingItem.states.isEmpty();
+                if (flushNow) {
+                    pendingItem.flushScheduled = true;
+                }
+            }
+            if (flushNow) {
+                submit(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Stops the periodic flush, writes all pending batches and shuts down the writers.
+     */
+    public void stop() {
+        flushJob.cancel(false);
+        flushAll();
+        for (ExecutorService writer : writers) {
+            writer.shutdown();
+        }
+        try {
+            for (ExecutorService writer : writers) {
+                if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("JDBC::stop: Timeout while writing pending states, {} states are discarded.",
+                            queueSize.get());
+                    writer.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(String itemName) {
+        ExecutorService writer = writers[Math.floorMod(itemName.hashCode(), writers.length)];
+        if (writer.isShutdown()) {
+            return;
+        }
+        writer.execute(() -> flush(itemName));
+    }
+
+    private void flush(String itemName) {
+        PendingItem pendingItem = pendingItems.get(itemName);
+        if (pendingItem == null) {
+            return;
+        }
+        Item item;
+        List<ItemStateVO> states;
+        synchronized (pendingItem) {
+            item = pendingItem.item;
+            states = pendingItem.states;
+            pendingItem.states = new ArrayList<>();
+            pendingItem.flushScheduled = false;
+            // don't keep an entry for every item ever stored
+            pendingItem.removed = true;
+            pendingItems.remove(itemName, pendingItem);
+        }
+        if (item == null || states.isEmpty()) {
+            return;
+        }
+        queueSize.addAndGet(-states.size());
+
+        long timerStart = System.currentTimeMillis();
+        boolean stored;
+        try {
+            stored = batchWriter.write(item, states);
+        } catch (RuntimeException e) {
+            logger.warn("JDBC::flush: Unable to store {} states of item '{}'", states.size(), itemName, e);
+            stored = false;
+        }
+        long flushTime = System.currentTimeMillis() - timerStart;
+        if (stored) {
+            storedCount.addAndGet(states.size());
+            logger.debug("JDBC::flush: Stored {} states of item '{}' in {} ms.", states.size(), itemName, flushTime);
+        } else {
+            failedCount.addAndGet(states.size());
+        }
+
+        batchCount.incrementAndGet();
+        totalFlushTime.addAndGet(flushTime);
+        lastFlushTime = flushTime;
+        if (flushTime > maxFlushTime) {
+            maxFlushTime = flushTime;
+        }
+    }
+
+    /**
+     * @return number of states waiting to be written
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    /**
+     * @return number of states handed over to the database since the queue was created
+     */
+    public long getStoredCount() {
+        return storedCount.get();
+    }
+
+    /**
+     * @return number of states which could not be written since the queue was created
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return number of items with states waiting to be written
+     */
+    public int getPendingItemCount() {
+        return pendingItems.size();
+    }
+
+    /**
+     * @return number of batches written since the queue was created
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return duration of the last batch write in milliseconds
+     */
+    public long getLastFlushTime() {
+        return lastFlushTime;
+    }
+
+    /**
+     * @return longest duration of a batch write in milliseconds
+     */
+    public long getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    /**
+     * @return average duration of a batch write in milliseconds
+     */
+    public double getAverageFlushTime() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0 : (double) totalFlushTime.get() / batches;
+    }
+}
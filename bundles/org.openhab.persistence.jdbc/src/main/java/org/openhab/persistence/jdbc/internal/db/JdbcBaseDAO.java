@@ -18,12 +18,17 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -56,7 +61,9 @@ import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
+import org.openhab.persistence.jdbc.internal.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.internal.dto.Column;
+import org.openhab.persistence.jdbc.internal.dto.ItemStateVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
@@ -98,6 +105,15 @@ public class JdbcBaseDAO {
     protected String sqlInsertItemValue = "INSERT INTO #tableName# (time, value) VALUES( #tablePrimaryValue#, ? ) ON DUPLICATE KEY UPDATE VALUE= ?";
     protected String sqlGetRowCount = "SELECT COUNT(*) FROM #tableName#";
 
+    protected static final String SQL_CACHE_INSERT_ITEM_VALUE = "insertItemValue";
+    protected static final String SQL_CACHE_INSERT_ITEM_VALUE_WITH_DATE = "insertItemValueWithDate";
+    protected static final String SQL_CACHE_GET_ROW_COUNT = "getRowCount";
+    protected static final String SQL_CACHE_HIST_ITEM_FILTER_QUERY = "histItemFilterQuery";
+    protected static final String SQL_CACHE_HIST_ITEM_AGGREGATE_QUERY = "histItemAggregateQuery";
+
+    // Rendered SQL statements per operation and table, see getCachedSql
+    private final Map<String, String> sqlCache = new ConcurrentHashMap<>();
+
     /********
      * INIT *
      ********/
@@ -430,9 +446,10 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { formattedIdentifier(storedVO.getTableName()), sqlTypes.get("tablePrimaryValue") });
+        String sql = getCachedSql(SQL_CACHE_INSERT_ITEM_VALUE, storedVO.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] {
+                                formattedIdentifier(storedVO.getTableName()), sqlTypes.get("tablePrimaryValue") }));
         Object[] params = { storedVO.getValue(), storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         try {
@@ -444,11 +461,10 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { formattedIdentifier(storedVO.getTableName()), "?" });
+        String sql = getCachedSql(SQL_CACHE_INSERT_ITEM_VALUE_WITH_DATE, storedVO.getTableName(),
+                () -> insertItemValueWithDateProvider(storedVO));
         java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue(), storedVO.getValue() };
+        Object[] params = insertItemValueWithDateParams(storedVO, timestamp);
         logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
         try {
             Yank.execute(sql, params);
@@ -457,13 +473,47 @@ public class JdbcBaseDAO {
         }
     }
 
+    /**
+     * Stores a number of states of a single item into its table using one JDBC batch.
+     *
+     * @param item the item the states belong to
+     * @param tableName the table of the item
+     * @param states the states to store, each with its own timestamp
+     * @throws JdbcSQLException on SQL errors
+     */
+    public void doStoreItemValues(Item item, String tableName, List<ItemStateVO> states) throws JdbcSQLException {
+        if (states.isEmpty()) {
+            return;
+        }
+        String sql = "";
+        Object[][] params = new Object[states.size()][];
+        for (int i = 0; i < states.size(); i++) {
+            ItemStateVO itemState = states.get(i);
+            ItemVO storedVO = storeItemValueProvider(item, itemState.getState(), new ItemVO(tableName, null));
+            if (i == 0) {
+                // all rows share the table and data type of the item
+                sql = getCachedSql(SQL_CACHE_INSERT_ITEM_VALUE_WITH_DATE, tableName,
+                        () -> insertItemValueWithDateProvider(storedVO));
+            }
+            java.sql.Timestamp timestamp = new java.sql.Timestamp(itemState.getDate().toInstant().toEpochMilli());
+            params[i] = insertItemValueWithDateParams(storedVO, timestamp);
+        }
+        logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, params.length);
+        try {
+            Yank.executeBatch(sql, params);
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        logger.debug("JDBC::doGetHistItemFilterQuery sql={}", sql);
+        String sql = getHistItemFilterQuery(filter, numberDecimalcount, table, name);
+        Object[] params = histItemFilterQueryParams(filter, timeZone);
+        logger.debug("JDBC::doGetHistItemFilterQuery sql={} params={}", sql, Arrays.asList(params));
         List<Object[]> m;
         try {
-            m = Yank.queryObjectArrays(sql, null);
+            m = Yank.queryObjectArrays(sql, params);
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
@@ -479,6 +529,30 @@ public class JdbcBaseDAO {
                 .collect(Collectors.<HistoricItem> toList());
     }
 
+    public List<HistoricItem> doGetHistItemAggregateQuery(Item item, FilterCriteria filter,
+            AggregationFunction function, long bucketSeconds, String table, ZoneId timeZone)
+            throws JdbcSQLException {
+        String sql = getHistItemAggregateQuery(filter, function, bucketSeconds, table);
+        Object[] params = timeFilterParams(filter, timeZone).toArray();
+        logger.debug("JDBC::doGetHistItemAggregateQuery sql={} params={}", sql, Arrays.asList(params));
+        List<Object[]> m;
+        try {
+            m = Yank.queryObjectArrays(sql, params);
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+        if (m == null) {
+            logger.debug("JDBC::doGetHistItemAggregateQuery Query failed. Returning an empty list.");
+            return List.of();
+        }
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
+        // buckets only containing NULL values have no aggregate
+        return m.stream().filter(o -> o[1] != null)
+                .map(o -> new JdbcHistoricItem(itemName, objectAsState(item, unit, o[1]), objectAsInstant(o[0])))
+                .collect(Collectors.<HistoricItem> toList());
+    }
+
     public void doDeleteItemValues(FilterCriteria filter, String table, ZoneId timeZone) throws JdbcSQLException {
         String sql = histItemFilterDeleteProvider(filter, table, timeZone);
         logger.debug("JDBC::doDeleteItemValues sql={}", sql);
@@ -490,8 +564,9 @@ public class JdbcBaseDAO {
     }
 
     public long doGetRowCount(String tableName) throws JdbcSQLException {
-        final String sql = StringUtilsExt.replaceArrayMerge(sqlGetRowCount, new String[] { "#tableName#" },
-                new String[] { formattedIdentifier(tableName) });
+        final String sql = getCachedSql(SQL_CACHE_GET_ROW_COUNT, tableName,
+                () -> StringUtilsExt.replaceArrayMerge(sqlGetRowCount, new String[] { "#tableName#" },
+                        new String[] { formattedIdentifier(tableName) }));
         logger.debug("JDBC::doGetRowCount sql={}", sql);
         try {
             final @Nullable Long result = Yank.queryScalar(sql, Long.class, null);
@@ -506,18 +581,32 @@ public class JdbcBaseDAO {
      *************/
     static final DateTimeFormatter JDBC_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /**
+     * Returns the history query matching the filter, rendering it only once per table and combination of filters.
+     * The statement only depends on which filters are set, their values are bound as parameters, see
+     * {@link #histItemFilterQueryParams(FilterCriteria, ZoneId)}.
+     */
+    protected String getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
+            String simpleName) {
+        String operation = SQL_CACHE_HIST_ITEM_FILTER_QUERY + "," + simpleName + "," + numberDecimalcount + ","
+                + (filter.getBeginDate() != null) + "," + (filter.getEndDate() != null) + "," + filter.getOrdering()
+                + "," + (filter.getPageSize() != Integer.MAX_VALUE);
+        return getCachedSql(operation, table,
+                () -> histItemFilterQueryProvider(filter, numberDecimalcount, table, simpleName));
+    }
+
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
-            String simpleName, ZoneId timeZone) {
+            String simpleName) {
         logger.debug(
                 "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
                 filter, numberDecimalcount, table, simpleName);
 
-        String filterString = resolveTimeFilter(filter, timeZone);
+        String filterString = timeFilterProvider(filter);
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
         if (filter.getPageSize() != Integer.MAX_VALUE) {
-            filterString += " LIMIT " + filter.getPageNumber() * filter.getPageSize() + "," + filter.getPageSize();
+            filterString += " LIMIT ?,?";
         }
-        // SELECT time, ROUND(value,3) FROM number_item_0114 ORDER BY time DESC LIMIT 0,1
+        // SELECT time, ROUND(value,3) FROM number_item_0114 ORDER BY time DESC LIMIT ?,?
         // rounding HALF UP
         String queryString = "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1
                 ? "SELECT time, ROUND(value," + numberDecimalcount + ") FROM " + formattedIdentifier(table)
@@ -529,6 +618,56 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    /**
+     * Provides the parameters matching {@link #histItemFilterQueryProvider(FilterCriteria, int, String, String)}:
+     * the begin and end date if set, followed by the offset and the number of rows if the filter has a page size.
+     */
+    protected Object[] histItemFilterQueryParams(FilterCriteria filter, ZoneId timeZone) {
+        List<Object> params = timeFilterParams(filter, timeZone);
+        if (filter.getPageSize() != Integer.MAX_VALUE) {
+            params.add(filter.getPageNumber() * filter.getPageSize());
+            params.add(filter.getPageSize());
+        }
+        return params.toArray();
+    }
+
+    /**
+     * Returns the aggregate query matching the filter, rendering it only once per table, function, bucket length and
+     * combination of time filters. The dates are bound as parameters, see
+     * {@link #timeFilterParams(FilterCriteria, ZoneId)}.
+     */
+    protected String getHistItemAggregateQuery(FilterCriteria filter, AggregationFunction function, long bucketSeconds,
+            String table) {
+        String operation = SQL_CACHE_HIST_ITEM_AGGREGATE_QUERY + "," + function + "," + bucketSeconds + ","
+                + (filter.getBeginDate() != null) + "," + (filter.getEndDate() != null) + "," + filter.getOrdering();
+        return getCachedSql(operation, table,
+                () -> histItemAggregateQueryProvider(filter, function, bucketSeconds, table));
+    }
+
+    protected String histItemAggregateQueryProvider(FilterCriteria filter, AggregationFunction function,
+            long bucketSeconds, String table) {
+        logger.debug("JDBC::histItemAggregateQueryProvider filter = {}, function = {}, bucketSeconds = {}, table = {}",
+                filter, function, bucketSeconds, table);
+
+        // SELECT MIN(time), AVG(value) FROM number_item_0114 GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 900) ORDER BY 1 ASC
+        // each bucket is represented by the time of its first value
+        String queryString = "SELECT MIN(time), " + function.name() + "(value) FROM " + formattedIdentifier(table)
+                + timeFilterProvider(filter) + " GROUP BY " + timeBucketProvider(bucketSeconds)
+                + ((filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY 1 ASC" : " ORDER BY 1 DESC");
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
+    /**
+     * Returns an expression of the time column, which is equal for all rows of the same time bucket.
+     *
+     * @param bucketSeconds length of a time bucket in seconds
+     * @return SQL expression to group rows by
+     */
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "FLOOR(UNIX_TIMESTAMP(time) / " + bucketSeconds + ")";
+    }
+
     protected String histItemFilterDeleteProvider(FilterCriteria filter, String table, ZoneId timeZone) {
         logger.debug("JDBC::histItemFilterDeleteProvider filter = {}, table = {}", filter, table);
 
@@ -554,6 +693,62 @@ public class JdbcBaseDAO {
         return filterString;
     }
 
+    /**
+     * Provides the time filter of {@link #resolveTimeFilter(FilterCriteria, ZoneId)} with the dates as parameters.
+     */
+    protected String timeFilterProvider(FilterCriteria filter) {
+        String filterString = "";
+        if (filter.getBeginDate() != null) {
+            filterString += " WHERE TIME>=?";
+        }
+        if (filter.getEndDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME<=?";
+        }
+        return filterString;
+    }
+
+    /**
+     * Provides the parameters matching {@link #timeFilterProvider(FilterCriteria)}: the begin and end date if set.
+     */
+    protected List<Object> timeFilterParams(FilterCriteria filter, ZoneId timeZone) {
+        List<Object> params = new ArrayList<>(4);
+        ZonedDateTime beginDate = filter.getBeginDate();
+        if (beginDate != null) {
+            params.add(timeFilterParam(beginDate, timeZone));
+        }
+        ZonedDateTime endDate = filter.getEndDate();
+        if (endDate != null) {
+            params.add(timeFilterParam(endDate, timeZone));
+        }
+        return params;
+    }
+
+    /**
+     * Converts a date of the time filter into a parameter, comparing the time column to the same local time as
+     * {@link #resolveTimeFilter(FilterCriteria, ZoneId)}.
+     */
+    protected Object timeFilterParam(ZonedDateTime date, ZoneId timeZone) {
+        return java.sql.Timestamp
+                .valueOf(date.withZoneSameInstant(timeZone).toLocalDateTime().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Provides the insert statement for a value with an explicit timestamp, i.e. the primary value is a parameter.
+     */
+    protected String insertItemValueWithDateProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#tablePrimaryValue#" },
+                new String[] { formattedIdentifier(storedVO.getTableName()), "?" });
+    }
+
+    /**
+     * Provides the parameters matching {@link #insertItemValueWithDateProvider(ItemVO)}.
+     */
+    protected Object[] insertItemValueWithDateParams(ItemVO storedVO, java.sql.Timestamp timestamp) {
+        return new Object[] { timestamp, storedVO.getValue(), storedVO.getValue() };
+    }
+
     private String updateItemTableNamesProvider(ItemVO itemTable) {
         String newTableName = itemTable.getNewTableName();
         if (newTableName == null) {
@@ -766,6 +961,36 @@ public class JdbcBaseDAO {
         return identifier;
     }
 
+    /**
+     * Returns the SQL statement for an operation on a table, rendering it only when it is not cached yet.
+     *
+     * Rendered statements only depend on the table, its data type and the SQL templates, so they can be reused
+     * until the table mapping or the templates change, see {@link #clearSqlCache()}.
+     *
+     * @param operation name of the operation
+     * @param tableName name of the table the statement operates on
+     * @param provider renders the statement
+     * @return the rendered statement
+     */
+    protected String getCachedSql(String operation, String tableName, Supplier<String> provider) {
+        return sqlCache.computeIfAbsent(operation + ":" + tableName, k -> provider.get());
+    }
+
+    /**
+     * Removes all cached statements of a table, e.g. when the table is dropped, renamed or altered.
+     */
+    public void clearSqlCache(String tableName) {
+        String suffix = ":" + tableName;
+        sqlCache.keySet().removeIf(key -> key.endsWith(suffix));
+    }
+
+    /**
+     * Removes all cached statements, e.g. when SQL templates or types have been changed.
+     */
+    public void clearSqlCache() {
+        sqlCache.clear();
+    }
+
     private String getItemType(Item i) {
         Item item = i;
         String def = "STRINGITEM";
@@ -12,14 +12,26 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.persistence.FilterCriteria;
 
 /**
@@ -48,4 +60,52 @@ public class JdbcPersistenceServiceTest {
     void removeThrowsIllegalArgumentExceptionIfItemNameOfFilterIsNull() {
         assertThrows(IllegalArgumentException.class, () -> jdbcPersistenceService.remove(filter));
     }
+
+    private Map<Object, Object> batchConfiguration(String url) {
+        // flush on stop only
+        return Map.of("url", url, "batchSize", "100", "batchInterval", "60000");
+    }
+
+    @Test
+    void batchedStatesAreCountedAsFailedWithoutDatabaseConnection(@TempDir Path tempDir) {
+        JdbcPersistenceService service = new JdbcPersistenceService(mock(ItemRegistry.class),
+                mock(TimeZoneProvider.class)) {
+            @Override
+            protected boolean checkDBAccessability() {
+                return false;
+            }
+        };
+        service.updateConfig(batchConfiguration("jdbc:h2:" + tempDir.resolve("unreachable")));
+        JdbcWriteQueue writeQueue = Objects.requireNonNull(service.getWriteQueue());
+
+        service.store(new NumberItem("Power"), ZonedDateTime.now(), new DecimalType(1));
+        service.store(new NumberItem("Power"), ZonedDateTime.now(), new DecimalType(2));
+        writeQueue.stop();
+
+        assertThat(writeQueue.getStoredCount(), is(0L));
+        assertThat(writeQueue.getFailedCount(), is(2L));
+    }
+
+    @Test
+    void batchedStatesAreCountedAsFailedWhenTheDatabaseRejectsThem(@TempDir Path tempDir) {
+        TimeZoneProvider timeZoneProvider = mock(TimeZoneProvider.class);
+        when(timeZoneProvider.getTimeZone()).thenReturn(ZoneId.systemDefault());
+        JdbcPersistenceService service = new JdbcPersistenceService(mock(ItemRegistry.class), timeZoneProvider);
+        service.updateConfig(batchConfiguration("jdbc:h2:" + tempDir.resolve("store") + ";NON_KEYWORDS=VALUE"));
+        try {
+            JdbcWriteQueue writeQueue = Objects.requireNonNull(service.getWriteQueue());
+            // the table of the item is missing, e.g. because it was dropped manually
+            service.itemNameToTableNameMap.put("Broken", "broken_0099");
+
+            service.store(new NumberItem("Power"), ZonedDateTime.now(), new DecimalType(1));
+            service.store(new NumberItem("Broken"), ZonedDateTime.now(), new DecimalType(2));
+            service.store(new NumberItem("Broken"), ZonedDateTime.now(), new DecimalType(3));
+            writeQueue.stop();
+
+            assertThat(writeQueue.getStoredCount(), is(1L));
+            assertThat(writeQueue.getFailedCount(), is(2L));
+        } finally {
+            service.closeConnection();
+        }
+    }
 }
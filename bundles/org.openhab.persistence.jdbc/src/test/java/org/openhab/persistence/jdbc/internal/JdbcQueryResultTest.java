@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+
+/**
+ * Tests the {@link JdbcQueryResult}.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcQueryResultTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final List<HistoricItem> rows = new ArrayList<>();
+    private int queryCount = 0;
+
+    /**
+     * Emulates the SQL of the DAOs: time filters are inclusive and only have a precision of seconds.
+     */
+    private List<HistoricItem> query(FilterCriteria filter) {
+        queryCount++;
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        Comparator<HistoricItem> order = Comparator.comparing(HistoricItem::getInstant);
+        return rows.stream()
+                .filter(row -> beginDate == null || !row.getInstant().truncatedTo(ChronoUnit.SECONDS)
+                        .isBefore(beginDate.toInstant().truncatedTo(ChronoUnit.SECONDS)))
+                .filter(row -> endDate == null || !row.getInstant().truncatedTo(ChronoUnit.SECONDS)
+                        .isAfter(endDate.toInstant().truncatedTo(ChronoUnit.SECONDS)))
+                .sorted(filter.getOrdering() == Ordering.ASCENDING ? order : order.reversed())
+                .limit(filter.getPageSize()).collect(Collectors.toList());
+    }
+
+    private void addRows(int count, long intervalMillis) {
+        for (int i = 0; i < count; i++) {
+            rows.add(new JdbcHistoricItem("Power", new DecimalType(i), START.plusMillis(i * intervalMillis)));
+        }
+    }
+
+    private List<Integer> readAll(FilterCriteria filter, int fetchSize) {
+        JdbcQueryResult result = new JdbcQueryResult(filter, fetchSize, this::query);
+        return StreamSupport.stream(result.spliterator(), false)
+                .map(item -> ((DecimalType) item.getState()).intValue()).collect(Collectors.toList());
+    }
+
+    private List<Integer> range(int from, int to) {
+        List<Integer> values = new ArrayList<>();
+        if (from <= to) {
+            for (int i = from; i <= to; i++) {
+                values.add(i);
+            }
+        } else {
+            for (int i = from; i >= to; i--) {
+                values.add(i);
+            }
+        }
+        return values;
+    }
+
+    @Test
+    void allRowsAreReadInAscendingOrder() {
+        addRows(25, 1000);
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("Power");
+        filter.setOrdering(Ordering.ASCENDING);
+
+        assertThat(readAll(filter, 10), is(range(0, 24)));
+        assertThat(queryCount, is(3));
+    }
+
+    @Test
+    void allRowsAreReadInDescendingOrder() {
+        addRows(25, 1000);
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("Power");
+        filter.setOrdering(Ordering.DESCENDING);
+
+        assertThat(readAll(filter, 10), is(range(24, 0)));
+    }
+
+    @Test
+    void rowsWithinTheSameSecondAreNotDuplicatedOrLost() {
+        addRows(50, 100);
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("Power");
+
+        filter.setOrdering(Ordering.ASCENDING);
+        assertThat(readAll(filter, 4), is(range(0, 49)));
+        filter.setOrdering(Ordering.DESCENDING);
+        assertThat(readAll(filter, 4), is(range(49, 0)));
+    }
+
+    @Test
+    void timeFilterOfQueryIsKept() {
+        addRows(25, 1000);
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("Power");
+        filter.setBeginDate(START.plusSeconds(5).atZone(ZoneId.of("UTC")));
+        filter.setEndDate(START.plusSeconds(20).atZone(ZoneId.of("UTC")));
+
+        filter.setOrdering(Ordering.ASCENDING);
+        assertThat(readAll(filter, 4), is(range(5, 20)));
+        filter.setOrdering(Ordering.DESCENDING);
+        assertThat(readAll(filter, 4), is(range(20, 5)));
+    }
+}
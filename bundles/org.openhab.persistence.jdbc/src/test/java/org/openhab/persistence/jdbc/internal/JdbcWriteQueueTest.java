@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.persistence.jdbc.internal.dto.ItemStateVO;
+
+/**
+ * Tests the {@link JdbcWriteQueue}.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteQueueTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, List<List<ItemStateVO>>> batches = new ConcurrentHashMap<>();
+
+    private JdbcWriteQueue createQueue(int batchSize) {
+        // use a long interval, so only size thresholds and explicit flushes trigger writes
+        return new JdbcWriteQueue((item, states) -> batches
+                .computeIfAbsent(item.getName(), k -> new CopyOnWriteArrayList<>()).add(states), scheduler, batchSize,
+                60000, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void statesAreWrittenInOrderWhenBatchSizeIsReached() {
+        JdbcWriteQueue queue = createQueue(3);
+        NumberItem item = new NumberItem("Power");
+        for (int i = 0; i < 6; i++) {
+            queue.enqueue(item, new ItemStateVO(new DecimalType(i), ZonedDateTime.now()));
+        }
+        queue.stop();
+
+        List<Integer> values = batches.get("Power").stream().flatMap(List::stream)
+                .map(s -> ((DecimalType) s.getState()).intValue()).collect(Collectors.toList());
+        assertThat(values, contains(0, 1, 2, 3, 4, 5));
+        assertThat(queue.getStoredCount(), is(6L));
+        assertThat(queue.getQueueSize(), is(0));
+    }
+
+    @Test
+    void pendingStatesAreWrittenOnStop() {
+        JdbcWriteQueue queue = createQueue(100);
+        queue.enqueue(new NumberItem("Power"), new ItemStateVO(new DecimalType(1), ZonedDateTime.now()));
+        queue.enqueue(new NumberItem("Energy"), new ItemStateVO(new DecimalType(2), ZonedDateTime.now()));
+        assertThat(queue.getQueueSize(), is(2));
+        queue.stop();
+
+        assertThat(batches.get("Power").size(), is(1));
+        assertThat(batches.get("Energy").size(), is(1));
+        assertThat(queue.getBatchCount(), is(2L));
+        assertThat(queue.getQueueSize(), is(0));
+    }
+
+    @Test
+    void drainedItemsAreNotKept() {
+        JdbcWriteQueue queue = createQueue(100);
+        for (int i = 0; i < 10; i++) {
+            queue.enqueue(new NumberItem("Sensor" + i), new ItemStateVO(new DecimalType(i), ZonedDateTime.now()));
+        }
+        assertThat(queue.getPendingItemCount(), is(10));
+        queue.stop();
+
+        assertThat(queue.getStoredCount(), is(10L));
+        assertThat(queue.getPendingItemCount(), is(0));
+    }
+}
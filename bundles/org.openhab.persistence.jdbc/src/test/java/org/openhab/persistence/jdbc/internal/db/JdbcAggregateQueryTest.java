@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.knowm.yank.Yank;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.internal.dto.AggregationFunction;
+import org.openhab.persistence.jdbc.internal.dto.ItemStateVO;
+import org.openhab.persistence.jdbc.internal.dto.ItemVO;
+import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
+
+/**
+ * Runs the aggregate queries of the embedded databases against in-memory instances of them.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcAggregateQueryTest {
+
+    private static final String TABLE_NAME = "temperature_0001";
+    private static final ZoneId ZONE_ID = ZoneId.systemDefault();
+    private static final ZonedDateTime START = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZONE_ID);
+    // in-memory databases live as long as the JVM, so every test uses a new one
+    private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+
+    private final NumberItem item = new NumberItem("Temperature");
+
+    private static Stream<Arguments> provideDatabases() {
+        return Stream.of( //
+                Arguments.of(new JdbcH2DAO(), "jdbc:h2:mem:aggregate#;NON_KEYWORDS=VALUE"),
+                Arguments.of(new JdbcDerbyDAO(), "jdbc:derby:memory:aggregate#;create=true"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Yank.releaseDefaultConnectionPool();
+    }
+
+    private void setupDatabase(JdbcBaseDAO dao, String url) throws JdbcSQLException {
+        Properties properties = new Properties();
+        properties.putAll(dao.databaseProps);
+        properties.setProperty("jdbcUrl", url.replace("#", String.valueOf(DATABASE_COUNT.incrementAndGet())));
+        Yank.setupDefaultConnectionPool(properties);
+        Yank.setThrowWrappedExceptions(true);
+
+        ItemVO vo = new ItemVO(TABLE_NAME, null);
+        vo.setDbType(dao.getDataType(item));
+        dao.doCreateItemTable(vo);
+        // values 1 to 6 every 5 minutes, i.e. two buckets of 15 minutes with three values each
+        List<ItemStateVO> states = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            states.add(new ItemStateVO(new DecimalType(i + 1), START.plusMinutes(5 * i)));
+        }
+        dao.doStoreItemValues(item, TABLE_NAME, states);
+    }
+
+    private List<Double> values(List<HistoricItem> result) {
+        return result.stream().map(historicItem -> ((DecimalType) historicItem.getState()).doubleValue()).toList();
+    }
+
+    private List<Instant> instants(List<HistoricItem> result) {
+        return result.stream().map(HistoricItem::getInstant).toList();
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideDatabases")
+    void aggregateQueryReturnsOneRowPerBucket(JdbcBaseDAO dao, String url) throws JdbcSQLException {
+        setupDatabase(dao, url);
+        FilterCriteria filter = new FilterCriteria();
+        filter.setOrdering(Ordering.ASCENDING);
+
+        List<HistoricItem> result = dao.doGetHistItemAggregateQuery(item, filter, AggregationFunction.AVG, 900,
+                TABLE_NAME, ZONE_ID);
+        assertThat(values(result), contains(2.0, 5.0));
+        assertThat(instants(result), contains(START.toInstant(), START.plusMinutes(15).toInstant()));
+
+        assertThat(values(dao.doGetHistItemAggregateQuery(item, filter, AggregationFunction.MIN, 900, TABLE_NAME,
+                ZONE_ID)), contains(1.0, 4.0));
+        assertThat(values(dao.doGetHistItemAggregateQuery(item, filter, AggregationFunction.MAX, 900, TABLE_NAME,
+                ZONE_ID)), contains(3.0, 6.0));
+        assertThat(values(dao.doGetHistItemAggregateQuery(item, filter, AggregationFunction.SUM, 900, TABLE_NAME,
+                ZONE_ID)), contains(6.0, 15.0));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideDatabases")
+    void aggregateQueryAppliesTimeFilterAndOrdering(JdbcBaseDAO dao, String url) throws JdbcSQLException {
+        setupDatabase(dao, url);
+        FilterCriteria filter = new FilterCriteria();
+        filter.setBeginDate(START.plusMinutes(10));
+        filter.setEndDate(START.plusMinutes(25));
+        filter.setOrdering(Ordering.DESCENDING);
+
+        List<HistoricItem> result = dao.doGetHistItemAggregateQuery(item, filter, AggregationFunction.MAX, 900,
+                TABLE_NAME, ZONE_ID);
+        assertThat(values(result), contains(6.0, 3.0));
+        assertThat(instants(result), contains(START.plusMinutes(15).toInstant(), START.plusMinutes(10).toInstant()));
+    }
+}
@@ -13,6 +13,7 @@
 package org.openhab.persistence.jdbc.internal.db;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -23,7 +24,9 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import javax.measure.Quantity;
@@ -66,6 +69,7 @@ import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.dto.AggregationFunction;
 
 /**
  * Tests the {@link JdbcBaseDAO}.
@@ -162,7 +166,7 @@ public class JdbcBaseDAOTest {
 
     @Test
     void testHistItemFilterQueryProviderReturnsSelectQueryWithoutWhereClauseDescendingOrder() {
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST");
         assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time DESC"));
     }
 
@@ -170,7 +174,7 @@ public class JdbcBaseDAOTest {
     void testHistItemFilterQueryProviderReturnsSelectQueryWithoutWhereClauseAscendingOrder() {
         filter.setOrdering(Ordering.ASCENDING);
 
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST");
         assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time ASC"));
     }
 
@@ -179,19 +183,133 @@ public class JdbcBaseDAOTest {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
-        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>='" //
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'" //
-                + " AND TIME<='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate()))
-                + "' ORDER BY time DESC"));
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST");
+        assertThat(sql,
+                is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=? ORDER BY time DESC"));
+        assertThat(jdbcBaseDAO.histItemFilterQueryParams(filter, UTC_ZONE_ID),
+                is(new Object[] { java.sql.Timestamp.valueOf("2022-01-10 15:01:44"),
+                        java.sql.Timestamp.valueOf("2022-01-15 15:01:44") }));
+    }
+
+    @Test
+    void testHistItemFilterQueryParamsAreConvertedToTimeZone() {
+        filter.setBeginDate(ZonedDateTime.of(2022, 1, 10, 15, 1, 44, 500_000_000, UTC_ZONE_ID));
+
+        assertThat(jdbcBaseDAO.histItemFilterQueryParams(filter, ZoneId.of("Europe/Berlin")),
+                is(new Object[] { java.sql.Timestamp.valueOf("2022-01-10 16:01:44") }));
     }
 
     @Test
     void testHistItemFilterQueryProviderReturnsSelectQueryWithoutWhereClauseDescendingOrderAndLimit() {
         filter.setPageSize(1);
 
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
-        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time DESC LIMIT 0,1"));
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST");
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time DESC LIMIT ?,?"));
+        assertThat(jdbcBaseDAO.histItemFilterQueryParams(filter, UTC_ZONE_ID), is(new Object[] { 0, 1 }));
+    }
+
+    @Test
+    void testHistItemFilterQueryParamsContainDatesFollowedByOffsetAndLimit() {
+        filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
+        filter.setPageSize(10);
+        filter.setPageNumber(2);
+
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST");
+        assertThat(sql,
+                is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME<=? ORDER BY time DESC LIMIT ?,?"));
+        assertThat(jdbcBaseDAO.histItemFilterQueryParams(filter, UTC_ZONE_ID),
+                is(new Object[] { java.sql.Timestamp.valueOf("2022-01-15 15:01:44"), 20, 10 }));
+    }
+
+    @Test
+    void testDialectsProvideTheirPagingWithParameters() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setPageSize(1);
+
+        assertThat(new JdbcPostgresqlDAO().histItemFilterQueryProvider(filter, -1, DB_TABLE_NAME, "TEST"),
+                is("SELECT time, value FROM \"" + DB_TABLE_NAME
+                        + "\" WHERE TIME>=? ORDER BY time DESC OFFSET ? LIMIT ?"));
+        assertThat(new JdbcDerbyDAO().histItemFilterQueryProvider(filter, -1, DB_TABLE_NAME, "TEST"),
+                is("SELECT time, value FROM " + DB_TABLE_NAME.toUpperCase()
+                        + " WHERE TIME>=? ORDER BY time DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY"));
+    }
+
+    @Test
+    void testGetHistItemFilterQueryRendersStatementOncePerCombinationOfFilters() {
+        AtomicInteger rendered = new AtomicInteger();
+        JdbcBaseDAO dao = new JdbcBaseDAO() {
+            @Override
+            protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
+                    String simpleName) {
+                rendered.incrementAndGet();
+                return super.histItemFilterQueryProvider(filter, numberDecimalcount, table, simpleName);
+            }
+        };
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        String sql = dao.getHistItemFilterQuery(filter, 2, DB_TABLE_NAME, "NUMBERITEM");
+
+        FilterCriteria otherDates = new FilterCriteria();
+        otherDates.setBeginDate(parseDateTimeString("2023-05-01T08:00:00"));
+        assertThat(dao.getHistItemFilterQuery(otherDates, 2, DB_TABLE_NAME, "NUMBERITEM"), is(sameInstance(sql)));
+        assertThat(rendered.get(), is(1));
+
+        otherDates.setPageSize(1);
+        assertThat(dao.getHistItemFilterQuery(otherDates, 2, DB_TABLE_NAME, "NUMBERITEM"),
+                is("SELECT time, ROUND(value,2) FROM " + DB_TABLE_NAME
+                        + " WHERE TIME>=? ORDER BY time DESC LIMIT ?,?"));
+        assertThat(dao.getHistItemFilterQuery(filter, 2, "othertable", "NUMBERITEM"),
+                is("SELECT time, ROUND(value,2) FROM othertable WHERE TIME>=? ORDER BY time DESC"));
+        assertThat(rendered.get(), is(3));
+
+        dao.clearSqlCache(DB_TABLE_NAME);
+        dao.getHistItemFilterQuery(filter, 2, DB_TABLE_NAME, "NUMBERITEM");
+        assertThat(rendered.get(), is(4));
+    }
+
+    @Test
+    void testSqliteBindsTimeFilterAsLocalTimeText() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+
+        assertThat(new JdbcSqliteDAO().histItemFilterQueryParams(filter, UTC_ZONE_ID),
+                is(new Object[] { "2022-01-10 15:01:44" }));
+    }
+
+    @Test
+    void testHistItemAggregateQueryProviderReturnsGroupedSelectQueryWithWhereClause() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setOrdering(Ordering.ASCENDING);
+
+        String sql = jdbcBaseDAO.histItemAggregateQueryProvider(filter, AggregationFunction.AVG, 900, DB_TABLE_NAME);
+        assertThat(sql, is("SELECT MIN(time), AVG(value) FROM " + DB_TABLE_NAME
+                + " WHERE TIME>=? GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 900) ORDER BY 1 ASC"));
+        assertThat(jdbcBaseDAO.timeFilterParams(filter, UTC_ZONE_ID),
+                is(List.of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"))));
+    }
+
+    @Test
+    void testGetHistItemAggregateQueryRendersStatementOncePerCombinationOfFilters() {
+        AtomicInteger rendered = new AtomicInteger();
+        JdbcBaseDAO dao = new JdbcBaseDAO() {
+            @Override
+            protected String histItemAggregateQueryProvider(FilterCriteria filter, AggregationFunction function,
+                    long bucketSeconds, String table) {
+                rendered.incrementAndGet();
+                return super.histItemAggregateQueryProvider(filter, function, bucketSeconds, table);
+            }
+        };
+
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        String sql = dao.getHistItemAggregateQuery(filter, AggregationFunction.AVG, 900, DB_TABLE_NAME);
+        filter.setBeginDate(parseDateTimeString("2022-01-11T15:01:44"));
+        assertThat(dao.getHistItemAggregateQuery(filter, AggregationFunction.AVG, 900, DB_TABLE_NAME),
+                is(sameInstance(sql)));
+        assertThat(rendered.get(), is(1));
+
+        dao.getHistItemAggregateQuery(filter, AggregationFunction.MAX, 900, DB_TABLE_NAME);
+        dao.getHistItemAggregateQuery(filter, AggregationFunction.AVG, 3600, DB_TABLE_NAME);
+        filter.setEndDate(parseDateTimeString("2022-01-12T15:01:44"));
+        dao.getHistItemAggregateQuery(filter, AggregationFunction.AVG, 900, DB_TABLE_NAME);
+        assertThat(rendered.get(), is(4));
     }
 
     @Test
@@ -249,6 +367,23 @@ public class JdbcBaseDAOTest {
                         + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate())) + "'"));
     }
 
+    @Test
+    void testGetCachedSqlRendersStatementOncePerTable() {
+        assertThat(jdbcBaseDAO.getCachedSql("op", DB_TABLE_NAME, () -> "first"), is("first"));
+        assertThat(jdbcBaseDAO.getCachedSql("op", DB_TABLE_NAME, () -> "second"), is("first"));
+        assertThat(jdbcBaseDAO.getCachedSql("op", "othertable", () -> "other"), is("other"));
+    }
+
+    @Test
+    void testClearSqlCacheForTableOnlyRemovesStatementsOfThatTable() {
+        jdbcBaseDAO.getCachedSql("op", DB_TABLE_NAME, () -> "first");
+        jdbcBaseDAO.getCachedSql("op", "othertable", () -> "other");
+
+        jdbcBaseDAO.clearSqlCache(DB_TABLE_NAME);
+        assertThat(jdbcBaseDAO.getCachedSql("op", DB_TABLE_NAME, () -> "second"), is("second"));
+        assertThat(jdbcBaseDAO.getCachedSql("op", "othertable", () -> "changed"), is("other"));
+    }
+
     private ZonedDateTime parseDateTimeString(String dts) {
         return ZonedDateTime.of(LocalDateTime.parse(dts, DATE_PARSER), UTC_ZONE_ID);
     }
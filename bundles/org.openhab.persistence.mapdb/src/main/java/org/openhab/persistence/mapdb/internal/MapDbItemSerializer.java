@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PlayPauseType;
+import org.openhab.core.library.types.PointType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.RawType;
+import org.openhab.core.library.types.RewindFastforwardType;
+import org.openhab.core.library.types.StringListType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.TypeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serializes a {@link MapDbItem} into a compact binary representation.
+ *
+ * The format consists of a format version, the timestamp in milliseconds, the state type and the full string
+ * representation of the state. Common state types are written as a single byte, all others by their class name. The
+ * item name is not part of the data, since it is the key of the stored value.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemSerializer {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int CLASS_NAME_FOLLOWS = 0xFF;
+
+    // append only, the index is persisted
+    private static final List<Class<? extends State>> KNOWN_TYPES = List.of(DecimalType.class, QuantityType.class,
+            OnOffType.class, OpenClosedType.class, PercentType.class, HSBType.class, StringType.class,
+            DateTimeType.class, UpDownType.class, PointType.class, PlayPauseType.class, RewindFastforwardType.class,
+            StringListType.class, RawType.class);
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbItemSerializer.class);
+
+    public byte[] serialize(MapDbItem item) {
+        State state = item.getState();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(item.getInstant().toEpochMilli());
+            int typeIndex = KNOWN_TYPES.indexOf(state.getClass());
+            if (typeIndex == -1) {
+                out.writeByte(CLASS_NAME_FOLLOWS);
+                out.writeUTF(state.getClass().getName());
+            } else {
+                out.writeByte(typeIndex);
+            }
+            // the value fills the rest of the data, so no length is needed
+            out.write(state.toFullString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes an item.
+     *
+     * @param name the name of the item
+     * @param data the serialized item
+     * @return the item, or null if the data could not be deserialized
+     */
+    public @Nullable MapDbItem deserialize(String name, byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                logger.warn("Couldn't deserialize state of '{}': unknown format version {}", name, version);
+                return null;
+            }
+            long timestamp = in.readLong();
+            int typeIndex = in.readUnsignedByte();
+            Class<? extends State> valueType;
+            if (typeIndex == CLASS_NAME_FOLLOWS) {
+                @SuppressWarnings("unchecked")
+                Class<? extends State> type = (Class<? extends State>) Class.forName(in.readUTF());
+                valueType = type;
+            } else if (typeIndex < KNOWN_TYPES.size()) {
+                valueType = KNOWN_TYPES.get(typeIndex);
+            } else {
+                logger.warn("Couldn't deserialize state of '{}': unknown type {}", name, typeIndex);
+                return null;
+            }
+            String value = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+            State state = TypeParser.parseState(List.of(valueType), value);
+            if (state == null) {
+                logger.warn("Couldn't deserialize state '{}' of '{}' as {}", value, name, valueType.getSimpleName());
+                return null;
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(state);
+            item.setTimestamp(new Date(timestamp));
+            return item;
+        } catch (IOException | ClassNotFoundException e) {
+            logger.warn("Couldn't deserialize state of '{}': {}", name, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -19,21 +19,26 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigParser;
+import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.persistence.FilterCriteria;
@@ -48,6 +53,7 @@ import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,8 +68,10 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class }, property = Constants.SERVICE_PID
-        + "=org.openhab.mapdb")
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", //
+        property = Constants.SERVICE_PID + "=org.openhab.mapdb")
+@ConfigurableService(category = "persistence", label = "MapDB Persistence Service", description_uri = MapDbPersistenceService.CONFIG_URI)
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_ID = "mapdb";
@@ -71,23 +79,40 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     private static final Path DB_DIR = new File(OpenHAB.getUserDataFolder(), "persistence").toPath().resolve("mapdb");
     private static final Path BACKUP_DIR = DB_DIR.resolve("backup");
     private static final String DB_FILE_NAME = "storage.mapdb";
+    private static final String ITEM_STORE_NAME = "items";
+    private static final String LEGACY_ITEM_STORE_NAME = "itemStore";
+
+    protected static final String CONFIG_URI = "persistence:mapdb";
+    private static final String COMMIT_INTERVAL_CONFIG = "commitInterval";
+    private static final long COMMIT_INTERVAL_DEFAULT = 0;
+    private static final String COMMIT_THRESHOLD_CONFIG = "commitThreshold";
+    private static final int COMMIT_THRESHOLD_DEFAULT = 100;
 
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
-    private final ExecutorService threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+    private final ScheduledExecutorService threadPool = ThreadPoolManager
+            .getScheduledPool(getClass().getSimpleName());
 
     /**
      * holds the local instance of the MapDB database
      */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    private @NonNullByDefault({}) Map<String, byte[]> map;
 
-    private transient Gson mapper = new GsonBuilder().setDateFormat(DateTimeType.DATE_PATTERN_JSON_COMPAT)
-            .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
+    private final MapDbItemSerializer serializer = new MapDbItemSerializer();
+
+    /**
+     * holds the items not yet committed in group commit mode, only the latest state per item is kept
+     */
+    private final Map<String, MapDbItem> dirtyItems = new ConcurrentHashMap<>();
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
+    private long commitInterval = COMMIT_INTERVAL_DEFAULT;
+    private int commitThreshold = COMMIT_THRESHOLD_DEFAULT;
+    private @Nullable ScheduledFuture<?> commitJob;
 
     @Activate
-    public void activate() {
+    public void activate(Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
         try {
@@ -100,8 +125,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
         File dbFile = DB_DIR.resolve(DB_FILE_NAME).toFile();
         try {
-            db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-            map = db.createTreeMap("itemStore").makeOrGet();
+            openDatabase(dbFile);
         } catch (RuntimeException re) {
             Throwable cause = re.getCause();
             if (cause instanceof ClassNotFoundException cnf) {
@@ -132,24 +156,80 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                     return;
                 }
 
-                db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-                map = db.createTreeMap("itemStore").makeOrGet();
+                openDatabase(dbFile);
             } else {
                 logger.warn("Failed to create or open the MapDB: {}", re.getMessage());
                 logger.warn("MapDB persistence service activation has failed.");
             }
         }
+        modified(config);
         logger.debug("MapDB persistence service is now activated");
     }
 
+    @Modified
+    public void modified(Map<String, Object> config) {
+        commitInterval = ConfigParser.valueAsOrElse(config.get(COMMIT_INTERVAL_CONFIG), Long.class,
+                COMMIT_INTERVAL_DEFAULT);
+        commitThreshold = ConfigParser.valueAsOrElse(config.get(COMMIT_THRESHOLD_CONFIG), Integer.class,
+                COMMIT_THRESHOLD_DEFAULT);
+
+        stopCommitJob();
+        if (commitInterval > 0) {
+            logger.debug("MapDB group commit enabled, committing every {} ms or {} changed items", commitInterval,
+                    commitThreshold);
+            commitJob = threadPool.scheduleWithFixedDelay(this::commitDirtyItems, commitInterval, commitInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
     @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        stopCommitJob();
         if (db != null) {
             db.close();
         }
     }
 
+    private void openDatabase(File dbFile) {
+        db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
+        map = db.createTreeMap(ITEM_STORE_NAME).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+        migrateLegacyItemStore();
+    }
+
+    /**
+     * Converts the items stored as JSON by former versions into the binary format.
+     */
+    private void migrateLegacyItemStore() {
+        if (!db.exists(LEGACY_ITEM_STORE_NAME)) {
+            return;
+        }
+        Gson mapper = new GsonBuilder().setDateFormat(DateTimeType.DATE_PATTERN_JSON_COMPAT)
+                .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
+        Map<String, String> legacyMap = db.getTreeMap(LEGACY_ITEM_STORE_NAME);
+        int count = 0;
+        for (String json : legacyMap.values()) {
+            MapDbItem item = deserializeJson(mapper, json);
+            if (item != null) {
+                map.put(item.getName(), serializer.serialize(item));
+                count++;
+            }
+        }
+        db.delete(LEGACY_ITEM_STORE_NAME);
+        db.commit();
+        logger.info("Converted {} items stored by a former version of the MapDB persistence service", count);
+    }
+
+    private void stopCommitJob() {
+        ScheduledFuture<?> job = commitJob;
+        if (job != null) {
+            job.cancel(false);
+            commitJob = null;
+        }
+        // changed items must not be left behind when group commit is disabled
+        commitDirtyItems();
+    }
+
     @Override
     public String getId() {
         return SERVICE_ID;
@@ -162,8 +242,15 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream().map(this::deserialize).flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
+        Map<String, PersistenceItemInfo> items = new HashMap<>();
+        map.forEach((name, data) -> {
+            MapDbItem item = deserialize(name, data);
+            if (item != null) {
+                items.put(name, item);
+            }
+        });
+        items.putAll(dirtyItems);
+        return Set.copyOf(items.values());
     }
 
     @Override
@@ -186,43 +273,74 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(localAlias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
+
+        if (commitInterval > 0) {
+            // group commit: keep only the latest state and commit it together with other changes
+            dirtyItems.put(localAlias, mItem);
+            if (dirtyItems.size() >= commitThreshold && commitScheduled.compareAndSet(false, true)) {
+                threadPool.submit(this::commitDirtyItems);
+            }
+            return;
+        }
+
         threadPool.submit(() -> {
-            String json = serialize(mItem);
-            map.put(localAlias, json);
+            map.put(localAlias, serializer.serialize(mItem));
             db.commit();
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
+            logger.debug("Stored '{}' with state '{}' in MapDB database", localAlias, state);
         });
     }
 
+    /**
+     * Writes all changed items and commits them with a single commit.
+     */
+    private synchronized void commitDirtyItems() {
+        commitScheduled.set(false);
+        if (dirtyItems.isEmpty() || db == null || db.isClosed()) {
+            return;
+        }
+        int count = 0;
+        for (Map.Entry<String, MapDbItem> entry : dirtyItems.entrySet()) {
+            String name = entry.getKey();
+            MapDbItem item = entry.getValue();
+            map.put(name, serializer.serialize(item));
+            // a newer state stored in the meantime stays dirty, queries see the stored one until it is removed
+            dirtyItems.remove(name, item);
+            count++;
+        }
+        db.commit();
+        logger.debug("Committed {} changed items to MapDB database", count);
+    }
+
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        String name = filter.getItemName();
+        if (name == null) {
             return List.of();
         }
-        Optional<MapDbItem> item = deserialize(json);
-        return item.isPresent() ? List.of(item.get()) : List.of();
+        MapDbItem item = dirtyItems.get(name);
+        if (item == null) {
+            byte[] data = map.get(name);
+            item = data == null ? null : deserialize(name, data);
+        }
+        return item == null ? List.of() : List.of(item);
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private @Nullable MapDbItem deserialize(String name, byte[] data) {
+        MapDbItem item = serializer.deserialize(name, data);
+        if (item != null && logger.isDebugEnabled()) {
+            logger.debug("Deserialized '{}' with state '{}'", item.getName(), item.getState());
+        }
+        return item;
     }
 
     @SuppressWarnings("null")
-    private Optional<MapDbItem> deserialize(String json) {
+    private @Nullable MapDbItem deserializeJson(Gson mapper, String json) {
         MapDbItem item = mapper.fromJson(json, MapDbItem.class);
         if (item == null || !item.isValid()) {
             logger.warn("Deserialized invalid item: {}", item);
-            return Optional.empty();
-        } else if (logger.isDebugEnabled()) {
-            logger.debug("Deserialized '{}' with state '{}' from '{}'", item.getName(), item.getState(), json);
+            return null;
         }
-
-        return Optional.of(item);
-    }
-
-    private static <T> Stream<T> streamOptional(Optional<T> opt) {
-        return opt.isPresent() ? Stream.of(opt.get()) : Stream.empty();
+        return item;
     }
 
     @Override
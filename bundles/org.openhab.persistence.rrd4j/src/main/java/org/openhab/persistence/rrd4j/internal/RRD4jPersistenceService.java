@@ -20,6 +20,7 @@ import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -28,11 +29,15 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.DoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -44,6 +49,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -97,6 +103,7 @@ import org.slf4j.LoggerFactory;
  * @author Kai Kreuzer - Initial contribution
  * @author Jan N. Klug - some improvements
  * @author Karel Goderis - remove TimerThread dependency
+ * @author Cody Cutrer - batched writes
  */
 @NonNullByDefault
 @Component(service = { PersistenceService.class,
@@ -113,8 +120,25 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private record Point(long timestamp, double value) {
+    }
+
+    /**
+     * Statistics of a run of the store job, which writes all buffered values to the databases.
+     *
+     * @param time the time the run finished
+     * @param duration the time it took to write the values
+     * @param points the number of values written
+     * @param databases the number of databases written to
+     */
+    public record FlushStatistics(Instant time, Duration duration, int points, int databases) {
+    }
+
     public static final String SERVICE_ID = "rrd4j";
 
+    private static final String WRITE_THREADS_CONFIG = "writeThreads";
+    private static final int WRITE_THREADS_DEFAULT = 1;
+
     private static final String DEFAULT_OTHER = "default_other";
     private static final String DEFAULT_NUMERIC = "default_numeric";
     private static final String DEFAULT_QUANTIFIABLE = "default_quantifiable";
@@ -139,6 +163,15 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     private final ItemRegistry itemRegistry;
     private boolean active = false;
 
+    // guards the store job and the writer threads
+    private final Object storeLock = new Object();
+    private volatile int writeThreads = WRITE_THREADS_DEFAULT;
+    private @Nullable ExecutorService writeExecutor;
+
+    private volatile @Nullable FlushStatistics lastFlush;
+    private volatile Duration maxFlushDuration = Duration.ZERO;
+    private final AtomicLong flushCount = new AtomicLong();
+
     public static Path getDatabasePath(String name) {
         return DB_FOLDER.resolve(name + ".rrd");
     }
@@ -159,6 +192,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     @Modified
     protected void modified(final Map<String, Object> config) {
+        setWriteThreads(
+                ConfigParser.valueAsOrElse(config.get(WRITE_THREADS_CONFIG), Integer.class, WRITE_THREADS_DEFAULT));
+
         // clean existing definitions
         rrdDefs.clear();
 
@@ -210,8 +246,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         while (keys.hasNext()) {
             String key = keys.next();
 
-            if ("service.pid".equals(key) || "component.name".equals(key)) {
-                // ignore service.pid and name
+            if ("service.pid".equals(key) || "component.name".equals(key) || WRITE_THREADS_CONFIG.equals(key)) {
+                // ignore service.pid, name and the general options
                 continue;
             }
 
@@ -272,6 +308,32 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
         // make sure we really store everything
         doStore(true);
+        synchronized (storeLock) {
+            ExecutorService writeExecutor = this.writeExecutor;
+            if (writeExecutor != null) {
+                writeExecutor.shutdown();
+                this.writeExecutor = null;
+            }
+        }
+    }
+
+    private void setWriteThreads(int threads) {
+        int newThreads = Math.max(1, threads);
+        synchronized (storeLock) {
+            if (newThreads == writeThreads && (newThreads == 1 || writeExecutor != null)) {
+                return;
+            }
+            ExecutorService writeExecutor = this.writeExecutor;
+            if (writeExecutor != null) {
+                writeExecutor.shutdown();
+            }
+            // with a single thread, the values are written by the store job itself
+            this.writeExecutor = newThreads > 1
+                    ? Executors.newFixedThreadPool(newThreads, new NamedThreadFactory("RRD4j-writer"))
+                    : null;
+            writeThreads = newThreads;
+            logger.debug("Using {} thread(s) to write to rrd4j databases", newThreads);
+        }
     }
 
     @Override
@@ -338,21 +400,94 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     private void doStore(boolean force) {
-        long now = System.currentTimeMillis() / 1000;
-        while (!storageMap.isEmpty()) {
-            Key key = storageMap.firstKey();
-            if (now > key.timestamp || force) {
-                // no new elements can be added for this timestamp because we are already past that time or the service
-                // requires forced storing
-                Double value = storageMap.pollFirstEntry().getValue();
-                writePointToDatabase(key.name, value, key.timestamp);
+        synchronized (storeLock) {
+            long now = System.currentTimeMillis() / 1000;
+            // collect the values per database, the keys are ordered by timestamp so each batch is ordered as well
+            Map<String, List<Point>> batches = new HashMap<>();
+            int points = 0;
+            while (!storageMap.isEmpty()) {
+                Key key = storageMap.firstKey();
+                if (now > key.timestamp || force) {
+                    // no new elements can be added for this timestamp because we are already past that time or the
+                    // service requires forced storing
+                    Map.Entry<Key, Double> entry = storageMap.pollFirstEntry();
+                    batches.computeIfAbsent(entry.getKey().name, k -> new ArrayList<>())
+                            .add(new Point(entry.getKey().timestamp, entry.getValue()));
+                    points++;
+                } else {
+                    break;
+                }
+            }
+            if (batches.isEmpty()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            ExecutorService writeExecutor = this.writeExecutor;
+            if (writeExecutor == null || batches.size() == 1) {
+                batches.forEach(this::writeToDatabase);
             } else {
+                writeInParallel(batches, writeExecutor);
+            }
+            recordFlush(Duration.ofNanos(System.nanoTime() - start), points, batches.size());
+        }
+    }
+
+    /**
+     * Writes the batches with the writer threads. The databases are partitioned by name, so each database is
+     * written by a single thread.
+     */
+    private void writeInParallel(Map<String, List<Point>> batches, ExecutorService writeExecutor) {
+        List<List<Map.Entry<String, List<Point>>>> partitions = new ArrayList<>(writeThreads);
+        for (int i = 0; i < writeThreads; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Map.Entry<String, List<Point>> batch : batches.entrySet()) {
+            partitions.get(Math.floorMod(batch.getKey().hashCode(), writeThreads)).add(batch);
+        }
+
+        List<Future<?>> futures = new ArrayList<>(writeThreads);
+        for (List<Map.Entry<String, List<Point>>> partition : partitions) {
+            if (partition.isEmpty()) {
+                continue;
+            }
+            Runnable task = () -> partition.forEach(batch -> writeToDatabase(batch.getKey(), batch.getValue()));
+            try {
+                futures.add(writeExecutor.submit(task));
+            } catch (RejectedExecutionException e) {
+                // the writer threads have been shut down, write the values with this thread
+                task.run();
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 return;
+            } catch (ExecutionException e) {
+                logger.warn("Failed to write to rrd4j databases: {}", e.getMessage());
             }
         }
     }
 
-    private synchronized void writePointToDatabase(String name, double value, long timestamp) {
+    private void recordFlush(Duration duration, int points, int databases) {
+        lastFlush = new FlushStatistics(Instant.now(), duration, points, databases);
+        flushCount.incrementAndGet();
+        if (duration.compareTo(maxFlushDuration) > 0) {
+            maxFlushDuration = duration;
+        }
+        logger.debug("Stored {} value(s) in {} rrd4j database(s) in {} ms", points, databases, duration.toMillis());
+    }
+
+    /**
+     * Writes the values of one database. The database is opened only once and the same sample is used for all
+     * values.
+     *
+     * @param name the name of the database
+     * @param points the values ordered by timestamp
+     */
+    private void writeToDatabase(String name, List<Point> points) {
         RrdDb db = null;
         try {
             db = getDB(name, true);
@@ -363,47 +498,83 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
             return;
         }
 
-        ConsolFun function = getConsolidationFunction(db);
-        if (function != ConsolFun.AVERAGE) {
-            try {
-                // we store the last value again, so that the value change
-                // in the database is not interpolated, but
-                // happens right at this spot
-                if (timestamp - 1 > db.getLastUpdateTime()) {
-                    // only do it if there is not already a value
-                    double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
-                    if (!Double.isNaN(lastValue) && lastValue != value) {
-                        Sample sample = db.createSample(timestamp - 1);
-                        sample.setValue(DATASOURCE_STATE, lastValue);
-                        sample.update();
-                        logger.debug("Stored '{}' as value '{}' with timestamp {} in rrd4j database (again)", name,
-                                lastValue, timestamp - 1);
+        try {
+            ConsolFun function = getConsolidationFunction(db);
+            // counter values must be adjusted by stepsize
+            long factor = db.getDatasource(DATASOURCE_STATE).getType() == DsType.COUNTER ? db.getHeader().getStep()
+                    : 1;
+            Sample sample = db.createSample();
+            for (Point point : points) {
+                long timestamp = point.timestamp();
+                double value = point.value();
+                if (function != ConsolFun.AVERAGE) {
+                    try {
+                        // we store the last value again, so that the value change
+                        // in the database is not interpolated, but
+                        // happens right at this spot
+                        if (timestamp - 1 > db.getLastUpdateTime()) {
+                            // only do it if there is not already a value
+                            double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
+                            if (!Double.isNaN(lastValue) && lastValue != value) {
+                                sample.setTime(timestamp - 1);
+                                sample.setValue(DATASOURCE_STATE, lastValue);
+                                sample.update();
+                                logger.debug("Stored '{}' as value '{}' with timestamp {} in rrd4j database (again)",
+                                        name, lastValue, timestamp - 1);
+                            }
+                        }
+                    } catch (IOException e) {
+                        logger.debug("Error storing last value (again) for {}: {}", e.getMessage(), name);
                     }
                 }
-            } catch (IOException e) {
-                logger.debug("Error storing last value (again) for {}: {}", e.getMessage(), name);
+                try {
+                    double storeValue = value * factor;
+                    sample.setTime(timestamp);
+                    sample.setValue(DATASOURCE_STATE, storeValue);
+                    sample.update();
+                    logger.debug("Stored '{}' as value '{}' with timestamp {} in rrd4j database", name, storeValue,
+                            timestamp);
+                } catch (Exception e) {
+                    logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+                }
             }
-        }
-        try {
-            Sample sample = db.createSample(timestamp);
-            double storeValue = value;
-            if (db.getDatasource(DATASOURCE_STATE).getType() == DsType.COUNTER) {
-                // counter values must be adjusted by stepsize
-                storeValue = value * db.getHeader().getStep();
-            }
-            sample.setValue(DATASOURCE_STATE, storeValue);
-            sample.update();
-            logger.debug("Stored '{}' as value '{}' with timestamp {} in rrd4j database", name, storeValue, timestamp);
-        } catch (Exception e) {
-            logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
-        }
-        try {
-            db.close();
         } catch (IOException e) {
-            logger.debug("Error closing rrd4j database: {}", e.getMessage());
+            logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+        } finally {
+            try {
+                db.close();
+            } catch (IOException e) {
+                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+            }
         }
     }
 
+    /**
+     * @return the statistics of the last run of the store job which wrote any values, <code>null</code> if there was
+     *         none
+     */
+    public @Nullable FlushStatistics getLastFlush() {
+        return lastFlush;
+    }
+
+    /**
+     * @return the longest time a run of the store job took to write the values
+     */
+    public Duration getMaxFlushDuration() {
+        return maxFlushDuration;
+    }
+
+    /**
+     * @return the number of runs of the store job which wrote any values
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public int getWriteThreads() {
+        return writeThreads;
+    }
+
     @Override
     public void store(Item item) {
         store(item, null);
@@ -538,7 +709,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
+    // not synchronized, the pool makes sure a database is only opened once
+    protected @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
         RrdDb db = null;
         Path path = getDatabasePath(alias);
         try {
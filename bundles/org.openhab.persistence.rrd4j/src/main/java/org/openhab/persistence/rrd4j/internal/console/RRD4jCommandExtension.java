@@ -31,6 +31,7 @@ import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.persistence.PersistenceService;
 import org.openhab.core.persistence.PersistenceServiceRegistry;
 import org.openhab.persistence.rrd4j.internal.RRD4jPersistenceService;
+import org.openhab.persistence.rrd4j.internal.RRD4jPersistenceService.FlushStatistics;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -47,8 +48,9 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
     private static final String CMD_LIST = "list";
     private static final String CMD_CHECK = "check";
     private static final String CMD_CLEAN = "clean";
-    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(List.of(CMD_LIST, CMD_CHECK, CMD_CLEAN),
-            false);
+    private static final String CMD_STATS = "stats";
+    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(
+            List.of(CMD_LIST, CMD_CHECK, CMD_CLEAN, CMD_STATS), false);
 
     private final PersistenceServiceRegistry persistenceServiceRegistry;
     private final ItemRegistry itemRegistry;
@@ -81,6 +83,9 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
         } else if (args.length >= 1 && args.length <= 2 && CMD_CLEAN.equalsIgnoreCase(args[0])) {
             checkAndClean(persistenceService, console, args.length == 2 ? args[1] : null, false);
             return;
+        } else if (args.length == 1 && CMD_STATS.equalsIgnoreCase(args[0])) {
+            printStatistics(persistenceService, console);
+            return;
         }
         printUsage(console);
     }
@@ -94,6 +99,17 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
         return null;
     }
 
+    private void printStatistics(RRD4jPersistenceService persistenceService, Console console) {
+        console.println("Write threads: " + persistenceService.getWriteThreads());
+        console.println("Store runs: " + persistenceService.getFlushCount());
+        FlushStatistics lastFlush = persistenceService.getLastFlush();
+        if (lastFlush != null) {
+            console.println("Last store run: " + lastFlush.time() + ", " + lastFlush.points() + " values in "
+                    + lastFlush.databases() + " databases written in " + lastFlush.duration().toMillis() + " ms");
+            console.println("Slowest store run: " + persistenceService.getMaxFlushDuration().toMillis() + " ms");
+        }
+    }
+
     private void checkAndClean(RRD4jPersistenceService persistenceService, Console console, @Nullable String itemName,
             boolean checkOnly) {
         List<String> filenames;
@@ -140,7 +156,8 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
     public List<String> getUsages() {
         return List.of(buildCommandUsage(CMD_LIST, "list Round Robin Database files"),
                 buildCommandUsage(CMD_CHECK, "check for RRD files without existing item"),
-                buildCommandUsage(CMD_CLEAN + " [<itemName>]", "delete RRD files without existing item"));
+                buildCommandUsage(CMD_CLEAN + " [<itemName>]", "delete RRD files without existing item"),
+                buildCommandUsage(CMD_STATS, "show the timing of writing values to the RRD files"));
     }
 
     @Override
@@ -12,35 +12,79 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.openhab.core.types.UnDefType;
+import org.openhab.io.metrics.instrument.AddonMetrics;
+import org.openhab.io.metrics.instrument.MeteredCache;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import net.minidev.json.JSONValue;
+import net.minidev.json.parser.JSONParser;
+import net.minidev.json.parser.ParseException;
+
 /**
  * The implementation of a {@link TransformationService} which transforms the input by JSonPath Expressions.
  *
+ * Compiled expressions are kept in a bounded cache and every thread reuses its own JSON parser. Parsed
+ * sources are shared by a {@link ParsedDocumentCache}, so transforming the same source with several expressions
+ * only parses it once.
+ *
  * @author Gaël L'hopital - Initial contribution
  * @author Sebastian Janzen - Initial contribution
+ * @author Cody Cutrer - Metrics of the transformations
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 256;
+    private static final String METRIC_PREFIX = "openhab.transform.";
+    private static final Tags METRIC_TAGS = Tags.of("service", "JSONPATH");
+    private static final int DOCUMENT_CACHE_SIZE = 16;
+    private static final Duration DOCUMENT_CACHE_WINDOW = Duration.ofSeconds(1);
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Configuration configuration = Configuration.defaultConfiguration();
+    private final MeteredCache<String, JsonPath> pathCache = new MeteredCache<>(CACHE_SIZE);
+    private final ParsedDocumentCache documentCache = new ParsedDocumentCache(DOCUMENT_CACHE_SIZE,
+            DOCUMENT_CACHE_WINDOW);
+    // same settings as the default JsonSmartJsonProvider, parsers are not thread-safe
+    private final ThreadLocal<JSONParser> parser = ThreadLocal
+            .withInitial(() -> new JSONParser(JSONParser.MODE_PERMISSIVE));
+    private final AddonMetrics metrics = new AddonMetrics();
+    private volatile @Nullable Timer timer;
+
+    public JSonPathTransformationService() {
+        metrics.add(pathCache.meterBinder(METRIC_PREFIX + "cache", METRIC_TAGS));
+        metrics.add(this::bindTimer);
+    }
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -51,6 +95,19 @@ public class JSonPathTransformationService implements TransformationService {
      */
     @Override
     public @Nullable String transform(String jsonPathExpression, String source) throws TransformationException {
+        long start = System.nanoTime();
+        try {
+            return internalTransform(jsonPathExpression, source);
+        } finally {
+            Timer timer = this.timer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private @Nullable String internalTransform(String jsonPathExpression, String source)
+            throws TransformationException {
         if (jsonPathExpression == null || source == null) {
             throw new TransformationException("the given parameters 'JSonPath' and 'source' must not be null");
         }
@@ -62,7 +119,8 @@ public class JSonPathTransformationService implements TransformationService {
             return null;
         }
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            JsonPath jsonPath = pathCache.get(jsonPathExpression, this::compile);
+            Object transformationResult = jsonPath.read(documentCache.get(source, this::parse), configuration);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -78,6 +136,65 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private JsonPath compile(String jsonPathExpression) {
+        JsonPath jsonPath = JsonPath.compile(jsonPathExpression);
+        logger.debug("compiled '{}', {} cached", jsonPathExpression, getCacheSize());
+        return jsonPath;
+    }
+
+    private Object parse(String source) {
+        try {
+            return parser.get().parse(source, JSONValue.defaultReader.DEFAULT_ORDERED);
+        } catch (ParseException e) {
+            throw new InvalidJsonException(e);
+        }
+    }
+
+    private List<Meter> bindTimer(MeterRegistry meterRegistry) {
+        Timer timer = Timer.builder(METRIC_PREFIX + "duration").tags(METRIC_TAGS)
+                .description("Duration of the transformations").register(meterRegistry);
+        this.timer = timer;
+        return List.of(timer);
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+        timer = null;
+    }
+
+    /**
+     * @return the number of cached compiled expressions
+     */
+    public int getCacheSize() {
+        return pathCache.size();
+    }
+
+    /**
+     * @return the number of transformations which reused a compiled expression
+     */
+    public long getCacheHits() {
+        return pathCache.getHits();
+    }
+
+    /**
+     * @return the number of transformations which compiled their expression
+     */
+    public long getCacheMisses() {
+        return pathCache.getMisses();
+    }
+
+    /**
+     * @return the cache of parsed sources, for statistics
+     */
+    public ParsedDocumentCache getDocumentCache() {
+        return documentCache;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
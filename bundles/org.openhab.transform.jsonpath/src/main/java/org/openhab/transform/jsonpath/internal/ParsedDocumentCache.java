@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Keeps the parsed documents of recently transformed JSON sources for a short time.
+ *
+ * Things often extract many channels from the same payload, which results in one transformation per channel with
+ * the same source. Within the time window, the source is only parsed for the first transformation and all others
+ * evaluate their expression on the same document. The documents are only read, so they can be shared between
+ * threads.
+ *
+ * Sources are compared by their content, which is cheap if they are the same instance: the hash code of a string is
+ * only calculated once and equal instances are not compared character by character.
+ *
+ * @author Cody Cutrer - Initial contribution
+ */
+@NonNullByDefault
+public class ParsedDocumentCache {
+
+    private record Entry(Object document, long expiresAt) {
+    }
+
+    private final long windowNanos;
+    // insertion order is also expiration order
+    private final Map<String, Entry> documents;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param maxSize the maximum number of documents kept
+     * @param window the time a document is kept after parsing it
+     */
+    public ParsedDocumentCache(int maxSize, Duration window) {
+        this.windowNanos = window.toNanos();
+        documents = new LinkedHashMap<>(16, 0.75f, false) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed document of a source, parsing it if it has not been parsed within the time window.
+     *
+     * @param source the JSON source
+     * @param parser parses the source on a cache miss, is not called while the cache is locked
+     * @return the parsed document
+     */
+    public Object get(String source, Function<String, Object> parser) {
+        long now = System.nanoTime();
+        synchronized (documents) {
+            removeExpired(now);
+            @Nullable
+            Entry entry = documents.get(source);
+            if (entry != null) {
+                hitCount.incrementAndGet();
+                return entry.document();
+            }
+        }
+        missCount.incrementAndGet();
+        Object document = parser.apply(source);
+        synchronized (documents) {
+            // another thread may have parsed it meanwhile, re-insert to keep the expiration order
+            documents.remove(source);
+            documents.put(source, new Entry(document, now + windowNanos));
+        }
+        return document;
+    }
+
+    private void removeExpired(long now) {
+        Iterator<Entry> iterator = documents.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt() - now <= 0) {
+            iterator.remove();
+        }
+    }
+
+    public int size() {
+        synchronized (documents) {
+            return documents.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+}
@@ -129,4 +129,34 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testCompiledPathIsReused() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", JSON_ARRAY));
+        assertEquals("bob", processor.transform("$[0].name", JSON_ARRAY));
+        assertEquals("alice", processor.transform("$[1].name", JSON_ARRAY));
+
+        assertEquals(2, processor.getCacheSize());
+        assertEquals(1, processor.getCacheHits());
+        assertEquals(2, processor.getCacheMisses());
+    }
+
+    @Test
+    public void testSourceIsParsedOnceForSeveralExpressions() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", JSON_ARRAY));
+        assertEquals("2", processor.transform("$[1].id", JSON_ARRAY));
+        assertEquals("alice", processor.transform("$[1].name", new String(JSON_ARRAY)));
+        assertEquals("2", processor.transform("$.data", "{\"data\":2}"));
+
+        assertEquals(2, processor.getDocumentCache().size());
+        assertEquals(2, processor.getDocumentCache().getHitCount());
+        assertEquals(2, processor.getDocumentCache().getMissCount());
+    }
+
+    @Test
+    public void testInvalidJsonIsNotCached() {
+        assertThrows(TransformationException.class, () -> processor.transform("$", "{id:"));
+        assertThrows(TransformationException.class, () -> processor.transform("$", "{id:"));
+        assertEquals(0, processor.getDocumentCache().size());
+    }
 }
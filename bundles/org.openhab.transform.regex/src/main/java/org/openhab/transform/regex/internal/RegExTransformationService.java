@@ -12,17 +12,30 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.openhab.io.metrics.instrument.AddonMetrics;
+import org.openhab.io.metrics.instrument.MeteredCache;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by Regular Expressions.
@@ -30,7 +43,11 @@ import org.slf4j.LoggerFactory;
  * <p>
  * <b>Note:</b> the given Regular Expression must contain exactly one group!
  *
+ * <p>
+ * Compiled expressions are kept in a bounded cache.
+ *
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
+ * @author Cody Cutrer - Metrics of the transformations
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=REGEX" })
@@ -39,9 +56,39 @@ public class RegExTransformationService implements TransformationService {
     private final Logger logger = LoggerFactory.getLogger(RegExTransformationService.class);
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+    private static final int CACHE_SIZE = 256;
+    private static final String METRIC_PREFIX = "openhab.transform.";
+    private static final Tags METRIC_TAGS = Tags.of("service", "REGEX");
+
+    private final MeteredCache<String, RegExRule> ruleCache = new MeteredCache<>(CACHE_SIZE);
+    private final AddonMetrics metrics = new AddonMetrics();
+    private volatile @Nullable Timer timer;
+
+    public RegExTransformationService() {
+        metrics.add(ruleCache.meterBinder(METRIC_PREFIX + "cache", METRIC_TAGS));
+        metrics.add(this::bindTimer);
+    }
+
+    /**
+     * A compiled expression, either in the substitution form or a pattern which has to match the whole source.
+     */
+    private record RegExRule(Pattern pattern, @Nullable String substitution, boolean global) {
+    }
 
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
+        long start = System.nanoTime();
+        try {
+            return internalTransform(regExpression, source);
+        } finally {
+            Timer timer = this.timer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private @Nullable String internalTransform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
             throw new TransformationException("the given parameters 'regex' and 'source' must not be null");
         }
@@ -50,23 +97,20 @@ public class RegExTransformationService implements TransformationService {
 
         String result = "";
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        RegExRule rule = ruleCache.get(regExpression, this::compile);
+        String substitution = rule.substitution();
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if ("g".equals(options)) {
-                result = source.trim().replaceAll(regex, substitution);
+            Matcher substMatcher = rule.pattern().matcher(source.trim());
+            if (rule.global()) {
+                result = substMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
+                result = substMatcher.replaceFirst(substitution);
             }
+            return result;
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = rule.pattern().matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -94,4 +138,55 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    private RegExRule compile(String regExpression) {
+        RegExRule rule;
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            boolean global = "g".equals(substMatcher.group(3));
+            rule = new RegExRule(Pattern.compile(substMatcher.group(1)), substMatcher.group(2), global);
+        } else {
+            rule = new RegExRule(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null, false);
+        }
+        logger.debug("compiled '{}', {} cached", regExpression, getCacheSize());
+        return rule;
+    }
+
+    private List<Meter> bindTimer(MeterRegistry meterRegistry) {
+        Timer timer = Timer.builder(METRIC_PREFIX + "duration").tags(METRIC_TAGS)
+                .description("Duration of the transformations").register(meterRegistry);
+        this.timer = timer;
+        return List.of(timer);
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+        timer = null;
+    }
+
+    /**
+     * @return the number of cached compiled expressions
+     */
+    public int getCacheSize() {
+        return ruleCache.size();
+    }
+
+    /**
+     * @return the number of transformations which reused a compiled expression
+     */
+    public long getCacheHits() {
+        return ruleCache.getHits();
+    }
+
+    /**
+     * @return the number of transformations which compiled their expression
+     */
+    public long getCacheMisses() {
+        return ruleCache.getMisses();
+    }
 }
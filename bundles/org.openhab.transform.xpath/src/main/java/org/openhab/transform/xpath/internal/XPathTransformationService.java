@@ -13,57 +13,96 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.openhab.io.metrics.instrument.AddonMetrics;
+import org.openhab.io.metrics.instrument.MeteredCache;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Compiled expressions are kept in a bounded cache, every thread reuses its own document builder.
+ *
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
+ * @author Cody Cutrer - Metrics of the transformations
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 128;
+    private static final String METRIC_PREFIX = "openhab.transform.";
+    private static final Tags METRIC_TAGS = Tags.of("service", "XPATH");
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final MeteredCache<String, XPathExpression> expressionCache = new MeteredCache<>(CACHE_SIZE);
+    private final AddonMetrics metrics = new AddonMetrics();
+    private volatile @Nullable Timer timer;
+    // neither document builders nor XPath objects are thread-safe
+    private final ThreadLocal<@Nullable DocumentBuilder> documentBuilder = new ThreadLocal<>();
+    private final ThreadLocal<XPath> xpath = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    public XPathTransformationService() {
+        metrics.add(expressionCache.meterBinder(METRIC_PREFIX + "cache", METRIC_TAGS));
+        metrics.add(this::bindTimer);
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
+        long start = System.nanoTime();
+        try {
+            return internalTransform(xpathExpression, source);
+        } finally {
+            Timer timer = this.timer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private @Nullable String internalTransform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
             throw new TransformationException("the given parameters 'xpath' and 'source' must not be null");
         }
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
+        DocumentBuilder builder = null;
         StringReader stringReader = null;
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
-            domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-            domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-            domFactory.setXIncludeAware(false);
-            domFactory.setExpandEntityReferences(false);
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            builder = getDocumentBuilder();
 
             stringReader = new StringReader(source);
             InputSource inputSource = new InputSource(stringReader);
@@ -71,10 +110,13 @@ public class XPathTransformationService implements TransformationService {
 
             Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            XPathExpression expr = expressionCache.get(xpathExpression, this::compile);
 
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            String transformationResult;
+            // compiled expressions are not thread-safe either
+            synchronized (expr) {
+                transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
@@ -82,9 +124,74 @@ public class XPathTransformationService implements TransformationService {
         } catch (Exception e) {
             throw new TransformationException("transformation throws exceptions", e);
         } finally {
+            if (builder != null) {
+                builder.reset();
+            }
             if (stringReader != null) {
                 stringReader.close();
             }
         }
     }
+
+    private DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilder builder = documentBuilder.get();
+        if (builder == null) {
+            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+            // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
+            domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            domFactory.setXIncludeAware(false);
+            domFactory.setExpandEntityReferences(false);
+            domFactory.setNamespaceAware(true);
+            domFactory.setValidating(false);
+            builder = domFactory.newDocumentBuilder();
+            documentBuilder.set(builder);
+        }
+        return builder;
+    }
+
+    private XPathExpression compile(String xpathExpression) throws XPathExpressionException {
+        XPathExpression expr = xpath.get().compile(xpathExpression);
+        logger.debug("compiled '{}', {} cached", xpathExpression, getCacheSize());
+        return expr;
+    }
+
+    private List<Meter> bindTimer(MeterRegistry meterRegistry) {
+        Timer timer = Timer.builder(METRIC_PREFIX + "duration").tags(METRIC_TAGS)
+                .description("Duration of the transformations").register(meterRegistry);
+        this.timer = timer;
+        return List.of(timer);
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+        timer = null;
+    }
+
+    /**
+     * @return the number of cached compiled expressions
+     */
+    public int getCacheSize() {
+        return expressionCache.size();
+    }
+
+    /**
+     * @return the number of transformations which reused a compiled expression
+     */
+    public long getCacheHits() {
+        return expressionCache.getHits();
+    }
+
+    /**
+     * @return the number of transformations which compiled their expression
+     */
+    public long getCacheMisses() {
+        return expressionCache.getMisses();
+    }
 }
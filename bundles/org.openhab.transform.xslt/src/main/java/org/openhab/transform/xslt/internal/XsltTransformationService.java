@@ -15,9 +15,11 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -25,24 +27,54 @@ import javax.xml.transform.stream.StreamSource;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.OpenHAB;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.openhab.io.metrics.instrument.AddonMetrics;
+import org.openhab.io.metrics.instrument.MeteredCache;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XSLT.
  *
+ * <p>
+ * Compiled stylesheets are kept in a bounded cache. Since the cache key contains the modification time
+ * of the file, a changed stylesheet is compiled again.
+ *
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
+ * @author Cody Cutrer - Metrics of the transformations
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 32;
+    private static final String METRIC_PREFIX = "openhab.transform.";
+    private static final Tags METRIC_TAGS = Tags.of("service", "XSLT");
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final MeteredCache<String, Templates> templatesCache = new MeteredCache<>(CACHE_SIZE);
+    private final AddonMetrics metrics = new AddonMetrics();
+    private volatile @Nullable Timer timer;
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    public XsltTransformationService() {
+        metrics.add(templatesCache.meterBinder(METRIC_PREFIX + "cache", METRIC_TAGS));
+        metrics.add(this::bindTimer);
+    }
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -56,16 +88,30 @@ public class XsltTransformationService implements TransformationService {
      */
     @Override
     public @Nullable String transform(String filename, String source) throws TransformationException {
+        long start = System.nanoTime();
+        try {
+            return internalTransform(filename, source);
+        } finally {
+            Timer timer = this.timer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private @Nullable String internalTransform(String filename, String source) throws TransformationException {
         if (filename == null || source == null) {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        File xsl;
+        String cacheKey;
 
         try {
             String path = OpenHAB.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
                     + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            xsl = new File(path);
+            cacheKey = xsl.getAbsolutePath() + "@" + xsl.lastModified();
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -78,11 +124,9 @@ public class XsltTransformationService implements TransformationService {
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
-            transformer.transform(new StreamSource(xml), new StreamResult(out));
+            Templates templates = templatesCache.get(cacheKey, key -> compile(xsl));
+            templates.newTransformer().transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
@@ -92,4 +136,52 @@ public class XsltTransformationService implements TransformationService {
 
         return out.toString();
     }
+
+    private Templates compile(File xsl) throws TransformerConfigurationException {
+        Templates templates;
+        // factories are not thread-safe
+        synchronized (transformerFactory) {
+            templates = transformerFactory.newTemplates(new StreamSource(xsl));
+        }
+        logger.debug("compiled '{}', {} cached", xsl, getCacheSize());
+        return templates;
+    }
+
+    private List<Meter> bindTimer(MeterRegistry meterRegistry) {
+        Timer timer = Timer.builder(METRIC_PREFIX + "duration").tags(METRIC_TAGS)
+                .description("Duration of the transformations").register(meterRegistry);
+        this.timer = timer;
+        return List.of(timer);
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(meterRegistryProvider.getOHMeterRegistry());
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        metrics.setMeterRegistry(null);
+        timer = null;
+    }
+
+    /**
+     * @return the number of cached compiled stylesheets
+     */
+    public int getCacheSize() {
+        return templatesCache.size();
+    }
+
+    /**
+     * @return the number of transformations which reused a compiled stylesheet
+     */
+    public long getCacheHits() {
+        return templatesCache.getHits();
+    }
+
+    /**
+     * @return the number of transformations which compiled their stylesheet
+     */
+    public long getCacheMisses() {
+        return templatesCache.getMisses();
+    }
 }
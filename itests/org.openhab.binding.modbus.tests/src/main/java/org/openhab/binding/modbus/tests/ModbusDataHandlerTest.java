@@ -593,6 +593,36 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         // no datetime, conversion not possible without transformation
     }
 
+    @Test
+    public void testOnRegistersUnchangedDataIsSkipped() {
+        ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
+                "1.1", "default", ModbusConstants.ValueType.INT8, null,
+                new ModbusRegisterArray(new byte[] { 0, 0, 5, 6, 0, 0 }), null);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+
+        // identical data
+        assertThat(dataHandler.onReadResult(
+                new AsyncModbusReadResult(request, new ModbusRegisterArray(new byte[] { 0, 0, 5, 6, 0, 0 }))),
+                is(true));
+        // other registers and the low byte of the register change
+        assertThat(dataHandler.onReadResult(
+                new AsyncModbusReadResult(request, new ModbusRegisterArray(new byte[] { 1, 1, 5, 7, 1, 1 }))),
+                is(true));
+        // the high byte changes
+        assertThat(dataHandler.onReadResult(
+                new AsyncModbusReadResult(request, new ModbusRegisterArray(new byte[] { 1, 1, 4, 7, 1, 1 }))),
+                is(false));
+        assertThat(dataHandler.onReadResult(
+                new AsyncModbusReadResult(request, new ModbusRegisterArray(new byte[] { 1, 1, 4, 7, 1, 1 }))),
+                is(true));
+
+        // errors reset the data
+        dataHandler.handleReadError(new AsyncModbusFailure<>(request, new Exception("fooerror")));
+        assertThat(dataHandler.onReadResult(
+                new AsyncModbusReadResult(request, new ModbusRegisterArray(new byte[] { 1, 1, 4, 7, 1, 1 }))),
+                is(false));
+    }
+
     @Test
     public void testOnRegistersRealTransformation() {
         mockTransformation("MULTIPLY", new MultiplyTransformation());